@@ -0,0 +1,178 @@
+package com.assignment.fileextension.benchmark;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.service.ExtensionPolicyCache;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import com.assignment.fileextension.service.ExtensionService;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 벤치마크 공용 데이터
+ * 실제 업로드에서 볼 수 있는 파일명 분포와, 크기를 조절할 수 있는 차단 정책을 만듭니다.
+ * 같은 시드를 사용하므로 실행마다 같은 데이터가 생성됩니다.
+ */
+final class BenchmarkFixtures {
+
+    static final int NAME_COUNT = 1024;
+    private static final long SEED = 42L;
+    private static final String[] COMMON_EXTENSIONS = {"txt", "pdf", "png", "jpg", "docx", "xlsx", "zip", "csv"};
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz0123456789";
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 고정 확장자 7개를 모두 차단하고, 나머지는 임의의 커스텀 확장자로 채운 정책
+     */
+    static ExtensionPolicySnapshot policy(int size) {
+        Map<String, Boolean> fixed = new HashMap<>();
+        FileExtensionConstants.FIXED_EXTENSIONS.forEach(extension -> fixed.put(extension, true));
+
+        Random random = new Random(SEED);
+        Set<String> custom = new LinkedHashSet<>();
+        while (fixed.size() + custom.size() < size) {
+            String extension = randomToken(random, 2 + random.nextInt(5));
+            if (!FileExtensionConstants.FIXED_EXTENSIONS.contains(extension)) {
+                custom.add(extension);
+            }
+        }
+        return ExtensionPolicySnapshot.of(fixed, custom);
+    }
+
+    /**
+     * 정책 스냅샷만 고정으로 돌려주는 ExtensionService (DB, 이벤트 없이 검증 경로만 측정)
+     */
+    static ExtensionService extensionService(ExtensionPolicySnapshot policy) {
+        ExtensionPolicyCache cache = new ExtensionPolicyCache(null, null, null, null) {
+            @Override
+            public ExtensionPolicySnapshot current() {
+                return policy;
+            }
+        };
+        return new ExtensionService(null, null, null, null, cache, null);
+    }
+
+    /**
+     * 분포별 파일명. 약 10%는 차단된 확장자(exe)를 포함합니다.
+     */
+    static String[] fileNames(String distribution) {
+        Random random = new Random(SEED);
+        String[] names = new String[NAME_COUNT];
+        for (int i = 0; i < NAME_COUNT; i++) {
+            String extension = random.nextInt(10) == 0 ? "exe" : COMMON_EXTENSIONS[random.nextInt(COMMON_EXTENSIONS.length)];
+            names[i] = switch (distribution) {
+                case "short" -> randomToken(random, 1 + random.nextInt(8)) + "." + extension;
+                case "manyDots" -> manyDots(random, extension);
+                case "unicode" -> unicode(random, extension);
+                case "long" -> randomToken(random, 400 + random.nextInt(90)) + ".v" + random.nextInt(10) + "." + extension;
+                default -> throw new IllegalArgumentException("알 수 없는 분포: " + distribution);
+            };
+        }
+        return names;
+    }
+
+    private static String manyDots(Random random, String extension) {
+        StringBuilder name = new StringBuilder(randomToken(random, 6));
+        int dots = 3 + random.nextInt(8);
+        for (int i = 0; i < dots; i++) {
+            // 버전 번호(숫자 토큰), 공백이 섞인 토큰, 일반 토큰을 섞음
+            switch (random.nextInt(3)) {
+                case 0 -> name.append('.').append(random.nextInt(100));
+                case 1 -> name.append(". ").append(randomToken(random, 3)).append(' ');
+                default -> name.append('.').append(randomToken(random, 1 + random.nextInt(6)));
+            }
+        }
+        return name.append('.').append(extension).toString();
+    }
+
+    private static String unicode(Random random, String extension) {
+        String[] bases = {"보고서_최종본", "naïve café", "データ集計", "отчёт", "ｆｕｌｌｗｉｄｔｈ", "résumé (1)"};
+        String base = bases[random.nextInt(bases.length)];
+        // 일부는 확장자 토큰 자체에 비 ASCII 문자를 포함
+        return random.nextInt(4) == 0
+                ? base + ".백업." + extension
+                : base + "." + extension;
+    }
+
+    private static String randomToken(Random random, int length) {
+        StringBuilder token = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            token.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return token.toString();
+    }
+
+    /**
+     * 메모리 내용으로 동작하는 MultipartFile (spring-test 의존 없이 사용)
+     */
+    static final class InMemoryMultipartFile implements MultipartFile {
+        private final String originalFilename;
+        private final byte[] content;
+
+        InMemoryMultipartFile(String originalFilename, byte[] content) {
+            this.originalFilename = originalFilename;
+            this.content = content;
+        }
+
+        @Override
+        public String getName() {
+            return "file";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return originalFilename;
+        }
+
+        @Override
+        public String getContentType() {
+            return "application/octet-stream";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return content.length == 0;
+        }
+
+        @Override
+        public long getSize() {
+            return content.length;
+        }
+
+        @Override
+        public byte[] getBytes() {
+            return content;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            Files.write(dest.toPath(), content);
+        }
+    }
+
+    static List<MultipartFile> multipartFiles(String[] fileNames, byte[] content) {
+        List<MultipartFile> files = new ArrayList<>(fileNames.length);
+        for (String fileName : fileNames) {
+            files.add(new InMemoryMultipartFile(fileName, content));
+        }
+        return files;
+    }
+}
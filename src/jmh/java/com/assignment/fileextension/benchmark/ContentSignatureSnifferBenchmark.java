@@ -0,0 +1,72 @@
+package com.assignment.fileextension.benchmark;
+
+import com.assignment.fileextension.service.ContentSignatureSniffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 내용 시그니처 검사 비용 측정
+ * 파일 크기(4KB ~ 100MB)가 달라도 앞부분만 읽으므로 파일당 비용이 일정해야 합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ContentSignatureSnifferBenchmark {
+
+    @Param({"4096", "10485760", "104857600"})
+    private long fileSize;
+
+    @Param({"pe", "text"})
+    private String content;
+
+    private ContentSignatureSniffer sniffer;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sniffer = new ContentSignatureSniffer();
+        file = Files.createTempFile("sniff-bench", ".bin");
+
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if ("pe".equals(content)) {
+                // e_lfanew(0x3C)가 0x80 의 PE 서명을 가리키는 최소 헤더
+                raf.write(new byte[]{'M', 'Z'});
+                raf.seek(0x3C);
+                raf.write(0x80);
+                raf.seek(0x80);
+                raf.write(new byte[]{'P', 'E', 0, 0});
+            } else {
+                raf.write("plain text document\n".getBytes());
+            }
+            // 나머지는 희소 파일로 채워 디스크를 쓰지 않고 크기만 맞춤
+            raf.setLength(fileSize);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public ContentSignatureSniffer.DetectedContent sniffFile() throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            return sniffer.sniff(inputStream);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.assignment.fileextension.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.UrlResource;
+import org.springframework.util.StreamUtils;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 다운로드 전송 비용 비교 (GB 당 CPU 시간)
+ * <ul>
+ *     <li>resourceCopy: 기존 경로. UrlResource 스트림을 8KB 버퍼로 복사 (ResourceHttpMessageConverter 와 같은 방식)</li>
+ *     <li>transferTo: FileChannel.transferTo 로 커널에서 바로 전송 (sendfile)</li>
+ * </ul>
+ * 두 경로 모두 /dev/null 로 보내 디스크/네트워크 대신 복사 비용만 남깁니다.
+ * 보조 카운터 cpuNanos / bytes 에 2^30 을 곱하면 GB 당 CPU 나노초입니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DownloadTransferBenchmark {
+
+    private static final Path DEV_NULL = Paths.get("/dev/null");
+
+    @Param({"1048576", "67108864"})
+    private int fileSize;
+
+    private Path file;
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class CpuCounters {
+        public long cpuNanos;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cpuNanos = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+        file = Files.createTempFile("bench-download", ".bin");
+        Files.write(file, content);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long resourceCopy(CpuCounters counters) throws IOException {
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        Resource resource = new UrlResource(file.toUri());
+        long copied;
+        try (InputStream inputStream = resource.getInputStream();
+             FileOutputStream outputStream = new FileOutputStream(DEV_NULL.toFile())) {
+            copied = StreamUtils.copy(inputStream, outputStream);
+        }
+        record(counters, cpuStart, copied);
+        return copied;
+    }
+
+    @Benchmark
+    public long transferTo(CpuCounters counters) throws IOException {
+        long cpuStart = threadMXBean.getCurrentThreadCpuTime();
+        long transferred = 0;
+        try (FileChannel source = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel target = FileChannel.open(DEV_NULL, StandardOpenOption.WRITE)) {
+            long size = source.size();
+            while (transferred < size) {
+                transferred += source.transferTo(transferred, size - transferred, target);
+            }
+        }
+        record(counters, cpuStart, transferred);
+        return transferred;
+    }
+
+    private void record(CpuCounters counters, long cpuStart, long bytes) {
+        counters.cpuNanos += threadMXBean.getCurrentThreadCpuTime() - cpuStart;
+        counters.bytes += bytes;
+    }
+}
@@ -0,0 +1,57 @@
+package com.assignment.fileextension.benchmark;
+
+import com.assignment.fileextension.service.ExtensionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExtensionService.isExtensionBlocked 측정 (확장자 확인 API 경로)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ExtensionBlockCheckBenchmark {
+
+    @Param({"7", "200", "5000"})
+    private int policySize;
+
+    @Param({"short", "manyDots", "unicode", "long"})
+    private String distribution;
+
+    private ExtensionService extensionService;
+    private String[] fileNames;
+    private Map<String, Boolean> fixedExtensionStates;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        extensionService = BenchmarkFixtures.extensionService(BenchmarkFixtures.policy(policySize));
+        fileNames = BenchmarkFixtures.fileNames(distribution);
+        fixedExtensionStates = Map.of("exe", true, "bat", false);
+    }
+
+    @Benchmark
+    public boolean isExtensionBlocked() {
+        return extensionService.isExtensionBlocked(nextFileName(), (Map<String, Boolean>) null);
+    }
+
+    @Benchmark
+    public boolean isExtensionBlockedWithFixedStates() {
+        return extensionService.isExtensionBlocked(nextFileName(), fixedExtensionStates);
+    }
+
+    private String nextFileName() {
+        String fileName = fileNames[cursor];
+        cursor = (cursor + 1) & (BenchmarkFixtures.NAME_COUNT - 1);
+        return fileName;
+    }
+}
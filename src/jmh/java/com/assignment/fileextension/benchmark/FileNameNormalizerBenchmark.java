@@ -0,0 +1,68 @@
+package com.assignment.fileextension.benchmark;
+
+import com.assignment.fileextension.service.ExtensionMatcher;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import com.assignment.fileextension.service.FileNameNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파일명 정규화 비용 측정
+ * ASCII 파일명(short, manyDots, long)은 정규화 유무에 따른 차이가 거의 없어야 하며,
+ * 비 ASCII 파일명(unicode)만 NFKC 비용을 부담합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FileNameNormalizerBenchmark {
+
+    @Param({"short", "manyDots", "unicode", "long"})
+    private String distribution;
+
+    private String[] fileNames;
+    private ExtensionPolicySnapshot policy;
+    private ExtensionMatcher matcher;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        fileNames = BenchmarkFixtures.fileNames(distribution);
+        policy = BenchmarkFixtures.policy(200);
+        matcher = policy.getMatcher();
+    }
+
+    @Benchmark
+    public String normalize() {
+        return FileNameNormalizer.normalize(nextFileName());
+    }
+
+    /**
+     * 기준선: 정규화 없이 매처만 실행
+     */
+    @Benchmark
+    public String matchWithoutNormalization() {
+        return matcher.findBlockedToken(nextFileName());
+    }
+
+    /**
+     * 실제 검증 경로: 정규화 후 매처 실행
+     */
+    @Benchmark
+    public String matchWithNormalization() {
+        return policy.findBlockedExtension(nextFileName());
+    }
+
+    private String nextFileName() {
+        String fileName = fileNames[cursor];
+        cursor = (cursor + 1) & (BenchmarkFixtures.NAME_COUNT - 1);
+        return fileName;
+    }
+}
@@ -0,0 +1,55 @@
+package com.assignment.fileextension.benchmark;
+
+import com.assignment.fileextension.service.ArchiveInspector;
+import com.assignment.fileextension.service.ContentSignatureSniffer;
+import com.assignment.fileextension.service.FileValidationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FileValidationService.validateFile 측정 (업로드 검증 경로)
+ * 파일 내용은 작은 텍스트로 고정해 파일명 검사와 시그니처 검사 비용만 측정합니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FileValidationBenchmark {
+
+    @Param({"7", "200", "5000"})
+    private int policySize;
+
+    @Param({"short", "manyDots", "unicode", "long"})
+    private String distribution;
+
+    private FileValidationService fileValidationService;
+    private List<MultipartFile> files;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        fileValidationService = new FileValidationService(
+                BenchmarkFixtures.extensionService(BenchmarkFixtures.policy(policySize)),
+                new ContentSignatureSniffer(),
+                new ArchiveInspector());
+        byte[] content = "quarterly report\nline 2\n".repeat(16).getBytes(StandardCharsets.UTF_8);
+        files = BenchmarkFixtures.multipartFiles(BenchmarkFixtures.fileNames(distribution), content);
+    }
+
+    @Benchmark
+    public FileValidationService.FileValidationResult validateFile() {
+        MultipartFile file = files.get(cursor);
+        cursor = (cursor + 1) & (BenchmarkFixtures.NAME_COUNT - 1);
+        return fileValidationService.validateFile(file);
+    }
+}
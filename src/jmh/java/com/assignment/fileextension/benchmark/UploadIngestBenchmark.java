@@ -0,0 +1,136 @@
+package com.assignment.fileextension.benchmark;
+
+import com.assignment.fileextension.service.MultipartStreamParser;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 업로드 저장 경로 비교 (처리량과 임시 디스크 쓰기량)
+ * <ul>
+ *     <li>spooled: 기존 경로. 파트를 임시 파일에 받은 뒤 최종 위치로 Files.copy</li>
+ *     <li>streaming: multipart 본문을 파싱하면서 최종 위치에 바로 기록</li>
+ * </ul>
+ * tempBytes 보조 카운터가 임시 파일에 쓴 바이트 수를 보여줍니다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class UploadIngestBenchmark {
+
+    private static final String BOUNDARY = "----BenchmarkBoundary7MA4YWxkTrZu0gW";
+
+    @Param({"65536", "8388608"})
+    private int fileSize;
+
+    private byte[] requestBody;
+    private Path tempDir;
+    private Path uploadDir;
+    private long sequence;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class DiskCounters {
+        public long tempBytes;
+        public long finalBytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tempBytes = 0;
+            finalBytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] content = new byte[fileSize];
+        new Random(42).nextBytes(content);
+
+        ByteArrayOutputStream body = new ByteArrayOutputStream(fileSize + 512);
+        body.write(("--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"data.bin\"\r\n"
+                + "Content-Type: application/octet-stream\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+        body.write(content);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        requestBody = body.toByteArray();
+
+        tempDir = Files.createTempDirectory("bench-spool");
+        uploadDir = Files.createTempDirectory("bench-uploads");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        deleteRecursively(tempDir);
+        deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public long spooled(DiskCounters counters) throws IOException {
+        MultipartStreamParser.Part part = firstPart();
+        Path spoolFile = tempDir.resolve("upload_" + (sequence++) + ".tmp");
+        long size = Files.copy(part.body(), spoolFile);
+        counters.tempBytes += size;
+
+        Path target = nextTarget();
+        try (InputStream inputStream = Files.newInputStream(spoolFile)) {
+            counters.finalBytes += Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        Files.delete(spoolFile);
+        Files.delete(target);
+        return size;
+    }
+
+    @Benchmark
+    public long streaming(DiskCounters counters) throws IOException {
+        MultipartStreamParser.Part part = firstPart();
+        Path target = nextTarget();
+        long size;
+        try (OutputStream outputStream = Files.newOutputStream(target)) {
+            size = part.body().transferTo(outputStream);
+        }
+        counters.finalBytes += size;
+        Files.delete(target);
+        return size;
+    }
+
+    private MultipartStreamParser.Part firstPart() throws IOException {
+        return new MultipartStreamParser(new ByteArrayInputStream(requestBody), BOUNDARY).nextPart();
+    }
+
+    private Path nextTarget() {
+        return uploadDir.resolve("stored_" + (sequence++) + ".bin");
+    }
+
+    private static void deleteRecursively(Path root) throws IOException {
+        if (root == null || !Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
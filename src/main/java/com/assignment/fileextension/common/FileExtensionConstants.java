@@ -25,6 +25,19 @@ public final class FileExtensionConstants {
         public static final int MAX_CUSTOM_EXTENSIONS = 200;
         public static final int MAX_EXTENSION_NAME_LENGTH = 20;
         public static final long MAX_FILE_SIZE_BYTES = 100 * 1024 * 1024L; // 100MB
+        public static final long MULTIPART_OVERHEAD_BYTES = 64 * 1024L; // multipart 경계/헤더 여유분
+        public static final int CONTENT_SNIFF_BYTES = 4 * 1024; // 내용 판별 시 읽는 앞부분 크기
+        public static final int MAX_BATCH_CHECK_FILES = 10_000; // JSON 일괄 확인 요청당 최대 파일명 수
+        public static final int PARALLEL_CHECK_THRESHOLD = 2_000; // 이 이상이면 병렬로 확인
+        public static final int BATCH_CHECK_CHUNK_SIZE = PARALLEL_CHECK_THRESHOLD; // NDJSON 스트림을 나눠 처리하는 단위 (가득 찬 청크는 병렬로 확인)
+        public static final int MAX_NDJSON_LINE_LENGTH = 1024; // NDJSON 한 줄 최대 길이 (255자 파일명을 JSON 으로 감싸고 escape 해도 충분)
+        public static final int MAX_ARCHIVE_ENTRIES = 10_000; // 압축 파일 검사 시 최대 항목 수 (중첩 포함)
+        public static final int MAX_ARCHIVE_DEPTH = 3; // 압축 파일 최대 중첩 깊이
+        public static final int MAX_ARCHIVE_COMPRESSION_RATIO = 100; // 항목별 최대 압축률
+        public static final long MAX_ARCHIVE_INFLATED_BYTES = 1024 * 1024 * 1024L; // 검사 중 풀 수 있는 최대 크기 (1GB)
+        public static final long MAX_NESTED_ARCHIVE_BYTES = 64 * 1024 * 1024L; // 스트림으로 검사하는 중첩 압축 파일의 최대 크기
+        public static final int UPLOAD_CHUNK_SIZE = 8 * 1024 * 1024; // 재개 가능한 업로드의 청크 크기 (8MB)
+        public static final long UPLOAD_SESSION_TTL_HOURS = 24; // 업로드 세션 유효 시간
         
         private FileLimit() {}
     }
@@ -35,7 +48,16 @@ public final class FileExtensionConstants {
     public static final class Messages {
         public static final String FILE_BLOCKED = "차단된 확장자가 포함되어 있습니다";
         public static final String FILE_TOO_LARGE = "파일 크기가 최대 허용 크기(100MB)를 초과했습니다";
+        public static final String FILE_SIZE_LIMIT_EXCEEDED = "파일 크기가 최대 허용 크기(%d bytes)를 초과합니다.";
         public static final String INVALID_FILENAME = "파일명이 올바르지 않습니다";
+        public static final String CONTENT_BLOCKED = "파일 내용이 차단된 형식입니다";
+        public static final String BATCH_CHECK_LIMIT_EXCEEDED = "한 번에 확인할 수 있는 파일명은 최대 " + FileLimit.MAX_BATCH_CHECK_FILES + "개입니다";
+        public static final String ARCHIVE_ENTRY_BLOCKED = "압축 파일 내부에 차단된 확장자가 포함되어 있습니다";
+        public static final String ARCHIVE_SUSPICIOUS = "압축 파일을 안전하게 검사할 수 없습니다";
+        public static final String CONTENT_UNREADABLE = "파일 내용을 확인할 수 없습니다";
+        public static final String UPLOAD_SESSION_NOT_FOUND = "업로드 세션을 찾을 수 없거나 만료되었습니다";
+        public static final String UPLOAD_SESSION_INCOMPLETE = "아직 받지 못한 청크가 있습니다";
+        public static final String INVALID_CHUNK = "청크 번호 또는 크기가 올바르지 않습니다";
         public static final String EXTENSION_NOT_FOUND = "해당 확장자를 찾을 수 없습니다";
         public static final String EXTENSION_ALREADY_EXISTS = "이미 등록된 확장자입니다";
         public static final String MAX_EXTENSIONS_EXCEEDED = "커스텀 확장자는 최대 " + FileLimit.MAX_CUSTOM_EXTENSIONS + "개까지 추가 가능합니다";
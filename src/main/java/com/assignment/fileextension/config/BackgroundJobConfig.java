@@ -0,0 +1,38 @@
+package com.assignment.fileextension.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 백그라운드 작업 실행 설정
+ */
+@Configuration
+public class BackgroundJobConfig {
+
+    /**
+     * 작업 실행기. 정리 작업끼리 DB 와 디스크를 두고 경쟁하지 않도록 한 번에 하나씩 실행합니다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor backgroundJobExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("job-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * 물리 파일 삭제 실행기. unlink 는 대부분 메타데이터 I/O 대기이므로 여러 개를 동시에 진행합니다.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor fileUnlinkExecutor(@Value("${app.jobs.unlink-parallelism:4}") int parallelism) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(parallelism);
+        executor.setMaxPoolSize(parallelism);
+        executor.setThreadNamePrefix("unlink-");
+        return executor;
+    }
+}
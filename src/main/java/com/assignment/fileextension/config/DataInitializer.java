@@ -2,7 +2,9 @@ package com.assignment.fileextension.config;
 
 import com.assignment.fileextension.common.FileExtensionConstants;
 import com.assignment.fileextension.entity.FixedExtensionSetting;
+import com.assignment.fileextension.entity.PolicyVersion;
 import com.assignment.fileextension.repository.FixedExtensionSettingRepository;
+import com.assignment.fileextension.repository.PolicyVersionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
@@ -14,10 +16,19 @@ import org.springframework.stereotype.Component;
 public class DataInitializer implements CommandLineRunner {
     
     private final FixedExtensionSettingRepository fixedExtensionSettingRepository;
+    private final PolicyVersionRepository policyVersionRepository;
     
     @Override
     public void run(String... args) throws Exception {
         initializeFixedExtensions();
+        initializePolicyVersion();
+    }
+    
+    private void initializePolicyVersion() {
+        if (!policyVersionRepository.existsById(PolicyVersion.SINGLETON_ID)) {
+            policyVersionRepository.save(PolicyVersion.initial(0L));
+            log.info("확장자 정책 버전 초기 데이터 생성 완료");
+        }
     }
     
     private void initializeFixedExtensions() {
@@ -0,0 +1,63 @@
+package com.assignment.fileextension.config;
+
+import com.assignment.fileextension.filter.UploadPreCheckFilter;
+import com.assignment.fileextension.service.AuditService;
+import com.assignment.fileextension.service.FileValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * 업로드 요청 처리 설정
+ */
+@Configuration
+public class UploadConfig {
+
+    private static final String STREAM_UPLOAD_PATH = "/api/upload/stream";
+
+    /**
+     * 업로드 엔드포인트에만 본문 수신 전 차단 필터를 적용합니다.
+     */
+    @Bean
+    public FilterRegistrationBean<UploadPreCheckFilter> uploadPreCheckFilter(FileValidationService fileValidationService,
+                                                                             AuditService auditService,
+                                                                             ObjectMapper objectMapper,
+                                                                             @Value("${app.file.max-size:10485760}") long maxFileSize) {
+        FilterRegistrationBean<UploadPreCheckFilter> registration = new FilterRegistrationBean<>(
+                new UploadPreCheckFilter(fileValidationService, auditService, objectMapper, maxFileSize));
+        registration.addUrlPatterns("/api/upload/file", STREAM_UPLOAD_PATH);
+        return registration;
+    }
+
+    /**
+     * 스트리밍 업로드 경로는 컨트롤러가 본문을 직접 파싱하므로, 기본 multipart 처리(임시 파일 저장)를 건너뜁니다.
+     */
+    @Bean
+    public StandardServletMultipartResolver multipartResolver() {
+        UrlPathHelper urlPathHelper = new UrlPathHelper();
+        return new StandardServletMultipartResolver() {
+            @Override
+            public boolean isMultipart(HttpServletRequest request) {
+                return !STREAM_UPLOAD_PATH.equals(urlPathHelper.getPathWithinApplication(request))
+                        && super.isMultipart(request);
+            }
+        };
+    }
+
+    /**
+     * Tomcat 은 기본적으로 Expect: 100-continue 요청에 바로 100 Continue 를 보냅니다.
+     * 애플리케이션이 본문을 읽을 때 보내도록 바꿔, 필터에서 거절한 요청은 본문이 전송되지 않게 합니다.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> continueOnReadCustomizer() {
+        return factory -> factory.addConnectorCustomizers(
+                connector -> connector.setProperty("continueResponseTiming", "onRead"));
+    }
+}
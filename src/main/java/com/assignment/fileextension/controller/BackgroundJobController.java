@@ -0,0 +1,39 @@
+package com.assignment.fileextension.controller;
+
+import com.assignment.fileextension.dto.BackgroundJobDto;
+import com.assignment.fileextension.service.PurgeJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Tag(name = "백그라운드 작업", description = "확장자 차단 후 기존 파일 정리 등 비동기 작업 조회 API")
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class BackgroundJobController {
+    
+    private final PurgeJobService purgeJobService;
+    
+    @Operation(summary = "작업 진행 상황 조회")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "조회 성공"),
+            @ApiResponse(responseCode = "404", description = "작업을 찾을 수 없음")
+    })
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BackgroundJobDto> getJob(
+            @Parameter(description = "작업 ID", required = true)
+            @PathVariable Long jobId) {
+        
+        BackgroundJobDto job = purgeJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+}
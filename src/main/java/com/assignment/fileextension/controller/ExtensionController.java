@@ -2,12 +2,21 @@ package com.assignment.fileextension.controller;
 
 import com.assignment.fileextension.common.FileExtensionConstants;
 import com.assignment.fileextension.dto.CustomExtensionDto;
+import com.assignment.fileextension.dto.ExtensionBulkRequest;
+import com.assignment.fileextension.dto.ExtensionBulkResultDto;
+import com.assignment.fileextension.dto.ExtensionCheckBatchRequest;
+import com.assignment.fileextension.dto.ExtensionCheckResultDto;
 import com.assignment.fileextension.dto.ExtensionRequest;
 import com.assignment.fileextension.dto.FixedExtensionSettingDto;
+import com.assignment.fileextension.dto.PolicyVersionDto;
 import com.assignment.fileextension.exception.ExtensionNotFoundException;
+import com.assignment.fileextension.service.ExtensionCheckService;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
 import com.assignment.fileextension.service.ExtensionService;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,11 +24,20 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +49,10 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class ExtensionController {
     
+    private static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    
     private final ExtensionService extensionService;
+    private final ExtensionCheckService extensionCheckService;
     private final ObjectMapper objectMapper;
     //고정확장자 설정 조회 (체크인지 언체크인지)
     @Operation(summary = "고정 확장자 설정 상태 목록 조회")
@@ -103,6 +124,21 @@ public class ExtensionController {
         return ResponseEntity.ok().build();
     }
     
+    @Operation(summary = "확장자 정책 일괄 변경",
+            description = "고정 확장자 상태 변경과 커스텀 확장자 추가/삭제를 한 번에 적용합니다. "
+                    + "새로 차단된 확장자의 기존 파일은 한 번에 정리됩니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "변경 성공",
+                    content = @Content(schema = @Schema(implementation = ExtensionBulkResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "잘못된 요청 (중복된 확장자, 최대 개수 초과 등)"),
+            @ApiResponse(responseCode = "404", description = "해당 확장자를 찾을 수 없음")
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<ExtensionBulkResultDto> applyBulkChange(@RequestBody ExtensionBulkRequest request) {
+        ExtensionBulkResultDto result = extensionService.applyBulkChange(request);
+        return ResponseEntity.ok(result);
+    }
+    
     @Operation(summary = "파일 확장자 차단 여부 확인", description = "주어진 파일명의 확장자가 차단되었는지 확인합니다.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "확인 완료")
@@ -120,6 +156,143 @@ public class ExtensionController {
         return ResponseEntity.ok(createBlockedResponse(isBlocked));
     }
     
+    @Operation(summary = "파일명 일괄 차단 확인",
+            description = "여러 파일명을 하나의 정책 스냅샷으로 확인합니다. (최대 " 
+                    + FileExtensionConstants.FileLimit.MAX_BATCH_CHECK_FILES + "개)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "확인 완료",
+                    content = @Content(schema = @Schema(implementation = ExtensionCheckResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "잘못된 요청 (파일명 목록 누락, 최대 개수 초과)")
+    })
+    @PostMapping(value = "/check/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<List<ExtensionCheckResultDto>> checkExtensions(
+            @Valid @RequestBody ExtensionCheckBatchRequest request) {
+        
+        List<ExtensionCheckResultDto> results = extensionCheckService.checkFileNames(
+                request.getFileNames(), request.getFixedExtensionStates());
+        return ResponseEntity.ok(results);
+    }
+    
+    @Operation(summary = "파일명 일괄 차단 확인 (NDJSON 스트림)",
+            description = "한 줄에 파일명 하나(문자열, JSON 문자열 또는 {\"fileName\": ...})를 받아 "
+                    + "한 줄에 결과 하나씩 스트림으로 응답합니다. 개수 제한이 없습니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "확인 결과 스트림")
+    })
+    @PostMapping(value = "/check/batch", consumes = APPLICATION_NDJSON_VALUE, produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> checkExtensionsStream(
+            @Parameter(description = "고정 확장자 차단 상태 (JSON)", example = "{\"exe\":true,\"bat\":false}")
+            @RequestParam(required = false) String fixedExtensionStates,
+            HttpServletRequest request) {
+        
+        // 고정 확장자 상태는 요청당 한 번만 파싱해 스냅샷에 반영
+        ExtensionPolicySnapshot policy = extensionCheckService.resolvePolicy(
+                parseFixedExtensionStatesIfPresent(fixedExtensionStates));
+        
+        StreamingResponseBody body = outputStream -> streamCheckResults(request, policy, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .header("X-Policy-Version", String.valueOf(policy.getVersion()))
+                .body(body);
+    }
+    
+    @Operation(summary = "노드별 정책 버전 조회", description = "응답한 노드가 적용 중인 정책 버전과 반영 지연 시간을 확인합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "조회 성공",
+                    content = @Content(schema = @Schema(implementation = PolicyVersionDto.class)))
+    })
+    @GetMapping("/policy/version")
+    public ResponseEntity<PolicyVersionDto> getPolicyVersion() {
+        PolicyVersionDto policyVersion = extensionService.getPolicyVersion();
+        return ResponseEntity.ok()
+                .header("X-Policy-Version", String.valueOf(policyVersion.getVersion()))
+                .body(policyVersion);
+    }
+    
+    /**
+     * 요청 본문을 줄 단위로 읽어 일정 개수씩 확인하고, 결과를 바로 응답으로 내보냅니다.
+     * 요청 전체를 메모리에 올리지 않으므로 파일명 수에 제한이 없으며,
+     * 한 줄도 한도까지만 담아 두고 넘는 줄은 잘못된 파일명으로 응답합니다.
+     */
+    private void streamCheckResults(HttpServletRequest request, ExtensionPolicySnapshot policy,
+                                    OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ExtensionCheckResultDto.class);
+        List<String> chunk = new ArrayList<>(FileExtensionConstants.FileLimit.BATCH_CHECK_CHUNK_SIZE);
+        
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = readBoundedLine(reader, FileExtensionConstants.FileLimit.MAX_NDJSON_LINE_LENGTH)) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                chunk.add(line.length() > FileExtensionConstants.FileLimit.MAX_NDJSON_LINE_LENGTH
+                        ? null : parseNdjsonFileName(line));
+                
+                if (chunk.size() >= FileExtensionConstants.FileLimit.BATCH_CHECK_CHUNK_SIZE) {
+                    writeCheckResults(writer, extensionCheckService.checkFileNames(policy, chunk), outputStream);
+                    chunk.clear();
+                }
+            }
+        }
+        
+        if (!chunk.isEmpty()) {
+            writeCheckResults(writer, extensionCheckService.checkFileNames(policy, chunk), outputStream);
+        }
+    }
+    
+    private void writeCheckResults(ObjectWriter writer, List<ExtensionCheckResultDto> results,
+                                   OutputStream outputStream) throws IOException {
+        for (ExtensionCheckResultDto result : results) {
+            outputStream.write(writer.writeValueAsBytes(result));
+            outputStream.write('\n');
+        }
+        outputStream.flush();
+    }
+    
+    /**
+     * 한 줄을 읽습니다. maxLength 를 넘는 줄은 maxLength + 1 자까지만 담고 나머지는 줄 끝까지 버립니다.
+     *
+     * @return 줄 내용(줄바꿈 제외), 스트림 끝이면 null
+     */
+    private static String readBoundedLine(BufferedReader reader, int maxLength) throws IOException {
+        StringBuilder line = new StringBuilder();
+        boolean empty = true;
+        int c;
+        while ((c = reader.read()) != -1) {
+            empty = false;
+            if (c == '\n') {
+                break;
+            }
+            // CRLF 줄바꿈의 '\r' 은 내용에 넣지 않음
+            if (c != '\r' && line.length() <= maxLength) {
+                line.append((char) c);
+            }
+        }
+        return empty ? null : line.toString();
+    }
+    
+    /**
+     * NDJSON 한 줄에서 파일명을 꺼냅니다. 해석할 수 없는 줄은 null(잘못된 파일명)로 처리합니다.
+     */
+    private String parseNdjsonFileName(String line) {
+        String trimmed = line.trim();
+        if (!trimmed.startsWith("{") && !trimmed.startsWith("\"")) {
+            return line;
+        }
+        
+        try {
+            JsonNode node = objectMapper.readTree(trimmed);
+            if (node.isTextual()) {
+                return node.asText();
+            }
+            JsonNode fileName = node.get("fileName");
+            return fileName != null && fileName.isTextual() ? fileName.asText() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+    
     // isBlocked : ~~~ << 이거 파싱
     private Map<String, Boolean> parseFixedExtensionStatesIfPresent(String fixedExtensionStates) {
         if (fixedExtensionStates == null || fixedExtensionStates.isEmpty()) {
@@ -1,17 +1,26 @@
 package com.assignment.fileextension.controller;
 
 import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.dto.HotFileCacheStatsDto;
+import com.assignment.fileextension.dto.StorageReconciliationDto;
 import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.service.FileDownloadService;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.StorageReconciler;
 import com.assignment.fileextension.service.StorageService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.io.IOException;
 import java.util.HashMap;
@@ -27,6 +36,9 @@ import java.util.Map;
 public class FileManagementController {
     
     private final StorageService storageService;
+    private final FileDownloadService fileDownloadService;
+    private final HotFileCache hotFileCache;
+    private final StorageReconciler storageReconciler;
     
     @Operation(summary = "전체 파일 목록 조회")
     @GetMapping
@@ -47,42 +59,71 @@ public class FileManagementController {
             return ResponseEntity.notFound().build();
         }
         
-        return ResponseEntity.ok(file);
+        // ETag/Last-Modified 가 있으면 조건부 요청(If-None-Match 등)에 본문 없이 304 로 응답됨
+        return ResponseEntity.ok()
+                .eTag(fileDownloadService.metadataEntityTag(file))
+                .lastModified(fileDownloadService.lastModified(file))
+                .body(file);
     }
     
-    @Operation(summary = "파일 다운로드")
+    @Operation(summary = "파일 다운로드", description = "Range/If-Range 를 지원해 이어받기와 구간 요청(206)이 가능합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "전체 전송"),
+            @ApiResponse(responseCode = "206", description = "요청한 구간 전송"),
+            @ApiResponse(responseCode = "404", description = "파일을 찾을 수 없음"),
+            @ApiResponse(responseCode = "416", description = "만족할 수 없는 구간")
+    })
     @GetMapping("/{fileId}/download")
-    public ResponseEntity<org.springframework.core.io.Resource> downloadFile(
+    public void downloadFile(
             @Parameter(description = "파일 ID", required = true)
-            @PathVariable Long fileId) {
+            @PathVariable Long fileId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         
-        try {
-            // 파일 정보 조회
-            UploadedFile uploadedFile = storageService.findById(fileId);
-            
-            if (uploadedFile == null) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            // 파일 리소스 로드
-            java.nio.file.Path filePath = java.nio.file.Paths.get(uploadedFile.getFilePath());
-            org.springframework.core.io.Resource resource = new org.springframework.core.io.UrlResource(filePath.toUri());
-            
-            if (!resource.exists() || !resource.isReadable()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            // Content-Disposition 헤더 설정
-            String contentDisposition = "attachment; filename=\"" + uploadedFile.getOriginalFilename() + "\"";
-            
-            return ResponseEntity.ok()
-                    .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .body(resource);
-                    
-        } catch (Exception e) {
-            log.error("파일 다운로드 실패: ID {} - {}", fileId, e.getMessage(), e);
-            return ResponseEntity.internalServerError().build();
+        UploadedFile uploadedFile = fileDownloadService.findFile(fileId);
+        
+        if (uploadedFile == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
         }
+        
+        // 변경되지 않았으면 파일을 열지 않고 304
+        if (isNotModified(uploadedFile, request, response)) {
+            return;
+        }
+        
+        fileDownloadService.download(uploadedFile, request, response);
+    }
+    
+    @Operation(summary = "파일 다운로드 헤더 조회", description = "파일을 열지 않고 메타데이터만으로 크기와 검증자(ETag 등)를 알려줍니다.")
+    @RequestMapping(value = "/{fileId}/download", method = RequestMethod.HEAD)
+    public void headFile(
+            @Parameter(description = "파일 ID", required = true)
+            @PathVariable Long fileId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        
+        UploadedFile uploadedFile = fileDownloadService.findFile(fileId);
+        
+        if (uploadedFile == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        if (isNotModified(uploadedFile, request, response)) {
+            return;
+        }
+        
+        fileDownloadService.writeHeadResponse(uploadedFile, request, response);
+    }
+    
+    /**
+     * If-None-Match / If-Modified-Since 를 확인해 변경이 없으면 304 를 설정합니다.
+     * ETag 와 Last-Modified 헤더도 함께 설정됩니다.
+     */
+    private boolean isNotModified(UploadedFile uploadedFile, HttpServletRequest request, HttpServletResponse response) {
+        return new ServletWebRequest(request, response).checkNotModified(
+                fileDownloadService.entityTag(uploadedFile, request), fileDownloadService.lastModified(uploadedFile));
     }
     
     
@@ -95,6 +136,45 @@ public class FileManagementController {
         return ResponseEntity.ok(files);
     }
     
+    @Operation(summary = "다운로드 캐시 통계", description = "이 노드의 핫 파일 캐시 적중/미스/제거 수와 사용량을 조회합니다.")
+    @GetMapping("/cache/stats")
+    public ResponseEntity<HotFileCacheStatsDto> getCacheStats() {
+        return ResponseEntity.ok(hotFileCache.stats());
+    }
+    
+    @Operation(summary = "저장소 정합성 점검 시작",
+            description = "디스크의 저장 파일과 파일 행을 비교해 고아 파일과 파일 없는 행을 찾습니다. fix=true 면 함께 정리합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "점검 시작"),
+            @ApiResponse(responseCode = "409", description = "이미 점검 중")
+    })
+    @PostMapping("/reconcile")
+    public ResponseEntity<Map<String, Object>> startReconcile(
+            @Parameter(description = "불일치를 정리할지 여부 (기본: 보고만)")
+            @RequestParam(defaultValue = "false") boolean fix) {
+        
+        Map<String, Object> response = new HashMap<>();
+        if (!storageReconciler.start(fix)) {
+            response.put("started", false);
+            response.put("message", "이미 정합성 점검이 진행 중입니다.");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+        }
+        
+        response.put("started", true);
+        response.put("fix", fix);
+        return ResponseEntity.accepted().body(response);
+    }
+    
+    @Operation(summary = "저장소 정합성 점검 결과", description = "이 노드의 마지막(또는 진행 중인) 점검 결과를 조회합니다.")
+    @GetMapping("/reconcile")
+    public ResponseEntity<StorageReconciliationDto> getReconcileReport() {
+        StorageReconciliationDto report = storageReconciler.lastReport();
+        if (report == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(report);
+    }
+    
     @Operation(summary = "확장자별 파일 목록 조회")
     @GetMapping("/extension/{extension}")
     public ResponseEntity<List<UploadedFile>> getFilesByExtension(
@@ -2,11 +2,13 @@ package com.assignment.fileextension.controller;
 
 import com.assignment.fileextension.common.FileExtensionConstants;
 import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.enums.BlockReason;
 import com.assignment.fileextension.exception.FileValidationException;
 import com.assignment.fileextension.service.AuditService;
 import com.assignment.fileextension.service.ExtensionService;
 import com.assignment.fileextension.service.FileValidationService;
 import com.assignment.fileextension.service.StorageService;
+import com.assignment.fileextension.service.StreamingUploadService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,6 +16,9 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -34,6 +39,7 @@ public class FileUploadController {
     private final StorageService storageService;
     private final FileValidationService fileValidationService;
     private final AuditService auditService;
+    private final StreamingUploadService streamingUploadService;
     
     @Operation(summary = "파일 업로드")
     @ApiResponses(value = {
@@ -51,9 +57,9 @@ public class FileUploadController {
             // 업로드 시도 로그 기록
             auditService.logUploadAttempt(file, request);
             
-            // 파일 검증 (빈 파일, 크기, 파일명 우회 공격 등)
+            // 파일 검증 (빈 파일, 크기, 파일명 우회 공격 등) - 압축 파일 내부는 저장 후 확인
             FileValidationService.FileValidationResult validationResult =
-                    fileValidationService.validateFile(file);
+                    fileValidationService.validateBeforeStore(file);
             
             log.info("=== 파일 업로드 검증 결과 ===");
             log.info("파일명: {}", file.getOriginalFilename());
@@ -116,6 +122,15 @@ public class FileUploadController {
         // 실제 파일 저장
         UploadedFile uploadedFile = storageService.storeFile(file);
         
+        // 압축 파일은 저장된 내용에서 내부 항목을 확인하고, 차단되면 바로 삭제
+        // (업로드 파일을 검사용 임시 파일로 한 번 더 복사하지 않음)
+        FileValidationService.FileValidationResult archiveResult = fileValidationService.validateStoredArchive(
+                file.getOriginalFilename(), storageService.resolveContent(uploadedFile));
+        if (archiveResult.isBlocked()) {
+            storageService.deletePhysicalFile(uploadedFile.getId());
+            return handleBlockedFile(file, request, archiveResult, response);
+        }
+        
         // 성공한 파일 업로드 로그 기록
         auditService.logSuccessfulUpload(file, request);
         
@@ -132,6 +147,48 @@ public class FileUploadController {
         return ResponseEntity.ok(response);
     }
     
+    @Operation(summary = "스트리밍 파일 업로드",
+            description = "multipart 본문을 직접 파싱해 임시 파일 없이 최종 위치에 저장합니다. 파일 파트 이름은 'file' 입니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "업로드 성공"),
+            @ApiResponse(responseCode = "400", description = "업로드 차단 또는 잘못된 요청"),
+            @ApiResponse(responseCode = "413", description = "파일 크기 초과")
+    })
+    @PostMapping(value = "/stream", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadFileStream(HttpServletRequest request) throws IOException {
+        Map<String, Object> response = new HashMap<>();
+        
+        StreamingUploadService.StreamingUploadResult result = streamingUploadService.upload(request);
+        
+        if (result.isBlocked()) {
+            FileValidationService.FileValidationResult validationResult = result.validationResult();
+            response.put("error", validationResult.getReason());
+            response.put("fileName", result.fileName());
+            response.put("blockReason", validationResult.getBlockReason());
+            if (validationResult.getBlockedExtension() != null) {
+                response.put("blockedExtension", validationResult.getBlockedExtension());
+            }
+            
+            HttpStatus status = validationResult.getBlockReason() == BlockReason.FILE_SIZE_EXCEEDED
+                    ? HttpStatus.PAYLOAD_TOO_LARGE : HttpStatus.BAD_REQUEST;
+            // 읽지 않은 본문이 남아 있을 수 있으므로 연결을 닫음
+            return ResponseEntity.status(status).header(HttpHeaders.CONNECTION, "close").body(response);
+        }
+        
+        UploadedFile uploadedFile = result.uploadedFile();
+        response.put("success", true);
+        response.put("message", "파일 업로드가 완료되었습니다.");
+        response.put("fileId", uploadedFile.getId());
+        response.put("originalFileName", uploadedFile.getOriginalFilename());
+        response.put("storedFileName", uploadedFile.getStoredFilename());
+        response.put("fileSize", uploadedFile.getFileSize());
+        response.put("filePath", uploadedFile.getFilePath());
+        
+        log.info(FileExtensionConstants.LogMessages.FILE_UPLOAD_SUCCESS, 
+                uploadedFile.getOriginalFilename(), uploadedFile.getId());
+        return ResponseEntity.ok(response);
+    }
+    
     @Operation(summary = "파일 업로드 안하고 검증만")
     @PostMapping("/check")
     public ResponseEntity<Map<String, Object>> checkFileOnly(
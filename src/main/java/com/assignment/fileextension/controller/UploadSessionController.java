@@ -0,0 +1,150 @@
+package com.assignment.fileextension.controller;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.dto.UploadSessionDto;
+import com.assignment.fileextension.dto.UploadSessionRequest;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.enums.BlockReason;
+import com.assignment.fileextension.service.AuditService;
+import com.assignment.fileextension.service.FileValidationService;
+import com.assignment.fileextension.service.UploadSessionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
+@Tag(name = "재개 가능한 업로드", description = "청크 단위로 나눠 올리고 이어서 올릴 수 있는 업로드 API")
+@RestController
+@RequestMapping("/api/upload/sessions")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+public class UploadSessionController {
+    
+    private final UploadSessionService uploadSessionService;
+    private final FileValidationService fileValidationService;
+    private final AuditService auditService;
+    
+    // 조립이 끝난 파일을 저장할 때 적용되는 한도와 같은 값 (FileStorageService)
+    @Value("${app.file.max-size:10485760}")
+    private long maxFileSize;
+    
+    @Operation(summary = "업로드 세션 생성",
+            description = "파일명과 크기를 먼저 검증하고, 통과하면 청크 크기와 개수를 알려줍니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "세션 생성"),
+            @ApiResponse(responseCode = "400", description = "차단된 파일명 또는 크기 초과")
+    })
+    @PostMapping
+    public ResponseEntity<?> createSession(@Valid @RequestBody UploadSessionRequest request,
+                                           HttpServletRequest httpRequest) throws IOException {
+        String fileName = request.getFileName();
+        long fileSize = request.getFileSize();
+        auditService.logUploadAttempt(fileName, fileSize, httpRequest);
+        
+        FileValidationService.FileValidationResult validationResult =
+                fileSize > maxFileSize
+                        ? FileValidationService.FileValidationResult.blocked(
+                                String.format(FileExtensionConstants.Messages.FILE_SIZE_LIMIT_EXCEEDED, maxFileSize),
+                                BlockReason.FILE_SIZE_EXCEEDED)
+                        : fileValidationService.validateDeclaredFileName(fileName);
+        
+        if (validationResult.isBlocked()) {
+            auditService.logBlockedUpload(fileName, fileSize, httpRequest, validationResult);
+            log.warn(FileExtensionConstants.LogMessages.FILE_UPLOAD_BLOCKED, fileName, validationResult.getReason());
+            return ResponseEntity.badRequest().body(blockedResponse(fileName, validationResult));
+        }
+        
+        UploadSessionDto session = uploadSessionService.createSession(fileName, fileSize, request.getContentType());
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+    
+    @Operation(summary = "업로드 세션 상태 조회", description = "이미 받은 청크 번호를 확인해 빠진 청크만 다시 보낼 수 있습니다.")
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<UploadSessionDto> getSession(
+            @Parameter(description = "세션 ID", required = true) @PathVariable String sessionId) {
+        return ResponseEntity.ok(uploadSessionService.getSession(sessionId));
+    }
+    
+    @Operation(summary = "청크 업로드",
+            description = "요청 본문 전체가 청크 하나입니다. 순서와 관계없이, 여러 청크를 동시에 보낼 수 있습니다.")
+    @PutMapping(value = "/{sessionId}/chunks/{chunkIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Map<String, Object>> uploadChunk(
+            @Parameter(description = "세션 ID", required = true) @PathVariable String sessionId,
+            @Parameter(description = "청크 번호 (0부터)", required = true) @PathVariable int chunkIndex,
+            HttpServletRequest request) throws IOException {
+        long receivedChunks = uploadSessionService.writeChunk(sessionId, chunkIndex, request.getInputStream());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("sessionId", sessionId);
+        response.put("chunkIndex", chunkIndex);
+        response.put("receivedChunks", receivedChunks);
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "업로드 완료", description = "모든 청크가 도착했으면 내용을 검증하고 파일을 저장합니다.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "저장 완료"),
+            @ApiResponse(responseCode = "400", description = "빠진 청크가 있거나 내용 검증에서 차단")
+    })
+    @PostMapping("/{sessionId}/commit")
+    public ResponseEntity<Map<String, Object>> commit(
+            @Parameter(description = "세션 ID", required = true) @PathVariable String sessionId,
+            HttpServletRequest request) throws IOException {
+        UploadSessionService.CommitResult result = uploadSessionService.commit(sessionId);
+        String fileName = result.session().getOriginalFilename();
+        
+        if (result.isBlocked()) {
+            auditService.logBlockedUpload(fileName, result.session().getFileSize(), request, result.validationResult());
+            log.warn(FileExtensionConstants.LogMessages.FILE_UPLOAD_BLOCKED, fileName, result.validationResult().getReason());
+            return ResponseEntity.badRequest().body(blockedResponse(fileName, result.validationResult()));
+        }
+        
+        UploadedFile uploadedFile = result.uploadedFile();
+        auditService.logSuccessfulUpload(fileName, uploadedFile.getFileSize(), request);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "파일 업로드가 완료되었습니다.");
+        response.put("fileId", uploadedFile.getId());
+        response.put("originalFileName", uploadedFile.getOriginalFilename());
+        response.put("storedFileName", uploadedFile.getStoredFilename());
+        response.put("fileSize", uploadedFile.getFileSize());
+        
+        log.info(FileExtensionConstants.LogMessages.FILE_UPLOAD_SUCCESS, fileName, uploadedFile.getId());
+        return ResponseEntity.ok(response);
+    }
+    
+    @Operation(summary = "업로드 세션 취소")
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> abort(
+            @Parameter(description = "세션 ID", required = true) @PathVariable String sessionId) throws IOException {
+        uploadSessionService.abort(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+    
+    private Map<String, Object> blockedResponse(String fileName, FileValidationService.FileValidationResult validationResult) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("error", validationResult.getReason());
+        response.put("fileName", fileName);
+        response.put("blockReason", validationResult.getBlockReason());
+        if (validationResult.getBlockedExtension() != null) {
+            response.put("blockedExtension", validationResult.getBlockedExtension());
+        }
+        return response;
+    }
+}
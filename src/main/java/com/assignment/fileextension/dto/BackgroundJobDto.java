@@ -0,0 +1,97 @@
+package com.assignment.fileextension.dto;
+
+import com.assignment.fileextension.entity.BackgroundJob;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "백그라운드 작업 진행 상황")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BackgroundJobDto {
+    
+    @Schema(description = "작업 ID", example = "12")
+    private Long id;
+    
+    @Schema(description = "작업 종류", example = "EXTENSION_PURGE")
+    private BackgroundJob.JobType type;
+    
+    @Schema(description = "작업 상태", example = "RUNNING")
+    private BackgroundJob.JobStatus status;
+    
+    @Schema(description = "정리/복구 대상 확장자", example = "[\"pdf\"]")
+    private List<String> extensions;
+    
+    @Schema(description = "시작 시점의 대상 파일 수 (추정)", example = "250000")
+    private Long totalCount;
+    
+    @Schema(description = "확인한 파일 수", example = "120000")
+    private Long scannedCount;
+    
+    @Schema(description = "삭제한 파일 수", example = "119950")
+    private Long deletedCount;
+    
+    @Schema(description = "격리한 파일 수", example = "0")
+    private Long quarantinedCount;
+    
+    @Schema(description = "격리에서 복구한 파일 수", example = "0")
+    private Long restoredCount;
+    
+    @Schema(description = "삭제 예외로 보호된 파일 수", example = "50")
+    private Long protectedCount;
+    
+    @Schema(description = "물리 파일 삭제에 실패한 수", example = "0")
+    private Long unlinkFailedCount;
+    
+    @Schema(description = "격리에서 되돌리지 못한 파일 수", example = "0")
+    private Long restoreFailedCount;
+    
+    @Schema(description = "진행률(%)", example = "48.0")
+    private Double progressPercent;
+    
+    @Schema(description = "실패 사유")
+    private String errorMessage;
+    
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    
+    public static BackgroundJobDto from(BackgroundJob job) {
+        return BackgroundJobDto.builder()
+                .id(job.getId())
+                .type(job.getType())
+                .status(job.getStatus())
+                .extensions(job.targetExtensions())
+                .totalCount(job.getTotalCount())
+                .scannedCount(job.getScannedCount())
+                .deletedCount(job.getDeletedCount())
+                .quarantinedCount(job.getQuarantinedCount())
+                .restoredCount(job.getRestoredCount())
+                .protectedCount(job.getProtectedCount())
+                .unlinkFailedCount(job.getUnlinkFailedCount())
+                .restoreFailedCount(job.getRestoreFailedCount())
+                .progressPercent(progressPercent(job))
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+    
+    private static Double progressPercent(BackgroundJob job) {
+        if (job.getStatus() == BackgroundJob.JobStatus.COMPLETED) {
+            return 100.0;
+        }
+        if (job.getTotalCount() == null || job.getTotalCount() == 0) {
+            return job.getStatus() == BackgroundJob.JobStatus.QUEUED ? 0.0 : null;
+        }
+        return Math.min(100.0, job.getScannedCount() * 100.0 / job.getTotalCount());
+    }
+}
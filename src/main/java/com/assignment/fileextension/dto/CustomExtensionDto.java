@@ -19,10 +19,18 @@ public class CustomExtensionDto {
     @Schema(description = "확장자", example = "zip")
     private String extension;
     
+    @Schema(description = "기존 파일 정리 작업 ID (GET /api/jobs/{id} 로 진행 상황 조회, 지연 적용 모드면 null)", example = "12")
+    private Long purgeJobId;
+    
     public static CustomExtensionDto from(CustomExtension customExtension) {
+        return from(customExtension, null);
+    }
+    
+    public static CustomExtensionDto from(CustomExtension customExtension, Long purgeJobId) {
         return CustomExtensionDto.builder()
                 .id(customExtension.getId())
                 .extension(customExtension.getExtension())
+                .purgeJobId(purgeJobId)
                 .build();
     }
 }
\ No newline at end of file
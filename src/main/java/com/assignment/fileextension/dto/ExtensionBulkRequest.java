@@ -0,0 +1,33 @@
+package com.assignment.fileextension.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "확장자 정책 일괄 변경 요청")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtensionBulkRequest {
+    
+    @Schema(description = "변경할 고정 확장자 차단 상태", example = "{\"exe\":true,\"bat\":false}")
+    private Map<String, Boolean> fixedExtensionStates;
+    
+    @Schema(description = "추가할 커스텀 확장자 목록", example = "[\"sh\", \"ps1\"]")
+    private List<String> addCustomExtensions;
+    
+    @Schema(description = "삭제할 커스텀 확장자 목록", example = "[\"zip\"]")
+    private List<String> removeCustomExtensions;
+    
+    @JsonIgnore
+    public boolean isEmpty() {
+        return (fixedExtensionStates == null || fixedExtensionStates.isEmpty())
+                && (addCustomExtensions == null || addCustomExtensions.isEmpty())
+                && (removeCustomExtensions == null || removeCustomExtensions.isEmpty());
+    }
+}
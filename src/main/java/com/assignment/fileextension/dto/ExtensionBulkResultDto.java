@@ -0,0 +1,38 @@
+package com.assignment.fileextension.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Schema(description = "확장자 정책 일괄 변경 결과")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExtensionBulkResultDto {
+    
+    @Schema(description = "상태가 변경된 고정 확장자 설정")
+    private List<FixedExtensionSettingDto> updatedFixedExtensions;
+    
+    @Schema(description = "추가된 커스텀 확장자")
+    private List<CustomExtensionDto> addedCustomExtensions;
+    
+    @Schema(description = "삭제된 커스텀 확장자", example = "[\"zip\"]")
+    private List<String> removedCustomExtensions;
+    
+    @Schema(description = "기존 파일 정리 대상이 된 확장자", example = "[\"exe\", \"sh\"]")
+    private List<String> purgedExtensions;
+    
+    @Schema(description = "기존 파일 정리 작업 ID (정리 대상이 없거나 지연 적용 모드면 null)", example = "12")
+    private Long purgeJobId;
+    
+    @Schema(description = "격리 파일 복구 대상이 된 확장자 (허용으로 바뀐 고정 확장자, 삭제된 커스텀 확장자)", example = "[\"zip\"]")
+    private List<String> restoredExtensions;
+    
+    @Schema(description = "격리 파일 복구 작업 ID (복구 대상이 없거나 격리를 쓰지 않으면 null)", example = "13")
+    private Long restoreJobId;
+}
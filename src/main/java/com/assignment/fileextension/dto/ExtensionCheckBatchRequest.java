@@ -0,0 +1,28 @@
+package com.assignment.fileextension.dto;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Schema(description = "파일명 일괄 차단 확인 요청")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExtensionCheckBatchRequest {
+    
+    @Schema(description = "확인할 파일명 목록", example = "[\"report.pdf\", \"setup.exe\"]")
+    @NotNull(message = "파일명 목록은 필수입니다")
+    @Size(max = FileExtensionConstants.FileLimit.MAX_BATCH_CHECK_FILES,
+            message = FileExtensionConstants.Messages.BATCH_CHECK_LIMIT_EXCEEDED)
+    private List<String> fileNames;
+    
+    @Schema(description = "고정 확장자 차단 상태 (선택)", example = "{\"exe\":true,\"bat\":false}")
+    private Map<String, Boolean> fixedExtensionStates;
+}
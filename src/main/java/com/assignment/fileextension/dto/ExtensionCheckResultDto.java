@@ -0,0 +1,58 @@
+package com.assignment.fileextension.dto;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.enums.BlockReason;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "파일명별 차단 확인 결과")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ExtensionCheckResultDto {
+    
+    @Schema(description = "확인한 파일명", example = "setup.exe")
+    private String fileName;
+    
+    @Schema(description = "차단 여부", example = "true")
+    private boolean blocked;
+    
+    @Schema(description = "차단된 확장자", example = "exe")
+    private String blockedExtension;
+    
+    @Schema(description = "차단 사유", example = "BLOCKED_EXTENSION")
+    private BlockReason blockReason;
+    
+    @Schema(description = "차단 사유 메시지", example = "차단된 확장자가 포함되어 있습니다: exe")
+    private String reason;
+    
+    public static ExtensionCheckResultDto allowed(String fileName) {
+        return ExtensionCheckResultDto.builder()
+                .fileName(fileName)
+                .blocked(false)
+                .build();
+    }
+    
+    public static ExtensionCheckResultDto blocked(String fileName, String blockedExtension) {
+        return ExtensionCheckResultDto.builder()
+                .fileName(fileName)
+                .blocked(true)
+                .blockedExtension(blockedExtension)
+                .blockReason(BlockReason.BLOCKED_EXTENSION)
+                .reason(String.format("%s: %s", FileExtensionConstants.Messages.FILE_BLOCKED, blockedExtension))
+                .build();
+    }
+    
+    public static ExtensionCheckResultDto invalid(String fileName) {
+        return ExtensionCheckResultDto.builder()
+                .fileName(fileName)
+                .blocked(true)
+                .blockReason(BlockReason.INVALID_FILENAME)
+                .reason(FileExtensionConstants.Messages.INVALID_FILENAME)
+                .build();
+    }
+}
@@ -19,14 +19,24 @@ public class FixedExtensionSettingDto {
     private Boolean isBlocked;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // 차단으로 바뀌어 기존 파일 정리 작업이 등록된 경우 작업 ID (GET /api/jobs/{id})
+    private Long purgeJobId;
+    // 허용으로 바뀌어 격리 파일 복구 작업이 등록된 경우 작업 ID
+    private Long restoreJobId;
     
     public static FixedExtensionSettingDto from(FixedExtensionSetting entity) {
+        return from(entity, null, null);
+    }
+    
+    public static FixedExtensionSettingDto from(FixedExtensionSetting entity, Long purgeJobId, Long restoreJobId) {
         return FixedExtensionSettingDto.builder()
                 .id(entity.getId())
                 .extension(entity.getExtension())
                 .isBlocked(entity.getIsBlocked())
                 .createdAt(entity.getCreatedAt())
                 .updatedAt(entity.getUpdatedAt())
+                .purgeJobId(purgeJobId)
+                .restoreJobId(restoreJobId)
                 .build();
     }
 }
\ No newline at end of file
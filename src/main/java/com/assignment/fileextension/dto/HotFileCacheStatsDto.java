@@ -0,0 +1,39 @@
+package com.assignment.fileextension.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "다운로드 핫 파일 캐시 통계 (노드별)")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HotFileCacheStatsDto {
+    
+    @Schema(description = "메타데이터 캐시 적중 수", example = "1520")
+    private Long hits;
+    
+    @Schema(description = "메타데이터 캐시 미스 수", example = "80")
+    private Long misses;
+    
+    @Schema(description = "적중률 (0~1)", example = "0.95")
+    private Double hitRate;
+    
+    @Schema(description = "내용까지 메모리에서 보낸 수", example = "1200")
+    private Long contentHits;
+    
+    @Schema(description = "용량 한도로 밀려난 항목 수", example = "3")
+    private Long evictions;
+    
+    @Schema(description = "현재 항목 수", example = "64")
+    private Integer entries;
+    
+    @Schema(description = "현재 사용량(바이트, 내용은 힙 밖 메모리)", example = "5242880")
+    private Long weightBytes;
+    
+    @Schema(description = "최대 사용량(바이트)", example = "67108864")
+    private Long maxBytes;
+}
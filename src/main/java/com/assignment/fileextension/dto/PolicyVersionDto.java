@@ -0,0 +1,43 @@
+package com.assignment.fileextension.dto;
+
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "노드별 확장자 정책 버전")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PolicyVersionDto {
+    
+    @Schema(description = "응답한 노드 식별자", example = "fileextension-app-prod")
+    private String nodeId;
+    
+    @Schema(description = "노드가 적용 중인 정책 버전", example = "42")
+    private Long version;
+    
+    @Schema(description = "해당 버전이 DB에 커밋된 시각")
+    private LocalDateTime changedAt;
+    
+    @Schema(description = "노드가 해당 버전을 적재한 시각")
+    private LocalDateTime loadedAt;
+    
+    @Schema(description = "커밋부터 적재까지 걸린 시간(ms)", example = "350")
+    private Long propagationLagMillis;
+    
+    public static PolicyVersionDto of(String nodeId, ExtensionPolicySnapshot snapshot) {
+        return PolicyVersionDto.builder()
+                .nodeId(nodeId)
+                .version(snapshot.getVersion())
+                .changedAt(snapshot.getChangedAt())
+                .loadedAt(snapshot.getLoadedAt())
+                .propagationLagMillis(snapshot.getPropagationLagMillis())
+                .build();
+    }
+}
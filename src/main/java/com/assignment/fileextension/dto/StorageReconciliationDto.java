@@ -0,0 +1,63 @@
+package com.assignment.fileextension.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "디스크와 uploaded_files 정합성 점검 결과")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageReconciliationDto {
+
+    public enum Status {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Schema(description = "점검 상태", example = "COMPLETED")
+    private Status status;
+
+    @Schema(description = "발견한 불일치를 고쳤는지 여부 (false 면 보고만)", example = "false")
+    private boolean fix;
+
+    @Schema(description = "디스크에서 확인한 파일 수", example = "2400000")
+    private long scannedFiles;
+
+    @Schema(description = "DB 에서 확인한 파일 행 수", example = "2399990")
+    private long scannedRows;
+
+    @Schema(description = "DB 행이 없는 디스크 파일 수 (유예 시간이 지난 것만)", example = "12")
+    private long orphanFiles;
+
+    @Schema(description = "디스크 파일이 없는 DB 행 수 (유예 시간이 지난 것만)", example = "2")
+    private long missingFiles;
+
+    @Schema(description = "같은 이름의 파일은 있지만 DB 경로와 다른 곳에 있는 행 수 (보고만)", example = "0")
+    private long misplacedFiles;
+
+    @Schema(description = "지운 고아 파일 수", example = "0")
+    private long deletedOrphanFiles;
+
+    @Schema(description = "삭제 상태로 표시한 DB 행 수", example = "0")
+    private long markedMissingRows;
+
+    @Schema(description = "고아 파일 경로 예시")
+    private List<String> orphanSamples;
+
+    @Schema(description = "파일이 없는 행 ID 예시")
+    private List<Long> missingSamples;
+
+    @Schema(description = "실패 사유")
+    private String errorMessage;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
@@ -0,0 +1,60 @@
+package com.assignment.fileextension.dto;
+
+import com.assignment.fileextension.entity.UploadSession;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Schema(description = "재개 가능한 업로드 세션 상태")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionDto {
+    
+    @Schema(description = "세션 ID")
+    private String sessionId;
+    
+    @Schema(description = "파일명", example = "installer.msi")
+    private String fileName;
+    
+    @Schema(description = "전체 파일 크기(바이트)", example = "104857600")
+    private Long fileSize;
+    
+    @Schema(description = "청크 크기(바이트, 마지막 청크만 짧을 수 있음)", example = "8388608")
+    private Integer chunkSize;
+    
+    @Schema(description = "전체 청크 수", example = "13")
+    private Integer chunkCount;
+    
+    @Schema(description = "이미 받은 청크 번호", example = "[0, 1, 4]")
+    private List<Integer> receivedChunks;
+    
+    @Schema(description = "세션 상태", example = "OPEN")
+    private UploadSession.SessionStatus status;
+    
+    @Schema(description = "저장된 파일 ID (완료된 경우)")
+    private Long fileId;
+    
+    @Schema(description = "세션 만료 시각")
+    private LocalDateTime expiresAt;
+    
+    public static UploadSessionDto from(UploadSession session, List<Integer> receivedChunks) {
+        return UploadSessionDto.builder()
+                .sessionId(session.getId())
+                .fileName(session.getOriginalFilename())
+                .fileSize(session.getFileSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedChunks(receivedChunks)
+                .status(session.getStatus())
+                .fileId(session.getUploadedFileId())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.assignment.fileextension.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Schema(description = "재개 가능한 업로드 세션 생성 요청")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionRequest {
+    
+    @Schema(description = "업로드할 파일명", example = "installer.msi")
+    @NotBlank(message = "파일명은 필수입니다")
+    private String fileName;
+    
+    @Schema(description = "전체 파일 크기(바이트)", example = "104857600")
+    @NotNull(message = "파일 크기는 필수입니다")
+    @Positive(message = "파일 크기는 0보다 커야 합니다")
+    private Long fileSize;
+    
+    @Schema(description = "파일 MIME 타입 (선택)", example = "application/octet-stream")
+    private String contentType;
+}
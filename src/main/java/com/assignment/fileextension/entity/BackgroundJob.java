@@ -0,0 +1,188 @@
+package com.assignment.fileextension.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 요청과 분리해 백그라운드에서 실행되는 작업과 진행 상황
+ * 배치마다 마지막으로 처리한 ID 를 기록하므로, 노드가 재시작되어도 이어서 실행할 수 있습니다.
+ */
+@Entity
+@Table(name = "background_jobs", indexes = {
+        @Index(name = "idx_background_jobs_status", columnList = "status")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EntityListeners(AuditingEntityListener.class)
+public class BackgroundJob {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private JobType type;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private JobStatus status = JobStatus.QUEUED;
+    
+    /**
+     * 작업 대상 (확장자 정리: 쉼표로 구분한 확장자 목록)
+     */
+    @Column(nullable = false, length = 2000)
+    private String target;
+    
+    /**
+     * 작업을 만든 노드 - 재시작 시 자기 작업만 이어서 실행
+     */
+    @Column(nullable = false, length = 100)
+    private String nodeId;
+    
+    /**
+     * 시작 시점에 센 대상 수 (진행률 추정용)
+     */
+    @Column
+    private Long totalCount;
+    
+    /**
+     * keyset 커서: 이 ID 까지 처리됨
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long lastProcessedId = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long scannedCount = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long deletedCount = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long quarantinedCount = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long restoredCount = 0L;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long protectedCount = 0L;
+    
+    /**
+     * 행은 지웠지만 물리 파일 삭제에 실패한 수 (정합성 점검 대상)
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long unlinkFailedCount = 0L;
+    
+    /**
+     * 격리 영역에서 되돌리지 못해 격리 상태로 남은 수
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long restoreFailedCount = 0L;
+    
+    @Column(length = 1000)
+    private String errorMessage;
+    
+    @CreatedDate
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column
+    private LocalDateTime startedAt;
+    
+    @Column
+    private LocalDateTime finishedAt;
+    
+    @LastModifiedDate
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public enum JobType {
+        EXTENSION_PURGE,    // 차단된 확장자의 기존 파일 정리 (격리 또는 삭제)
+        EXTENSION_RESTORE   // 차단 해제된 확장자의 격리 파일 복구
+    }
+    
+    public enum JobStatus {
+        QUEUED,      // 실행 대기
+        RUNNING,     // 실행 중
+        COMPLETED,   // 완료
+        FAILED       // 오류로 중단
+    }
+    
+    public static BackgroundJob extensionPurge(Collection<String> extensions, String nodeId) {
+        return BackgroundJob.builder()
+                .type(JobType.EXTENSION_PURGE)
+                .target(String.join(",", extensions))
+                .nodeId(nodeId)
+                .build();
+    }
+    
+    public static BackgroundJob extensionRestore(Collection<String> extensions, String nodeId) {
+        return BackgroundJob.builder()
+                .type(JobType.EXTENSION_RESTORE)
+                .target(String.join(",", extensions))
+                .nodeId(nodeId)
+                .build();
+    }
+    
+    public List<String> targetExtensions() {
+        return Arrays.asList(target.split(","));
+    }
+    
+    public void start(long totalCount) {
+        this.status = JobStatus.RUNNING;
+        this.totalCount = totalCount;
+        if (this.startedAt == null) {
+            this.startedAt = LocalDateTime.now();
+        }
+    }
+    
+    public void recordBatch(long lastProcessedId, int scanned, int deleted, int quarantined,
+                            int protectedCount, int unlinkFailed) {
+        this.lastProcessedId = lastProcessedId;
+        this.scannedCount += scanned;
+        this.deletedCount += deleted;
+        this.quarantinedCount += quarantined;
+        this.protectedCount += protectedCount;
+        this.unlinkFailedCount += unlinkFailed;
+    }
+    
+    public void recordRestoreBatch(long lastProcessedId, int scanned, int restored, int failed) {
+        this.lastProcessedId = lastProcessedId;
+        this.scannedCount += scanned;
+        this.restoredCount += restored;
+        this.restoreFailedCount += failed;
+    }
+    
+    public void complete() {
+        this.status = JobStatus.COMPLETED;
+        this.finishedAt = LocalDateTime.now();
+    }
+    
+    public void fail(String errorMessage) {
+        this.status = JobStatus.FAILED;
+        this.errorMessage = errorMessage;
+        this.finishedAt = LocalDateTime.now();
+    }
+}
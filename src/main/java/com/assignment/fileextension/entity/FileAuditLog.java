@@ -10,6 +10,7 @@ import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Entity
 @Table(name = "file_audit_logs", indexes = {
@@ -25,6 +26,9 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class FileAuditLog {
     
+    // 정책 변경에 따른 시스템 작업 기록의 요청자 주소
+    public static final String SYSTEM_ADDRESS = "system";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -114,4 +118,20 @@ public class FileAuditLog {
                 .blocked(false)
                 .build();
     }
-}
\ No newline at end of file
+    
+    /**
+     * 격리/복구 배치 하나를 한 건으로 기록합니다. (파일별로 남기지 않음)
+     */
+    public static FileAuditLog createBatchAction(ActionType actionType, Collection<String> extensions,
+                                                 int fileCount, long totalBytes, long firstId, long lastId) {
+        String joined = String.join(",", extensions);
+        return FileAuditLog.builder()
+                .filename("파일 " + fileCount + "개 (ID " + firstId + "~" + lastId + ")")
+                .fileSize(totalBytes)
+                .ipAddress(SYSTEM_ADDRESS)
+                .actionType(actionType)
+                .blocked(false)
+                .blockedExtension(joined.length() > 50 ? joined.substring(0, 50) : joined)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.assignment.fileextension.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 여러 노드에서 예약 실행되는 작업 중 한 노드만 실행해야 하는 작업의 임대 (작업 이름마다 한 행)
+ * 임대한 노드는 실행할 때마다 만료 시각을 늘리고, 만료되면 다른 노드가 넘겨받습니다.
+ */
+@Entity
+@Table(name = "job_leases")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobLease {
+    
+    @Id
+    @Column(length = 64)
+    private String name;
+    
+    /**
+     * 임대한 노드
+     */
+    @Column(nullable = false, length = 100)
+    private String nodeId;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public static JobLease of(String name, String nodeId, LocalDateTime expiresAt) {
+        return JobLease.builder()
+                .name(name)
+                .nodeId(nodeId)
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.assignment.fileextension.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 작은 파일들을 이어 붙여 저장하는 append-only 세그먼트 파일
+ * 각 파일의 위치(오프셋/길이)는 {@link UploadedFile} 행이 가지며, 세그먼트는 노드별로 하나씩 열어 씁니다.
+ * 가득 차면 봉인(SEALED)되고, 삭제된 항목이 많아지면 살아 있는 항목을 새 세그먼트로 옮긴 뒤 퇴역(RETIRED)시켜 지웁니다.
+ */
+@Entity
+@Table(name = "pack_segments", indexes = {
+        @Index(name = "idx_pack_segments_status", columnList = "status")
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PackSegment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String filePath;
+    
+    /**
+     * 세그먼트를 열어 쓰는 노드 - 재시작 시 자기 노드가 쓰던 세그먼트만 봉인
+     */
+    @Column(nullable = false, length = 100)
+    private String nodeId;
+    
+    /**
+     * 기록된 바이트 수 (봉인할 때 확정)
+     */
+    @Column(nullable = false)
+    @Builder.Default
+    private Long size = 0L;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    @Builder.Default
+    private SegmentStatus status = SegmentStatus.OPEN;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column
+    private LocalDateTime sealedAt;
+    
+    @Column
+    private LocalDateTime retiredAt;
+    
+    public enum SegmentStatus {
+        OPEN,       // 기록 중
+        SEALED,     // 더 이상 기록하지 않음 (압축 대상이 될 수 있음)
+        RETIRED     // 살아 있는 항목을 모두 옮김 - 유예 시간 후 파일 삭제
+    }
+    
+    public static PackSegment open(String filePath, String nodeId) {
+        return PackSegment.builder()
+                .filePath(filePath)
+                .nodeId(nodeId)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+    
+    public void seal(long size) {
+        this.size = size;
+        this.status = SegmentStatus.SEALED;
+        this.sealedAt = LocalDateTime.now();
+    }
+    
+    public void retire() {
+        this.status = SegmentStatus.RETIRED;
+        this.retiredAt = LocalDateTime.now();
+    }
+}
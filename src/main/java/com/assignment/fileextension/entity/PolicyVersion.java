@@ -0,0 +1,42 @@
+package com.assignment.fileextension.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 확장자 정책 버전 (단일 행)
+ * 정책 변경 트랜잭션마다 1씩 증가하며, 각 노드는 이 값만 비교해 스냅샷 재적재 여부를 결정합니다.
+ */
+@Entity
+@Table(name = "policy_versions")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PolicyVersion {
+    
+    public static final Long SINGLETON_ID = 1L;
+    
+    @Id
+    private Long id;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long version = 0L;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    public static PolicyVersion initial(long version) {
+        return PolicyVersion.builder()
+                .id(SINGLETON_ID)
+                .version(version)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,74 @@
+package com.assignment.fileextension.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소 저장소의 blob (SHA-256 해시당 한 행)
+ * 같은 내용을 가진 업로드 파일들이 하나의 물리 파일을 공유하며, 마지막 참조가 사라질 때만 물리 파일을 지웁니다.
+ * 행은 참조가 0 이 되어도 남겨 두어, 같은 내용이 다시 올라오면 그 행을 잠가 파일을 다시 씁니다.
+ */
+@Entity
+@Table(name = "stored_blobs")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredBlob {
+    
+    @Id
+    @Column(length = 64)
+    private String hash;
+    
+    @Column(nullable = false)
+    private String filePath;
+    
+    @Column(nullable = false)
+    private Long size;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Long refCount = 1L;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    public static StoredBlob create(String hash, String filePath, long size) {
+        return StoredBlob.builder()
+                .hash(hash)
+                .filePath(filePath)
+                .size(size)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+    
+    /**
+     * 아직 참조가 없는 행 - 만든 쪽이 잠근 뒤 {@link #retain()} 으로 참조를 올립니다.
+     */
+    public static StoredBlob unreferenced(String hash, String filePath, long size) {
+        return StoredBlob.builder()
+                .hash(hash)
+                .filePath(filePath)
+                .size(size)
+                .refCount(0L)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+    
+    public void retain() {
+        this.refCount++;
+    }
+    
+    /**
+     * 참조를 하나 줄이고 남은 참조 수를 반환합니다.
+     */
+    public long release() {
+        this.refCount = Math.max(0, this.refCount - 1);
+        return this.refCount;
+    }
+}
@@ -0,0 +1,105 @@
+package com.assignment.fileextension.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 재개 가능한 업로드 세션
+ * 파일은 고정 크기 청크로 나뉘어 순서와 관계없이 도착하며, 각 청크는 조립 파일의 제 위치에 바로 기록됩니다.
+ */
+@Entity
+@Table(name = "upload_sessions")
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSession {
+    
+    @Id
+    @Column(length = 36)
+    private String id;
+    
+    @Column(nullable = false)
+    private String originalFilename;
+    
+    @Column
+    private String contentType;
+    
+    @Column(nullable = false)
+    private Long fileSize;
+    
+    @Column(nullable = false)
+    private Integer chunkSize;
+    
+    @Column(nullable = false)
+    private Integer chunkCount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private SessionStatus status = SessionStatus.OPEN;
+    
+    @Column
+    private Long uploadedFileId;
+    
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+    
+    public enum SessionStatus {
+        OPEN,        // 청크 수신 중
+        COMPLETED,   // 조립 및 저장 완료
+        ABORTED      // 취소, 만료 또는 검증 차단
+    }
+    
+    public static UploadSession open(String id, String originalFilename, String contentType,
+                                     long fileSize, int chunkSize, LocalDateTime expiresAt) {
+        return UploadSession.builder()
+                .id(id)
+                .originalFilename(originalFilename)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .chunkSize(chunkSize)
+                .chunkCount((int) ((fileSize + chunkSize - 1) / chunkSize))
+                .createdAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+    }
+    
+    /**
+     * 청크의 시작 위치
+     */
+    public long chunkOffset(int chunkIndex) {
+        return (long) chunkIndex * chunkSize;
+    }
+    
+    /**
+     * 청크의 크기 (마지막 청크만 짧을 수 있음), 범위를 벗어나면 -1
+     */
+    public long chunkLength(int chunkIndex) {
+        if (chunkIndex < 0 || chunkIndex >= chunkCount) {
+            return -1;
+        }
+        return Math.min(chunkSize, fileSize - chunkOffset(chunkIndex));
+    }
+    
+    public boolean isOpenAt(LocalDateTime now) {
+        return status == SessionStatus.OPEN && expiresAt.isAfter(now);
+    }
+    
+    public void complete(Long uploadedFileId) {
+        this.status = SessionStatus.COMPLETED;
+        this.uploadedFileId = uploadedFileId;
+    }
+    
+    public void abort() {
+        this.status = SessionStatus.ABORTED;
+    }
+}
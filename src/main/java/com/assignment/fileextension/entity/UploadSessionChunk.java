@@ -0,0 +1,45 @@
+package com.assignment.fileextension.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 업로드 세션에서 받은 청크 (청크당 한 행)
+ * 병렬로 도착하는 청크가 세션 행을 두고 경합하지 않도록 별도 행으로 기록합니다.
+ */
+@Entity
+@Table(name = "upload_session_chunks", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_upload_session_chunk", columnNames = {"sessionId", "chunkIndex"})
+})
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionChunk {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false, length = 36)
+    private String sessionId;
+    
+    @Column(nullable = false)
+    private Integer chunkIndex;
+    
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+    
+    public static UploadSessionChunk received(String sessionId, int chunkIndex) {
+        return UploadSessionChunk.builder()
+                .sessionId(sessionId)
+                .chunkIndex(chunkIndex)
+                .receivedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -12,7 +12,10 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "uploaded_files")
+@Table(name = "uploaded_files", indexes = {
+        @Index(name = "idx_uploaded_files_content_hash", columnList = "contentHash"),
+        @Index(name = "idx_uploaded_files_pack_segment", columnList = "packSegmentId")
+})
 @Getter
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +45,58 @@ public class UploadedFile {
     @Column
     private String contentType;
     
+    /**
+     * 내용 주소 저장 모드에서 공유 blob 의 SHA-256 (기존 날짜별 저장 파일은 null)
+     */
+    @Column(length = 64)
+    private String contentHash;
+    
+    /**
+     * 디스크에 저장된 형태 (기존 파일은 null = 원본 그대로)
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private StorageEncoding storageEncoding;
+    
+    /**
+     * 디스크에 저장된 바이트 수 (압축 저장이면 압축 후 크기, fileSize 는 항상 원본 크기)
+     */
+    @Column
+    private Long storedSize;
+    
+    /**
+     * pack 저장 모드에서 내용이 들어 있는 세그먼트 ID (개별 파일로 저장되었으면 null)
+     * filePath 는 세그먼트 파일을 가리키고, 내용은 [packOffset, packOffset + storedSize) 구간입니다.
+     */
+    @Column
+    private Long packSegmentId;
+    
+    @Column
+    private Long packOffset;
+    
+    /**
+     * 저장 티어 (기존 파일은 null = HOT). filePath 가 항상 해당 티어의 위치를 가리키므로 다운로드는 바로 읽습니다.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    @Builder.Default
+    private StorageTier storageTier = StorageTier.HOT;
+    
+    /**
+     * 마지막 다운로드 시각과 누적 다운로드 수 (티어 이동 판단용, 주기적으로 모아서 기록)
+     */
+    @Column
+    private LocalDateTime lastAccessedAt;
+    
+    @Column
+    private Long accessCount;
+    
+    /**
+     * 마지막으로 검사를 통과한 확장자 정책 버전 (null = 아직 검사 전)
+     */
+    @Column
+    private Long policyVersion;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     @Builder.Default
@@ -60,8 +115,19 @@ public class UploadedFile {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
     
+    public enum StorageEncoding {
+        IDENTITY,    // 원본 그대로
+        GZIP         // gzip 으로 압축해 저장
+    }
+    
+    public enum StorageTier {
+        HOT,         // 업로드 디렉터리 (빠른 볼륨)
+        COLD         // 콜드 티어 디렉터리 (느리고 저렴한 볼륨, 가능하면 압축)
+    }
+    
     public enum FileStatus {
         ACTIVE,      // 활성 파일
+        QUARANTINED, // 차단된 확장자로 격리된 파일 (차단 해제 시 복구)
         DELETED      // 삭제된 파일
     }
     
@@ -72,6 +138,20 @@ public class UploadedFile {
     
     public void setDeletionException(Boolean deletionException) {
         this.deletionException = deletionException;
+        // 보호 여부가 바뀌면 현재 정책으로 다시 검사해야 함
+        this.policyVersion = null;
+    }
+    
+    public boolean isGzipStored() {
+        return this.storageEncoding == StorageEncoding.GZIP;
+    }
+    
+    public boolean isCold() {
+        return this.storageTier == StorageTier.COLD;
+    }
+    
+    public boolean isPacked() {
+        return this.packSegmentId != null;
     }
     
     public boolean isProtectedFromDeletion() {
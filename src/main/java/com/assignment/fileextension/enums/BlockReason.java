@@ -7,5 +7,7 @@ public enum BlockReason {
     FILE_SIZE_EXCEEDED,    // 파일 크기 초과
     BLOCKED_EXTENSION,     // 차단된 확장자
     INVALID_FILENAME,      // 올바르지 않은 파일명
-    BYPASS_ATTEMPT         // 우회 시도
+    BYPASS_ATTEMPT,        // 우회 시도
+    BLOCKED_ARCHIVE_ENTRY, // 압축 파일 내부의 차단된 확장자
+    SUSPICIOUS_ARCHIVE     // 검사 한도 초과 또는 검사할 수 없는 압축 파일 (zip bomb 등)
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.assignment.fileextension.exception;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+
+/**
+ * 스트리밍 저장 중 파일 크기가 한도를 넘었을 때 발생하는 예외
+ */
+public class FileSizeLimitExceededException extends FileValidationException {
+    
+    private final long limit;
+    
+    public FileSizeLimitExceededException(long limit) {
+        super(String.format(FileExtensionConstants.Messages.FILE_SIZE_LIMIT_EXCEEDED, limit));
+        this.limit = limit;
+    }
+    
+    public long getLimit() {
+        return limit;
+    }
+}
@@ -0,0 +1,121 @@
+package com.assignment.fileextension.filter;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.enums.BlockReason;
+import com.assignment.fileextension.service.AuditService;
+import com.assignment.fileextension.service.FileValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 업로드 본문을 읽기 전에 요청 헤더만으로 차단 여부를 판단하는 필터
+ * <ul>
+ *     <li>Content-Length 가 설정된 최대 파일 크기(app.file.max-size)를 넘으면 413</li>
+ *     <li>X-File-Name 헤더(UTF-8 퍼센트 인코딩)의 파일명이 차단 대상이면 400</li>
+ * </ul>
+ * 본문을 읽지 않은 채 응답하므로, Expect: 100-continue 를 보낸 클라이언트는 본문을 전송하지 않습니다.
+ * 헤더가 없거나 허용된 경우에는 기존처럼 컨트롤러에서 실제 파일로 다시 검증합니다.
+ */
+@Slf4j
+public class UploadPreCheckFilter extends OncePerRequestFilter {
+
+    public static final String FILE_NAME_HEADER = "X-File-Name";
+    private static final String UNKNOWN_FILENAME = "(알 수 없음)";
+
+    private final FileValidationService fileValidationService;
+    private final AuditService auditService;
+    private final ObjectMapper objectMapper;
+    private final long maxFileSize;
+
+    public UploadPreCheckFilter(FileValidationService fileValidationService, AuditService auditService,
+                                ObjectMapper objectMapper, long maxFileSize) {
+        this.fileValidationService = fileValidationService;
+        this.auditService = auditService;
+        this.objectMapper = objectMapper;
+        this.maxFileSize = maxFileSize;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long contentLength = request.getContentLengthLong();
+        String declaredFileName = decodeFileName(request.getHeader(FILE_NAME_HEADER));
+        
+        long maxRequestSize = maxFileSize + FileExtensionConstants.FileLimit.MULTIPART_OVERHEAD_BYTES;
+        if (contentLength > maxRequestSize) {
+            FileValidationService.FileValidationResult result = FileValidationService.FileValidationResult.blocked(
+                    String.format(FileExtensionConstants.Messages.FILE_SIZE_LIMIT_EXCEEDED, maxFileSize),
+                    BlockReason.FILE_SIZE_EXCEEDED);
+            reject(request, response, HttpStatus.PAYLOAD_TOO_LARGE, declaredFileName, contentLength, result);
+            return;
+        }
+        
+        if (declaredFileName != null) {
+            FileValidationService.FileValidationResult result =
+                    fileValidationService.validateDeclaredFileName(declaredFileName);
+            if (result.isBlocked()) {
+                reject(request, response, HttpStatus.BAD_REQUEST, declaredFileName, contentLength, result);
+                return;
+            }
+        }
+        
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status,
+                        String fileName, long contentLength,
+                        FileValidationService.FileValidationResult result) throws IOException {
+        String loggedFileName = fileName != null ? fileName : UNKNOWN_FILENAME;
+        auditService.logBlockedUpload(loggedFileName, Math.max(contentLength, 0), request, result);
+        log.warn(FileExtensionConstants.LogMessages.FILE_UPLOAD_BLOCKED + " (본문 수신 전 차단)",
+                loggedFileName, result.getReason());
+        
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", result.getReason());
+        body.put("fileName", fileName);
+        body.put("blockReason", result.getBlockReason());
+        if (result.getBlockedExtension() != null) {
+            body.put("blockedExtension", result.getBlockedExtension());
+        }
+        
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        // 남은 본문을 받지 않도록 연결을 닫음
+        response.setHeader(HttpHeaders.CONNECTION, "close");
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * 헤더의 파일명은 UTF-8 퍼센트 인코딩으로 받습니다. 디코딩할 수 없으면 빈 문자열(잘못된 파일명)로 처리합니다.
+     */
+    private String decodeFileName(String headerValue) {
+        if (headerValue == null) {
+            return null;
+        }
+        try {
+            return URLDecoder.decode(headerValue, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.assignment.fileextension.repository;
+
+import com.assignment.fileextension.entity.BackgroundJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BackgroundJobRepository extends JpaRepository<BackgroundJob, Long> {
+    
+    List<BackgroundJob> findByNodeIdAndStatusInOrderById(String nodeId, Collection<BackgroundJob.JobStatus> statuses);
+}
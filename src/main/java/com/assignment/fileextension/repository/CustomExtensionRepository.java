@@ -2,9 +2,12 @@ package com.assignment.fileextension.repository;
 
 import com.assignment.fileextension.entity.CustomExtension;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,4 +23,8 @@ public interface CustomExtensionRepository extends JpaRepository<CustomExtension
     
     @Query("SELECT c.extension FROM CustomExtension c")
     List<String> findAllExtensions();
+    
+    @Modifying
+    @Query("DELETE FROM CustomExtension c WHERE c.extension IN :extensions")
+    int deleteAllByExtensionIn(@Param("extensions") Collection<String> extensions);
 }
\ No newline at end of file
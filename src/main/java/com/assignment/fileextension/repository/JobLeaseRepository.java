@@ -0,0 +1,25 @@
+package com.assignment.fileextension.repository;
+
+import com.assignment.fileextension.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+    
+    /**
+     * 이 노드가 임대 중이거나 임대가 만료되었을 때만 이 노드의 임대로 (다시) 잡습니다.
+     * 만료 여부와 새 만료 시각은 DB 시각으로 계산하므로 노드 사이의 시계 차이가 임대에 영향을 주지 않습니다.
+     *
+     * @return 잡았으면 1, 다른 노드가 임대 중이면 0
+     */
+    @Modifying
+    @Query("UPDATE JobLease l SET l.nodeId = :nodeId, l.expiresAt = CURRENT_TIMESTAMP + (:leaseSeconds) SECOND " +
+           "WHERE l.name = :name AND (l.nodeId = :nodeId OR l.expiresAt < CURRENT_TIMESTAMP)")
+    int acquire(@Param("name") String name,
+                @Param("nodeId") String nodeId,
+                @Param("leaseSeconds") long leaseSeconds);
+}
@@ -0,0 +1,21 @@
+package com.assignment.fileextension.repository;
+
+import com.assignment.fileextension.entity.PackSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PackSegmentRepository extends JpaRepository<PackSegment, Long> {
+    
+    List<PackSegment> findByNodeIdAndStatus(String nodeId, PackSegment.SegmentStatus status);
+    
+    /**
+     * 압축 대상 후보: 봉인된 지 유예 시간이 지난 세그먼트 (늦게 커밋되는 업로드 행이 없도록)
+     */
+    List<PackSegment> findByStatusAndSealedAtBefore(PackSegment.SegmentStatus status, LocalDateTime cutoff);
+    
+    List<PackSegment> findByStatusAndRetiredAtBefore(PackSegment.SegmentStatus status, LocalDateTime cutoff);
+}
@@ -0,0 +1,28 @@
+package com.assignment.fileextension.repository;
+
+import com.assignment.fileextension.entity.PolicyVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Optional;
+
+@Repository
+public interface PolicyVersionRepository extends JpaRepository<PolicyVersion, Long> {
+    
+    @Modifying
+    @Query("UPDATE PolicyVersion p SET p.version = p.version + 1, p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :id")
+    int increment(@Param("id") Long id);
+    
+    @Query("SELECT p.version FROM PolicyVersion p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+    
+    /**
+     * DB 의 현재 시각을 반환합니다. updatedAt 과 같은 시계로 반영 지연을 계산할 때 사용합니다.
+     */
+    @Query("SELECT CURRENT_TIMESTAMP FROM PolicyVersion p WHERE p.id = :id")
+    Optional<Timestamp> findDatabaseTimeById(@Param("id") Long id);
+}
@@ -0,0 +1,22 @@
+package com.assignment.fileextension.repository;
+
+import com.assignment.fileextension.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+    
+    /**
+     * 참조 수 변경과 물리 파일 삭제가 엇갈리지 않도록 행을 잠그고 조회합니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlob b WHERE b.hash = :hash")
+    Optional<StoredBlob> findByHashForUpdate(@Param("hash") String hash);
+}
@@ -0,0 +1,25 @@
+package com.assignment.fileextension.repository;
+
+import com.assignment.fileextension.entity.UploadSessionChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface UploadSessionChunkRepository extends JpaRepository<UploadSessionChunk, Long> {
+    
+    @Query("SELECT c.chunkIndex FROM UploadSessionChunk c WHERE c.sessionId = :sessionId ORDER BY c.chunkIndex")
+    List<Integer> findChunkIndexes(@Param("sessionId") String sessionId);
+    
+    boolean existsBySessionIdAndChunkIndex(String sessionId, Integer chunkIndex);
+    
+    long countBySessionId(String sessionId);
+    
+    @Modifying
+    @Query("DELETE FROM UploadSessionChunk c WHERE c.sessionId = :sessionId")
+    int deleteAllBySessionId(@Param("sessionId") String sessionId);
+}
@@ -0,0 +1,33 @@
+package com.assignment.fileextension.repository;
+
+import com.assignment.fileextension.entity.UploadSession;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+    
+    /**
+     * 커밋이 한 번만 수행되도록 세션 행을 잠그고 조회합니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForUpdate(@Param("id") String id);
+    
+    /**
+     * 청크 기록 중에는 공유 잠금을 잡아, 커밋이 진행 중인 쓰기가 끝날 때까지 기다리게 합니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT s FROM UploadSession s WHERE s.id = :id")
+    Optional<UploadSession> findByIdForShare(@Param("id") String id);
+    
+    List<UploadSession> findByStatusAndExpiresAtBefore(UploadSession.SessionStatus status, LocalDateTime time);
+}
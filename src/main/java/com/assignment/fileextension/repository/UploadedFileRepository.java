@@ -1,11 +1,16 @@
 package com.assignment.fileextension.repository;
 
 import com.assignment.fileextension.entity.UploadedFile;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,4 +31,155 @@ public interface UploadedFileRepository extends JpaRepository<UploadedFile, Long
     List<UploadedFile> findActiveFilesByExtensions(@Param("extensions") List<String> extensions);
     
     long countByStatus(UploadedFile.FileStatus status);
-}
\ No newline at end of file
+    
+    /**
+     * 단건 삭제용: 같은 행을 동시에/반복해 삭제해도 공유 blob 참조를 한 번만 해제하도록 행을 잠급니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM UploadedFile f WHERE f.id = :id")
+    Optional<UploadedFile> findByIdForUpdate(@Param("id") Long id);
+    
+    /**
+     * 확장자 정리 배치 (keyset). 삭제 예외 설정 변경과 겹치지 않도록 배치 행을 잠급니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM UploadedFile f WHERE f.extension IN :extensions AND f.status = 'ACTIVE' AND f.id > :afterId ORDER BY f.id")
+    List<UploadedFile> findActiveFilesByExtensionsAfter(@Param("extensions") List<String> extensions,
+                                                        @Param("afterId") Long afterId,
+                                                        Pageable pageable);
+    
+    @Query("SELECT COUNT(f) FROM UploadedFile f WHERE f.extension IN :extensions AND f.status = 'ACTIVE'")
+    long countActiveFilesByExtensions(@Param("extensions") List<String> extensions);
+    
+    /**
+     * 확장자 복구 배치 (keyset). 격리된 행을 잠가 같은 행을 동시에 복구하지 않게 합니다.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM UploadedFile f WHERE f.extension IN :extensions AND f.status = 'QUARANTINED' AND f.id > :afterId ORDER BY f.id")
+    List<UploadedFile> findQuarantinedFilesByExtensionsAfter(@Param("extensions") List<String> extensions,
+                                                             @Param("afterId") Long afterId,
+                                                             Pageable pageable);
+    
+    @Query("SELECT COUNT(f) FROM UploadedFile f WHERE f.extension IN :extensions AND f.status = 'QUARANTINED'")
+    long countQuarantinedFilesByExtensions(@Param("extensions") List<String> extensions);
+    
+    /**
+     * 배치의 상태를 한 번의 UPDATE 로 바꿉니다. 정책 버전은 지워 다시 검사받게 합니다.
+     */
+    @Modifying
+    @Query("UPDATE UploadedFile f SET f.status = :status, f.policyVersion = NULL WHERE f.id IN :ids")
+    int updateStatus(@Param("ids") List<Long> ids, @Param("status") UploadedFile.FileStatus status);
+    
+    /**
+     * 저장 배치 이전 대상: 업로드 디렉터리에 개별 저장된 활성 파일을 ID 순으로 (공유 blob, pack 항목, 콜드 티어 제외)
+     */
+    @Query("SELECT f FROM UploadedFile f WHERE f.id > :afterId AND f.status = 'ACTIVE' AND f.contentHash IS NULL " +
+           "AND f.packSegmentId IS NULL AND (f.storageTier IS NULL OR f.storageTier = 'HOT') ORDER BY f.id")
+    List<UploadedFile> findLayoutMigrationCandidates(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * 경로가 그대로일 때만 새 경로로 바꿉니다. 그 사이 삭제/변경된 행이면 0 을 반환합니다.
+     */
+    @Modifying
+    @Query("UPDATE UploadedFile f SET f.filePath = :newPath WHERE f.id = :id AND f.filePath = :oldPath")
+    int relocate(@Param("id") Long id, @Param("oldPath") String oldPath, @Param("newPath") String newPath);
+    
+    /**
+     * 지연 적용 모드의 정리 대상: 현재 정책 버전으로 아직 검사하지 않은 활성 파일 (keyset)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM UploadedFile f WHERE f.status = 'ACTIVE' AND f.id > :afterId " +
+           "AND (f.policyVersion IS NULL OR f.policyVersion <> :version) ORDER BY f.id")
+    List<UploadedFile> findUncheckedFilesAfter(@Param("version") Long version,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+    
+    /**
+     * 검사를 통과한 파일에 정책 버전을 기록합니다. (updatedAt 은 바꾸지 않으므로 ETag 가 유지됨)
+     */
+    @Modifying
+    @Query("UPDATE UploadedFile f SET f.policyVersion = :version WHERE f.id IN :ids")
+    int stampPolicyVersion(@Param("ids") List<Long> ids, @Param("version") Long version);
+    
+    /**
+     * 디스크 정합성 점검용: 업로드 디렉터리에 개별 저장된 파일 행을 storedFilename 순서로
+     * (keyset, 공유 blob, pack 항목과 삭제 표시 행 제외. 콜드 티어 파일은 격리되어 업로드 디렉터리에 있을 때만)
+     */
+    @Query("SELECT f FROM UploadedFile f WHERE f.storedFilename > :after AND f.contentHash IS NULL " +
+           "AND f.packSegmentId IS NULL " +
+           "AND (f.storageTier IS NULL OR f.storageTier = 'HOT' OR f.status = 'QUARANTINED') " +
+           "AND f.status <> 'DELETED' ORDER BY f.storedFilename")
+    List<UploadedFile> findStoredFilesAfter(@Param("after") String after, Pageable pageable);
+    
+    /**
+     * 디스크 정합성 점검용: 콜드 티어 디렉터리에 있는 파일 행을 storedFilename 순서로 (keyset)
+     */
+    @Query("SELECT f FROM UploadedFile f WHERE f.storedFilename > :after AND f.contentHash IS NULL " +
+           "AND f.packSegmentId IS NULL AND f.storageTier = 'COLD' AND f.status = 'ACTIVE' " +
+           "ORDER BY f.storedFilename")
+    List<UploadedFile> findColdFilesAfter(@Param("after") String after, Pageable pageable);
+    
+    /**
+     * 세그먼트 압축 대상: 세그먼트 안에 살아 있는(삭제 표시 전) 항목을 ID 순으로 (keyset)
+     */
+    @Query("SELECT f FROM UploadedFile f WHERE f.packSegmentId = :segmentId AND f.status <> 'DELETED' " +
+           "AND f.id > :afterId ORDER BY f.id")
+    List<UploadedFile> findPackedFilesAfter(@Param("segmentId") Long segmentId,
+                                            @Param("afterId") Long afterId,
+                                            Pageable pageable);
+    
+    @Query("SELECT COALESCE(SUM(f.storedSize), 0) FROM UploadedFile f WHERE f.packSegmentId = :segmentId AND f.status <> 'DELETED'")
+    long sumLivePackedBytes(@Param("segmentId") Long segmentId);
+    
+    long countByPackSegmentIdAndStatusNot(Long packSegmentId, UploadedFile.FileStatus status);
+    
+    /**
+     * 항목이 아직 옛 세그먼트의 같은 위치를 가리킬 때만 새 위치로 바꿉니다. 그 사이 삭제/이동된 행이면 0 을 반환합니다.
+     * (내용은 같으므로 updatedAt 은 바꾸지 않아 ETag 가 유지됨)
+     */
+    @Modifying
+    @Query("UPDATE UploadedFile f SET f.packSegmentId = :newSegmentId, f.filePath = :newPath, f.packOffset = :newOffset " +
+           "WHERE f.id = :id AND f.packSegmentId = :oldSegmentId AND f.packOffset = :oldOffset")
+    int relocatePacked(@Param("id") Long id,
+                       @Param("oldSegmentId") Long oldSegmentId,
+                       @Param("oldOffset") Long oldOffset,
+                       @Param("newSegmentId") Long newSegmentId,
+                       @Param("newPath") String newPath,
+                       @Param("newOffset") Long newOffset);
+    
+    /**
+     * 콜드 티어로 내릴 후보: 오래되었고 최근에 읽히지 않은, 업로드 디렉터리에 개별 저장된 활성 파일 (keyset)
+     */
+    @Query("SELECT f FROM UploadedFile f WHERE f.id > :afterId AND f.status = 'ACTIVE' AND f.contentHash IS NULL " +
+           "AND f.packSegmentId IS NULL AND (f.storageTier IS NULL OR f.storageTier = 'HOT') " +
+           "AND f.createdAt < :createdBefore AND (f.lastAccessedAt IS NULL OR f.lastAccessedAt < :accessedBefore) " +
+           "ORDER BY f.id")
+    List<UploadedFile> findDemotionCandidatesAfter(@Param("afterId") Long afterId,
+                                                   @Param("createdBefore") LocalDateTime createdBefore,
+                                                   @Param("accessedBefore") LocalDateTime accessedBefore,
+                                                   Pageable pageable);
+    
+    /**
+     * 경로가 그대로인 활성 파일만 다른 티어의 위치로 바꿉니다. 그 사이 삭제/격리/변경된 행이면 0 을 반환합니다.
+     * (내용은 같으므로 updatedAt 은 바꾸지 않아 ETag 가 유지됨)
+     */
+    @Modifying
+    @Query("UPDATE UploadedFile f SET f.filePath = :newPath, f.storageTier = :tier, f.storageEncoding = :encoding, " +
+           "f.storedSize = :storedSize WHERE f.id = :id AND f.filePath = :oldPath AND f.status = 'ACTIVE'")
+    int moveToTier(@Param("id") Long id,
+                   @Param("oldPath") String oldPath,
+                   @Param("newPath") String newPath,
+                   @Param("tier") UploadedFile.StorageTier tier,
+                   @Param("encoding") UploadedFile.StorageEncoding encoding,
+                   @Param("storedSize") Long storedSize);
+    
+    /**
+     * 모아 둔 다운로드 기록을 한 번의 UPDATE 로 반영합니다. (같은 횟수만큼 읽힌 파일끼리 묶음)
+     */
+    @Modifying
+    @Query("UPDATE UploadedFile f SET f.lastAccessedAt = :accessedAt, " +
+           "f.accessCount = COALESCE(f.accessCount, 0) + :reads WHERE f.id IN :ids")
+    int recordAccess(@Param("ids") List<Long> ids,
+                     @Param("reads") long reads,
+                     @Param("accessedAt") LocalDateTime accessedAt);
+}
@@ -0,0 +1,432 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.enums.BlockReason;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Enumeration;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+/**
+ * 압축 파일(zip/jar) 내부 항목 이름 검사
+ * 내용을 풀어 저장하지 않고 항목 이름만 정책과 대조하며, 처음 발견한 차단 항목에서 바로 멈춥니다.
+ * 중앙 디렉터리만 읽으므로 항목 내용은 풀지 않으며, 업로드는 저장된 내용을 그 자리에서 검사합니다.
+ * 로컬 헤더를 순서대로 읽는 스트림 검사는 중첩된 압축 파일에만 쓰고, 그 크기에도 한도를 둡니다.
+ * 항목 수, 중첩 깊이, 압축률, 총 해제 크기에 한도를 두어 zip bomb 으로 CPU/메모리를 소모하지 못하게 합니다.
+ */
+@Component
+public class ArchiveInspector {
+
+    private static final Set<String> ARCHIVE_EXTENSIONS = Set.of("zip", "jar", "war", "ear");
+    private static final byte[] LOCAL_HEADER_MAGIC = {'P', 'K', 0x03, 0x04};
+    private static final int DRAIN_BUFFER_SIZE = 8 * 1024;
+    private static final String SPOOL_PREFIX = "archive-inspect-";
+    // 작은 항목은 압축률이 높아도 부담이 없으므로 이 크기 이상 풀렸을 때부터 압축률을 확인
+    private static final long RATIO_CHECK_MIN_BYTES = 1024 * 1024L;
+
+    /**
+     * 업로드 파일이 zip 형식이면 임시 파일로 받아 중앙 디렉터리로 항목 이름을 검사합니다.
+     * (스트림으로 읽으면 크고 잘 압축된 정상 파일도 모든 항목을 풀어야 해서 해제 한도에 걸림)
+     * 저장하지 않는 검사 전용이며, 저장할 파일은 저장 후 {@link #inspect(StoredContent, ExtensionPolicySnapshot)} 로 검사합니다.
+     *
+     * @return 차단 사유, zip 이 아니거나 문제가 없으면 null
+     */
+    public Finding inspect(MultipartFile file, ExtensionPolicySnapshot policy) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            if (!isZipMagic(inputStream.readNBytes(LOCAL_HEADER_MAGIC.length))) {
+                return null;
+            }
+        }
+
+        try (InputStream inputStream = file.getInputStream()) {
+            return inspectSpooled(inputStream, policy);
+        }
+    }
+
+    /**
+     * 저장된 내용이 zip 형식이면 항목 이름을 검사합니다.
+     * 파일 하나에 그대로 저장된 내용은 바로 중앙 디렉터리를 읽고,
+     * pack 세그먼트의 한 구간이나 gzip 으로 저장된 내용은 원본을 임시 파일로 꺼내 검사합니다.
+     */
+    public Finding inspect(StoredContent content, ExtensionPolicySnapshot policy) throws IOException {
+        // 세그먼트의 첫 항목도 offset 이 0 이므로 파일 전체와 길이가 같은지까지 확인
+        if (content.offset() == 0 && !content.gzip() && content.length() == Files.size(content.path())) {
+            return inspect(content.path(), policy);
+        }
+
+        try (FileChannel channel = FileChannel.open(content.path(), StandardOpenOption.READ)) {
+            channel.position(content.offset());
+            InputStream region = new BoundedInputStream(Channels.newInputStream(channel), content.length());
+            try (InputStream inputStream = content.gzip() ? new GZIPInputStream(region) : region) {
+                PushbackInputStream in = new PushbackInputStream(inputStream, LOCAL_HEADER_MAGIC.length);
+                byte[] magic = in.readNBytes(LOCAL_HEADER_MAGIC.length);
+                in.unread(magic);
+                if (!isZipMagic(magic)) {
+                    return null;
+                }
+                return inspectSpooled(in, policy);
+            }
+        }
+    }
+
+    /**
+     * 스트림이 zip 형식이면 로컬 헤더를 순서대로 읽어 항목 이름을 검사합니다. (스트림은 닫지 않음)
+     * 모든 항목을 풀어 읽어야 하므로 파일로 받을 수 없을 때만 사용합니다.
+     */
+    public Finding inspect(InputStream inputStream, ExtensionPolicySnapshot policy) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(inputStream, LOCAL_HEADER_MAGIC.length);
+        byte[] magic = in.readNBytes(LOCAL_HEADER_MAGIC.length);
+        in.unread(magic);
+        if (!isZipMagic(magic)) {
+            return null;
+        }
+
+        Budget budget = new Budget();
+        try {
+            return inspectStream(in, policy, budget, 0, "");
+        } catch (ArchiveLimitException e) {
+            return Finding.suspicious(e.getMessage());
+        } catch (ZipException | IllegalArgumentException e) {
+            // 손상되었거나 암호화된 항목은 내용을 건너뛸 수 없어 끝까지 검사할 수 없음
+            return Finding.suspicious("읽을 수 없는 압축 항목 (" + e.getMessage() + ")");
+        }
+    }
+
+    /**
+     * 디스크에 있는 zip 파일은 중앙 디렉터리만 읽어 항목 이름을 검사합니다.
+     * 중첩된 압축 파일만 스트림으로 읽습니다.
+     */
+    public Finding inspect(Path path, ExtensionPolicySnapshot policy) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            if (!isZipMagic(inputStream.readNBytes(LOCAL_HEADER_MAGIC.length))) {
+                return null;
+            }
+        }
+
+        Budget budget = new Budget();
+        // 한글 Windows 에서 만든 zip 은 이름이 UTF-8 이 아니므로, 실패하지 않는 ISO-8859-1 로 읽음
+        // (확장자 토큰은 ASCII 이고 '.' 은 2바이트 문자의 일부가 될 수 없어 판단에 영향이 없음)
+        try (ZipFile zipFile = new ZipFile(path.toFile(), StandardCharsets.ISO_8859_1)) {
+            if (zipFile.size() > FileExtensionConstants.FileLimit.MAX_ARCHIVE_ENTRIES) {
+                return Finding.suspicious("항목 수 " + zipFile.size() + "개가 한도를 초과");
+            }
+            return inspectCentralDirectory(zipFile, policy, budget);
+        } catch (ArchiveLimitException e) {
+            return Finding.suspicious(e.getMessage());
+        } catch (ZipException | IllegalArgumentException e) {
+            return Finding.suspicious("읽을 수 없는 압축 파일 (" + e.getMessage() + ")");
+        }
+    }
+
+    private Finding inspectSpooled(InputStream inputStream, ExtensionPolicySnapshot policy) throws IOException {
+        Path spooled = Files.createTempFile(SPOOL_PREFIX, ".zip");
+        try {
+            Files.copy(inputStream, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return inspect(spooled, policy);
+        } finally {
+            Files.deleteIfExists(spooled);
+        }
+    }
+
+    private Finding inspectCentralDirectory(ZipFile zipFile, ExtensionPolicySnapshot policy, Budget budget)
+            throws IOException {
+        Enumeration<? extends ZipEntry> entries = zipFile.entries();
+        while (entries.hasMoreElements()) {
+            ZipEntry entry = entries.nextElement();
+            budget.countEntry();
+            if (entry.isDirectory()) {
+                continue;
+            }
+
+            Finding finding = checkEntryName(entry.getName(), policy);
+            if (finding != null) {
+                return finding;
+            }
+
+            // 중앙 디렉터리에 기록된 크기로 압축률을 먼저 확인 (실제 해제 시에도 다시 확인함)
+            if (entry.getSize() > RATIO_CHECK_MIN_BYTES
+                    && entry.getSize() > entry.getCompressedSize()
+                    * FileExtensionConstants.FileLimit.MAX_ARCHIVE_COMPRESSION_RATIO) {
+                throw new ArchiveLimitException("압축률 한도 초과: " + entry.getName());
+            }
+
+            if (isNestedArchive(entry.getName())) {
+                if (entry.getSize() > FileExtensionConstants.FileLimit.MAX_NESTED_ARCHIVE_BYTES) {
+                    throw new ArchiveLimitException("중첩 압축 파일 크기 한도 초과: " + entry.getName());
+                }
+                long compressedSize = entry.getCompressedSize();
+                try (InputStream nested = zipFile.getInputStream(entry)) {
+                    // 중첩 파일 안의 항목은 이 스트림을 거쳐 읽히므로, 여기서 센 크기로 전체를 제한
+                    EntryStream entryStream = new EntryStream(nested, () -> compressedSize, budget, entry.getName(),
+                            FileExtensionConstants.FileLimit.MAX_NESTED_ARCHIVE_BYTES);
+                    finding = inspectNested(entryStream, policy, budget, 1, entry.getName());
+                }
+                if (finding != null) {
+                    return finding;
+                }
+            }
+        }
+        return null;
+    }
+
+    private Finding inspectStream(InputStream inputStream, ExtensionPolicySnapshot policy, Budget budget,
+                                  int depth, String parentPath) throws IOException {
+        CountingInputStream raw = new CountingInputStream(inputStream);
+        ZipInputStream zip = new ZipInputStream(raw, StandardCharsets.ISO_8859_1);
+
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            budget.countEntry();
+            String entryPath = parentPath + entry.getName();
+            if (entry.isDirectory()) {
+                continue;
+            }
+
+            Finding finding = checkEntryName(entryPath, policy);
+            if (finding != null) {
+                return finding;
+            }
+
+            long rawStart = raw.count;
+            EntryStream entryStream = new EntryStream(zip, () -> raw.count - rawStart, budget, entryPath, Long.MAX_VALUE);
+            if (isNestedArchive(entry.getName())) {
+                finding = inspectNested(entryStream, policy, budget, depth + 1, entryPath);
+                if (finding != null) {
+                    return finding;
+                }
+            }
+            // 다음 항목으로 넘어가기 전에 남은 내용을 한도 안에서 읽어 버림
+            entryStream.drain();
+        }
+        return null;
+    }
+
+    private Finding inspectNested(InputStream nested, ExtensionPolicySnapshot policy, Budget budget,
+                                  int depth, String entryPath) throws IOException {
+        if (depth > FileExtensionConstants.FileLimit.MAX_ARCHIVE_DEPTH) {
+            throw new ArchiveLimitException("중첩 깊이 한도 초과: " + entryPath);
+        }
+
+        PushbackInputStream in = new PushbackInputStream(nested, LOCAL_HEADER_MAGIC.length);
+        byte[] magic = in.readNBytes(LOCAL_HEADER_MAGIC.length);
+        in.unread(magic);
+        if (!isZipMagic(magic)) {
+            return null;
+        }
+        return inspectStream(in, policy, budget, depth, entryPath + "!/");
+    }
+
+    /**
+     * 항목 경로의 마지막 이름을 정책의 파일명 규칙(모든 확장자 토큰)으로 확인합니다.
+     */
+    private Finding checkEntryName(String entryPath, ExtensionPolicySnapshot policy) {
+        int slash = Math.max(entryPath.lastIndexOf('/'), entryPath.lastIndexOf('\\'));
+        String name = entryPath.substring(slash + 1);
+
+        String blockedExtension = policy.findBlockedExtension(name);
+        return blockedExtension == null ? null : Finding.blockedEntry(entryPath, blockedExtension);
+    }
+
+    private static boolean isNestedArchive(String entryName) {
+        int dot = entryName.lastIndexOf('.');
+        return dot >= 0 && ARCHIVE_EXTENSIONS.contains(entryName.substring(dot + 1).toLowerCase());
+    }
+
+    private static boolean isZipMagic(byte[] magic) {
+        if (magic.length < LOCAL_HEADER_MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < LOCAL_HEADER_MAGIC.length; i++) {
+            if (magic[i] != LOCAL_HEADER_MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 압축 파일 검사 결과 (차단 사유, 문제가 된 항목 경로, 차단된 확장자, 상세 설명)
+     */
+    public record Finding(BlockReason blockReason, String entryPath, String blockedExtension, String detail) {
+
+        static Finding blockedEntry(String entryPath, String blockedExtension) {
+            return new Finding(BlockReason.BLOCKED_ARCHIVE_ENTRY, entryPath, blockedExtension, entryPath);
+        }
+
+        static Finding suspicious(String detail) {
+            return new Finding(BlockReason.SUSPICIOUS_ARCHIVE, null, null, detail);
+        }
+    }
+
+    /**
+     * 한 번의 검사(중첩 포함) 전체에 적용되는 한도
+     */
+    private static final class Budget {
+        private int entries;
+        private long inflatedBytes;
+
+        void countEntry() throws ArchiveLimitException {
+            if (++entries > FileExtensionConstants.FileLimit.MAX_ARCHIVE_ENTRIES) {
+                throw new ArchiveLimitException("항목 수 한도 초과");
+            }
+        }
+
+        void addInflated(long bytes) throws ArchiveLimitException {
+            inflatedBytes += bytes;
+            if (inflatedBytes > FileExtensionConstants.FileLimit.MAX_ARCHIVE_INFLATED_BYTES) {
+                throw new ArchiveLimitException("해제 크기 한도 초과");
+            }
+        }
+    }
+
+    /**
+     * 현재 항목의 내용을 읽으면서 해제 크기와 압축률을 확인하는 스트림
+     * 압축률은 이 항목에서 소비한 압축 데이터 바이트 대비 풀린 바이트로 계산하며, 항목 크기가 limit 을 넘으면 멈춥니다.
+     */
+    private static final class EntryStream extends InputStream {
+        private final InputStream source;
+        private final LongSupplier compressedBytes;
+        private final Budget budget;
+        private final String entryPath;
+        private final long limit;
+        private long inflated;
+
+        EntryStream(InputStream source, LongSupplier compressedBytes, Budget budget, String entryPath, long limit) {
+            this.source = source;
+            this.compressedBytes = compressedBytes;
+            this.budget = budget;
+            this.entryPath = entryPath;
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            int n = read(one, 0, 1);
+            return n < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = source.read(buffer, offset, length);
+            if (n > 0) {
+                inflated += n;
+                budget.addInflated(n);
+                if (inflated > limit) {
+                    throw new ArchiveLimitException("중첩 압축 파일 크기 한도 초과: " + entryPath);
+                }
+                long compressed = Math.max(1, compressedBytes.getAsLong());
+                if (inflated > RATIO_CHECK_MIN_BYTES
+                        && inflated > compressed * FileExtensionConstants.FileLimit.MAX_ARCHIVE_COMPRESSION_RATIO) {
+                    throw new ArchiveLimitException("압축률 한도 초과: " + entryPath);
+                }
+            }
+            return n;
+        }
+
+        void drain() throws IOException {
+            byte[] buffer = new byte[DRAIN_BUFFER_SIZE];
+            while (read(buffer, 0, buffer.length) >= 0) {
+                // 내용은 버리고 한도만 확인
+            }
+        }
+
+        @Override
+        public void close() {
+            // 항목 경계는 바깥 zip 스트림이 관리하므로 닫지 않음
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    /**
+     * 원본 스트림에서 최대 remaining 바이트만 읽는 스트림 (세그먼트의 한 구간)
+     */
+    private static final class BoundedInputStream extends FilterInputStream {
+        private long remaining;
+
+        BoundedInputStream(InputStream in, long remaining) {
+            super(in);
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
+    }
+
+    private static final class ArchiveLimitException extends IOException {
+        ArchiveLimitException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.assignment.fileextension.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.Deflater;
+
+/**
+ * 저장 시 gzip 압축 여부를 파일마다 결정합니다.
+ * <ol>
+ *     <li>이미 압축된 형식(zip, jpg, mp4 등)은 확장자/Content-Type/매직 바이트로 걸러냄</li>
+ *     <li>나머지는 앞부분 표본을 가장 빠른 수준으로 압축해 보고, 충분히 줄어들 때만 압축</li>
+ * </ol>
+ * 표본 압축은 최대 {@link #SAMPLE_BYTES} 바이트만 다루므로 파일 크기와 관계없이 비용이 일정합니다.
+ */
+@Component
+public class AtRestCompressionPolicy {
+    
+    public static final int SAMPLE_BYTES = 64 * 1024;
+    // gzip 헤더/트레일러 비용을 감안하면 이보다 작은 파일은 이득이 거의 없음
+    private static final int MIN_COMPRESS_BYTES = 1024;
+    // 표본이 이 비율 이하로 줄어들 때만 압축 (30% 이상 절감)
+    private static final double MAX_COMPRESSED_RATIO = 0.7;
+    
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "zip", "gz", "tgz", "bz2", "xz", "7z", "rar", "zst", "jar", "war",
+            "jpg", "jpeg", "png", "gif", "webp", "heic", "avif",
+            "mp4", "mov", "mkv", "webm", "avi", "mp3", "aac", "ogg", "flac", "m4a",
+            "pdf", "docx", "xlsx", "pptx", "hwpx", "odt", "ods", "epub", "woff", "woff2"
+    );
+    
+    private static final Set<String> COMPRESSED_CONTENT_TYPE_PREFIXES = Set.of(
+            "image/", "video/", "audio/", "font/woff"
+    );
+    
+    private static final Set<String> COMPRESSED_CONTENT_TYPES = Set.of(
+            "application/zip", "application/gzip", "application/x-gzip", "application/x-7z-compressed",
+            "application/x-rar-compressed", "application/x-bzip2", "application/x-xz", "application/zstd",
+            "application/pdf", "application/java-archive"
+    );
+    
+    /**
+     * 표본(파일 앞부분)을 보고 저장 시 압축할지 결정합니다.
+     */
+    public boolean shouldCompress(String contentType, String extension, byte[] sample, int length) {
+        if (length < MIN_COMPRESS_BYTES || isAlreadyCompressed(contentType, extension) || hasCompressedMagic(sample, length)) {
+            return false;
+        }
+        return compressedRatio(sample, length) <= MAX_COMPRESSED_RATIO;
+    }
+    
+    private boolean isAlreadyCompressed(String contentType, String extension) {
+        if (extension != null && COMPRESSED_EXTENSIONS.contains(extension.toLowerCase(Locale.ROOT))) {
+            return true;
+        }
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.toLowerCase(Locale.ROOT);
+        int parameterStart = type.indexOf(';');
+        if (parameterStart >= 0) {
+            type = type.substring(0, parameterStart).trim();
+        }
+        if (COMPRESSED_CONTENT_TYPES.contains(type)) {
+            return true;
+        }
+        for (String prefix : COMPRESSED_CONTENT_TYPE_PREFIXES) {
+            // SVG 는 텍스트이므로 image/ 이지만 압축 대상
+            if (type.startsWith(prefix) && !type.equals("image/svg+xml")) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 확장자가 없거나 틀려도 zip(PK) / gzip 은 매직 바이트로 제외합니다.
+     * zip 은 저장 후 내부 항목 검사를 하므로 원본 그대로 두어야 합니다.
+     */
+    private boolean hasCompressedMagic(byte[] sample, int length) {
+        if (length < 2) {
+            return false;
+        }
+        int first = sample[0] & 0xFF;
+        int second = sample[1] & 0xFF;
+        return (first == 'P' && second == 'K') || (first == 0x1F && second == 0x8B);
+    }
+    
+    private double compressedRatio(byte[] sample, int length) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+        try {
+            deflater.setInput(sample, 0, length);
+            deflater.finish();
+            byte[] output = new byte[8 * 1024];
+            long compressed = 0;
+            while (!deflater.finished()) {
+                compressed += deflater.deflate(output);
+            }
+            return (double) compressed / length;
+        } finally {
+            deflater.end();
+        }
+    }
+}
@@ -15,6 +15,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
+import java.util.Collection;
 
 @Slf4j
 @Service
@@ -30,10 +31,18 @@ public class AuditService {
      */
     @Transactional
     public void logUploadAttempt(MultipartFile file, HttpServletRequest request) {
+        logUploadAttempt(file.getOriginalFilename(), file.getSize(), request);
+    }
+    
+    /**
+     * 파일 업로드 시도 로그 기록 (스트리밍 업로드처럼 MultipartFile 이 없는 경우)
+     */
+    @Transactional
+    public void logUploadAttempt(String filename, long fileSize, HttpServletRequest request) {
         try {
-            FileAuditLog auditLog = createUploadAttemptLog(file, request);
+            FileAuditLog auditLog = createUploadAttemptLog(filename, fileSize, request);
             auditLogRepository.save(auditLog);
-            log.debug("파일 업로드 시도 로그 기록: {}", file.getOriginalFilename());
+            log.debug("파일 업로드 시도 로그 기록: {}", filename);
         } catch (Exception e) {
             log.error(FileExtensionConstants.LogMessages.AUDIT_LOG_FAILED, "업로드 시도", e.getMessage());
         }
@@ -42,10 +51,10 @@ public class AuditService {
     /**
      * 업로드 시도 로그를 생성합니다.
      */
-    private FileAuditLog createUploadAttemptLog(MultipartFile file, HttpServletRequest request) {
+    private FileAuditLog createUploadAttemptLog(String filename, long fileSize, HttpServletRequest request) {
         return FileAuditLog.createUploadAttempt(
-                file.getOriginalFilename(),
-                file.getSize(),
+                filename,
+                fileSize,
                 getClientIpAddress(request),
                 getUserAgent(request)
         );
@@ -57,13 +66,22 @@ public class AuditService {
     @Transactional
     public void logBlockedUpload(MultipartFile file, HttpServletRequest request, 
                                FileValidationService.FileValidationResult validationResult) {
+        logBlockedUpload(file.getOriginalFilename(), file.getSize(), request, validationResult);
+    }
+    
+    /**
+     * 본문을 받기 전에 차단된 업로드 로그 기록 (요청 헤더의 파일명과 크기 사용)
+     */
+    @Transactional
+    public void logBlockedUpload(String filename, long fileSize, HttpServletRequest request,
+                               FileValidationService.FileValidationResult validationResult) {
         try {
             log.info("=== 차단된 업로드 로그 시작 ===");
-            log.info("파일명: {}", file.getOriginalFilename());
+            log.info("파일명: {}", filename);
             log.info("IP: {}", getClientIpAddress(request));
             log.info("차단 사유: {}", validationResult.getReason());
             
-            FileAuditLog auditLog = createBlockedUploadLog(file, request, validationResult);
+            FileAuditLog auditLog = createBlockedUploadLog(filename, fileSize, request, validationResult);
             log.info("감사 로그 생성 완료: {}", auditLog);
             
             FileAuditLog savedLog = auditLogRepository.save(auditLog);
@@ -74,7 +92,7 @@ public class AuditService {
             webSocketNotificationService.sendAuditLogUpdate(auditLogDto);
             
             log.warn("차단된 파일 업로드 로그 기록: {} - {}", 
-                    file.getOriginalFilename(), validationResult.getReason());
+                    filename, validationResult.getReason());
         } catch (Exception e) {
             log.error("차단된 업로드 로그 저장 실패", e);
             log.error(FileExtensionConstants.LogMessages.AUDIT_LOG_FAILED, "차단된 업로드", e.getMessage());
@@ -84,11 +102,11 @@ public class AuditService {
     /**
      * 차단된 업로드 로그를 생성합니다.
      */
-    private FileAuditLog createBlockedUploadLog(MultipartFile file, HttpServletRequest request,
+    private FileAuditLog createBlockedUploadLog(String filename, long fileSize, HttpServletRequest request,
                                               FileValidationService.FileValidationResult validationResult) {
         return FileAuditLog.createBlockedUpload(
-                file.getOriginalFilename(),
-                file.getSize(),
+                filename,
+                fileSize,
                 getClientIpAddress(request),
                 getUserAgent(request),
                 validationResult.getReason(),
@@ -102,10 +120,18 @@ public class AuditService {
      */
     @Transactional
     public void logSuccessfulUpload(MultipartFile file, HttpServletRequest request) {
+        logSuccessfulUpload(file.getOriginalFilename(), file.getSize(), request);
+    }
+    
+    /**
+     * 성공한 파일 업로드 로그 기록 (스트리밍 업로드처럼 MultipartFile 이 없는 경우)
+     */
+    @Transactional
+    public void logSuccessfulUpload(String filename, long fileSize, HttpServletRequest request) {
         try {
-            FileAuditLog auditLog = createSuccessfulUploadLog(file, request);
+            FileAuditLog auditLog = createSuccessfulUploadLog(filename, fileSize, request);
             auditLogRepository.save(auditLog);
-            log.info("성공한 파일 업로드 로그 기록: {}", file.getOriginalFilename());
+            log.info("성공한 파일 업로드 로그 기록: {}", filename);
         } catch (Exception e) {
             log.error(FileExtensionConstants.LogMessages.AUDIT_LOG_FAILED, "성공 업로드", e.getMessage());
         }
@@ -114,15 +140,27 @@ public class AuditService {
     /**
      * 성공한 업로드 로그를 생성합니다.
      */
-    private FileAuditLog createSuccessfulUploadLog(MultipartFile file, HttpServletRequest request) {
+    private FileAuditLog createSuccessfulUploadLog(String filename, long fileSize, HttpServletRequest request) {
         return FileAuditLog.createSuccessfulUpload(
-                file.getOriginalFilename(),
-                file.getSize(),
+                filename,
+                fileSize,
                 getClientIpAddress(request),
                 getUserAgent(request)
         );
     }
     
+    /**
+     * 격리/복구 배치 로그 기록
+     * 배치의 상태 변경과 같은 트랜잭션에 기록되며, 실패하면 배치도 함께 롤백됩니다.
+     */
+    @Transactional
+    public void logBatchAction(FileAuditLog.ActionType actionType, Collection<String> extensions,
+                               int fileCount, long totalBytes, long firstId, long lastId) {
+        auditLogRepository.save(FileAuditLog.createBatchAction(
+                actionType, extensions, fileCount, totalBytes, firstId, lastId));
+        log.info("{} 배치 로그 기록: 확장자 {}, 파일 {}개 (ID {}~{})", actionType, extensions, fileCount, firstId, lastId);
+    }
+    
     /**
      * 차단된 업로드 시도 조회
      */
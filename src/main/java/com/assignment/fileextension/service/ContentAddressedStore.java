@@ -0,0 +1,248 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.StoredBlob;
+import com.assignment.fileextension.exception.FileSizeLimitExceededException;
+import com.assignment.fileextension.repository.StoredBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * SHA-256 내용 주소 저장소
+ * <p>
+ * blob 은 {@code {upload-dir}/blobs/ab/cd/abcd...} 에 한 번만 저장되고, {@link StoredBlob} 의 참조 수로 공유됩니다.
+ * 참조 수 변경과 물리 파일 쓰기/치우기는 모두 blob 행을 잠근 상태에서만 하므로, 같은 내용의 업로드와 삭제가
+ * 동시에 일어나도 아직 참조 중인 물리 파일을 지우지 않습니다.
+ * <p>
+ * 이를 위해 blob 행은 참조가 0 이 되어도 지우지 않고 남겨 둡니다. 처음 보는 내용이면 참조 0 인 행을 별도
+ * 트랜잭션으로 먼저 만들고(동시에 만들면 한쪽만 성공) 그 행을 잠근 뒤 참조를 올리므로,
+ * 같은 새 내용이 동시에 올라와도 기본 키 충돌로 업로드가 실패하지 않습니다.
+ */
+@Slf4j
+@Component
+public class ContentAddressedStore {
+    
+    private static final String BLOB_DIR = "blobs";
+    private static final String STAGING_DIR = ".staging";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String TOMBSTONE_SUFFIX = ".deleted";
+    
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate claimTransaction;
+    
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadBaseDir;
+    
+    public ContentAddressedStore(StoredBlobRepository storedBlobRepository,
+                                 PlatformTransactionManager transactionManager) {
+        this.storedBlobRepository = storedBlobRepository;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * 다시 읽을 수 있는 업로드 파일: 먼저 해시만 계산하고, 처음 보는 내용일 때만 디스크에 기록합니다.
+     * 이미 있는 내용이면 쓰기 없이 참조 수만 올립니다.
+     */
+    public StoredBlob store(MultipartFile file) throws IOException {
+        String hash;
+        try (InputStream inputStream = file.getInputStream()) {
+            hash = digest(inputStream, OutputStream.nullOutputStream(), Long.MAX_VALUE).hash();
+        }
+        
+        return acquire(hash, file.getSize(), target -> {
+            try (InputStream inputStream = file.getInputStream()) {
+                Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        });
+    }
+    
+    /**
+     * 한 번만 읽을 수 있는 스트림: 스테이징 파일에 쓰면서 해시를 계산한 뒤,
+     * 새 내용이면 blob 위치로 이동하고 이미 있는 내용이면 스테이징 파일을 버립니다.
+     * 크기 한도를 넘으면 즉시 중단합니다.
+     */
+    public StoredBlob store(InputStream content, long sizeLimit) throws IOException {
+        Path stagingDir = Paths.get(uploadBaseDir, STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        Path stagingFile = stagingDir.resolve(UUID.randomUUID() + ".part");
+        
+        try {
+            Digest digest;
+            try (OutputStream outputStream = Files.newOutputStream(stagingFile, StandardOpenOption.CREATE_NEW)) {
+                digest = digest(content, outputStream, sizeLimit);
+            }
+            if (digest.size() == 0) {
+                throw new IllegalArgumentException("파일이 선택되지 않았습니다.");
+            }
+            
+            return acquire(digest.hash(), digest.size(),
+                    target -> Files.move(stagingFile, target, StandardCopyOption.REPLACE_EXISTING));
+        } finally {
+            Files.deleteIfExists(stagingFile);
+        }
+    }
+    
+    /**
+     * 이미 디스크에 있는 파일(예: 조립이 끝난 업로드 세션 파일): 읽어서 해시만 계산한 뒤,
+     * 새 내용이면 blob 위치로 이름만 바꾸고 이미 있는 내용이면 파일을 지웁니다.
+     */
+    public StoredBlob store(Path file) throws IOException {
+        Digest digest;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            digest = digest(inputStream, OutputStream.nullOutputStream(), Long.MAX_VALUE);
+        }
+        
+        StoredBlob blob = acquire(digest.hash(), digest.size(),
+                target -> Files.move(file, target, StandardCopyOption.REPLACE_EXISTING));
+        Files.deleteIfExists(file);
+        return blob;
+    }
+    
+    /**
+     * 참조를 하나 해제하고, 마지막 참조였으면 물리 파일을 치웁니다.
+     * 행을 잠근 채(커밋 전) 같은 디렉터리의 고유한 이름으로 옮겨 두고 커밋 뒤에 지우므로,
+     * 잠금이 풀린 뒤 같은 내용을 다시 쓰는 업로드의 파일을 지우지 않습니다. 롤백되면 원래 이름으로 되돌립니다.
+     */
+    public void release(String hash) {
+        StoredBlob blob = storedBlobRepository.findByHashForUpdate(hash).orElse(null);
+        if (blob == null) {
+            log.warn("참조 해제 대상 blob 이 없습니다: {}", hash);
+            return;
+        }
+        
+        long remaining = blob.release();
+        if (remaining > 0) {
+            log.debug("blob 참조 해제: {} (남은 참조 {}개)", hash, remaining);
+            return;
+        }
+        
+        Path blobPath = Paths.get(blob.getFilePath());
+        Path tombstone = blobPath.resolveSibling(blobPath.getFileName() + "." + UUID.randomUUID() + TOMBSTONE_SUFFIX);
+        try {
+            Files.move(blobPath, tombstone, StandardCopyOption.ATOMIC_MOVE);
+        } catch (NoSuchFileException e) {
+            log.warn("마지막 참조 해제 - blob 파일이 이미 없습니다: {}", blobPath);
+            return;
+        } catch (IOException e) {
+            log.error("blob 삭제 준비 실패: {} - {}", blobPath, e.getMessage());
+            return;
+        }
+        
+        afterCompletion(committed -> {
+            try {
+                if (committed) {
+                    Files.deleteIfExists(tombstone);
+                    log.info("마지막 참조 해제로 blob 삭제: {}", blobPath);
+                } else {
+                    Files.move(tombstone, blobPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                log.error("blob 정리 실패: {} - {}", tombstone, e.getMessage());
+            }
+        });
+    }
+    
+    private StoredBlob acquire(String hash, long size, BlobWriter writer) throws IOException {
+        Path blobPath = blobPath(hash);
+        StoredBlob blob = storedBlobRepository.findByHashForUpdate(hash).orElse(null);
+        if (blob == null) {
+            claim(hash, blobPath, size);
+            blob = storedBlobRepository.findByHashForUpdate(hash)
+                    .orElseThrow(() -> new IllegalStateException("blob 행을 만들지 못했습니다: " + hash));
+        }
+        
+        // 참조가 0 이 되어 치워진 blob 이거나 처음 보는 내용이면 잠근 채로 다시 씀
+        if (!Files.exists(blobPath)) {
+            Files.createDirectories(blobPath.getParent());
+            writer.writeTo(blobPath);
+        }
+        blob.retain();
+        log.info("blob 참조: {} (참조 {}개)", hash, blob.getRefCount());
+        return blob;
+    }
+    
+    /**
+     * 참조 0 인 blob 행을 별도 트랜잭션으로 만듭니다. 다른 업로드가 먼저 만들었으면 그 행을 씁니다.
+     */
+    private void claim(String hash, Path blobPath, long size) {
+        try {
+            claimTransaction.executeWithoutResult(status ->
+                    storedBlobRepository.saveAndFlush(StoredBlob.unreferenced(hash, blobPath.toString(), size)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("같은 내용의 blob 행을 다른 업로드가 먼저 만듦: {}", hash);
+        }
+    }
+    
+    private Path blobPath(String hash) {
+        return Paths.get(uploadBaseDir, BLOB_DIR, hash.substring(0, 2), hash.substring(2, 4), hash);
+    }
+    
+    private Digest digest(InputStream content, OutputStream outputStream, long sizeLimit) throws IOException {
+        MessageDigest messageDigest = sha256();
+        DigestInputStream digestStream = new DigestInputStream(content, messageDigest);
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = digestStream.read(buffer)) != -1) {
+            total += read;
+            if (total > sizeLimit) {
+                throw new FileSizeLimitExceededException(sizeLimit);
+            }
+            outputStream.write(buffer, 0, read);
+        }
+        return new Digest(HexFormat.of().formatHex(messageDigest.digest()), total);
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다", e);
+        }
+    }
+    
+    private static void afterCompletion(Consumer<Boolean> action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+    
+    private record Digest(String hash, long size) {
+    }
+    
+    @FunctionalInterface
+    private interface BlobWriter {
+        void writeTo(Path target) throws IOException;
+    }
+}
@@ -0,0 +1,292 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 파일 앞부분(매직 바이트)으로 실행 파일/스크립트 여부를 판별합니다.
+ * 파일 전체가 아닌 앞부분 {@link FileExtensionConstants.FileLimit#CONTENT_SNIFF_BYTES} 바이트만 읽으므로
+ * 파일 크기와 관계없이 비용이 일정합니다.
+ */
+@Component
+public class ContentSignatureSniffer {
+
+    private static final int SHEBANG_LINE_LIMIT = 128;
+    // DOS 헤더 크기와, PE 헤더 위치(e_lfanew)가 기록된 오프셋
+    private static final int DOS_HEADER_SIZE = 0x40;
+    private static final int E_LFANEW_OFFSET = 0x3C;
+    private static final int DOS_PAGE_SIZE = 512;
+
+    // 첫 바이트 값으로 후보 시그니처를 바로 찾도록 컴파일된 테이블
+    private final Signature[][] signaturesByFirstByte;
+
+    public ContentSignatureSniffer() {
+        List<Signature> signatures = List.of(
+                Signature.portableExecutable(),
+                Signature.of("ELF 실행 파일", 0, false, bytes(0x7F, 0x45, 0x4C, 0x46),
+                        "elf", "so", "bin"),
+                Signature.of("Mach-O 실행 파일", 0, false, bytes(0xFE, 0xED, 0xFA, 0xCE), "macho", "dylib"),
+                Signature.of("Mach-O 실행 파일", 0, false, bytes(0xFE, 0xED, 0xFA, 0xCF), "macho", "dylib"),
+                Signature.of("Mach-O 실행 파일", 0, false, bytes(0xCE, 0xFA, 0xED, 0xFE), "macho", "dylib"),
+                Signature.of("Mach-O 실행 파일", 0, false, bytes(0xCF, 0xFA, 0xED, 0xFE), "macho", "dylib"),
+                Signature.of("Java 클래스/Mach-O 유니버설", 0, false, bytes(0xCA, 0xFE, 0xBA, 0xBE),
+                        "class", "macho"),
+                Signature.of("Windows 바로가기", 0, false, bytes(0x4C, 0x00, 0x00, 0x00, 0x01, 0x14, 0x02, 0x00),
+                        "lnk"),
+                Signature.of("배치 스크립트", 0, true, "@echo off".getBytes(StandardCharsets.US_ASCII),
+                        "bat", "cmd"),
+                Signature.shebang()
+        );
+
+        this.signaturesByFirstByte = compile(signatures);
+    }
+
+    /**
+     * 업로드 파일의 앞부분만 읽어 내용 형식을 판별합니다.
+     *
+     * @return 판별된 형식, 알려진 시그니처가 아니면 null
+     */
+    public DetectedContent sniff(MultipartFile file) throws IOException {
+        try (InputStream inputStream = file.getInputStream()) {
+            return sniff(inputStream);
+        }
+    }
+
+    /**
+     * 스트림의 앞부분만 읽어 내용 형식을 판별합니다. (스트림은 닫지 않음)
+     */
+    public DetectedContent sniff(InputStream inputStream) throws IOException {
+        byte[] header = new byte[FileExtensionConstants.FileLimit.CONTENT_SNIFF_BYTES];
+        int length = inputStream.readNBytes(header, 0, header.length);
+        return sniff(header, length);
+    }
+
+    /**
+     * 이미 읽어 둔 파일 앞부분으로 내용 형식을 판별합니다.
+     */
+    public DetectedContent sniff(byte[] header, int length) {
+        if (length <= 0) {
+            return null;
+        }
+
+        Signature[] candidates = signaturesByFirstByte[header[0] & 0xFF];
+        if (candidates == null) {
+            return null;
+        }
+
+        for (Signature signature : candidates) {
+            if (signature.matches(header, length)) {
+                return signature.detect(header, length);
+            }
+        }
+        return null;
+    }
+
+    private static Signature[][] compile(List<Signature> signatures) {
+        List<List<Signature>> buckets = new ArrayList<>(256);
+        for (int i = 0; i < 256; i++) {
+            buckets.add(null);
+        }
+
+        for (Signature signature : signatures) {
+            int first = signature.magic[0] & 0xFF;
+            addToBucket(buckets, first, signature);
+            if (signature.ignoreCase && Character.isLetter(first)) {
+                addToBucket(buckets, Character.toUpperCase(first), signature);
+                addToBucket(buckets, Character.toLowerCase(first), signature);
+            }
+        }
+
+        Signature[][] table = new Signature[256][];
+        for (int i = 0; i < 256; i++) {
+            List<Signature> bucket = buckets.get(i);
+            if (bucket != null) {
+                table[i] = bucket.toArray(new Signature[0]);
+            }
+        }
+        return table;
+    }
+
+    private static void addToBucket(List<List<Signature>> buckets, int firstByte, Signature signature) {
+        List<Signature> bucket = buckets.get(firstByte);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.set(firstByte, bucket);
+        }
+        if (!bucket.contains(signature)) {
+            bucket.add(signature);
+        }
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] result = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = (byte) values[i];
+        }
+        return result;
+    }
+
+    /**
+     * 판별된 내용 형식과, 이 형식에 해당하는 확장자 목록
+     */
+    public record DetectedContent(String description, List<String> extensions) {
+    }
+
+    private static class Signature {
+        private final String description;
+        private final int minLength;
+        private final boolean ignoreCase;
+        private final byte[] magic;
+        private final List<String> extensions;
+
+        private Signature(String description, int minLength, boolean ignoreCase, byte[] magic, List<String> extensions) {
+            this.description = description;
+            this.minLength = Math.max(minLength, magic.length);
+            this.ignoreCase = ignoreCase;
+            this.magic = magic;
+            this.extensions = extensions;
+        }
+
+        static Signature of(String description, int minLength, boolean ignoreCase, byte[] magic, String... extensions) {
+            return new Signature(description, minLength, ignoreCase, magic, List.of(extensions));
+        }
+
+        static Signature shebang() {
+            return new ShebangSignature();
+        }
+
+        static Signature portableExecutable() {
+            return new PortableExecutableSignature();
+        }
+
+        boolean matches(byte[] header, int length) {
+            if (length < minLength) {
+                return false;
+            }
+            for (int i = 0; i < magic.length; i++) {
+                byte actual = header[i];
+                if (ignoreCase && actual >= 'A' && actual <= 'Z') {
+                    actual = (byte) (actual + ('a' - 'A'));
+                }
+                if (actual != magic[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        DetectedContent detect(byte[] header, int length) {
+            return new DetectedContent(description, extensions);
+        }
+    }
+
+    /**
+     * "MZ" 로 시작하는 PE/DOS 실행 파일.
+     * "MZ" 두 바이트만으로는 "MZ Partners,..." 같은 텍스트도 걸리므로, e_lfanew 가 가리키는 곳의
+     * "PE\0\0" 서명까지 확인합니다. e_lfanew 가 읽어 둔 앞부분 밖을 가리킬 때만 DOS 헤더 필드가
+     * 그럴듯한지로 판단합니다.
+     */
+    private static final class PortableExecutableSignature extends Signature {
+
+        private PortableExecutableSignature() {
+            super("PE/DOS 실행 파일", DOS_HEADER_SIZE, false, bytes(0x4D, 0x5A),
+                    List.of("exe", "com", "scr", "cpl", "dll", "sys"));
+        }
+
+        @Override
+        boolean matches(byte[] header, int length) {
+            if (!super.matches(header, length)) {
+                return false;
+            }
+
+            long peOffset = readUInt32(header, E_LFANEW_OFFSET);
+            if (peOffset < DOS_HEADER_SIZE) {
+                return false;
+            }
+            if (peOffset + 4 <= length) {
+                int offset = (int) peOffset;
+                return header[offset] == 'P' && header[offset + 1] == 'E'
+                        && header[offset + 2] == 0 && header[offset + 3] == 0;
+            }
+            return hasPlausibleDosHeader(header);
+        }
+
+        /**
+         * 마지막 페이지 바이트 수, 페이지 수, 헤더 크기(16 바이트 단위)가 DOS 헤더로 말이 되는지 확인합니다.
+         */
+        private static boolean hasPlausibleDosHeader(byte[] header) {
+            int bytesOnLastPage = readUInt16(header, 2);
+            int pages = readUInt16(header, 4);
+            int headerParagraphs = readUInt16(header, 8);
+            return bytesOnLastPage < DOS_PAGE_SIZE && pages > 0 && headerParagraphs >= DOS_HEADER_SIZE / 16;
+        }
+
+        private static int readUInt16(byte[] header, int offset) {
+            return (header[offset] & 0xFF) | (header[offset + 1] & 0xFF) << 8;
+        }
+
+        private static long readUInt32(byte[] header, int offset) {
+            return readUInt16(header, offset) | (long) readUInt16(header, offset + 2) << 16;
+        }
+    }
+
+    /**
+     * "#!" 로 시작하는 스크립트. 첫 줄의 인터프리터 이름으로 확장자를 추정합니다.
+     */
+    private static final class ShebangSignature extends Signature {
+
+        private ShebangSignature() {
+            super("셸뱅 스크립트", 0, false, bytes('#', '!'), List.of("sh"));
+        }
+
+        @Override
+        DetectedContent detect(byte[] header, int length) {
+            int lineEnd = Math.min(length, SHEBANG_LINE_LIMIT);
+            for (int i = 2; i < lineEnd; i++) {
+                if (header[i] == '\n' || header[i] == '\r') {
+                    lineEnd = i;
+                    break;
+                }
+            }
+
+            String line = new String(header, 2, lineEnd - 2, StandardCharsets.US_ASCII).trim();
+            String interpreter = "";
+            for (String part : line.split("\\s+")) {
+                String name = part.substring(part.lastIndexOf('/') + 1);
+                if (name.isEmpty() || name.equals("env") || name.startsWith("-")) {
+                    continue;
+                }
+                interpreter = name;
+                break;
+            }
+
+            return new DetectedContent("셸뱅 스크립트(" + interpreter + ")", List.of(mapInterpreter(interpreter)));
+        }
+
+        private static String mapInterpreter(String interpreter) {
+            if (interpreter.startsWith("python")) {
+                return "py";
+            }
+            if (interpreter.startsWith("perl")) {
+                return "pl";
+            }
+            if (interpreter.startsWith("ruby")) {
+                return "rb";
+            }
+            if (interpreter.startsWith("node")) {
+                return "js";
+            }
+            if (interpreter.startsWith("php")) {
+                return "php";
+            }
+            return "sh";
+        }
+    }
+}
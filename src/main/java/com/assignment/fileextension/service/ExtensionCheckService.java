@@ -0,0 +1,65 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.dto.ExtensionCheckResultDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 파일명 일괄 차단 확인
+ * 요청 하나는 하나의 정책 스냅샷으로만 판단하며, DB와 트랜잭션을 사용하지 않습니다.
+ * 판단 기준은 업로드 검증과 같습니다(파일명의 모든 확장자 토큰 확인).
+ */
+@Service
+@RequiredArgsConstructor
+public class ExtensionCheckService {
+    
+    private final ExtensionPolicyCache extensionPolicyCache;
+    
+    /**
+     * 요청으로 전달된 고정 확장자 상태를 한 번만 반영한 스냅샷을 반환합니다.
+     */
+    public ExtensionPolicySnapshot resolvePolicy(Map<String, Boolean> fixedExtensionStates) {
+        return extensionPolicyCache.current().withFixedOverrides(fixedExtensionStates);
+    }
+    
+    /**
+     * 여러 파일명을 확인합니다. 결과 순서는 입력 순서와 같습니다.
+     */
+    public List<ExtensionCheckResultDto> checkFileNames(List<String> fileNames, Map<String, Boolean> fixedExtensionStates) {
+        return checkFileNames(resolvePolicy(fixedExtensionStates), fileNames);
+    }
+    
+    /**
+     * 주어진 스냅샷으로 여러 파일명을 확인합니다.
+     * 파일명이 많으면 공용 ForkJoinPool에서 병렬로 확인합니다. (스냅샷과 매처는 불변이라 공유해도 안전)
+     */
+    public List<ExtensionCheckResultDto> checkFileNames(ExtensionPolicySnapshot policy, List<String> fileNames) {
+        Stream<String> stream = fileNames.size() >= FileExtensionConstants.FileLimit.PARALLEL_CHECK_THRESHOLD
+                ? fileNames.parallelStream()
+                : fileNames.stream();
+        
+        return stream
+                .map(fileName -> checkFileName(policy, fileName))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * 파일명 하나를 확인합니다.
+     */
+    public ExtensionCheckResultDto checkFileName(ExtensionPolicySnapshot policy, String fileName) {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            return ExtensionCheckResultDto.invalid(fileName);
+        }
+        
+        String blockedExtension = policy.findBlockedExtension(fileName);
+        return blockedExtension == null
+                ? ExtensionCheckResultDto.allowed(fileName)
+                : ExtensionCheckResultDto.blocked(fileName, blockedExtension);
+    }
+}
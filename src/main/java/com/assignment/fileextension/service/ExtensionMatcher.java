@@ -0,0 +1,237 @@
+package com.assignment.fileextension.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * 차단 확장자 집합을 컴파일한 매처
+ * 확장자를 뒤집어 넣은 ASCII 트라이를 배열로 평탄화해 두고, 파일명을 뒤에서부터 한 번만 훑어
+ * "파일명의 확장자 토큰 중 차단된 것이 있는가"를 판단합니다.
+ * 토큰 규칙은 기존 검증과 같습니다: 첫 번째 부분(파일명)은 제외하고, 앞뒤 공백을 제거하며,
+ * 비어 있거나 숫자만 있는 토큰은 건너뜁니다. 마지막 확장자부터 확인해 처음 찾은 것을 반환합니다.
+ * 조회 비용은 등록된 확장자 수와 무관하게 파일명 길이에 비례합니다.
+ */
+public final class ExtensionMatcher {
+
+    private static final ExtensionMatcher EMPTY = compile(List.of());
+
+    private static final int ROOT = 0;
+    private static final int DEAD = -1;
+    private static final int LINEAR_SEARCH_THRESHOLD = 8;
+
+    // 노드 i의 자식 간선은 edgeLabels/edgeTargets[edgeStart[i], edgeStart[i + 1]) 에 레이블 순으로 저장
+    private final int[] edgeStart;
+    private final byte[] edgeLabels;
+    private final int[] edgeTargets;
+    // 루트는 분기가 가장 많으므로 바로 찾을 수 있게 펼쳐 둠
+    private final int[] rootChildren;
+    // 노드에서 끝나는 확장자 (없으면 null)
+    private final String[] terminals;
+    // 비 ASCII 토큰을 기존 규칙(toLowerCase)으로 판단하기 위한 원본 집합
+    private final Set<String> extensions;
+
+    private ExtensionMatcher(int[] edgeStart, byte[] edgeLabels, int[] edgeTargets, int[] rootChildren,
+                             String[] terminals, Set<String> extensions) {
+        this.edgeStart = edgeStart;
+        this.edgeLabels = edgeLabels;
+        this.edgeTargets = edgeTargets;
+        this.rootChildren = rootChildren;
+        this.terminals = terminals;
+        this.extensions = extensions;
+    }
+
+    public static ExtensionMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 소문자로 정규화된 확장자 목록으로 매처를 만듭니다.
+     * 토큰 규칙상 매칭될 수 없는 항목(빈 문자열, 숫자만 있는 문자열, 공백/비 ASCII 포함)은 제외합니다.
+     */
+    public static ExtensionMatcher compile(Collection<String> blockedExtensions) {
+        List<BuildNode> nodes = new ArrayList<>();
+        nodes.add(new BuildNode());
+        Set<String> accepted = new HashSet<>();
+
+        for (String extension : blockedExtensions) {
+            if (!isMatchable(extension) || !accepted.add(extension)) {
+                continue;
+            }
+
+            int node = ROOT;
+            for (int i = extension.length() - 1; i >= 0; i--) {
+                byte label = (byte) extension.charAt(i);
+                Integer next = nodes.get(node).children.get(label);
+                if (next == null) {
+                    next = nodes.size();
+                    nodes.add(new BuildNode());
+                    nodes.get(node).children.put(label, next);
+                }
+                node = next;
+            }
+            nodes.get(node).terminal = extension;
+        }
+
+        int nodeCount = nodes.size();
+        int[] edgeStart = new int[nodeCount + 1];
+        int[] rootChildren = new int[128];
+        String[] terminals = new String[nodeCount];
+        int edgeCount = 0;
+        for (BuildNode node : nodes) {
+            edgeCount += node.children.size();
+        }
+        byte[] edgeLabels = new byte[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+
+        Arrays.fill(rootChildren, DEAD);
+        int edge = 0;
+        for (int i = 0; i < nodeCount; i++) {
+            BuildNode node = nodes.get(i);
+            edgeStart[i] = edge;
+            terminals[i] = node.terminal;
+            for (var child : node.children.entrySet()) {
+                edgeLabels[edge] = child.getKey();
+                edgeTargets[edge] = child.getValue();
+                if (i == ROOT) {
+                    rootChildren[child.getKey()] = child.getValue();
+                }
+                edge++;
+            }
+        }
+        edgeStart[nodeCount] = edge;
+
+        return new ExtensionMatcher(edgeStart, edgeLabels, edgeTargets, rootChildren, terminals, Set.copyOf(accepted));
+    }
+
+    /**
+     * 파일명의 확장자 토큰 중 차단된 것을 찾습니다.
+     *
+     * @return 차단된 확장자(등록된 문자열 그대로), 없으면 null
+     */
+    public String findBlockedToken(CharSequence fileName) {
+        int node = ROOT;
+        boolean inToken = false;       // 토큰의 공백이 아닌 문자를 하나 이상 읽었는지
+        boolean leadingSpace = false;  // 토큰 문자 뒤(앞쪽 방향)에서 공백을 만났는지
+        boolean nonAscii = false;
+        int tokenEnd = fileName.length();
+
+        for (int i = fileName.length() - 1; i >= 0; i--) {
+            char c = fileName.charAt(i);
+
+            if (c == '.') {
+                if (nonAscii) {
+                    String blocked = matchNonAsciiToken(fileName, i + 1, tokenEnd);
+                    if (blocked != null) {
+                        return blocked;
+                    }
+                } else if (inToken && node != DEAD && terminals[node] != null) {
+                    return terminals[node];
+                }
+                node = ROOT;
+                inToken = false;
+                leadingSpace = false;
+                nonAscii = false;
+                tokenEnd = i;
+                continue;
+            }
+
+            if (c <= ' ') {
+                // 토큰 끝의 공백은 건너뛰고, 토큰 문자 뒤의 공백은 앞쪽 공백인지 지켜봄
+                leadingSpace = inToken;
+                continue;
+            }
+
+            if (leadingSpace) {
+                // 토큰 내부에 공백이 있으면 trim 후에도 등록된 확장자가 될 수 없음
+                node = DEAD;
+                leadingSpace = false;
+            }
+            inToken = true;
+
+            if (c >= 0x80) {
+                nonAscii = true;
+            } else if (node != DEAD) {
+                node = child(node, toLowerAscii(c));
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * 등록된 확장자 수를 반환합니다.
+     */
+    public int size() {
+        return extensions.size();
+    }
+
+    private int child(int node, char label) {
+        if (node == ROOT) {
+            return rootChildren[label];
+        }
+
+        int low = edgeStart[node];
+        int high = edgeStart[node + 1] - 1;
+        if (high - low < LINEAR_SEARCH_THRESHOLD) {
+            for (int e = low; e <= high; e++) {
+                if (edgeLabels[e] == label) {
+                    return edgeTargets[e];
+                }
+            }
+            return DEAD;
+        }
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midLabel = edgeLabels[mid];
+            if (midLabel < label) {
+                low = mid + 1;
+            } else if (midLabel > label) {
+                high = mid - 1;
+            } else {
+                return edgeTargets[mid];
+            }
+        }
+        return DEAD;
+    }
+
+    /**
+     * 비 ASCII 문자가 섞인 토큰은 드물기 때문에 기존과 같은 규칙(toLowerCase + trim)으로 판단합니다.
+     */
+    private String matchNonAsciiToken(CharSequence fileName, int start, int end) {
+        String extension = fileName.subSequence(start, end).toString().toLowerCase().trim();
+        return extensions.contains(extension) ? extension : null;
+    }
+
+    private static boolean isMatchable(String extension) {
+        if (extension == null || extension.isEmpty()) {
+            return false;
+        }
+
+        boolean numericOnly = true;
+        for (int i = 0; i < extension.length(); i++) {
+            char c = extension.charAt(i);
+            if (c <= ' ' || c >= 0x80 || c == '.' || (c >= 'A' && c <= 'Z')) {
+                return false;
+            }
+            if (c < '0' || c > '9') {
+                numericOnly = false;
+            }
+        }
+        return !numericOnly;
+    }
+
+    private static char toLowerAscii(char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    private static final class BuildNode {
+        private final TreeMap<Byte, Integer> children = new TreeMap<>();
+        private String terminal;
+    }
+}
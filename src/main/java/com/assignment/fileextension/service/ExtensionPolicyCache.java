@@ -0,0 +1,150 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.FixedExtensionSetting;
+import com.assignment.fileextension.entity.PolicyVersion;
+import com.assignment.fileextension.repository.CustomExtensionRepository;
+import com.assignment.fileextension.repository.FixedExtensionSettingRepository;
+import com.assignment.fileextension.repository.PolicyVersionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 확장자 정책 스냅샷 보관소
+ * 정책 변경 트랜잭션이 커밋된 뒤 스냅샷을 통째로 다시 만들어 원자적으로 교체합니다.
+ * 다른 노드에서 일어난 변경은 policy_versions 행의 버전만 주기적으로 비교해 감지합니다.
+ */
+@Slf4j
+@Component
+public class ExtensionPolicyCache {
+
+    private final CustomExtensionRepository customExtensionRepository;
+    private final FixedExtensionSettingRepository fixedExtensionSettingRepository;
+    private final PolicyVersionRepository policyVersionRepository;
+    private final TransactionTemplate readTransaction;
+    private final AtomicReference<ExtensionPolicySnapshot> snapshot = new AtomicReference<>();
+
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+
+    public ExtensionPolicyCache(CustomExtensionRepository customExtensionRepository,
+                                FixedExtensionSettingRepository fixedExtensionSettingRepository,
+                                PolicyVersionRepository policyVersionRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.customExtensionRepository = customExtensionRepository;
+        this.fixedExtensionSettingRepository = fixedExtensionSettingRepository;
+        this.policyVersionRepository = policyVersionRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    /**
+     * 현재 정책 스냅샷을 반환합니다. 아직 적재되지 않았다면 DB에서 적재합니다.
+     */
+    public ExtensionPolicySnapshot current() {
+        ExtensionPolicySnapshot current = snapshot.get();
+        return current != null ? current : reload();
+    }
+
+    /**
+     * 애플리케이션 기동(초기 데이터 생성 포함) 완료 후 스냅샷을 적재합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    /**
+     * 정책 변경 트랜잭션 커밋 후 스냅샷을 다시 만듭니다.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPolicyChanged(ExtensionPolicyChangedEvent event) {
+        log.debug("확장자 정책 변경 감지: {}", event.extension());
+        reload();
+    }
+
+    /**
+     * DB의 정책 버전을 확인하고, 현재 스냅샷과 다를 때만 다시 적재합니다.
+     * 단일 행 PK 조회이므로 짧은 주기로 실행해도 부담이 적습니다.
+     */
+    @Scheduled(fixedDelayString = "${app.policy.version-check-interval-ms:1000}",
+            initialDelayString = "${app.policy.version-check-interval-ms:1000}")
+    public void checkVersion() {
+        try {
+            long latestVersion = policyVersionRepository.findVersionById(PolicyVersion.SINGLETON_ID).orElse(0L);
+            ExtensionPolicySnapshot current = snapshot.get();
+            
+            if (current == null || current.getVersion() != latestVersion) {
+                log.info("확장자 정책 버전 변경 감지: {} -> {}",
+                        current == null ? null : current.getVersion(), latestVersion);
+                reload();
+            }
+        } catch (Exception e) {
+            log.warn("확장자 정책 버전 확인 실패: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * DB에서 정책을 읽어 새 스냅샷으로 교체합니다.
+     * 동시에 여러 변경이 커밋되더라도 버전이 뒤로 가지 않도록 직렬화하고, 더 오래된 적재 결과는 버립니다.
+     */
+    public synchronized ExtensionPolicySnapshot reload() {
+        ExtensionPolicySnapshot loaded = readTransaction.execute(status -> loadSnapshot());
+        ExtensionPolicySnapshot current = snapshot.get();
+        
+        if (current != null && current.getVersion() > loaded.getVersion()) {
+            return current;
+        }
+        
+        snapshot.set(loaded);
+        log.info("확장자 정책 스냅샷 적재 완료 - 노드: {}, 버전: {}, 고정: {}개, 커스텀: {}개",
+                nodeId, loaded.getVersion(),
+                loaded.getFixedExtensionStates().size(), loaded.getCustomExtensions().size());
+        return loaded;
+    }
+
+    /**
+     * 이 노드의 식별자를 반환합니다.
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private ExtensionPolicySnapshot loadSnapshot() {
+        // 버전을 먼저 읽어, 이후 읽은 정책이 버전보다 새로울 수는 있어도 오래되지는 않게 합니다.
+        PolicyVersion policyVersion = policyVersionRepository.findById(PolicyVersion.SINGLETON_ID)
+                .orElse(null);
+        
+        Map<String, Boolean> fixedStates = new HashMap<>();
+        for (FixedExtensionSetting setting : fixedExtensionSettingRepository.findAll()) {
+            fixedStates.put(setting.getExtension(), Boolean.TRUE.equals(setting.getIsBlocked()));
+        }
+
+        List<String> customExtensions = customExtensionRepository.findAllExtensions();
+        if (policyVersion == null) {
+            return ExtensionPolicySnapshot.of(0L, null, fixedStates, customExtensions);
+        }
+        // updatedAt 은 DB 시계로 기록되므로 지연도 DB 시계로 잼 (노드와 DB 의 시계 차이가 섞이지 않게)
+        Long propagationLagMillis = policyVersionRepository.findDatabaseTimeById(PolicyVersion.SINGLETON_ID)
+                .map(databaseTime -> Math.max(0,
+                        Duration.between(policyVersion.getUpdatedAt(), databaseTime.toLocalDateTime()).toMillis()))
+                .orElse(null);
+        return ExtensionPolicySnapshot.of(policyVersion.getVersion(), policyVersion.getUpdatedAt(),
+                propagationLagMillis, fixedStates, customExtensions);
+    }
+}
@@ -0,0 +1,7 @@
+package com.assignment.fileextension.service;
+
+/**
+ * 확장자 정책이 변경되었음을 알리는 이벤트 (트랜잭션 커밋 후 처리됨)
+ */
+public record ExtensionPolicyChangedEvent(String extension) {
+}
@@ -0,0 +1,170 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 확장자 차단 정책의 불변 스냅샷
+ * 정책이 변경될 때마다 새 인스턴스로 교체되며(copy-on-write), 검증 경로는 DB를 조회하지 않습니다.
+ */
+public final class ExtensionPolicySnapshot {
+
+    private static final ExtensionPolicySnapshot EMPTY =
+            new ExtensionPolicySnapshot(0L, null, LocalDateTime.MIN, null, Map.of(), Set.of());
+
+    private final long version;
+    private final LocalDateTime changedAt;
+    private final LocalDateTime loadedAt;
+    // 커밋부터 적재까지 걸린 시간 - 두 시각 모두 DB 시계 기준
+    private final Long propagationLagMillis;
+    private final Map<String, Boolean> fixedExtensionStates;
+    private final Set<String> customExtensions;
+    
+    // 파일명 검증용으로 컴파일된 차단 확장자 매처
+    private final ExtensionMatcher matcher;
+
+    private ExtensionPolicySnapshot(long version, LocalDateTime changedAt, LocalDateTime loadedAt,
+                                    Long propagationLagMillis,
+                                    Map<String, Boolean> fixedExtensionStates, Set<String> customExtensions) {
+        this.version = version;
+        this.changedAt = changedAt;
+        this.loadedAt = loadedAt;
+        this.propagationLagMillis = propagationLagMillis;
+        this.fixedExtensionStates = fixedExtensionStates;
+        this.customExtensions = customExtensions;
+        this.matcher = ExtensionMatcher.compile(collectBlockedExtensions(fixedExtensionStates, customExtensions));
+    }
+
+    /**
+     * 고정 확장자는 차단 상태일 때만, 커스텀 확장자는 고정 확장자와 겹치지 않을 때만 차단 대상입니다.
+     */
+    private static List<String> collectBlockedExtensions(Map<String, Boolean> fixedExtensionStates,
+                                                         Set<String> customExtensions) {
+        List<String> blocked = new ArrayList<>();
+        fixedExtensionStates.forEach((extension, isBlocked) -> {
+            if (FileExtensionConstants.FIXED_EXTENSIONS.contains(extension) && isBlocked) {
+                blocked.add(extension);
+            }
+        });
+        for (String extension : customExtensions) {
+            if (!FileExtensionConstants.FIXED_EXTENSIONS.contains(extension)) {
+                blocked.add(extension);
+            }
+        }
+        return blocked;
+    }
+
+    public static ExtensionPolicySnapshot empty() {
+        return EMPTY;
+    }
+
+    public static ExtensionPolicySnapshot of(Map<String, Boolean> fixedExtensionStates,
+                                             Collection<String> customExtensions) {
+        return of(0L, null, fixedExtensionStates, customExtensions);
+    }
+
+    /**
+     * DB 정책 버전과 함께 스냅샷을 생성합니다.
+     */
+    public static ExtensionPolicySnapshot of(long version, LocalDateTime changedAt,
+                                             Map<String, Boolean> fixedExtensionStates,
+                                             Collection<String> customExtensions) {
+        return of(version, changedAt, null, fixedExtensionStates, customExtensions);
+    }
+
+    /**
+     * DB 정책 버전과, DB 시계로 잰 반영 지연 시간과 함께 스냅샷을 생성합니다.
+     */
+    public static ExtensionPolicySnapshot of(long version, LocalDateTime changedAt, Long propagationLagMillis,
+                                             Map<String, Boolean> fixedExtensionStates,
+                                             Collection<String> customExtensions) {
+        return new ExtensionPolicySnapshot(version, changedAt, LocalDateTime.now(), propagationLagMillis,
+                Map.copyOf(fixedExtensionStates), Set.copyOf(customExtensions));
+    }
+
+    /**
+     * 정규화된(소문자, 공백 제거) 확장자의 차단 여부를 확인합니다.
+     */
+    public boolean isBlocked(String extension) {
+        return isBlocked(extension, null);
+    }
+
+    /**
+     * 요청으로 전달된 고정 확장자 상태를 우선 적용하여 차단 여부를 확인합니다.
+     */
+    public boolean isBlocked(String extension, Map<String, Boolean> fixedExtensionOverrides) {
+        if (FileExtensionConstants.FIXED_EXTENSIONS.contains(extension)) {
+            if (fixedExtensionOverrides != null && fixedExtensionOverrides.containsKey(extension)) {
+                return Boolean.TRUE.equals(fixedExtensionOverrides.get(extension));
+            }
+            return Boolean.TRUE.equals(fixedExtensionStates.get(extension));
+        }
+
+        return customExtensions.contains(extension);
+    }
+
+    /**
+     * 요청으로 전달된 고정 확장자 상태를 덮어쓴 스냅샷을 만듭니다. (버전 정보는 유지)
+     */
+    public ExtensionPolicySnapshot withFixedOverrides(Map<String, Boolean> fixedExtensionOverrides) {
+        if (fixedExtensionOverrides == null || fixedExtensionOverrides.isEmpty()) {
+            return this;
+        }
+
+        Map<String, Boolean> merged = new HashMap<>(fixedExtensionStates);
+        fixedExtensionOverrides.forEach((extension, isBlocked) -> {
+            if (extension != null && FileExtensionConstants.FIXED_EXTENSIONS.contains(extension)) {
+                merged.put(extension, Boolean.TRUE.equals(isBlocked));
+            }
+        });
+        return new ExtensionPolicySnapshot(version, changedAt, loadedAt, propagationLagMillis,
+                Map.copyOf(merged), customExtensions);
+    }
+
+    /**
+     * 파일명을 정규화한 뒤 확장자 토큰(첫 번째 부분 제외) 중 차단된 것을 찾습니다.
+     *
+     * @return 차단된 확장자, 없으면 null
+     */
+    public String findBlockedExtension(String fileName) {
+        if (fileName == null) {
+            return null;
+        }
+        return matcher.findBlockedToken(FileNameNormalizer.normalize(fileName));
+    }
+
+    public ExtensionMatcher getMatcher() {
+        return matcher;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public LocalDateTime getLoadedAt() {
+        return loadedAt;
+    }
+
+    public Long getPropagationLagMillis() {
+        return propagationLagMillis;
+    }
+
+    public Map<String, Boolean> getFixedExtensionStates() {
+        return fixedExtensionStates;
+    }
+
+    public Set<String> getCustomExtensions() {
+        return customExtensions;
+    }
+}
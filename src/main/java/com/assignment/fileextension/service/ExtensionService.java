@@ -2,20 +2,28 @@ package com.assignment.fileextension.service;
 
 import com.assignment.fileextension.common.FileExtensionConstants;
 import com.assignment.fileextension.dto.CustomExtensionDto;
+import com.assignment.fileextension.dto.ExtensionBulkRequest;
+import com.assignment.fileextension.dto.ExtensionBulkResultDto;
 import com.assignment.fileextension.dto.ExtensionRequest;
 import com.assignment.fileextension.dto.FixedExtensionSettingDto;
+import com.assignment.fileextension.dto.PolicyVersionDto;
 import com.assignment.fileextension.entity.CustomExtension;
 import com.assignment.fileextension.entity.FixedExtensionSetting;
+import com.assignment.fileextension.entity.PolicyVersion;
 import com.assignment.fileextension.exception.ExtensionNotFoundException;
 import com.assignment.fileextension.repository.CustomExtensionRepository;
 import com.assignment.fileextension.repository.FixedExtensionSettingRepository;
+import com.assignment.fileextension.repository.PolicyVersionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -29,7 +37,10 @@ public class ExtensionService {
     
     private final CustomExtensionRepository customExtensionRepository;
     private final FixedExtensionSettingRepository fixedExtensionSettingRepository;
-    private final StorageService storageService;
+    private final PolicyVersionRepository policyVersionRepository;
+    private final PurgeJobService purgeJobService;
+    private final ExtensionPolicyCache extensionPolicyCache;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<FixedExtensionSettingDto> getAllFixedExtensionSettings() {
         return fixedExtensionSettingRepository.findAllOrderByExtension().stream()
@@ -43,16 +54,20 @@ public class ExtensionService {
         
         setting.updateBlockStatus(isBlocked);
         FixedExtensionSetting saved = fixedExtensionSettingRepository.save(setting);
+        publishPolicyChange(extension);
         
-        // 확장자가 차단으로 변경된 경우 해당 확장자의 모든 파일 삭제
+        // 차단으로 바뀌면 기존 파일을 정리하고, 허용으로 바뀌면 격리된 파일을 되돌림 (둘 다 커밋 후 백그라운드)
+        Long purgeJobId = null;
+        Long restoreJobId = null;
         if (isBlocked) {
-            log.info("확장자 {} 차단으로 인한 기존 파일 삭제 시작", extension);
-            storageService.deleteFilesByExtension(extension);
+            purgeJobId = purgeJobService.schedulePurge(List.of(extension));
+        } else {
+            restoreJobId = purgeJobService.scheduleRestore(List.of(extension));
         }
         
         log.info(FileExtensionConstants.LogMessages.EXTENSION_SETTING_CHANGED, 
                 extension, isBlocked ? "차단" : "허용");
-        return FixedExtensionSettingDto.from(saved);
+        return FixedExtensionSettingDto.from(saved, purgeJobId, restoreJobId);
     }
     
     /**
@@ -81,12 +96,12 @@ public class ExtensionService {
                 .build();
         
         CustomExtension saved = customExtensionRepository.save(customExtension);
+        publishPolicyChange(extension);
         
-        // 커스텀 확장자 추가 시 해당 확장자의 모든 파일 삭제
-        log.info("커스텀 확장자 {} 추가로 인한 기존 파일 삭제 시작", extension);
-        storageService.deleteFilesByExtension(extension);
+        // 커스텀 확장자 추가 시 해당 확장자의 기존 파일은 커밋 후 백그라운드에서 정리
+        Long purgeJobId = purgeJobService.schedulePurge(List.of(extension));
         
-        return CustomExtensionDto.from(saved);
+        return CustomExtensionDto.from(saved, purgeJobId);
     }
     
     /**
@@ -97,7 +112,7 @@ public class ExtensionService {
             return "";
         }
         
-        String normalized = extension.toLowerCase().trim();
+        String normalized = FileNameNormalizer.normalize(extension).toLowerCase().trim();
         
         // 점(.)으로 시작하는 경우 제거
         if (normalized.startsWith(".")) {
@@ -165,15 +180,194 @@ public class ExtensionService {
                 .orElseThrow(() -> new IllegalArgumentException("해당 확장자를 찾을 수 없습니다."));
         
         customExtensionRepository.deleteById(id);
+        publishPolicyChange(customExtension.getExtension());
+        
+        // 차단이 풀렸으므로 격리된 파일은 커밋 후 백그라운드에서 복구
+        purgeJobService.scheduleRestore(List.of(customExtension.getExtension()));
     }
     
-    public boolean isExtensionBlocked(String fileName) {
-        if (fileName == null || !fileName.contains(".")) {
-            return false;
+    /**
+     * 고정 확장자 상태 변경, 커스텀 확장자 추가/삭제를 하나의 트랜잭션으로 적용합니다.
+     * 정책 버전은 한 번만 올리고, 새로 차단된 확장자의 기존 파일은 하나의 정리 작업으로,
+     * 차단이 풀린 확장자의 격리 파일은 하나의 복구 작업으로 처리합니다.
+     * 하나라도 잘못된 항목이 있으면 전체가 롤백됩니다.
+     */
+    @Transactional
+    public ExtensionBulkResultDto applyBulkChange(ExtensionBulkRequest request) {
+        if (request == null || request.isEmpty()) {
+            throw new IllegalArgumentException("변경할 내용이 없습니다.");
         }
         
-        String extension = fileName.substring(fileName.lastIndexOf(".") + 1).toLowerCase();
-        return isExtensionBlocked(fileName, extension);
+        Set<String> newlyBlocked = new LinkedHashSet<>();
+        Set<String> newlyAllowed = new LinkedHashSet<>();
+        List<FixedExtensionSettingDto> updatedFixed = applyFixedExtensionStates(
+                request.getFixedExtensionStates(), newlyBlocked, newlyAllowed);
+        
+        // 삭제를 먼저 적용해야 같은 요청에서 교체(삭제 후 추가)와 최대 개수 계산이 맞음
+        Set<String> existingCustom = new HashSet<>(customExtensionRepository.findAllExtensions());
+        List<String> removedCustom = removeCustomExtensions(request.getRemoveCustomExtensions(), existingCustom);
+        List<CustomExtensionDto> addedCustom = addCustomExtensions(request.getAddCustomExtensions(), existingCustom);
+        addedCustom.forEach(added -> newlyBlocked.add(added.getExtension()));
+        newlyAllowed.addAll(removedCustom);
+        // 같은 요청에서 삭제 후 다시 추가한 확장자는 계속 차단 상태
+        newlyAllowed.removeAll(newlyBlocked);
+        
+        if (updatedFixed.isEmpty() && removedCustom.isEmpty() && addedCustom.isEmpty()) {
+            return ExtensionBulkResultDto.builder()
+                    .updatedFixedExtensions(updatedFixed)
+                    .addedCustomExtensions(addedCustom)
+                    .removedCustomExtensions(removedCustom)
+                    .purgedExtensions(List.of())
+                    .restoredExtensions(List.of())
+                    .build();
+        }
+        
+        Set<String> changed = new LinkedHashSet<>();
+        updatedFixed.forEach(fixed -> changed.add(fixed.getExtension()));
+        changed.addAll(removedCustom);
+        addedCustom.forEach(added -> changed.add(added.getExtension()));
+        publishPolicyChange(String.join(",", changed));
+        
+        List<String> purged = new ArrayList<>(newlyBlocked);
+        Long purgeJobId = null;
+        if (!purged.isEmpty()) {
+            purgeJobId = purgeJobService.schedulePurge(purged);
+        }
+        
+        List<String> restored = new ArrayList<>(newlyAllowed);
+        Long restoreJobId = null;
+        if (!restored.isEmpty()) {
+            restoreJobId = purgeJobService.scheduleRestore(restored);
+        }
+        
+        log.info("확장자 정책 일괄 변경 - 고정: {}개, 커스텀 추가: {}개, 커스텀 삭제: {}개",
+                updatedFixed.size(), addedCustom.size(), removedCustom.size());
+        
+        return ExtensionBulkResultDto.builder()
+                .updatedFixedExtensions(updatedFixed)
+                .addedCustomExtensions(addedCustom)
+                .removedCustomExtensions(removedCustom)
+                .purgedExtensions(purged)
+                .purgeJobId(purgeJobId)
+                .restoredExtensions(restored)
+                .restoreJobId(restoreJobId)
+                .build();
+    }
+    
+    /**
+     * 고정 확장자 상태를 변경하고, 차단/허용으로 바뀐 확장자를 각각 모읍니다. (상태가 같으면 건너뜀)
+     */
+    private List<FixedExtensionSettingDto> applyFixedExtensionStates(Map<String, Boolean> fixedExtensionStates,
+                                                                     Set<String> newlyBlocked,
+                                                                     Set<String> newlyAllowed) {
+        List<FixedExtensionSettingDto> updated = new ArrayList<>();
+        if (fixedExtensionStates == null || fixedExtensionStates.isEmpty()) {
+            return updated;
+        }
+        
+        Map<String, FixedExtensionSetting> settings = new HashMap<>();
+        for (FixedExtensionSetting setting : fixedExtensionSettingRepository.findAll()) {
+            settings.put(setting.getExtension(), setting);
+        }
+        
+        fixedExtensionStates.forEach((extension, isBlocked) -> {
+            if (isBlocked == null) {
+                throw new IllegalArgumentException("차단 여부를 입력해주세요: " + extension);
+            }
+            
+            FixedExtensionSetting setting = settings.get(normalizeExtension(extension));
+            if (setting == null) {
+                throw new ExtensionNotFoundException(FileExtensionConstants.Messages.EXTENSION_NOT_FOUND, extension);
+            }
+            if (isBlocked.equals(setting.getIsBlocked())) {
+                return;
+            }
+            
+            setting.updateBlockStatus(isBlocked);
+            if (isBlocked) {
+                newlyBlocked.add(setting.getExtension());
+            } else {
+                newlyAllowed.add(setting.getExtension());
+            }
+            updated.add(FixedExtensionSettingDto.from(setting));
+            log.info(FileExtensionConstants.LogMessages.EXTENSION_SETTING_CHANGED,
+                    setting.getExtension(), isBlocked ? "차단" : "허용");
+        });
+        return updated;
+    }
+    
+    private List<String> removeCustomExtensions(List<String> extensions, Set<String> existingCustom) {
+        List<String> removed = new ArrayList<>();
+        if (extensions == null || extensions.isEmpty()) {
+            return removed;
+        }
+        
+        Set<String> targets = new LinkedHashSet<>();
+        for (String extension : extensions) {
+            String normalized = normalizeExtension(extension);
+            if (!existingCustom.contains(normalized)) {
+                throw new ExtensionNotFoundException(FileExtensionConstants.Messages.EXTENSION_NOT_FOUND, normalized);
+            }
+            targets.add(normalized);
+        }
+        
+        customExtensionRepository.deleteAllByExtensionIn(targets);
+        existingCustom.removeAll(targets);
+        removed.addAll(targets);
+        return removed;
+    }
+    
+    private List<CustomExtensionDto> addCustomExtensions(List<String> extensions, Set<String> existingCustom) {
+        List<CustomExtensionDto> added = new ArrayList<>();
+        if (extensions == null || extensions.isEmpty()) {
+            return added;
+        }
+        
+        List<CustomExtension> toSave = new ArrayList<>();
+        for (String extension : extensions) {
+            String normalized = normalizeExtension(extension);
+            validateExtensionFormat(normalized);
+            if (!existingCustom.add(normalized)) {
+                throw new IllegalArgumentException(
+                        FileExtensionConstants.Messages.EXTENSION_ALREADY_EXISTS + ": " + normalized);
+            }
+            toSave.add(CustomExtension.builder()
+                    .extension(normalized)
+                    .build());
+        }
+        
+        if (existingCustom.size() > FileExtensionConstants.FileLimit.MAX_CUSTOM_EXTENSIONS) {
+            throw new IllegalArgumentException(FileExtensionConstants.Messages.MAX_EXTENSIONS_EXCEEDED);
+        }
+        
+        for (CustomExtension saved : customExtensionRepository.saveAll(toSave)) {
+            added.add(CustomExtensionDto.from(saved));
+        }
+        return added;
+    }
+    
+    /**
+     * 같은 트랜잭션 안에서 정책 버전을 올리고, 커밋 후 스냅샷 재적재 이벤트를 발행합니다.
+     */
+    private void publishPolicyChange(String extension) {
+        int updated = policyVersionRepository.increment(PolicyVersion.SINGLETON_ID);
+        if (updated == 0) {
+            // 행을 만든 뒤 다시 올려 updatedAt 을 항상 DB 시계로 기록
+            policyVersionRepository.saveAndFlush(PolicyVersion.initial(0L));
+            policyVersionRepository.increment(PolicyVersion.SINGLETON_ID);
+        }
+        eventPublisher.publishEvent(new ExtensionPolicyChangedEvent(extension));
+    }
+    
+    /**
+     * 이 노드가 적용 중인 정책 버전 정보를 반환합니다.
+     */
+    public PolicyVersionDto getPolicyVersion() {
+        return PolicyVersionDto.of(extensionPolicyCache.getNodeId(), extensionPolicyCache.current());
+    }
+    
+    public boolean isExtensionBlocked(String fileName) {
+        return isExtensionBlocked(fileName, (Map<String, Boolean>) null);
     }
     
     /**
@@ -193,26 +387,23 @@ public class ExtensionService {
         
         String cleanExtension = extension.toLowerCase().trim();
         
-        // 고정 확장자 확인
-        if (FileExtensionConstants.FIXED_EXTENSIONS.contains(cleanExtension)) {
-            if (fixedExtensionStates != null && fixedExtensionStates.containsKey(cleanExtension)) {
-                return fixedExtensionStates.get(cleanExtension);
-            }
-            // fixedExtensionStates가 없으면 DB에서 조회
-            return fixedExtensionSettingRepository.findByExtension(cleanExtension)
-                    .map(FixedExtensionSetting::getIsBlocked)
-                    .orElse(false);
-        }
-        
-        // 커스텀 확장자 확인
-        List<String> customExtensions = customExtensionRepository.findAllExtensions();
-        return customExtensions.contains(cleanExtension);
+        // DB 대신 커밋된 정책의 메모리 스냅샷으로 판단
+        return extensionPolicyCache.current().isBlocked(cleanExtension, fixedExtensionStates);
+    }
+    
+    /**
+     * 현재 적용 중인 확장자 정책 스냅샷을 반환합니다.
+     */
+    public ExtensionPolicySnapshot getPolicySnapshot() {
+        return extensionPolicyCache.current();
     }
     
     /**
      * 파일명 전체에 대해 고정 확장자 상태를 고려한 차단 여부 확인
      */
     public boolean isExtensionBlocked(String fileName, Map<String, Boolean> fixedExtensionStates) {
+        // 전각 마침표, 끝의 마침표, NTFS 스트림 표기 등으로 확장자를 숨기지 못하도록 정규화
+        fileName = FileNameNormalizer.normalize(fileName);
         if (fileName == null || !fileName.contains(".")) {
             return false;
         }
@@ -0,0 +1,438 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 파일 다운로드 (Range / If-Range 지원)
+ * <ul>
+ *     <li>Range 없음: 200 과 전체 내용</li>
+ *     <li>단일 구간: 206 과 Content-Range</li>
+ *     <li>여러 구간: 206 과 multipart/byteranges</li>
+ *     <li>만족할 수 없는 구간: 416 과 "Content-Range: bytes *&#47;길이"</li>
+ * </ul>
+ * 본문은 사용자 공간 버퍼를 거치지 않고 전송합니다. Tomcat 이 sendfile 을 지원하면 구간을 넘겨
+ * 커넥터가 커널에서 바로 보내게 하고, 그렇지 않으면 {@link FileChannel#transferTo} 로 전송합니다.
+ * <p>
+ * gzip 으로 저장된 파일은 클라이언트가 gzip 을 받을 수 있고 Range 가 없으면 저장된 바이트를
+ * "Content-Encoding: gzip" 으로 그대로 보내고, 그 밖의 경우(구간 요청 포함)에는 읽으면서 풀어 보냅니다.
+ * 구간은 항상 원본 기준입니다.
+ * <p>
+ * 자주 요청되는 작은 파일은 {@link HotFileCache} 에 적재된 내용을 메모리에서 바로 보냅니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FileDownloadService {
+    
+    private static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+    // Tomcat DefaultServlet 의 기본 sendfileSize 와 같은 기준 - 작은 파일은 일반 쓰기가 더 빠름
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+    private static final int MAX_RANGES = 16;
+    private static final DateTimeFormatter HTTP_DATE = DateTimeFormatter.RFC_1123_DATE_TIME;
+    private static final int INFLATE_BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP = "gzip";
+    
+    private final StorageService storageService;
+    private final HotFileCache hotFileCache;
+    private final PolicyEnforcement policyEnforcement;
+    
+    /**
+     * 다운로드할 파일 메타데이터를 찾습니다. 자주 요청되는 파일은 DB 를 거치지 않습니다.
+     * 캐시된 뒤 정책이 바뀌었을 수 있으므로 현재 정책을 위반한 파일은 없는 것으로 취급합니다.
+     */
+    public UploadedFile findFile(Long fileId) {
+        UploadedFile file = hotFileCache.getFile(fileId, storageService::findById);
+        return policyEnforcement.isVisible(file) ? file : null;
+    }
+    
+    /**
+     * 파일 내용을 응답으로 보냅니다. 물리 파일이 없으면 404 를 보냅니다.
+     */
+    public void download(UploadedFile file, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        StoredContent content = storageService.resolveContent(file);
+        ByteBuffer cached = hotFileCache.getContent(file, content);
+        if (cached == null && !Files.isReadable(content.path())) {
+            log.warn("다운로드할 물리 파일이 없습니다: ID {} - {}", file.getId(), content.path());
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        
+        // 구간과 Content-Length 는 원본 기준
+        long length = content.gzip() ? file.getFileSize() : content.length();
+        String contentType = contentTypeOf(file);
+        writeEntityHeaders(file, response);
+        
+        if (sendsGzip(file, request)) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            sendRegion(content, 0, content.length(), request, response);
+            return;
+        }
+        
+        List<long[]> ranges;
+        try {
+            ranges = requestedRanges(file, request, length);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            sendContent(content, cached, 0, length, request, response);
+            return;
+        }
+        
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            long[] range = ranges.get(0);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, contentRange(range, length));
+            sendContent(content, cached, range[0], range[1] - range[0] + 1, request, response);
+            return;
+        }
+        
+        sendMultipartRanges(content, cached, ranges, length, contentType, response);
+    }
+    
+    /**
+     * HEAD 응답: 파일을 열지 않고 메타데이터만으로 GET 과 같은 헤더를 보냅니다.
+     */
+    public void writeHeadResponse(UploadedFile file, HttpServletRequest request, HttpServletResponse response) {
+        writeEntityHeaders(file, response);
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(contentTypeOf(file));
+        if (sendsGzip(file, request)) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            response.setContentLengthLong(file.getStoredSize());
+            return;
+        }
+        response.setContentLengthLong(file.getFileSize());
+    }
+    
+    /**
+     * 이 요청에 보낼 표현의 ETag. gzip 그대로 보내는 응답은 바이트가 다르므로 다른 태그를 씁니다.
+     */
+    public String entityTag(UploadedFile file, HttpServletRequest request) {
+        String entityTag = entityTag(file);
+        if (sendsGzip(file, request)) {
+            return entityTag.substring(0, entityTag.length() - 1) + "-gzip\"";
+        }
+        return entityTag;
+    }
+    
+    /**
+     * 원본 내용의 강한 ETag. 내용 해시가 있으면 해시, 없으면 ID/크기/수정 시각으로 만듭니다.
+     */
+    public String entityTag(UploadedFile file) {
+        if (file.getContentHash() != null) {
+            return "\"" + file.getContentHash() + "\"";
+        }
+        return "\"" + Long.toHexString(file.getId()) + "-" + Long.toHexString(file.getFileSize())
+                + "-" + Long.toHexString(lastModified(file)) + "\"";
+    }
+    
+    /**
+     * 파일 정보(JSON) 응답의 ETag. 삭제 예외 설정 등 메타데이터가 바뀌면 달라집니다.
+     */
+    public String metadataEntityTag(UploadedFile file) {
+        return "\"meta-" + Long.toHexString(file.getId()) + "-" + Long.toHexString(lastModified(file)) + "\"";
+    }
+    
+    /**
+     * Last-Modified 로 쓸 수정 시각 (epoch 밀리초), 알 수 없으면 -1
+     */
+    public long lastModified(UploadedFile file) {
+        if (file.getUpdatedAt() == null) {
+            return -1;
+        }
+        return file.getUpdatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    private void writeEntityHeaders(UploadedFile file, HttpServletResponse response) {
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (file.isGzipStored()) {
+            // Accept-Encoding 에 따라 본문이 달라지므로 캐시가 구분하도록 알림
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(file.getOriginalFilename(), StandardCharsets.UTF_8)
+                .build()
+                .toString());
+    }
+    
+    /**
+     * gzip 으로 저장된 파일을 압축된 그대로 보낼 수 있는지 판단합니다. 구간 요청은 원본 기준이므로 제외합니다.
+     */
+    private boolean sendsGzip(UploadedFile file, HttpServletRequest request) {
+        return file.isGzipStored() && request.getHeader(HttpHeaders.RANGE) == null
+                && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+    }
+    
+    /**
+     * Accept-Encoding 에 gzip(또는 *)이 q=0 이 아닌 값으로 들어 있는지 확인합니다.
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            if (!name.equals(GZIP) && !name.equals("x-gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean acceptable = true;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        acceptable = Double.parseDouble(parameter.substring(2).trim()) > 0;
+                    } catch (NumberFormatException e) {
+                        acceptable = false;
+                    }
+                }
+            }
+            if (acceptable) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private String contentTypeOf(UploadedFile file) {
+        return file.getContentType() != null ? file.getContentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+    
+    /**
+     * Range 헤더를 [시작, 끝] 목록으로 변환합니다. 전체를 보내야 하면 빈 목록을 반환합니다.
+     *
+     * @throws IllegalArgumentException 만족할 수 있는 구간이 하나도 없을 때 (416)
+     */
+    private List<long[]> requestedRanges(UploadedFile file, HttpServletRequest request, long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(file, request.getHeader(HttpHeaders.IF_RANGE))) {
+            return List.of();
+        }
+        
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            // 형식이 잘못된 Range 는 무시하고 전체 전송 (RFC 9110)
+            return List.of();
+        }
+        if (httpRanges.size() > MAX_RANGES) {
+            return List.of();
+        }
+        
+        List<long[]> ranges = new ArrayList<>(httpRanges.size());
+        long total = 0;
+        for (HttpRange httpRange : httpRanges) {
+            long start;
+            long end;
+            try {
+                start = httpRange.getRangeStart(length);
+                end = httpRange.getRangeEnd(length);
+            } catch (IllegalArgumentException e) {
+                continue;
+            }
+            if (start > end) {
+                continue;
+            }
+            ranges.add(new long[]{start, end});
+            total += end - start + 1;
+        }
+        
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("만족할 수 있는 구간이 없습니다");
+        }
+        // 겹치는 구간으로 파일보다 많이 보내게 하는 요청은 구간 없이 전체 전송
+        if (total > length) {
+            return List.of();
+        }
+        return ranges;
+    }
+    
+    /**
+     * If-Range 가 없거나, 현재 ETag 또는 수정 시각과 일치하면 Range 를 적용합니다.
+     * 약한 ETag 는 Range 조건에 쓸 수 없으므로 일치하지 않는 것으로 봅니다.
+     */
+    private boolean isIfRangeSatisfied(UploadedFile file, String ifRange) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(entityTag(file));
+        }
+        long lastModified = lastModified(file);
+        if (lastModified < 0) {
+            return false;
+        }
+        try {
+            ZonedDateTime since = ZonedDateTime.parse(ifRange, HTTP_DATE);
+            return since.toEpochSecond() == lastModified / 1000;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * 원본 기준 한 구간을 보냅니다. 캐시된 내용이 있으면 메모리에서, gzip 저장 파일은 읽으면서 풀어 보냅니다.
+     */
+    private void sendContent(StoredContent content, ByteBuffer cached, long start, long count,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (cached != null) {
+            response.setContentLengthLong(count);
+            write(cached, start, count, Channels.newChannel(response.getOutputStream()));
+            return;
+        }
+        if (!content.gzip()) {
+            sendRegion(content, start, count, request, response);
+            return;
+        }
+        response.setContentLengthLong(count);
+        inflate(content, start, count, response.getOutputStream());
+    }
+    
+    /**
+     * 저장된 바이트의 한 구간을 보냅니다. 가능하면 Tomcat sendfile 에 맡기고, 아니면 transferTo 로 전송합니다.
+     */
+    private void sendRegion(StoredContent content, long start, long count,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(count);
+        
+        if (count >= SENDFILE_MIN_BYTES && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            long position = content.offset() + start;
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, content.path().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, position);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, position + count);
+            return;
+        }
+        
+        try (FileChannel channel = FileChannel.open(content.path(), StandardOpenOption.READ)) {
+            OutputStream outputStream = response.getOutputStream();
+            transfer(channel, content.offset() + start, count, Channels.newChannel(outputStream));
+        }
+    }
+    
+    private void sendMultipartRanges(StoredContent content, ByteBuffer cached, List<long[]> ranges, long length,
+                                     String contentType, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString();
+        
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (long[] range : ranges) {
+            byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + contentRange(range, length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + (range[1] - range[0] + 1);
+        }
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += closing.length;
+        
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        
+        OutputStream outputStream = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(outputStream);
+        // 캐시된 내용이 있거나 gzip 저장 파일(구간마다 처음부터 풀어야 함)이면 채널을 열지 않음
+        boolean openChannel = cached == null && !content.gzip();
+        try (FileChannel channel = openChannel ? FileChannel.open(content.path(), StandardOpenOption.READ) : null) {
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] range = ranges.get(i);
+                long count = range[1] - range[0] + 1;
+                outputStream.write(partHeaders.get(i));
+                if (cached != null) {
+                    write(cached, range[0], count, target);
+                } else if (channel == null) {
+                    inflate(content, range[0], count, outputStream);
+                } else {
+                    transfer(channel, content.offset() + range[0], count, target);
+                }
+            }
+        }
+        outputStream.write(closing);
+    }
+    
+    private static void transfer(FileChannel channel, long position, long count, WritableByteChannel target)
+            throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long transferred = channel.transferTo(position, remaining, target);
+            if (transferred <= 0) {
+                throw new IOException("파일이 예상보다 짧습니다: " + remaining + " bytes 남음");
+            }
+            position += transferred;
+            remaining -= transferred;
+        }
+    }
+    
+    private static void write(ByteBuffer cached, long start, long count, WritableByteChannel target) throws IOException {
+        ByteBuffer region = cached.slice((int) start, (int) count);
+        while (region.hasRemaining()) {
+            target.write(region);
+        }
+    }
+    
+    /**
+     * gzip 내용을 풀면서 원본 기준 [start, start + count) 구간만 씁니다.
+     */
+    private static void inflate(StoredContent content, long start, long count, OutputStream target) throws IOException {
+        try (InputStream raw = Files.newInputStream(content.path());
+             InputStream inputStream = new GZIPInputStream(raw, INFLATE_BUFFER_SIZE)) {
+            inputStream.skipNBytes(start);
+            byte[] buffer = new byte[INFLATE_BUFFER_SIZE];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = inputStream.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new IOException("파일이 예상보다 짧습니다: " + remaining + " bytes 남음");
+                }
+                target.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+    
+    private static String contentRange(long[] range, long length) {
+        return "bytes " + range[0] + "-" + range[1] + "/" + length;
+    }
+}
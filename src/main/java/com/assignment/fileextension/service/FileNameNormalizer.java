@@ -0,0 +1,102 @@
+package com.assignment.fileextension.service;
+
+import java.text.Normalizer;
+
+/**
+ * 확장자 검사 전에 파일명을 정규화합니다.
+ * 유니코드/Windows 파일명 규칙을 이용해 차단 확장자를 숨기는 기법을 무력화합니다.
+ * <ul>
+ *     <li>전각/호환 문자: NFKC 정규화 ("ｅｘｅ", "．" → "exe", ".")</li>
+ *     <li>마침표처럼 보이는 문자: "。", "｡" → "."</li>
+ *     <li>보이지 않는 문자: 제로폭 문자, RTLO 등 방향 제어 문자(유니코드 Cf), 제어 문자 제거</li>
+ *     <li>NTFS 대체 데이터 스트림: "evil.exe::$DATA" → "evil.exe", "a.txt:evil.exe" → "a.txt.evil.exe"</li>
+ *     <li>끝의 마침표와 공백: Windows 가 저장 시 제거하므로 "evil.exe. " → "evil.exe"</li>
+ * </ul>
+ * 대부분을 차지하는 일반 ASCII 파일명은 한 번 훑어보기만 하고 입력을 그대로 반환합니다.
+ */
+public final class FileNameNormalizer {
+
+    private FileNameNormalizer() {
+    }
+
+    /**
+     * 파일명을 정규화합니다. 바꿀 것이 없으면 같은 인스턴스를 반환합니다.
+     */
+    public static String normalize(String fileName) {
+        if (fileName == null || isCanonicalAscii(fileName)) {
+            return fileName;
+        }
+
+        String composed = isAscii(fileName) ? fileName : Normalizer.normalize(fileName, Normalizer.Form.NFKC);
+        return canonicalize(composed);
+    }
+
+    /**
+     * 출력 가능한 ASCII 로만 이루어져 있고 ':' 와 끝의 마침표/공백이 없으면 이미 정규화된 상태입니다.
+     */
+    private static boolean isCanonicalAscii(String fileName) {
+        int length = fileName.length();
+        for (int i = 0; i < length; i++) {
+            char c = fileName.charAt(i);
+            if (c < 0x20 || c > 0x7E || c == ':') {
+                return false;
+            }
+        }
+        if (length == 0) {
+            return true;
+        }
+        char last = fileName.charAt(length - 1);
+        return last != '.' && last != ' ';
+    }
+
+    private static boolean isAscii(String fileName) {
+        for (int i = 0; i < fileName.length(); i++) {
+            if (fileName.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 보이지 않는 문자 제거, 마침표 통일, NTFS 스트림 표기 처리, 끝의 마침표/공백 제거를 한 번에 수행합니다.
+     */
+    private static String canonicalize(String fileName) {
+        StringBuilder result = new StringBuilder(fileName.length());
+        // 0: 파일명, 1: 스트림 이름, 2: 스트림 형식($DATA 등, 버림)
+        int part = 0;
+
+        for (int i = 0; i < fileName.length(); i++) {
+            char c = fileName.charAt(i);
+
+            if (c == ':') {
+                part++;
+                if (part == 1) {
+                    trimTrailingDotsAndSpaces(result);
+                    result.append('.');
+                }
+                continue;
+            }
+            if (part >= 2 || isInvisible(c)) {
+                continue;
+            }
+
+            result.append(c == '。' || c == '｡' ? '.' : c);
+        }
+
+        trimTrailingDotsAndSpaces(result);
+        return result.toString();
+    }
+
+    private static boolean isInvisible(char c) {
+        return c < 0x20 || c == 0x7F || Character.getType(c) == Character.FORMAT || Character.isISOControl(c);
+    }
+
+    private static void trimTrailingDotsAndSpaces(StringBuilder builder) {
+        int end = builder.length();
+        while (end > 0 && (builder.charAt(end - 1) == '.' || builder.charAt(end - 1) == ' ')) {
+            end--;
+        }
+        builder.setLength(end);
+    }
+}
@@ -1,24 +1,37 @@
 package com.assignment.fileextension.service;
 
+import com.assignment.fileextension.entity.FileAuditLog;
+import com.assignment.fileextension.entity.StoredBlob;
 import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.exception.FileSizeLimitExceededException;
 import com.assignment.fileextension.repository.UploadedFileRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
@@ -27,35 +40,54 @@ import java.util.UUID;
 @ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
 public class FileStorageService implements StorageService {
     
-    private final UploadedFileRepository uploadedFileRepository;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP_SUFFIX = ".gz";
     
-    @Value("${app.file.upload-dir:uploads}")
-    private String uploadBaseDir;
+    private final UploadedFileRepository uploadedFileRepository;
+    private final ContentAddressedStore contentAddressedStore;
+    private final AtRestCompressionPolicy compressionPolicy;
+    private final HotFileCache hotFileCache;
+    private final StorageLayout storageLayout;
+    private final PolicyEnforcement policyEnforcement;
+    private final AuditService auditService;
     
     @Value("${app.file.max-size:10485760}") // 10MB
-    private long maxFileSize;
+    protected long maxFileSize;
+    
+    // true 면 같은 내용을 SHA-256 으로 한 번만 저장하고 참조 수로 공유
+    @Value("${app.storage.content-addressed:false}")
+    protected boolean contentAddressed;
+    
+    // true 면 잘 압축되는 내용은 gzip 으로 저장하고 다운로드 시 풀어서 전송
+    @Value("${app.storage.compression.enabled:false}")
+    private boolean compressionEnabled;
     
     @Override
     public UploadedFile storeFile(MultipartFile file) throws IOException {
         validateFile(file);
         
-        // 파일 저장 경로 생성 (년/월/일 구조)
-        String datePath = LocalDate.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-        Path uploadPath = Paths.get(uploadBaseDir, datePath);
-        
-        // 디렉토리 생성
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        if (contentAddressed) {
+            return saveBlobReference(file.getOriginalFilename(), file.getContentType(), contentAddressedStore.store(file));
         }
         
         // 고유한 파일명 생성
         String originalFilename = file.getOriginalFilename();
         String extension = extractExtension(originalFilename);
-        String storedFilename = generateUniqueFilename(extension);
+        String storedFilename = storageLayout.newStoredFilename(extension);
         
-        // 파일 저장
-        Path filePath = uploadPath.resolve(storedFilename);
-        Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        // 파일 저장 (압축 여부는 앞부분 표본으로 결정)
+        boolean compress;
+        try (InputStream sampleStream = file.getInputStream()) {
+            compress = shouldCompress(file.getContentType(), extension, sampleStream);
+        }
+        Path filePath = storedPath(storedFilename, compress);
+        if (compress) {
+            try (InputStream inputStream = file.getInputStream()) {
+                writeContent(inputStream, filePath, true);
+            }
+        } else {
+            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
         
         // 메타데이터 저장
         UploadedFile uploadedFile = UploadedFile.builder()
@@ -65,6 +97,8 @@ public class FileStorageService implements StorageService {
                 .extension(extension)
                 .fileSize(file.getSize())
                 .contentType(file.getContentType())
+                .storageEncoding(encodingOf(compress))
+                .storedSize(Files.size(filePath))
                 .status(UploadedFile.FileStatus.ACTIVE)
                 .build();
         
@@ -74,81 +108,440 @@ public class FileStorageService implements StorageService {
         return saved;
     }
     
+    @Override
+    public UploadedFile storeStream(String originalFilename, String contentType, InputStream content) throws IOException {
+        if (originalFilename == null || originalFilename.trim().isEmpty()) {
+            throw new IllegalArgumentException("파일명이 유효하지 않습니다.");
+        }
+        
+        if (contentAddressed) {
+            return saveBlobReference(originalFilename, contentType, contentAddressedStore.store(content, maxFileSize));
+        }
+        
+        String extension = extractExtension(originalFilename);
+        String storedFilename = storageLayout.newStoredFilename(extension);
+        
+        // 앞부분 표본만 버퍼에 남겨 압축 여부를 정한 뒤 되돌림
+        BufferedInputStream buffered = new BufferedInputStream(content, AtRestCompressionPolicy.SAMPLE_BYTES);
+        buffered.mark(AtRestCompressionPolicy.SAMPLE_BYTES);
+        boolean compress = shouldCompress(contentType, extension, buffered);
+        buffered.reset();
+        
+        // 임시 파일을 거치지 않고 최종 위치에 바로 기록
+        Path filePath = storedPath(storedFilename, compress);
+        long fileSize = writeContent(buffered, filePath, compress);
+        
+        if (fileSize == 0) {
+            Files.deleteIfExists(filePath);
+            throw new IllegalArgumentException("파일이 선택되지 않았습니다.");
+        }
+        
+        UploadedFile uploadedFile = UploadedFile.builder()
+                .originalFilename(originalFilename)
+                .storedFilename(storedFilename)
+                .filePath(filePath.toString())
+                .extension(extension)
+                .fileSize(fileSize)
+                .contentType(contentType)
+                .storageEncoding(encodingOf(compress))
+                .storedSize(Files.size(filePath))
+                .status(UploadedFile.FileStatus.ACTIVE)
+                .build();
+        
+        UploadedFile saved = uploadedFileRepository.save(uploadedFile);
+        
+        log.info("파일 스트리밍 저장 완료: {} -> {} ({} bytes{})", originalFilename, filePath, fileSize,
+                compress ? ", gzip " + uploadedFile.getStoredSize() + " bytes" : "");
+        return saved;
+    }
+    
+    @Override
+    public UploadedFile storeAssembledFile(String originalFilename, String contentType, Path assembledFile) throws IOException {
+        long fileSize = Files.size(assembledFile);
+        if (fileSize > maxFileSize) {
+            throw new FileSizeLimitExceededException(maxFileSize);
+        }
+        
+        if (contentAddressed) {
+            return saveBlobReference(originalFilename, contentType, contentAddressedStore.store(assembledFile));
+        }
+        
+        String extension = extractExtension(originalFilename);
+        Path filePath = storageLayout.newFilePath(storageLayout.newStoredFilename(extension));
+        // 같은 업로드 디렉터리 안이므로 이름 변경만 일어남
+        Files.move(assembledFile, filePath, StandardCopyOption.ATOMIC_MOVE);
+        
+        UploadedFile uploadedFile = UploadedFile.builder()
+                .originalFilename(originalFilename)
+                .storedFilename(filePath.getFileName().toString())
+                .filePath(filePath.toString())
+                .extension(extension)
+                .fileSize(fileSize)
+                .contentType(contentType)
+                .storageEncoding(UploadedFile.StorageEncoding.IDENTITY)
+                .storedSize(fileSize)
+                .status(UploadedFile.FileStatus.ACTIVE)
+                .build();
+        
+        UploadedFile saved = uploadedFileRepository.save(uploadedFile);
+        
+        log.info("조립된 파일 저장 완료: {} -> {} ({} bytes)", originalFilename, filePath, fileSize);
+        return saved;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public StoredContent resolveContent(UploadedFile file) {
+        Path path = Paths.get(file.getFilePath());
+        if (file.isPacked()) {
+            return StoredContent.region(path, file.getPackOffset(), file.getStoredSize());
+        }
+        if (file.isGzipStored()) {
+            return StoredContent.gzipFile(path, file.getStoredSize());
+        }
+        return StoredContent.wholeFile(path, file.getFileSize());
+    }
+    
+    /**
+     * 공유 blob 을 가리키는 파일 행을 저장합니다. storedFilename 은 행마다 고유하게 유지합니다.
+     */
+    private UploadedFile saveBlobReference(String originalFilename, String contentType, StoredBlob blob) {
+        String extension = extractExtension(originalFilename);
+        
+        UploadedFile uploadedFile = UploadedFile.builder()
+                .originalFilename(originalFilename)
+                .storedFilename(storageLayout.newStoredFilename(extension))
+                .filePath(blob.getFilePath())
+                .extension(extension)
+                .fileSize(blob.getSize())
+                .contentType(contentType)
+                .contentHash(blob.getHash())
+                .storageEncoding(UploadedFile.StorageEncoding.IDENTITY)
+                .storedSize(blob.getSize())
+                .status(UploadedFile.FileStatus.ACTIVE)
+                .build();
+        
+        UploadedFile saved = uploadedFileRepository.save(uploadedFile);
+        
+        log.info("파일 저장 완료: {} -> blob {} (참조 {}개)", originalFilename, blob.getHash(), blob.getRefCount());
+        return saved;
+    }
+    
     @Override
     public void deleteFilesByExtension(String extension) {
-        List<UploadedFile> activeFiles = uploadedFileRepository
-                .findByExtensionAndStatus(extension, UploadedFile.FileStatus.ACTIVE);
+        deleteFilesByExtensions(List.of(extension));
+    }
+    
+    @Override
+    public void deleteFilesByExtensions(List<String> extensions) {
+        if (extensions == null || extensions.isEmpty()) {
+            return;
+        }
+        
+        // 대상 확장자 전체를 한 번에 조회
+        List<UploadedFile> activeFiles = uploadedFileRepository.findActiveFilesByExtensions(extensions);
         
-        int deletedCount = 0;
+        List<Long> deletedIds = new ArrayList<>();
         int protectedCount = 0;
         
         for (UploadedFile file : activeFiles) {
             // 삭제 예외 설정된 파일은 건너뛰기
             if (file.isProtectedFromDeletion()) {
                 log.info("파일 삭제 예외 적용: {} (확장자 {} 차단에도 불구하고 보호됨)", 
-                        file.getOriginalFilename(), extension);
+                        file.getOriginalFilename(), file.getExtension());
                 protectedCount++;
                 continue;
             }
             
             try {
-                // 물리적 파일 삭제
-                Path filePath = Paths.get(file.getFilePath());
-                if (Files.exists(filePath)) {
-                    Files.delete(filePath);
-                    log.info("물리적 파일 삭제: {}", filePath);
-                }
-                
-                // DB에서 완전 삭제
-                uploadedFileRepository.delete(file);
-                log.warn("파일 삭제: {} (확장자 {} 차단으로 인함)", file.getOriginalFilename(), extension);
-                deletedCount++;
+                // 물리적 파일 삭제 (공유 blob 이면 마지막 참조일 때만)
+                deleteStoredContent(file);
+                log.warn("파일 삭제: {} (확장자 {} 차단으로 인함)", file.getOriginalFilename(), file.getExtension());
                 
             } catch (IOException e) {
-                log.error("파일 삭제 실패: {} - {}", file.getOriginalFilename(), e.getMessage());
                 // 물리적 파일 삭제 실패해도 DB는 삭제
-                uploadedFileRepository.delete(file);
-                deletedCount++;
+                log.error("파일 삭제 실패: {} - {}", file.getOriginalFilename(), e.getMessage());
+            }
+            deletedIds.add(file.getId());
+        }
+        
+        // DB에서는 한 번의 DELETE 문으로 완전 삭제
+        if (!deletedIds.isEmpty()) {
+            uploadedFileRepository.deleteAllByIdInBatch(deletedIds);
+            hotFileCache.invalidate(deletedIds);
+        }
+        
+        if (!deletedIds.isEmpty() || protectedCount > 0) {
+            log.info("확장자 {} 처리 완료 - 삭제: {}개, 보호: {}개", extensions, deletedIds.size(), protectedCount);
+        }
+    }
+    
+    @Override
+    public PurgeBatch purgeBatch(List<String> extensions, long afterId, int limit) {
+        List<UploadedFile> files = uploadedFileRepository.findActiveFilesByExtensionsAfter(
+                extensions, afterId, PageRequest.of(0, limit));
+        if (files.isEmpty()) {
+            return PurgeBatch.empty(afterId);
+        }
+        
+        // 작업이 대기하는 동안 다른 노드에서 차단이 풀렸을 수 있으므로 배치마다 현재 정책으로 다시 확인
+        ExtensionPolicySnapshot policy = policyEnforcement.currentPolicy();
+        List<UploadedFile> targets = new ArrayList<>(files.size());
+        int protectedCount = 0;
+        int unblockedCount = 0;
+        for (UploadedFile file : files) {
+            if (file.isProtectedFromDeletion()) {
+                protectedCount++;
+            } else if (policy.isBlocked(file.getExtension())) {
+                targets.add(file);
+            } else {
+                unblockedCount++;
+            }
+        }
+        if (unblockedCount > 0) {
+            log.info("차단이 해제된 확장자의 파일 {}개는 정리하지 않음 (정책 버전 {})", unblockedCount, policy.getVersion());
+        }
+        
+        return dispose(files, targets, protectedCount);
+    }
+    
+    @Override
+    public PurgeBatch reapBatch(ExtensionPolicySnapshot policy, long afterId, int limit) {
+        List<UploadedFile> files = uploadedFileRepository.findUncheckedFilesAfter(
+                policy.getVersion(), afterId, PageRequest.of(0, limit));
+        if (files.isEmpty()) {
+            return PurgeBatch.empty(afterId);
+        }
+        
+        List<UploadedFile> violations = new ArrayList<>();
+        List<Long> passedIds = new ArrayList<>(files.size());
+        int protectedCount = 0;
+        for (UploadedFile file : files) {
+            if (policyEnforcement.violates(file, policy)) {
+                violations.add(file);
+                continue;
             }
+            if (file.isProtectedFromDeletion() && file.getExtension() != null && policy.isBlocked(file.getExtension())) {
+                protectedCount++;
+            }
+            passedIds.add(file.getId());
         }
         
-        if (deletedCount > 0 || protectedCount > 0) {
-            log.info("확장자 {} 처리 완료 - 삭제: {}개, 보호: {}개", extension, deletedCount, protectedCount);
+        // 통과한 행은 한 번의 UPDATE 로 이 버전을 기록해 다음 정책 변경 전까지 다시 읽지 않음
+        if (!passedIds.isEmpty()) {
+            uploadedFileRepository.stampPolicyVersion(passedIds, policy.getVersion());
+        }
+        return dispose(files, violations, protectedCount);
+    }
+    
+    @Override
+    public RestoreBatch restoreBatch(List<String> extensions, long afterId, int limit) {
+        List<UploadedFile> files = uploadedFileRepository.findQuarantinedFilesByExtensionsAfter(
+                extensions, afterId, PageRequest.of(0, limit));
+        if (files.isEmpty()) {
+            return RestoreBatch.empty(afterId);
+        }
+        
+        // 작업이 대기하는 동안 다시 차단된 확장자의 파일은 격리된 채로 둠
+        ExtensionPolicySnapshot policy = policyEnforcement.currentPolicy();
+        List<Long> restoredIds = new ArrayList<>(files.size());
+        Set<String> restoredExtensions = new TreeSet<>();
+        long restoredBytes = 0;
+        int failed = 0;
+        int reblockedCount = 0;
+        for (UploadedFile file : files) {
+            if (file.getExtension() != null && policy.isBlocked(file.getExtension())) {
+                reblockedCount++;
+                continue;
+            }
+            try {
+                // 공유 blob 과 pack 항목은 격리 중에도 제자리에 있으므로 상태만 되돌림
+                if (file.getContentHash() == null && !file.isPacked()) {
+                    restoreStoredFile(file);
+                }
+            } catch (IOException e) {
+                failed++;
+                log.warn("격리 파일 복구 실패: ID {} - {}", file.getId(), e.getMessage());
+                continue;
+            }
+            restoredIds.add(file.getId());
+            restoredExtensions.add(file.getExtension());
+            restoredBytes += file.getFileSize();
+        }
+        
+        if (reblockedCount > 0) {
+            log.info("다시 차단된 확장자의 파일 {}개는 복구하지 않음 (정책 버전 {})", reblockedCount, policy.getVersion());
+        }
+        if (!restoredIds.isEmpty()) {
+            uploadedFileRepository.updateStatus(restoredIds, UploadedFile.FileStatus.ACTIVE);
+            auditService.logBatchAction(FileAuditLog.ActionType.FILE_RESTORED, restoredExtensions,
+                    restoredIds.size(), restoredBytes, restoredIds.get(0), restoredIds.get(restoredIds.size() - 1));
         }
+        
+        long lastId = files.get(files.size() - 1).getId();
+        return new RestoreBatch(files.size(), restoredIds.size(), failed, lastId);
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long countQuarantinedFilesByExtensions(List<String> extensions) {
+        return uploadedFileRepository.countQuarantinedFilesByExtensions(extensions);
+    }
+    
+    /**
+     * 위반 파일을 격리하거나(기본) 삭제하고 배치 결과를 만듭니다.
+     */
+    private PurgeBatch dispose(List<UploadedFile> files, List<UploadedFile> violations, int protectedCount) {
+        long lastId = files.get(files.size() - 1).getId();
+        if (policyEnforcement.isQuarantine()) {
+            quarantineRows(violations);
+            return new PurgeBatch(files.size(), 0, violations.size(), protectedCount, List.of(), lastId);
+        }
+        List<Path> unlinkTargets = removeRows(violations);
+        return new PurgeBatch(files.size(), violations.size(), 0, protectedCount, unlinkTargets, lastId);
+    }
+    
+    /**
+     * 배치를 한 번의 UPDATE 로 격리 상태로 바꾸고 감사 로그를 한 건 남깁니다.
+     * 커밋되면 개별 저장 파일을 같은 파일 시스템의 격리 영역으로 이름만 바꿔 옮깁니다. (내용 복사 없음)
+     * 옮기지 못한 파일도 격리 행은 조회되지 않으므로 노출되지 않고, 복구 시 제자리에 있는 파일로 처리됩니다.
+     * 공유 blob 과 pack 세그먼트는 다른 행이 함께 쓰므로 상태만 바꿉니다.
+     */
+    private void quarantineRows(List<UploadedFile> files) {
+        if (files.isEmpty()) {
+            return;
+        }
+        
+        List<Long> ids = new ArrayList<>(files.size());
+        Map<Path, Path> moves = new LinkedHashMap<>();
+        Set<String> extensions = new TreeSet<>();
+        long totalBytes = 0;
+        for (UploadedFile file : files) {
+            ids.add(file.getId());
+            extensions.add(file.getExtension());
+            totalBytes += file.getFileSize();
+            if (file.getContentHash() == null && !file.isPacked()) {
+                Path current = Paths.get(file.getFilePath());
+                moves.put(current, storageLayout.quarantinePathFor(file.getStoredFilename(), current));
+            }
+        }
+        
+        uploadedFileRepository.updateStatus(ids, UploadedFile.FileStatus.QUARANTINED);
+        hotFileCache.invalidate(ids);
+        auditService.logBatchAction(FileAuditLog.ActionType.FILE_QUARANTINED, extensions,
+                ids.size(), totalBytes, ids.get(0), ids.get(ids.size() - 1));
+        
+        runAfterCommit(() -> moves.forEach(this::moveToQuarantine));
+    }
+    
+    private void moveToQuarantine(Path current, Path quarantined) {
+        try {
+            storageLayout.ensureDirectory(quarantined.getParent());
+            Files.move(current, quarantined, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("파일 격리 이동 실패: {} - {}", current, e.getMessage());
+        }
+    }
+    
+    /**
+     * 격리 영역의 파일을 원래 경로로 되돌립니다. 격리 후 옮기지 못해 원래 자리에 남은 파일도 복구된 것으로 봅니다.
+     */
+    private void restoreStoredFile(UploadedFile file) throws IOException {
+        Path original = Paths.get(file.getFilePath());
+        Path quarantined = storageLayout.quarantinePathFor(file.getStoredFilename(), original);
+        if (!Files.exists(quarantined)) {
+            if (Files.exists(original)) {
+                return;
+            }
+            throw new IOException("격리된 파일이 없습니다: " + quarantined);
+        }
+        storageLayout.ensureDirectory(original.getParent());
+        Files.move(quarantined, original, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static void runAfterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+    
+    /**
+     * 파일 행을 한 번의 DELETE 로 지우고, 커밋 후 지울 물리 파일 경로를 반환합니다.
+     * 공유 blob 은 참조만 해제합니다. (마지막 참조면 커밋 후 저장소가 삭제)
+     * pack 항목은 행만 지우면 세그먼트 압축 때 공간이 회수됩니다.
+     */
+    private List<Path> removeRows(List<UploadedFile> files) {
+        if (files.isEmpty()) {
+            return List.of();
+        }
+        
+        List<Long> deletedIds = new ArrayList<>(files.size());
+        List<Path> unlinkTargets = new ArrayList<>(files.size());
+        for (UploadedFile file : files) {
+            deletedIds.add(file.getId());
+            if (file.getContentHash() != null) {
+                contentAddressedStore.release(file.getContentHash());
+            } else if (!file.isPacked()) {
+                unlinkTargets.add(Paths.get(file.getFilePath()));
+            }
+        }
+        
+        uploadedFileRepository.deleteAllByIdInBatch(deletedIds);
+        hotFileCache.invalidate(deletedIds);
+        return unlinkTargets;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long countActiveFilesByExtensions(List<String> extensions) {
+        return uploadedFileRepository.countActiveFilesByExtensions(extensions);
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<UploadedFile> getFilesByStatus(UploadedFile.FileStatus status) {
-        return uploadedFileRepository.findByStatus(status);
+        List<UploadedFile> files = uploadedFileRepository.findByStatus(status);
+        // 격리 목록은 관리용으로 그대로 보여 줌
+        return status == UploadedFile.FileStatus.ACTIVE ? policyEnforcement.visibleOnly(files) : files;
     }
     
     @Override
     @Transactional(readOnly = true)
     public List<UploadedFile> getFilesByExtension(String extension) {
-        return uploadedFileRepository.findByExtension(extension);
+        return policyEnforcement.visibleOnly(uploadedFileRepository.findByExtension(extension));
     }
     
     @Override
     @Transactional(readOnly = true)
     public UploadedFile findById(Long fileId) {
-        return uploadedFileRepository.findById(fileId).orElse(null);
+        // 현재 정책을 위반한 파일은 정리되기 전이라도 없는 것으로 취급
+        return uploadedFileRepository.findById(fileId)
+                .filter(policyEnforcement::isVisible)
+                .orElse(null);
     }
     
     @Override
     public void deletePhysicalFile(Long fileId) throws IOException {
-        UploadedFile file = uploadedFileRepository.findById(fileId)
+        UploadedFile file = uploadedFileRepository.findByIdForUpdate(fileId)
                 .orElseThrow(() -> new IllegalArgumentException("파일을 찾을 수 없습니다."));
-        
-        Path filePath = Paths.get(file.getFilePath());
-        
-        if (Files.exists(filePath)) {
-            Files.delete(filePath);
-            log.info("물리적 파일 삭제: {}", filePath);
+        // 이미 삭제된 행의 내용을 다시 지우면 공유 blob 참조가 두 번 해제됨
+        if (file.getStatus() == UploadedFile.FileStatus.DELETED) {
+            log.info("이미 삭제된 파일입니다: ID {}", fileId);
+            return;
         }
         
+        deleteStoredContent(file);
+        
         file.markAsDeleted();
         uploadedFileRepository.save(file);
+        hotFileCache.invalidate(fileId);
     }
     
     @Override
@@ -158,6 +551,8 @@ public class FileStorageService implements StorageService {
         
         file.setDeletionException(deletionException);
         uploadedFileRepository.save(file);
+        // 수정 시각이 바뀌므로 캐시된 ETag/Last-Modified 도 무효
+        hotFileCache.invalidate(fileId);
         
         log.info("파일 삭제 예외 설정 변경: {} - {} -> {}", 
                 file.getOriginalFilename(), 
@@ -166,7 +561,7 @@ public class FileStorageService implements StorageService {
     }
     
     
-    private void validateFile(MultipartFile file) {
+    protected void validateFile(MultipartFile file) {
         if (file.isEmpty()) {
             throw new IllegalArgumentException("파일이 선택되지 않았습니다.");
         }
@@ -181,15 +576,93 @@ public class FileStorageService implements StorageService {
         }
     }
     
-    private String extractExtension(String filename) {
+    /**
+     * 파일의 물리적 내용을 삭제합니다. 공유 blob 은 참조만 해제하고, 마지막 참조일 때 삭제됩니다.
+     * pack 항목은 세그먼트를 건드리지 않습니다. (삭제 상태 행의 공간은 세그먼트 압축 때 회수)
+     */
+    private void deleteStoredContent(UploadedFile file) throws IOException {
+        if (file.getContentHash() != null) {
+            contentAddressedStore.release(file.getContentHash());
+            return;
+        }
+        if (file.isPacked()) {
+            return;
+        }
+        
+        Path filePath = Paths.get(file.getFilePath());
+        if (file.getStatus() == UploadedFile.FileStatus.QUARANTINED) {
+            Path quarantined = storageLayout.quarantinePathFor(file.getStoredFilename(), filePath);
+            if (Files.exists(quarantined)) {
+                filePath = quarantined;
+            }
+        }
+        if (Files.exists(filePath)) {
+            Files.delete(filePath);
+            log.info("물리적 파일 삭제: {}", filePath);
+        }
+    }
+    
+    /**
+     * 저장 배치에 따른 파일 경로. gzip 으로 저장하면 디스크 파일명에 ".gz" 를 붙입니다.
+     */
+    private Path storedPath(String storedFilename, boolean gzip) throws IOException {
+        Path filePath = storageLayout.newFilePath(storedFilename);
+        return gzip ? filePath.resolveSibling(storedFilename + GZIP_SUFFIX) : filePath;
+    }
+    
+    /**
+     * 압축 저장이 켜져 있으면 스트림 앞부분 표본으로 압축 여부를 판단합니다. (스트림은 닫지 않음)
+     */
+    private boolean shouldCompress(String contentType, String extension, InputStream content) throws IOException {
+        if (!compressionEnabled) {
+            return false;
+        }
+        byte[] sample = new byte[AtRestCompressionPolicy.SAMPLE_BYTES];
+        int length = content.readNBytes(sample, 0, sample.length);
+        return compressionPolicy.shouldCompress(contentType, extension, sample, length);
+    }
+    
+    /**
+     * 내용을 filePath 에 새로 기록하고 원본 바이트 수를 반환합니다. 한도는 압축 전 크기 기준이며,
+     * 실패하면 쓰다 만 파일을 지웁니다.
+     */
+    private long writeContent(InputStream content, Path filePath, boolean gzip) throws IOException {
+        OutputStream outputStream = Files.newOutputStream(filePath, StandardOpenOption.CREATE_NEW);
+        try (OutputStream target = gzip ? new GZIPOutputStream(outputStream, STREAM_BUFFER_SIZE) : outputStream) {
+            return copyWithLimit(content, target, maxFileSize);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(filePath);
+            throw e;
+        }
+    }
+    
+    private UploadedFile.StorageEncoding encodingOf(boolean gzip) {
+        return gzip ? UploadedFile.StorageEncoding.GZIP : UploadedFile.StorageEncoding.IDENTITY;
+    }
+    
+    /**
+     * 읽은 바이트 수를 세면서 복사하고, 한도를 넘는 순간 더 읽지 않고 중단합니다.
+     */
+    private long copyWithLimit(InputStream content, OutputStream outputStream, long limit) throws IOException {
+        byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+        long total = 0;
+        int read;
+        while ((read = content.read(buffer)) != -1) {
+            total += read;
+            if (total > limit) {
+                throw new FileSizeLimitExceededException(limit);
+            }
+            outputStream.write(buffer, 0, read);
+        }
+        return total;
+    }
+    
+    protected String extractExtension(String filename) {
+        // 검증과 같은 기준으로 정규화해야 확장자 차단 시 기존 파일 정리 대상에 포함됨
+        filename = FileNameNormalizer.normalize(filename);
         if (filename == null || !filename.contains(".")) {
             return "";
         }
         return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
     }
-    
-    private String generateUniqueFilename(String extension) {
-        String uuid = UUID.randomUUID().toString();
-        return extension.isEmpty() ? uuid : uuid + "." + extension;
-    }
 }
\ No newline at end of file
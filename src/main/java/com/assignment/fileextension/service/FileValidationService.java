@@ -8,8 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.*;
-import java.util.stream.Collectors;
+import java.io.IOException;
 
 @Slf4j
 @Service
@@ -17,11 +16,29 @@ import java.util.stream.Collectors;
 public class FileValidationService {
     
     private final ExtensionService extensionService;
+    private final ContentSignatureSniffer contentSignatureSniffer;
+    private final ArchiveInspector archiveInspector;
     
     /**
-     * 파일 검증 (빈 파일, 크기, 확장자 우회 등)
+     * 파일 검증 (빈 파일, 크기, 확장자 우회, 압축 파일 내부 항목 등)
+     * 저장하지 않고 검사만 할 때 사용하며, 저장할 파일은 {@link #validateBeforeStore} 후 저장된 내용으로
+     * {@link #validateStoredArchive} 를 호출해 업로드 파일을 한 번 더 복사하지 않도록 합니다.
      */
     public FileValidationResult validateFile(MultipartFile file) {
+        FileValidationResult result = validateBeforeStore(file);
+        if (result.isBlocked()) {
+            return result;
+        }
+        
+        // 압축 파일 내부 항목 이름 검증 - 압축해서 올린 실행 파일 차단
+        return validateArchiveEntries(file, extensionService.getPolicySnapshot());
+    }
+    
+    /**
+     * 저장 전 파일 검증 (빈 파일, 크기, 확장자 우회, 내용 형식)
+     * 압축 파일 내부 항목은 저장 후 {@link #validateStoredArchive} 로 확인합니다.
+     */
+    public FileValidationResult validateBeforeStore(MultipartFile file) {
         // 빈 파일 검증
         validateBasicFile(file);
         
@@ -34,15 +51,36 @@ public class FileValidationService {
         // 파일명 검증
         validateFileName(originalFilename);
         
+        ExtensionPolicySnapshot policy = extensionService.getPolicySnapshot();
+        
         // 파일명 우회 공격 검증
-        FileValidationResult bypassResult = validateFileNameBypass(originalFilename);
+        FileValidationResult bypassResult = validateFileNameBypass(originalFilename, policy);
         if (bypassResult.isBlocked()) {
             return bypassResult;
         }
         
+        // 파일 내용(매직 바이트) 검증 - 이름을 바꾼 실행 파일 차단
+        FileValidationResult contentResult = validateFileContent(file, policy);
+        if (contentResult.isBlocked()) {
+            return contentResult;
+        }
+        
         return FileValidationResult.allowed();
     }
     
+    /**
+     * 본문을 받기 전에, 요청 헤더로 전달된 파일명만으로 차단 여부를 판단합니다.
+     * 예외 대신 결과를 반환하므로 필터에서 바로 응답을 만들 수 있습니다.
+     */
+    public FileValidationResult validateDeclaredFileName(String fileName) {
+        if (fileName == null || fileName.trim().isEmpty()) {
+            return FileValidationResult.blocked(
+                FileExtensionConstants.Messages.INVALID_FILENAME, BlockReason.INVALID_FILENAME);
+        }
+        
+        return validateFileNameBypass(fileName, extensionService.getPolicySnapshot());
+    }
+    
     /**
      * 기본 파일 검증 (빈 파일 체크)
      */
@@ -73,18 +111,72 @@ public class FileValidationService {
     /**
      * 파일명 우회 공격 검증
      */
-    private FileValidationResult validateFileNameBypass(String filename) {
-        // 모든 확장자 추출
-        List<String> allExtensions = extractAllExtensions(filename);
+    private FileValidationResult validateFileNameBypass(String filename, ExtensionPolicySnapshot policy) {
+        // 컴파일된 매처가 모든 확장자 토큰을 한 번에 확인 (예: "document.backup.exe.txt" -> txt, exe, backup)
+        String blockedExtension = policy.findBlockedExtension(filename);
         
-        log.debug("파일명 '{}' 에서 추출된 확장자들: {}", filename, allExtensions);
+        if (blockedExtension != null) {
+            log.debug("파일명 '{}' 에서 차단된 확장자 발견: {}", filename, blockedExtension);
+            return FileValidationResult.blocked(
+                String.format("%s: %s", FileExtensionConstants.Messages.FILE_BLOCKED, blockedExtension),
+                BlockReason.BLOCKED_EXTENSION,
+                blockedExtension
+            );
+        }
         
-        // 각 확장자별로 차단 여부 확인
-        for (String extension : allExtensions) {
-            if (extensionService.isExtensionBlocked(filename, extension)) {
+        return FileValidationResult.allowed();
+    }
+    
+    /**
+     * 스트리밍 업로드용: 이미 읽어 둔 파일 앞부분으로 내용 형식을 검증합니다.
+     */
+    public FileValidationResult validateContentHead(String fileName, byte[] head, int length) {
+        ContentSignatureSniffer.DetectedContent detected = contentSignatureSniffer.sniff(head, length);
+        return checkDetectedContent(fileName, detected, extensionService.getPolicySnapshot());
+    }
+    
+    /**
+     * 스트리밍 업로드용: 저장된 내용이 zip 형식이면 내부 항목 이름을 검증합니다.
+     * 파일 끝의 중앙 디렉터리를 읽으므로 본문을 다시 풀지 않으며,
+     * pack 세그먼트에 저장된 파일은 세그먼트 전체가 아닌 그 파일의 구간만 검사합니다.
+     */
+    public FileValidationResult validateStoredArchive(String fileName, StoredContent content) {
+        ArchiveInspector.Finding finding;
+        try {
+            finding = archiveInspector.inspect(content, extensionService.getPolicySnapshot());
+        } catch (IOException e) {
+            throw new FileValidationException(FileExtensionConstants.Messages.CONTENT_UNREADABLE, e);
+        }
+        return toArchiveResult(fileName, finding);
+    }
+    
+    /**
+     * 파일 앞부분의 시그니처로 내용 형식을 판별하고, 해당 형식의 확장자가 차단되어 있으면 우회 시도로 판단합니다.
+     */
+    private FileValidationResult validateFileContent(MultipartFile file, ExtensionPolicySnapshot policy) {
+        ContentSignatureSniffer.DetectedContent detected;
+        try {
+            detected = contentSignatureSniffer.sniff(file);
+        } catch (IOException e) {
+            throw new FileValidationException(FileExtensionConstants.Messages.CONTENT_UNREADABLE, e);
+        }
+        
+        return checkDetectedContent(file.getOriginalFilename(), detected, policy);
+    }
+    
+    private FileValidationResult checkDetectedContent(String fileName, ContentSignatureSniffer.DetectedContent detected,
+                                                      ExtensionPolicySnapshot policy) {
+        if (detected == null) {
+            return FileValidationResult.allowed();
+        }
+        
+        for (String extension : detected.extensions()) {
+            if (policy.isBlocked(extension)) {
+                log.warn("파일명 '{}' 의 내용이 차단된 형식으로 판별됨: {} ({})",
+                        fileName, detected.description(), extension);
                 return FileValidationResult.blocked(
-                    String.format("%s: %s", FileExtensionConstants.Messages.FILE_BLOCKED, extension),
-                    BlockReason.BLOCKED_EXTENSION,
+                    String.format("%s: %s", FileExtensionConstants.Messages.CONTENT_BLOCKED, extension),
+                    BlockReason.BYPASS_ATTEMPT,
                     extension
                 );
             }
@@ -94,30 +186,39 @@ public class FileValidationService {
     }
     
     /**
-     * 파일명에서 모든 확장자를 추출
-     * 예: "document.backup.exe.txt" -> ["txt", "exe", "backup"]
+     * zip 형식 파일이면 내부 항목 이름을 정책으로 확인합니다. (내용은 풀어 저장하지 않음)
      */
-    private List<String> extractAllExtensions(String filename) {
-        // 파일명을 '.'으로 분리
-        String[] parts = filename.split("\\.");
-        
-        // 첫 번째 부분(파일명)을 제외한 나머지를 확장자로 간주
-        if (parts.length <= 1) {
-            return Arrays.asList(); // 확장자 없음
-        }
-        
-        // 마지막 부분부터 역순으로 확장자 추출 (우선순위 고려)
-        Set<String> extensions = new HashSet<>();
-        for (int i = 1; i < parts.length; i++) {
-            String extension = parts[i].toLowerCase().trim();
-            
-            // 빈 문자열이나 숫자만 있는 경우 제외
-            if (!extension.isEmpty() && !extension.matches("\\d+")) {
-                extensions.add(extension);
-            }
+    private FileValidationResult validateArchiveEntries(MultipartFile file, ExtensionPolicySnapshot policy) {
+        ArchiveInspector.Finding finding;
+        try {
+            finding = archiveInspector.inspect(file, policy);
+        } catch (IOException e) {
+            throw new FileValidationException(FileExtensionConstants.Messages.CONTENT_UNREADABLE, e);
+        }
+        
+        return toArchiveResult(file.getOriginalFilename(), finding);
+    }
+    
+    private FileValidationResult toArchiveResult(String fileName, ArchiveInspector.Finding finding) {
+        if (finding == null) {
+            return FileValidationResult.allowed();
+        }
+        
+        log.warn("파일명 '{}' 의 압축 파일 검사에서 차단: {} ({})",
+                fileName, finding.blockReason(), finding.detail());
+        
+        if (finding.blockReason() == BlockReason.BLOCKED_ARCHIVE_ENTRY) {
+            return FileValidationResult.blocked(
+                String.format("%s: %s", FileExtensionConstants.Messages.ARCHIVE_ENTRY_BLOCKED, finding.entryPath()),
+                BlockReason.BLOCKED_ARCHIVE_ENTRY,
+                finding.blockedExtension()
+            );
         }
         
-        return new ArrayList<>(extensions);
+        return FileValidationResult.blocked(
+            String.format("%s: %s", FileExtensionConstants.Messages.ARCHIVE_SUSPICIOUS, finding.detail()),
+            BlockReason.SUSPICIOUS_ARCHIVE
+        );
     }
     
     /**
@@ -0,0 +1,240 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.dto.HotFileCacheStatsDto;
+import com.assignment.fileextension.entity.UploadedFile;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 자주 내려받는 파일의 메타데이터와 (작은 파일은) 내용을 메모리에 두는 캐시
+ * <ul>
+ *     <li>메타데이터: 다운로드마다 반복되는 DB 조회를 생략</li>
+ *     <li>내용: {@code max-content-bytes} 이하의 원본 저장 파일만, 힙 밖(direct buffer)에 보관해 old gen 을 키우지 않음</li>
+ *     <li>내용은 두 번째 요청부터 적재해 한 번만 받는 파일이 캐시를 밀어내지 않게 함</li>
+ *     <li>전체 크기(바이트) 한도를 넘으면 가장 오래 쓰지 않은 항목부터 제거 (LRU)</li>
+ * </ul>
+ * 파일 삭제/보호 설정 변경 시 {@link #invalidate} 로 무효화하며, 커밋 후 한 번 더 무효화해
+ * 커밋 전 행을 다시 읽어 넣은 항목도 남지 않게 합니다.
+ * 무효화는 이 노드에만 적용되므로, 다른 노드에서 일어난 삭제/격리가 늦게라도 반영되도록
+ * 항목은 적재 후 {@code ttl-ms} 가 지나면 버리고 DB 에서 다시 읽습니다.
+ */
+@Slf4j
+@Component
+public class HotFileCache {
+    
+    // 메타데이터 한 건의 대략적인 힙 사용량
+    private static final long METADATA_WEIGHT = 512;
+    
+    private final long maxBytes;
+    private final long maxContentBytes;
+    private final long ttlNanos;
+    
+    // 접근 순서 LinkedHashMap: 맨 앞이 가장 오래 쓰지 않은 항목 (this 로 동기화)
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long weight;
+    // 무효화가 일어날 때마다 증가, 적재 도중 무효화되면 적재 결과를 버리는 데 사용
+    private long invalidations;
+    
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder contentHits = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    
+    public HotFileCache(@Value("${app.download.cache.max-bytes:67108864}") long maxBytes,
+                        @Value("${app.download.cache.max-content-bytes:262144}") long maxContentBytes,
+                        @Value("${app.download.cache.ttl-ms:5000}") long ttlMillis) {
+        this.maxBytes = maxBytes;
+        this.maxContentBytes = Math.min(maxContentBytes, maxBytes / 4);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+    
+    /**
+     * 파일 메타데이터를 캐시에서 찾고, 없거나 만료되었으면 loader 로 읽어 활성 파일이면 캐시에 넣습니다.
+     */
+    public UploadedFile getFile(Long fileId, Function<Long, UploadedFile> loader) {
+        long generation;
+        synchronized (this) {
+            Entry entry = liveEntry(fileId);
+            if (entry != null) {
+                entry.requests++;
+                hits.increment();
+                return entry.file;
+            }
+            generation = invalidations;
+        }
+        misses.increment();
+        
+        UploadedFile file = loader.apply(fileId);
+        if (file == null || file.getStatus() != UploadedFile.FileStatus.ACTIVE || maxBytes <= 0) {
+            return file;
+        }
+        
+        synchronized (this) {
+            if (generation == invalidations && !entries.containsKey(fileId)) {
+                entries.put(fileId, new Entry(file, System.nanoTime() + ttlNanos));
+                weight += METADATA_WEIGHT;
+                evictOverflow();
+            }
+        }
+        return file;
+    }
+    
+    /**
+     * 캐시된 내용을 읽기 전용 버퍼로 반환합니다. 아직 없고 작은 원본 저장 파일이면서
+     * 두 번 이상 요청된 파일이면 지금 적재합니다. 캐시하지 않는 파일이면 null 입니다.
+     */
+    public ByteBuffer getContent(UploadedFile file, StoredContent content) {
+        long generation;
+        synchronized (this) {
+            Entry entry = liveEntry(file.getId());
+            if (entry == null || entry.file != file) {
+                return null;
+            }
+            if (entry.content != null) {
+                contentHits.increment();
+                return entry.content.duplicate();
+            }
+            if (entry.requests == 0 || content.gzip() || content.length() > maxContentBytes) {
+                return null;
+            }
+            generation = invalidations;
+        }
+        
+        ByteBuffer loaded;
+        try {
+            loaded = load(content);
+        } catch (IOException e) {
+            log.debug("캐시 적재 실패: ID {} - {}", file.getId(), e.getMessage());
+            return null;
+        }
+        
+        synchronized (this) {
+            Entry entry = entries.get(file.getId());
+            if (generation == invalidations && entry != null && entry.file == file && entry.content == null) {
+                entry.content = loaded;
+                weight += loaded.capacity();
+                evictOverflow();
+            }
+        }
+        return loaded.duplicate();
+    }
+    
+    /**
+     * 파일 항목을 무효화합니다. 트랜잭션 안이면 커밋 후 한 번 더 무효화합니다.
+     */
+    public void invalidate(Long fileId) {
+        invalidate(List.of(fileId));
+    }
+    
+    public void invalidate(Collection<Long> fileIds) {
+        if (fileIds.isEmpty()) {
+            return;
+        }
+        remove(fileIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> ids = List.copyOf(fileIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(ids);
+                }
+            });
+        }
+    }
+    
+    public synchronized HotFileCacheStatsDto stats() {
+        long hitCount = hits.sum();
+        long requestCount = hitCount + misses.sum();
+        return HotFileCacheStatsDto.builder()
+                .hits(hitCount)
+                .misses(misses.sum())
+                .hitRate(requestCount == 0 ? 0.0 : (double) hitCount / requestCount)
+                .contentHits(contentHits.sum())
+                .evictions(evictions.sum())
+                .entries(entries.size())
+                .weightBytes(weight)
+                .maxBytes(maxBytes)
+                .build();
+    }
+    
+    private synchronized void remove(Collection<Long> fileIds) {
+        invalidations++;
+        for (Long fileId : fileIds) {
+            Entry removed = entries.remove(fileId);
+            if (removed != null) {
+                weight -= removed.weight();
+            }
+        }
+    }
+    
+    /**
+     * 만료되지 않은 항목을 반환합니다. 만료된 항목은 이 자리에서 제거합니다. (this 로 동기화된 상태에서 호출)
+     */
+    private Entry liveEntry(Long fileId) {
+        Entry entry = entries.get(fileId);
+        if (entry == null || System.nanoTime() - entry.expiresAt < 0) {
+            return entry;
+        }
+        entries.remove(fileId);
+        weight -= entry.weight();
+        return null;
+    }
+    
+    private void evictOverflow() {
+        Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maxBytes && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            weight -= eldest.weight();
+            evictions.increment();
+        }
+    }
+    
+    private static ByteBuffer load(StoredContent content) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) content.length());
+        try (FileChannel channel = FileChannel.open(content.path(), StandardOpenOption.READ)) {
+            long position = content.offset();
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("파일이 예상보다 짧습니다: " + buffer.remaining() + " bytes 남음");
+                }
+                position += read;
+            }
+        }
+        buffer.flip();
+        return buffer.asReadOnlyBuffer();
+    }
+    
+    private static final class Entry {
+        private final UploadedFile file;
+        private final long expiresAt;
+        private ByteBuffer content;
+        private int requests;
+        
+        private Entry(UploadedFile file, long expiresAt) {
+            this.file = file;
+            this.expiresAt = expiresAt;
+        }
+        
+        private long weight() {
+            return METADATA_WEIGHT + (content != null ? content.capacity() : 0);
+        }
+    }
+}
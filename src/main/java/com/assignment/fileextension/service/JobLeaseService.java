@@ -0,0 +1,63 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.JobLease;
+import com.assignment.fileextension.repository.JobLeaseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * 모든 노드에서 예약 실행되지만 한 번에 한 노드만 실행해야 하는 작업을 DB 임대 행으로 조율합니다.
+ * 작업은 매 실행 전에 {@link #tryAcquire} 로 임대를 잡거나 늘리고, 잡지 못하면 이번 주기를 건너뜁니다.
+ * 임대한 노드가 멈추면 임대가 만료된 뒤 다른 노드가 이어받습니다.
+ */
+@Slf4j
+@Service
+public class JobLeaseService {
+    
+    // 처음 만드는 행은 이미 만료된 임대로 넣고, 만료 시각은 acquire 가 DB 시각으로 채움
+    private static final LocalDateTime UNLEASED = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    private final JobLeaseRepository jobLeaseRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+    
+    public JobLeaseService(JobLeaseRepository jobLeaseRepository, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * 작업 임대를 잡거나 늘립니다.
+     *
+     * @return 이 노드가 duration 동안 임대했으면 true, 다른 노드가 임대 중이면 false
+     */
+    public boolean tryAcquire(String name, Duration duration) {
+        long leaseSeconds = duration.toSeconds();
+        try {
+            Boolean acquired = transactionTemplate.execute(status -> {
+                if (jobLeaseRepository.acquire(name, nodeId, leaseSeconds) > 0) {
+                    return true;
+                }
+                if (jobLeaseRepository.existsById(name)) {
+                    return false;
+                }
+                jobLeaseRepository.saveAndFlush(JobLease.of(name, nodeId, UNLEASED));
+                return jobLeaseRepository.acquire(name, nodeId, leaseSeconds) > 0;
+            });
+            return Boolean.TRUE.equals(acquired);
+        } catch (DataIntegrityViolationException e) {
+            // 처음 실행될 때 다른 노드가 먼저 행을 만든 경우
+            log.debug("작업 임대 경합: {} - 다른 노드가 먼저 잡음", name);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,343 @@
+package com.assignment.fileextension.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+/**
+ * multipart/form-data 본문을 파트 단위로 순차 파싱합니다.
+ * 파트 본문을 임시 파일에 모으지 않고, 경계(boundary)가 나올 때까지 호출자에게 바로 흘려보냅니다.
+ * <p>
+ * 고정 크기 버퍼 하나만 사용하므로 파일 크기와 관계없이 메모리 사용량이 일정합니다.
+ * 다음 파트로 넘어가면 이전 파트의 남은 본문은 읽어서 버립니다.
+ */
+public final class MultipartStreamParser {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_HEADER_BYTES = 16 * 1024;
+    private static final byte[] CRLF = {'\r', '\n'};
+    private static final byte[] HEADER_END = {'\r', '\n', '\r', '\n'};
+
+    private final InputStream in;
+    private final byte[] delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int head;
+    private int tail;
+    private boolean finished;
+    private PartInputStream current;
+
+    public MultipartStreamParser(InputStream in, String boundary) {
+        this.in = in;
+        this.delimiter = ("\r\n--" + boundary).getBytes(StandardCharsets.ISO_8859_1);
+        // 첫 경계 앞에는 CRLF 가 없으므로, 미리 넣어 두고 preamble 을 빈 파트처럼 건너뜀
+        buffer[0] = '\r';
+        buffer[1] = '\n';
+        tail = 2;
+    }
+
+    /**
+     * Content-Type 헤더에서 boundary 를 꺼냅니다.
+     *
+     * @return multipart/form-data 가 아니거나 boundary 가 없으면 null
+     */
+    public static String boundaryOf(String contentType) {
+        if (contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith("multipart/form-data")) {
+            return null;
+        }
+        String boundary = parameter(contentType, "boundary");
+        return boundary == null || boundary.isEmpty() || boundary.length() > 70 ? null : boundary;
+    }
+
+    /**
+     * 다음 파트의 헤더를 읽습니다. 반환된 파트의 본문은 다음 호출 전까지만 읽을 수 있습니다.
+     *
+     * @return 다음 파트, 마지막 경계에 도달했으면 null
+     */
+    public Part nextPart() throws IOException {
+        if (finished) {
+            return null;
+        }
+        if (current == null) {
+            current = new PartInputStream();
+        }
+        current.drain();
+
+        // 경계 바로 뒤가 "--" 이면 마지막 파트
+        require(2);
+        if (buffer[head] == '-' && buffer[head + 1] == '-') {
+            finished = true;
+            return null;
+        }
+        skipLine();
+
+        String headers = readHeaders();
+        current = new PartInputStream();
+
+        String disposition = headerValue(headers, "content-disposition");
+        String fileName = disposition != null ? fileNameOf(disposition) : null;
+        return new Part(
+                disposition != null ? parameter(disposition, "name") : null,
+                fileName,
+                headerValue(headers, "content-type"),
+                current
+        );
+    }
+
+    private void skipLine() throws IOException {
+        // 경계 뒤에 올 수 있는 공백(transport padding)은 무시
+        while (true) {
+            int index = indexOf(CRLF, head, tail);
+            if (index >= 0) {
+                head = index + CRLF.length;
+                return;
+            }
+            if (tail - head > MAX_HEADER_BYTES) {
+                throw new IOException("multipart 경계 줄이 너무 깁니다");
+            }
+            fill();
+        }
+    }
+
+    private String readHeaders() throws IOException {
+        require(2);
+        if (buffer[head] == '\r' && buffer[head + 1] == '\n') {
+            head += 2;
+            return "";
+        }
+        while (true) {
+            int index = indexOf(HEADER_END, head, tail);
+            if (index >= 0) {
+                String headers = new String(buffer, head, index - head, StandardCharsets.UTF_8);
+                head = index + HEADER_END.length;
+                return headers;
+            }
+            if (tail - head > MAX_HEADER_BYTES) {
+                throw new IOException("multipart 파트 헤더가 너무 깁니다");
+            }
+            fill();
+        }
+    }
+
+    /**
+     * 버퍼에 최소 count 바이트가 남도록 채웁니다.
+     */
+    private void require(int count) throws IOException {
+        while (tail - head < count) {
+            fill();
+        }
+    }
+
+    /**
+     * 읽지 않은 바이트를 버퍼 앞으로 옮기고 뒤를 입력으로 채웁니다.
+     */
+    private void fill() throws IOException {
+        if (head > 0) {
+            System.arraycopy(buffer, head, buffer, 0, tail - head);
+            tail -= head;
+            head = 0;
+        }
+        if (tail == buffer.length) {
+            throw new IOException("multipart 버퍼가 가득 찼습니다");
+        }
+        int read = in.read(buffer, tail, buffer.length - tail);
+        if (read < 0) {
+            throw new IOException("multipart 본문이 마지막 경계 없이 끝났습니다");
+        }
+        tail += read;
+    }
+
+    private int indexOf(byte[] pattern, int from, int to) {
+        int last = to - pattern.length;
+        byte first = pattern[0];
+        for (int i = from; i <= last; i++) {
+            if (buffer[i] != first) {
+                continue;
+            }
+            int j = 1;
+            while (j < pattern.length && buffer[i + j] == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String headerValue(String headers, String name) {
+        for (String line : headers.split("\r\n")) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && line.substring(0, colon).trim().equalsIgnoreCase(name)) {
+                return line.substring(colon + 1).trim();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Content-Disposition 의 파일명. RFC 5987 형식(filename*=UTF-8''...)을 우선하고, 경로는 떼어냅니다.
+     */
+    private static String fileNameOf(String disposition) {
+        String fileName = null;
+        String extended = parameter(disposition, "filename*");
+        if (extended != null) {
+            int quote = extended.indexOf("''");
+            if (quote >= 0) {
+                try {
+                    fileName = URLDecoder.decode(extended.substring(quote + 2).replace("+", "%2B"), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException e) {
+                    fileName = null;
+                }
+            }
+        }
+        if (fileName == null) {
+            fileName = parameter(disposition, "filename");
+        }
+        if (fileName == null) {
+            return null;
+        }
+        int separator = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\'));
+        return fileName.substring(separator + 1);
+    }
+
+    /**
+     * "a=b; c=\"d\"" 형식 헤더 값에서 파라미터를 찾습니다. (따옴표 안의 ';' 와 이스케이프 처리)
+     */
+    private static String parameter(String headerValue, String name) {
+        int index = 0;
+        int length = headerValue.length();
+        while (index < length) {
+            int semicolon = nextSemicolon(headerValue, index);
+            String token = headerValue.substring(index, semicolon).trim();
+            index = semicolon + 1;
+
+            int equals = token.indexOf('=');
+            if (equals <= 0 || !token.substring(0, equals).trim().equalsIgnoreCase(name)) {
+                continue;
+            }
+            String value = token.substring(equals + 1).trim();
+            if (value.length() >= 2 && value.charAt(0) == '"' && value.charAt(value.length() - 1) == '"') {
+                return unquote(value.substring(1, value.length() - 1));
+            }
+            return value;
+        }
+        return null;
+    }
+
+    private static int nextSemicolon(String value, int from) {
+        boolean quoted = false;
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && quoted) {
+                i++;
+            } else if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ';' && !quoted) {
+                return i;
+            }
+        }
+        return value.length();
+    }
+
+    private static String unquote(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                c = value.charAt(++i);
+            }
+            result.append(c);
+        }
+        return result.toString();
+    }
+
+    /**
+     * 파트 헤더와 본문 스트림. 파일 파트가 아니면 fileName 은 null 입니다.
+     */
+    public record Part(String name, String fileName, String contentType, InputStream body) {
+    }
+
+    /**
+     * 다음 경계 직전까지만 읽히는 파트 본문 스트림
+     */
+    private final class PartInputStream extends InputStream {
+
+        private boolean ended;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            int read = read(single, 0, 1);
+            return read < 0 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int readable = readable();
+            if (readable < 0) {
+                return -1;
+            }
+            int count = Math.min(readable, length);
+            System.arraycopy(buffer, head, target, offset, count);
+            head += count;
+            return count;
+        }
+
+        @Override
+        public int available() {
+            if (ended) {
+                return 0;
+            }
+            int index = indexOf(delimiter, head, tail);
+            return index >= 0 ? index - head : Math.max(0, tail - head - delimiter.length + 1);
+        }
+
+        /**
+         * 경계 전까지 바로 돌려줄 수 있는 바이트 수. 경계에 도달하면 경계를 소비하고 -1
+         */
+        private int readable() throws IOException {
+            if (ended) {
+                return -1;
+            }
+            while (true) {
+                int index = indexOf(delimiter, head, tail);
+                if (index == head) {
+                    head += delimiter.length;
+                    ended = true;
+                    return -1;
+                }
+                if (index > head) {
+                    return index - head;
+                }
+                // 버퍼 끝부분은 경계의 앞부분일 수 있으므로 남겨 둠
+                int safe = tail - head - delimiter.length + 1;
+                if (safe > 0) {
+                    return safe;
+                }
+                fill();
+            }
+        }
+
+        void drain() throws IOException {
+            int readable;
+            while ((readable = readable()) >= 0) {
+                head += readable;
+            }
+        }
+
+        /**
+         * 닫아도 남은 본문을 읽지 않습니다. (크기 초과로 중단한 경우 나머지를 받지 않기 위함)
+         */
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.exception.FileSizeLimitExceededException;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 작은 파일은 {@link PackSegmentStore} 세그먼트에 모아 저장하고, 큰 파일은 기존처럼 파일 하나씩 저장합니다.
+ * 업로드 대부분이 작은 파일일 때 inode 와 디렉터리 메타데이터 I/O 를 크게 줄입니다.
+ * <p>
+ * {@code app.storage.type=pack} 일 때 사용되며, max-entry-size 이하의 파일만 세그먼트에 들어갑니다.
+ * 스트림 업로드는 앞부분 max-entry-size + 1 바이트만 메모리에 읽어 보고 경로를 정합니다.
+ * 조회/다운로드/정리/격리는 {@link FileStorageService} 가 pack 항목을 구분해 처리하므로,
+ * 다시 local 로 바꾸어도 이미 세그먼트에 저장된 파일은 그대로 읽힙니다.
+ * 내용 주소 저장이 켜져 있으면 중복 제거가 우선이므로 세그먼트를 쓰지 않습니다.
+ */
+@Slf4j
+@Service
+@Transactional
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "pack")
+public class PackFileStorageService extends FileStorageService {
+    
+    private final UploadedFileRepository uploadedFileRepository;
+    private final StorageLayout storageLayout;
+    private final PackSegmentStore packSegmentStore;
+    
+    @Value("${app.storage.pack.max-entry-size:65536}")
+    private int maxEntrySize;
+    
+    public PackFileStorageService(UploadedFileRepository uploadedFileRepository,
+                                  ContentAddressedStore contentAddressedStore,
+                                  AtRestCompressionPolicy compressionPolicy,
+                                  HotFileCache hotFileCache,
+                                  StorageLayout storageLayout,
+                                  PolicyEnforcement policyEnforcement,
+                                  AuditService auditService,
+                                  PackSegmentStore packSegmentStore) {
+        super(uploadedFileRepository, contentAddressedStore, compressionPolicy, hotFileCache,
+                storageLayout, policyEnforcement, auditService);
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.storageLayout = storageLayout;
+        this.packSegmentStore = packSegmentStore;
+    }
+    
+    @Override
+    public UploadedFile storeFile(MultipartFile file) throws IOException {
+        if (contentAddressed || file.getSize() > maxEntrySize) {
+            return super.storeFile(file);
+        }
+        
+        validateFile(file);
+        return savePacked(file.getOriginalFilename(), file.getContentType(), file.getBytes());
+    }
+    
+    @Override
+    public UploadedFile storeStream(String originalFilename, String contentType, InputStream content) throws IOException {
+        if (contentAddressed) {
+            return super.storeStream(originalFilename, contentType, content);
+        }
+        if (originalFilename == null || originalFilename.trim().isEmpty()) {
+            throw new IllegalArgumentException("파일명이 유효하지 않습니다.");
+        }
+        
+        // 한도보다 1 바이트 더 읽어 보면 작은 파일인지 알 수 있음
+        byte[] head = content.readNBytes(maxEntrySize + 1);
+        if (head.length > maxEntrySize) {
+            return super.storeStream(originalFilename, contentType,
+                    new SequenceInputStream(new ByteArrayInputStream(head), content));
+        }
+        if (head.length == 0) {
+            throw new IllegalArgumentException("파일이 선택되지 않았습니다.");
+        }
+        if (head.length > maxFileSize) {
+            throw new FileSizeLimitExceededException(maxFileSize);
+        }
+        return savePacked(originalFilename, contentType, head);
+    }
+    
+    @Override
+    public UploadedFile storeAssembledFile(String originalFilename, String contentType, Path assembledFile) throws IOException {
+        long fileSize = Files.size(assembledFile);
+        if (contentAddressed || fileSize > maxEntrySize) {
+            return super.storeAssembledFile(originalFilename, contentType, assembledFile);
+        }
+        if (fileSize > maxFileSize) {
+            throw new FileSizeLimitExceededException(maxFileSize);
+        }
+        
+        UploadedFile saved = savePacked(originalFilename, contentType, Files.readAllBytes(assembledFile));
+        Files.deleteIfExists(assembledFile);
+        return saved;
+    }
+    
+    /**
+     * 내용을 세그먼트에 이어 붙이고 위치를 기록한 행을 저장합니다. 작은 파일이므로 압축하지 않습니다.
+     */
+    private UploadedFile savePacked(String originalFilename, String contentType, byte[] content) throws IOException {
+        String extension = extractExtension(originalFilename);
+        PackSegmentStore.PackLocation location = packSegmentStore.append(content);
+        
+        UploadedFile uploadedFile = UploadedFile.builder()
+                .originalFilename(originalFilename)
+                .storedFilename(storageLayout.newStoredFilename(extension))
+                .filePath(location.path().toString())
+                .packSegmentId(location.segmentId())
+                .packOffset(location.offset())
+                .extension(extension)
+                .fileSize((long) content.length)
+                .contentType(contentType)
+                .storageEncoding(UploadedFile.StorageEncoding.IDENTITY)
+                .storedSize(location.length())
+                .status(UploadedFile.FileStatus.ACTIVE)
+                .build();
+        
+        UploadedFile saved = uploadedFileRepository.save(uploadedFile);
+        
+        log.info("파일 pack 저장 완료: {} -> 세그먼트 {} @{} ({} bytes)",
+                originalFilename, location.segmentId(), location.offset(), content.length);
+        return saved;
+    }
+}
@@ -0,0 +1,318 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.PackSegment;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.PackSegmentRepository;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 작은 파일을 append-only 세그먼트에 이어 붙여 저장하고, 삭제로 생긴 빈 공간을 백그라운드에서 회수합니다.
+ * <ul>
+ *     <li>세그먼트는 {@code {upload-dir}/packs/} 에 있으며 노드마다 하나를 열어 순서대로 기록합니다.
+ *     segment-size 를 넘으면 봉인하고 새 세그먼트를 엽니다.</li>
+ *     <li>인덱스는 따로 두지 않고 {@link UploadedFile} 행의 세그먼트 ID/오프셋/storedSize 를 씁니다.
+ *     다운로드와 캐시는 이 구간을 위치 지정 읽기(pread/sendfile)로 읽습니다.</li>
+ *     <li>세그먼트 안의 살아 있는 바이트는 행에서 계산하므로, 삭제나 롤백된 업로드도 별도 기록 없이 빈 공간으로 잡힙니다.</li>
+ *     <li>빈 공간 비율이 compaction.dead-ratio 이상인 봉인 세그먼트는 살아 있는 항목을 현재 세그먼트로 옮기고
+ *     퇴역시킵니다. 옮기기 전 위치를 읽고 있던 다운로드가 끝나도록 파일은 유예 시간 뒤에 지웁니다.</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "pack")
+public class PackSegmentStore {
+    
+    static final String PACK_DIR = "packs";
+    
+    private final PackSegmentRepository packSegmentRepository;
+    private final UploadedFileRepository uploadedFileRepository;
+    private final HotFileCache hotFileCache;
+    private final TransactionTemplate transactionTemplate;
+    // 세그먼트 생성/봉인은 업로드 트랜잭션이 롤백되어도 남아야 함
+    private final TransactionTemplate segmentTransaction;
+    private final Path packDirectory;
+    private final String nodeId;
+    private final long segmentSize;
+    private final Object writeLock = new Object();
+    
+    private OpenSegment current;
+    private boolean recovered;
+    
+    @Value("${app.storage.pack.compaction.dead-ratio:0.5}")
+    private double compactionDeadRatio;
+    
+    @Value("${app.storage.pack.compaction.grace-minutes:10}")
+    private long compactionGraceMinutes;
+    
+    @Value("${app.storage.pack.compaction.batch-size:500}")
+    private int compactionBatchSize;
+    
+    public PackSegmentStore(PackSegmentRepository packSegmentRepository,
+                            UploadedFileRepository uploadedFileRepository,
+                            HotFileCache hotFileCache,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.file.upload-dir:uploads}") String uploadBaseDir,
+                            @Value("${app.node-id:${HOSTNAME:local}}") String nodeId,
+                            @Value("${app.storage.pack.segment-size:268435456}") long segmentSize) {
+        this.packSegmentRepository = packSegmentRepository;
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.hotFileCache = hotFileCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.segmentTransaction = new TransactionTemplate(transactionManager);
+        this.segmentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.packDirectory = Paths.get(uploadBaseDir, PACK_DIR);
+        this.nodeId = nodeId;
+        this.segmentSize = segmentSize;
+    }
+    
+    /**
+     * 세그먼트 안에 기록된 항목 하나의 위치
+     */
+    public record PackLocation(Long segmentId, Path path, long offset, long length) {
+    }
+    
+    /**
+     * 내용을 현재 세그먼트 끝에 이어 붙입니다. 호출자는 반환된 위치를 파일 행에 기록해야 하며,
+     * 행이 저장되지 않으면(롤백) 이 구간은 빈 공간으로 남아 압축 때 회수됩니다.
+     */
+    public PackLocation append(byte[] content) throws IOException {
+        synchronized (writeLock) {
+            if (current == null || (current.size > 0 && current.size + content.length > segmentSize)) {
+                rollOver();
+            }
+            
+            long offset = current.size;
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            long position = offset;
+            while (buffer.hasRemaining()) {
+                position += current.channel.write(buffer, position);
+            }
+            // 실패하면 크기를 올리지 않으므로 다음 기록이 같은 자리를 덮어씀
+            current.size = position;
+            return new PackLocation(current.id, current.path, offset, content.length);
+        }
+    }
+    
+    @PreDestroy
+    public void close() {
+        synchronized (writeLock) {
+            if (current != null) {
+                seal(current);
+                current = null;
+            }
+        }
+    }
+    
+    /**
+     * 빈 공간이 많은 봉인 세그먼트 하나를 압축하고, 유예 시간이 지난 퇴역 세그먼트를 지웁니다.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.pack.compaction.interval-ms:60000}")
+    public void compactNextSegment() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(compactionGraceMinutes);
+        deleteRetiredSegments(cutoff);
+        
+        for (PackSegment segment : packSegmentRepository.findByStatusAndSealedAtBefore(
+                PackSegment.SegmentStatus.SEALED, cutoff)) {
+            long liveBytes = uploadedFileRepository.sumLivePackedBytes(segment.getId());
+            long deadBytes = segment.getSize() - liveBytes;
+            if (liveBytes > 0 && deadBytes < segment.getSize() * compactionDeadRatio) {
+                continue;
+            }
+            try {
+                compact(segment);
+            } catch (IOException | RuntimeException e) {
+                log.error("세그먼트 압축 실패: {} - {}", segment.getFilePath(), e.getMessage(), e);
+            }
+            return;
+        }
+    }
+    
+    /**
+     * 세그먼트의 살아 있는 항목을 현재 세그먼트로 옮기고, 남은 항목이 없으면 퇴역시킵니다.
+     * 여러 노드가 같은 세그먼트를 압축해도 위치가 그대로인 행만 갱신하므로 한쪽의 사본만 쓰입니다.
+     *
+     * @return 옮긴 항목 수
+     */
+    public int compact(PackSegment segment) throws IOException {
+        Path source = Paths.get(segment.getFilePath());
+        int moved = 0;
+        int failed = 0;
+        long afterId = 0;
+        
+        try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+            while (true) {
+                List<UploadedFile> files = uploadedFileRepository.findPackedFilesAfter(
+                        segment.getId(), afterId, PageRequest.of(0, compactionBatchSize));
+                if (files.isEmpty()) {
+                    break;
+                }
+                
+                CompactionPage page = transactionTemplate.execute(status -> movePage(channel, segment, files));
+                if (page != null) {
+                    moved += page.moved();
+                    failed += page.failed();
+                }
+                afterId = files.get(files.size() - 1).getId();
+                if (files.size() < compactionBatchSize) {
+                    break;
+                }
+            }
+        }
+        
+        long remaining = uploadedFileRepository.countByPackSegmentIdAndStatusNot(
+                segment.getId(), UploadedFile.FileStatus.DELETED);
+        if (remaining > 0) {
+            log.warn("세그먼트 압축 미완료: {} - 이동 {}개, 실패 {}개, 남은 항목 {}개",
+                    source, moved, failed, remaining);
+            return moved;
+        }
+        
+        transactionTemplate.executeWithoutResult(status ->
+                packSegmentRepository.findById(segment.getId()).ifPresent(PackSegment::retire));
+        log.info("세그먼트 압축 완료: {} - 이동 {}개, 회수 예정 {} bytes", source, moved, segment.getSize());
+        return moved;
+    }
+    
+    private CompactionPage movePage(FileChannel channel, PackSegment segment, List<UploadedFile> files) {
+        int moved = 0;
+        int failed = 0;
+        for (UploadedFile file : files) {
+            try {
+                byte[] content = read(channel, file.getPackOffset(), file.getStoredSize());
+                PackLocation target = append(content);
+                int updated = uploadedFileRepository.relocatePacked(file.getId(), segment.getId(), file.getPackOffset(),
+                        target.segmentId(), target.path().toString(), target.offset());
+                if (updated > 0) {
+                    hotFileCache.invalidate(file.getId());
+                    moved++;
+                }
+            } catch (IOException e) {
+                failed++;
+                log.warn("세그먼트 항목 이동 실패: ID {} - {}", file.getId(), e.getMessage());
+            }
+        }
+        return new CompactionPage(moved, failed);
+    }
+    
+    private void deleteRetiredSegments(LocalDateTime cutoff) {
+        for (PackSegment segment : packSegmentRepository.findByStatusAndRetiredAtBefore(
+                PackSegment.SegmentStatus.RETIRED, cutoff)) {
+            if (uploadedFileRepository.countByPackSegmentIdAndStatusNot(
+                    segment.getId(), UploadedFile.FileStatus.DELETED) > 0) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(Paths.get(segment.getFilePath()));
+                packSegmentRepository.delete(segment);
+                log.info("퇴역 세그먼트 삭제: {}", segment.getFilePath());
+            } catch (IOException e) {
+                log.error("퇴역 세그먼트 삭제 실패: {} - {}", segment.getFilePath(), e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 현재 세그먼트를 봉인하고 새 세그먼트를 엽니다. 처음 열 때는 이 노드가 이전 실행에서 열어 둔 세그먼트를 봉인합니다.
+     */
+    private void rollOver() throws IOException {
+        if (current != null) {
+            seal(current);
+            current = null;
+        }
+        if (!recovered) {
+            sealAbandonedSegments();
+            recovered = true;
+        }
+        
+        Files.createDirectories(packDirectory);
+        Path path = packDirectory.resolve("segment-" + UUID.randomUUID() + ".pack");
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        try {
+            PackSegment segment = segmentTransaction.execute(status ->
+                    packSegmentRepository.save(PackSegment.open(path.toString(), nodeId)));
+            current = new OpenSegment(segment.getId(), path, channel);
+        } catch (RuntimeException e) {
+            channel.close();
+            Files.deleteIfExists(path);
+            throw e;
+        }
+        log.info("새 세그먼트 열림: {}", path);
+    }
+    
+    private void seal(OpenSegment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException e) {
+            log.warn("세그먼트 닫기 실패: {} - {}", segment.path, e.getMessage());
+        }
+        segmentTransaction.executeWithoutResult(status ->
+                packSegmentRepository.findById(segment.id).ifPresent(found -> found.seal(segment.size)));
+        log.info("세그먼트 봉인: {} ({} bytes)", segment.path, segment.size);
+    }
+    
+    private void sealAbandonedSegments() {
+        segmentTransaction.executeWithoutResult(status -> {
+            for (PackSegment segment : packSegmentRepository.findByNodeIdAndStatus(nodeId, PackSegment.SegmentStatus.OPEN)) {
+                Path path = Paths.get(segment.getFilePath());
+                long size;
+                try {
+                    size = Files.exists(path) ? Files.size(path) : 0;
+                } catch (IOException e) {
+                    size = 0;
+                }
+                segment.seal(size);
+                log.info("이전 실행의 세그먼트 봉인: {} ({} bytes)", path, size);
+            }
+        });
+    }
+    
+    private static byte[] read(FileChannel channel, long offset, long length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        long position = offset;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("세그먼트가 예상보다 짧습니다: " + buffer.remaining() + " bytes 남음");
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+    
+    private static final class OpenSegment {
+        private final Long id;
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+        
+        private OpenSegment(Long id, Path path, FileChannel channel) {
+            this.id = id;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+    
+    private record CompactionPage(int moved, int failed) {
+    }
+}
@@ -0,0 +1,88 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 이미 저장된 파일에 확장자 정책을 적용하는 방식
+ * <ul>
+ *     <li>eager (기본): 확장자를 차단하면 해당 확장자의 파일을 정리 작업으로 바로 격리(또는 삭제)</li>
+ *     <li>lazy: 정책 변경은 버전만 올리고 끝나며, 정리 작업이 뒤에서 정책 버전이 다른 파일만 다시 검사해
+ *     위반 파일을 격리(또는 삭제). 차단을 켰다가 곧 끈 경우 그 사이 검사되지 않은 파일은 그대로 남음</li>
+ * </ul>
+ * 어느 방식이든 조회/다운로드 시 메모리 스냅샷으로 현재 정책을 위반한 파일은 보이지 않게 걸러냅니다.
+ * 격리(기본)를 켜면 위반 파일을 지우지 않고 격리 영역으로 옮겨 두었다가, 차단을 해제하면 한꺼번에 되돌립니다.
+ */
+@Component
+public class PolicyEnforcement {
+
+    private final ExtensionPolicyCache extensionPolicyCache;
+    private final boolean lazy;
+    private final boolean quarantine;
+
+    public PolicyEnforcement(ExtensionPolicyCache extensionPolicyCache,
+                             @Value("${app.policy.enforcement:eager}") String mode,
+                             @Value("${app.policy.quarantine.enabled:true}") boolean quarantine) {
+        this.extensionPolicyCache = extensionPolicyCache;
+        this.quarantine = quarantine;
+        this.lazy = switch (mode.trim().toLowerCase(Locale.ROOT)) {
+            case "eager" -> false;
+            case "lazy" -> true;
+            default -> throw new IllegalArgumentException("지원하지 않는 정책 적용 방식입니다: " + mode);
+        };
+    }
+
+    public boolean isLazy() {
+        return lazy;
+    }
+
+    /**
+     * 위반 파일을 삭제 대신 격리하는지 여부
+     */
+    public boolean isQuarantine() {
+        return quarantine;
+    }
+
+    /**
+     * 현재 적용 중인 정책 스냅샷
+     */
+    public ExtensionPolicySnapshot currentPolicy() {
+        return extensionPolicyCache.current();
+    }
+
+    /**
+     * 현재 정책으로 보여도 되는 파일인지 확인합니다. 격리된 파일은 보이지 않습니다.
+     */
+    public boolean isVisible(UploadedFile file) {
+        return file != null && file.getStatus() != UploadedFile.FileStatus.QUARANTINED
+                && !violates(file, extensionPolicyCache.current());
+    }
+
+    /**
+     * 현재 정책을 위반한 파일을 뺀 목록을 반환합니다. 걸러낼 파일이 없으면 같은 목록을 반환합니다.
+     */
+    public List<UploadedFile> visibleOnly(List<UploadedFile> files) {
+        ExtensionPolicySnapshot snapshot = extensionPolicyCache.current();
+        if (files.stream().noneMatch(file -> violates(file, snapshot))) {
+            return files;
+        }
+        return files.stream()
+                .filter(file -> !violates(file, snapshot))
+                .toList();
+    }
+
+    /**
+     * 차단된 확장자의 파일이면서 삭제 예외로 보호되지 않았으면 위반입니다. (확장자 정리 작업과 같은 기준)
+     */
+    public boolean violates(UploadedFile file, ExtensionPolicySnapshot snapshot) {
+        String extension = file.getExtension();
+        if (extension == null || extension.isEmpty() || file.isProtectedFromDeletion()) {
+            return false;
+        }
+        return snapshot.isBlocked(extension);
+    }
+}
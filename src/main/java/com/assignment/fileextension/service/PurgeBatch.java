@@ -0,0 +1,22 @@
+package com.assignment.fileextension.service;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 확장자 정리 배치 하나의 결과
+ *
+ * @param scanned       읽은 행 수 (0 이면 더 처리할 것이 없음)
+ * @param deleted       삭제한 행 수
+ * @param quarantined   격리한 행 수
+ * @param protectedCount 삭제 예외로 건너뛴 행 수
+ * @param unlinkTargets 커밋 후 지울 물리 파일 (공유 blob 은 저장소가 직접 정리하므로 제외)
+ * @param lastId        다음 배치의 keyset 커서
+ */
+public record PurgeBatch(int scanned, int deleted, int quarantined, int protectedCount,
+                         List<Path> unlinkTargets, long lastId) {
+    
+    public static PurgeBatch empty(long afterId) {
+        return new PurgeBatch(0, 0, 0, 0, List.of(), afterId);
+    }
+}
@@ -0,0 +1,298 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.dto.BackgroundJobDto;
+import com.assignment.fileextension.entity.BackgroundJob;
+import com.assignment.fileextension.repository.BackgroundJobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 확장자 차단 시 기존 파일 정리를 요청과 분리해 백그라운드 작업으로 실행합니다.
+ * <ul>
+ *     <li>정책 변경 트랜잭션 안에서 작업 행만 만들고, 커밋 후 실행기에 넘깁니다.</li>
+ *     <li>ID keyset 으로 배치씩 읽고, 행은 배치마다 한 번의 UPDATE 로 격리하거나 DELETE 로 지웁니다.</li>
+ *     <li>물리 파일은 행 삭제가 커밋된 뒤 여러 스레드로 나눠 지웁니다. 실패하면 고아 파일로 남을 뿐
+ *     없는 파일을 가리키는 행은 생기지 않습니다.</li>
+ *     <li>배치마다 진행 상황과 커서를 기록해, 재시작 시 이 노드의 미완료 작업을 이어서 실행합니다.</li>
+ * </ul>
+ * 차단을 해제하면 같은 방식으로 격리 파일을 배치씩 원래 위치로 되돌립니다.
+ * 지연 적용 모드({@link PolicyEnforcement})에서는 작업을 만들지 않고, 낮은 빈도의 정리 작업이
+ * 정책 버전이 다른 파일만 배치씩 다시 검사해 위반 파일을 격리하거나 지웁니다.
+ */
+@Slf4j
+@Service
+public class PurgeJobService {
+    
+    private final BackgroundJobRepository backgroundJobRepository;
+    private final StorageService storageService;
+    private final PolicyEnforcement policyEnforcement;
+    private final TaskExecutor jobExecutor;
+    private final TaskExecutor unlinkExecutor;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.node-id:${HOSTNAME:local}}")
+    private String nodeId;
+    
+    @Value("${app.jobs.purge-batch-size:500}")
+    private int batchSize;
+    
+    @Value("${app.policy.reaper.batch-size:200}")
+    private int reaperBatchSize;
+    
+    // 지연 적용 정리 작업의 현재 검사 버전과 keyset 커서 (스케줄러 스레드에서만 변경)
+    private volatile long reaperVersion = -1;
+    private volatile long reaperCursor;
+    
+    public PurgeJobService(BackgroundJobRepository backgroundJobRepository,
+                           StorageService storageService,
+                           PolicyEnforcement policyEnforcement,
+                           @Qualifier("backgroundJobExecutor") TaskExecutor jobExecutor,
+                           @Qualifier("fileUnlinkExecutor") TaskExecutor unlinkExecutor,
+                           PlatformTransactionManager transactionManager) {
+        this.backgroundJobRepository = backgroundJobRepository;
+        this.storageService = storageService;
+        this.policyEnforcement = policyEnforcement;
+        this.jobExecutor = jobExecutor;
+        this.unlinkExecutor = unlinkExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * 정리 작업을 등록합니다. 현재 트랜잭션이 커밋된 뒤에 실행됩니다.
+     *
+     * @return 작업 ID, 지연 적용 모드면 null (정책 버전 기반 정리 작업이 처리)
+     */
+    public Long schedulePurge(Collection<String> extensions) {
+        if (policyEnforcement.isLazy()) {
+            log.info("확장자 {} 차단 - 지연 적용 모드이므로 기존 파일은 정책 버전 기반 정리 작업이 처리", extensions);
+            return null;
+        }
+        
+        Long jobId = schedule(BackgroundJob.extensionPurge(extensions, nodeId));
+        log.info("확장자 {} 정리 작업 등록: 작업 ID {}", extensions, jobId);
+        return jobId;
+    }
+    
+    /**
+     * 차단 해제된 확장자의 격리 파일 복구 작업을 등록합니다. 현재 트랜잭션이 커밋된 뒤에 실행됩니다.
+     *
+     * @return 작업 ID, 격리를 쓰지 않으면 null
+     */
+    public Long scheduleRestore(Collection<String> extensions) {
+        if (!policyEnforcement.isQuarantine()) {
+            return null;
+        }
+        
+        Long jobId = schedule(BackgroundJob.extensionRestore(extensions, nodeId));
+        log.info("확장자 {} 복구 작업 등록: 작업 ID {}", extensions, jobId);
+        return jobId;
+    }
+    
+    private Long schedule(BackgroundJob newJob) {
+        Long jobId = backgroundJobRepository.save(newJob).getId();
+        
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit(jobId);
+                }
+            });
+        } else {
+            submit(jobId);
+        }
+        return jobId;
+    }
+    
+    public BackgroundJobDto getJob(Long jobId) {
+        return backgroundJobRepository.findById(jobId)
+                .map(BackgroundJobDto::from)
+                .orElse(null);
+    }
+    
+    /**
+     * 재시작 전에 끝나지 않은 이 노드의 작업을 이어서 실행합니다.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinishedJobs() {
+        List<BackgroundJob> unfinished = backgroundJobRepository.findByNodeIdAndStatusInOrderById(
+                nodeId, EnumSet.of(BackgroundJob.JobStatus.QUEUED, BackgroundJob.JobStatus.RUNNING));
+        for (BackgroundJob job : unfinished) {
+            log.info("미완료 작업 재개: 작업 ID {} (ID {} 이후부터)", job.getId(), job.getLastProcessedId());
+            submit(job.getId());
+        }
+    }
+    
+    private void submit(Long jobId) {
+        try {
+            jobExecutor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            // QUEUED 상태로 남아 재시작 시 이어서 실행됨
+            log.error("작업 실행 요청 실패: 작업 ID {} - {}", jobId, e.getMessage());
+        }
+    }
+    
+    /**
+     * 작업을 끝까지 실행합니다. (실행기 스레드)
+     */
+    public void run(Long jobId) {
+        BackgroundJob job = backgroundJobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() == BackgroundJob.JobStatus.COMPLETED
+                || job.getStatus() == BackgroundJob.JobStatus.FAILED) {
+            return;
+        }
+        
+        List<String> extensions = job.targetExtensions();
+        boolean restoring = job.getType() == BackgroundJob.JobType.EXTENSION_RESTORE;
+        String action = restoring ? "복구" : "정리";
+        try {
+            if (restoring) {
+                restore(job, extensions);
+            } else {
+                purge(job, extensions);
+            }
+            
+            update(jobId, BackgroundJob::complete);
+            log.info("확장자 {} {} 작업 완료: 작업 ID {}", extensions, action, jobId);
+        } catch (RuntimeException e) {
+            log.error("확장자 {} {} 작업 실패: 작업 ID {} - {}", extensions, action, jobId, e.getMessage(), e);
+            update(jobId, failed -> failed.fail(e.getMessage()));
+        }
+    }
+    
+    private void purge(BackgroundJob job, List<String> extensions) {
+        Long jobId = job.getId();
+        long totalCount = job.getTotalCount() != null
+                ? job.getTotalCount() : storageService.countActiveFilesByExtensions(extensions);
+        update(jobId, running -> running.start(totalCount));
+        
+        long afterId = job.getLastProcessedId();
+        while (true) {
+            PurgeBatch batch = storageService.purgeBatch(extensions, afterId, batchSize);
+            if (batch.scanned() == 0) {
+                break;
+            }
+            
+            int unlinkFailed = unlinkAll(batch.unlinkTargets());
+            afterId = batch.lastId();
+            long cursor = afterId;
+            update(jobId, running -> running.recordBatch(cursor, batch.scanned(), batch.deleted(),
+                    batch.quarantined(), batch.protectedCount(), unlinkFailed));
+            
+            if (batch.scanned() < batchSize) {
+                break;
+            }
+        }
+    }
+    
+    private void restore(BackgroundJob job, List<String> extensions) {
+        Long jobId = job.getId();
+        long totalCount = job.getTotalCount() != null
+                ? job.getTotalCount() : storageService.countQuarantinedFilesByExtensions(extensions);
+        update(jobId, running -> running.start(totalCount));
+        
+        long afterId = job.getLastProcessedId();
+        while (true) {
+            RestoreBatch batch = storageService.restoreBatch(extensions, afterId, batchSize);
+            if (batch.scanned() == 0) {
+                break;
+            }
+            
+            afterId = batch.lastId();
+            long cursor = afterId;
+            update(jobId, running -> running.recordRestoreBatch(cursor, batch.scanned(), batch.restored(),
+                    batch.failed()));
+            
+            if (batch.scanned() < batchSize) {
+                break;
+            }
+        }
+    }
+    
+    /**
+     * 지연 적용 모드에서 현재 정책 버전으로 검사하지 않은 파일을 한 배치씩 처리합니다.
+     * 정책 버전이 바뀌면 처음부터 다시 훑고, 끝까지 훑은 뒤에도 새 업로드를 위해 처음으로 돌아갑니다.
+     */
+    @Scheduled(fixedDelayString = "${app.policy.reaper.interval-ms:5000}")
+    public void reapNextBatch() {
+        if (!policyEnforcement.isLazy()) {
+            return;
+        }
+        
+        ExtensionPolicySnapshot policy = policyEnforcement.currentPolicy();
+        if (policy.getVersion() != reaperVersion) {
+            reaperVersion = policy.getVersion();
+            reaperCursor = 0;
+        }
+        
+        try {
+            PurgeBatch batch = storageService.reapBatch(policy, reaperCursor, reaperBatchSize);
+            int unlinkFailed = unlinkAll(batch.unlinkTargets());
+            reaperCursor = batch.scanned() < reaperBatchSize ? 0 : batch.lastId();
+            
+            if (batch.deleted() > 0 || batch.quarantined() > 0 || unlinkFailed > 0) {
+                log.info("정책 버전 {} 위반 파일 정리 - 확인: {}개, 삭제: {}개, 격리: {}개, 보호: {}개, 파일 삭제 실패: {}개",
+                        policy.getVersion(), batch.scanned(), batch.deleted(), batch.quarantined(),
+                        batch.protectedCount(), unlinkFailed);
+            }
+        } catch (RuntimeException e) {
+            log.warn("정책 버전 {} 위반 파일 정리 실패 (ID {} 이후): {}", policy.getVersion(), reaperCursor, e.getMessage());
+        }
+    }
+    
+    /**
+     * 물리 파일을 병렬로 지우고 실패한 수를 반환합니다.
+     */
+    private int unlinkAll(List<Path> targets) {
+        if (targets.isEmpty()) {
+            return 0;
+        }
+        
+        List<CompletableFuture<Boolean>> unlinks = targets.stream()
+                .map(target -> CompletableFuture.supplyAsync(() -> unlink(target), unlinkExecutor))
+                .toList();
+        
+        int failed = 0;
+        for (CompletableFuture<Boolean> unlink : unlinks) {
+            if (!unlink.join()) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+    
+    private static boolean unlink(Path target) {
+        try {
+            Files.deleteIfExists(target);
+            return true;
+        } catch (IOException e) {
+            log.error("파일 삭제 실패: {} - {}", target, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void update(Long jobId, Consumer<BackgroundJob> change) {
+        transactionTemplate.executeWithoutResult(status ->
+                backgroundJobRepository.findById(jobId).ifPresent(change));
+    }
+}
@@ -0,0 +1,16 @@
+package com.assignment.fileextension.service;
+
+/**
+ * 확장자 복구 배치 하나의 결과
+ *
+ * @param scanned  읽은 격리 행 수 (0 이면 더 처리할 것이 없음)
+ * @param restored 원래 위치로 되돌리고 활성으로 바꾼 행 수
+ * @param failed   파일을 되돌리지 못해 격리 상태로 남긴 행 수
+ * @param lastId   다음 배치의 keyset 커서
+ */
+public record RestoreBatch(int scanned, int restored, int failed, long lastId) {
+    
+    public static RestoreBatch empty(long afterId) {
+        return new RestoreBatch(0, 0, 0, afterId);
+    }
+}
@@ -0,0 +1,142 @@
+package com.assignment.fileextension.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 업로드 파일의 저장 이름과 디렉터리 배치
+ * <ul>
+ *     <li>저장 이름: 시간순 UUID(v7) - storedFilename 인덱스에 항상 뒤쪽으로 추가됨</li>
+ *     <li>sharded (기본): {@code {upload-dir}/ab/cd/} - ab/cd 는 UUID 의 무작위 끝 4자리로,
+ *     날짜와 관계없이 65,536 개 디렉터리에 고르게 분산</li>
+ *     <li>dated: 기존 방식 {@code {upload-dir}/yyyy/MM/dd/}</li>
+ * </ul>
+ * 이미 만든 디렉터리는 기억해 두어 업로드마다 파일 시스템을 확인하지 않습니다.
+ * 격리된 파일은 같은 파일 시스템의 {@code {upload-dir}/.quarantine/ab/cd/} 로 이름만 바꿔 옮깁니다.
+ */
+@Component
+public class StorageLayout {
+    
+    private static final DateTimeFormatter DATE_PATH = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final String QUARANTINE_DIR = ".quarantine";
+    
+    private final Path uploadBaseDir;
+    private final boolean sharded;
+    private final Set<Path> knownDirectories = ConcurrentHashMap.newKeySet();
+    
+    public StorageLayout(@Value("${app.file.upload-dir:uploads}") String uploadBaseDir,
+                         @Value("${app.storage.layout:sharded}") String layout) {
+        this.uploadBaseDir = Paths.get(uploadBaseDir);
+        this.sharded = switch (layout.trim().toLowerCase(Locale.ROOT)) {
+            case "sharded" -> true;
+            case "dated" -> false;
+            default -> throw new IllegalArgumentException("지원하지 않는 저장 배치입니다: " + layout);
+        };
+    }
+    
+    /**
+     * 새 저장 파일명 (시간순 UUID + 확장자)
+     */
+    public String newStoredFilename(String extension) {
+        String uuid = timeOrderedUuid().toString();
+        return extension.isEmpty() ? uuid : uuid + "." + extension;
+    }
+    
+    /**
+     * 저장 파일명이 놓일 디렉터리를 만들고(처음 한 번만) 파일 경로를 반환합니다.
+     */
+    public Path newFilePath(String storedFilename) throws IOException {
+        Path directory = directoryFor(storedFilename);
+        ensureDirectory(directory);
+        return directory.resolve(storedFilename);
+    }
+    
+    /**
+     * 현재 배치에서 저장 파일명이 놓일 디렉터리
+     */
+    public Path directoryFor(String storedFilename) {
+        if (!sharded) {
+            return uploadBaseDir.resolve(LocalDate.now().format(DATE_PATH));
+        }
+        String shard = shardOf(storedFilename);
+        return uploadBaseDir.resolve(shard.substring(0, 2)).resolve(shard.substring(2, 4));
+    }
+    
+    /**
+     * 격리 영역에서 파일이 놓일 경로. 원래 경로의 파일명을 그대로 쓰므로 DB 의 filePath 만으로 되돌릴 수 있습니다.
+     */
+    public Path quarantinePathFor(String storedFilename, Path storedPath) {
+        return shardedPathUnder(uploadBaseDir.resolve(QUARANTINE_DIR), storedFilename, storedPath.getFileName().toString());
+    }
+    
+    /**
+     * 업로드 디렉터리 밖의 저장 영역(예: 콜드 티어)에서도 같은 샤드 배치로 파일 경로를 만듭니다.
+     */
+    public Path shardedPathUnder(Path root, String storedFilename, String fileName) {
+        String shard = shardOf(storedFilename);
+        return root.resolve(shard.substring(0, 2))
+                .resolve(shard.substring(2, 4))
+                .resolve(fileName);
+    }
+    
+    /**
+     * target 으로 옮길 내용을 먼저 써 둘 고유한 임시 경로. 같은 디렉터리이므로 제자리로 원자적으로 이름을 바꿀 수 있고,
+     * 여러 노드가 같은 파일을 동시에 옮기더라도 서로의 임시 파일을 건드리지 않습니다.
+     */
+    public Path stagingPathFor(Path target) {
+        return target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+    }
+    
+    public boolean isSharded() {
+        return sharded;
+    }
+    
+    public void ensureDirectory(Path directory) throws IOException {
+        if (knownDirectories.contains(directory)) {
+            return;
+        }
+        Files.createDirectories(directory);
+        knownDirectories.add(directory);
+    }
+    
+    /**
+     * 파일명(첫 '.' 앞)의 마지막 16진수 4자리. UUID 가 아니면 이름의 해시로 대신합니다.
+     */
+    private static String shardOf(String storedFilename) {
+        int dot = storedFilename.indexOf('.');
+        String base = (dot >= 0 ? storedFilename.substring(0, dot) : storedFilename).toLowerCase(Locale.ROOT);
+        if (base.length() >= 4) {
+            String tail = base.substring(base.length() - 4);
+            if (tail.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+                return tail;
+            }
+        }
+        return String.format("%04x", base.hashCode() & 0xFFFF);
+    }
+    
+    /**
+     * RFC 9562 UUID 버전 7: 앞 48비트는 밀리초 시각, 나머지는 무작위
+     */
+    private static UUID timeOrderedUuid() {
+        long timestamp = System.currentTimeMillis();
+        long randomA = RANDOM.nextInt(1 << 12);
+        long randomB = RANDOM.nextLong();
+        
+        long mostSignificant = (timestamp << 16) | (0x7L << 12) | randomA;
+        long leastSignificant = (randomB & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSignificant, leastSignificant);
+    }
+}
@@ -0,0 +1,161 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * 기존 파일을 현재 저장 배치(sharded)로 서비스 중단 없이 옮깁니다.
+ * <ol>
+ *     <li>새 위치 옆에 고유한 임시 이름으로 하드 링크를 만들고 (같은 파일 시스템이 아니면 복사)</li>
+ *     <li>경로가 그대로인 행만 새 경로로 갱신하고, 커밋 전에 임시 파일을 새 위치로 이름을 바꾼 뒤</li>
+ *     <li>옛 경로를 지웁니다. 그 사이 삭제/변경된 행이면 임시 파일만 지우고 건너뜁니다.</li>
+ * </ol>
+ * 전환 중 어느 시점에도 DB 가 가리키는 경로에 파일이 있으므로 다운로드가 끊기지 않습니다.
+ * {@code app.storage.layout-migration.enabled=true} 일 때 ID 순으로 배치씩 진행하며, 노드가
+ * 재시작되면 처음부터 다시 훑지만 이미 옮긴 파일은 건너뜁니다.
+ */
+@Slf4j
+@Service
+public class StorageLayoutMigrator {
+    
+    private final UploadedFileRepository uploadedFileRepository;
+    private final StorageLayout storageLayout;
+    private final HotFileCache hotFileCache;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${app.storage.layout-migration.enabled:false}")
+    private boolean enabled;
+    
+    @Value("${app.storage.layout-migration.batch-size:500}")
+    private int batchSize;
+    
+    private volatile long lastScannedId;
+    private volatile boolean finished;
+    
+    public StorageLayoutMigrator(UploadedFileRepository uploadedFileRepository,
+                                 StorageLayout storageLayout,
+                                 HotFileCache hotFileCache,
+                                 PlatformTransactionManager transactionManager) {
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.storageLayout = storageLayout;
+        this.hotFileCache = hotFileCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(fixedDelayString = "${app.storage.layout-migration.interval-ms:5000}")
+    public void migrateNextBatch() {
+        if (!enabled || finished || !storageLayout.isSharded()) {
+            return;
+        }
+        
+        MigrationBatch batch = migrateBatch(lastScannedId, batchSize);
+        lastScannedId = batch.lastId();
+        if (batch.scanned() < batchSize) {
+            finished = true;
+            log.info("저장 배치 이전 완료 (마지막 ID {})", lastScannedId);
+        }
+    }
+    
+    /**
+     * afterId 다음부터 최대 limit 개 파일을 옮깁니다.
+     */
+    public MigrationBatch migrateBatch(long afterId, int limit) {
+        List<UploadedFile> candidates = uploadedFileRepository.findLayoutMigrationCandidates(afterId, PageRequest.of(0, limit));
+        
+        int moved = 0;
+        int failed = 0;
+        long lastId = afterId;
+        for (UploadedFile file : candidates) {
+            lastId = file.getId();
+            try {
+                if (relocate(file)) {
+                    moved++;
+                }
+            } catch (IOException | RuntimeException e) {
+                failed++;
+                log.warn("저장 배치 이전 실패: ID {} - {}", file.getId(), e.getMessage());
+            }
+        }
+        
+        if (moved > 0 || failed > 0) {
+            log.info("저장 배치 이전 - 확인: {}개, 이동: {}개, 실패: {}개 (ID ~{})", candidates.size(), moved, failed, lastId);
+        }
+        return new MigrationBatch(candidates.size(), moved, failed, lastId);
+    }
+    
+    /**
+     * @return 옮겼으면 true, 이미 제자리이거나 그 사이 바뀐 파일이면 false
+     */
+    private boolean relocate(UploadedFile file) throws IOException {
+        Path current = Paths.get(file.getFilePath());
+        Path target = storageLayout.directoryFor(file.getStoredFilename()).resolve(current.getFileName());
+        if (current.toAbsolutePath().normalize().equals(target.toAbsolutePath().normalize())) {
+            return false;
+        }
+        if (!Files.exists(current)) {
+            throw new IOException("물리 파일이 없습니다: " + current);
+        }
+        
+        storageLayout.ensureDirectory(target.getParent());
+        // 다른 노드도 같은 파일을 옮기고 있을 수 있으므로 고유한 임시 이름으로 링크를 만들고,
+        // 행 갱신에 성공한 쪽만 그 행의 잠금을 쥔 채 제자리로 이름을 바꿈 (진 쪽은 자기 임시 파일만 지움)
+        Path staged = storageLayout.stagingPathFor(target);
+        try {
+            try {
+                Files.createLink(staged, current);
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                Files.copy(current, staged);
+            }
+            
+            Boolean relocated = transactionTemplate.execute(status -> {
+                if (uploadedFileRepository.relocate(file.getId(), file.getFilePath(), target.toString()) == 0) {
+                    return false;
+                }
+                moveIntoPlace(staged, target);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(relocated)) {
+                return false;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+        
+        hotFileCache.invalidate(file.getId());
+        Files.deleteIfExists(current);
+        return true;
+    }
+    
+    /**
+     * 커밋 전에 제자리로 옮겨, 갱신된 경로가 보이는 시점에는 파일이 이미 있도록 합니다.
+     * (이전 실행이 남긴 같은 이름의 파일은 덮어씀 - 행이 아직 옛 경로를 가리키므로 그 파일을 쓰는 곳이 없음)
+     */
+    private static void moveIntoPlace(Path staged, Path target) {
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public record MigrationBatch(int scanned, int moved, int failed, long lastId) {
+    }
+}
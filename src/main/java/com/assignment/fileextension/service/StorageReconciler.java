@@ -0,0 +1,401 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.dto.StorageReconciliationDto;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * 디스크의 저장 파일과 uploaded_files 행 사이의 불일치를 찾습니다.
+ * <ul>
+ *     <li>고아 파일: 행 없이 남은 파일 (저장 후 트랜잭션 롤백, 행 삭제 후 파일 삭제 실패 등)</li>
+ *     <li>파일 없는 행: 파일이 사라진 행</li>
+ * </ul>
+ * 디스크는 {@link StorageTreeScanner} 로 샤드별 병렬로 훑어 정렬된 스트림으로 만들고,
+ * DB 는 storedFilename keyset 페이지로 읽어 두 정렬된 스트림을 병합 조인합니다.
+ * 어느 쪽도 전체를 메모리에 올리지 않으므로 수백만 개 파일에서도 메모리 사용량이 일정합니다.
+ * 저장 이름은 모두 고정 길이 UUID 로 시작하므로 storedFilename 순서와 키(첫 '.' 앞부분) 순서가 같습니다.
+ * 진행 중인 업로드/삭제와 겹치지 않도록 유예 시간보다 최근의 파일과 행은 불일치로 보지 않습니다.
+ * 콜드 티어 디렉터리({@code app.storage.cold.dir})는 따로 훑어 콜드 티어 행과 대조합니다.
+ * (업로드 디렉터리 안에 두었으면 업로드 디렉터리 점검에서는 건너뜀)
+ */
+@Slf4j
+@Service
+public class StorageReconciler {
+
+    private static final int SAMPLE_LIMIT = 20;
+
+    // 다른 저장소가 관리하는 최상위 디렉터리 (ContentAddressedStore, UploadSessionService, PackSegmentStore)
+    private static final Set<String> SKIP_DIRECTORIES = Set.of("blobs", ".staging", ".sessions", "packs");
+
+    private final UploadedFileRepository uploadedFileRepository;
+    private final StorageLayout storageLayout;
+    private final HotFileCache hotFileCache;
+    private final TaskExecutor jobExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile StorageReconciliationDto lastReport;
+
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadBaseDir;
+
+    @Value("${app.storage.cold.dir:uploads-cold}")
+    private String coldDirectory;
+
+    @Value("${app.storage.reconcile.fix:false}")
+    private boolean scheduledFix;
+
+    @Value("${app.storage.reconcile.grace-minutes:60}")
+    private long graceMinutes;
+
+    @Value("${app.storage.reconcile.page-size:1000}")
+    private int pageSize;
+
+    @Value("${app.storage.reconcile.run-size:100000}")
+    private int runSize;
+
+    @Value("${app.storage.reconcile.parallelism:4}")
+    private int parallelism;
+
+    public StorageReconciler(UploadedFileRepository uploadedFileRepository,
+                             StorageLayout storageLayout,
+                             HotFileCache hotFileCache,
+                             @Qualifier("backgroundJobExecutor") TaskExecutor jobExecutor,
+                             PlatformTransactionManager transactionManager) {
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.storageLayout = storageLayout;
+        this.hotFileCache = hotFileCache;
+        this.jobExecutor = jobExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 정해진 주기로 점검합니다. 기본은 꺼져 있습니다. (cron "-")
+     */
+    @Scheduled(cron = "${app.storage.reconcile.cron:-}")
+    public void scheduledReconcile() {
+        start(scheduledFix);
+    }
+
+    /**
+     * 작업 실행기에서 점검을 시작합니다.
+     *
+     * @return 이미 실행 중이면 false
+     */
+    public boolean start(boolean fix) {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            jobExecutor.execute(() -> {
+                try {
+                    reconcile(fix);
+                } finally {
+                    running.set(false);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            running.set(false);
+            log.error("정합성 점검 실행 요청 실패: {}", e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 이 노드의 마지막(또는 진행 중인) 점검 결과
+     */
+    public StorageReconciliationDto lastReport() {
+        return lastReport;
+    }
+
+    /**
+     * 점검을 끝까지 실행합니다.
+     *
+     * @param fix true 면 유예 시간이 지난 고아 파일은 지우고, 파일 없는 행은 삭제 상태로 표시
+     */
+    public StorageReconciliationDto reconcile(boolean fix) {
+        Tally tally = new Tally(fix, LocalDateTime.now());
+        lastReport = tally.toReport(StorageReconciliationDto.Status.RUNNING, null);
+
+        Path uploadRoot = Paths.get(uploadBaseDir);
+        Path coldRoot = Paths.get(coldDirectory);
+        try {
+            reconcileRoot(uploadRoot, skipDirectoriesUnder(uploadRoot, coldRoot), tally,
+                    after -> uploadedFileRepository.findStoredFilesAfter(after, PageRequest.of(0, pageSize)));
+            reconcileRoot(coldRoot, Set.of(), tally,
+                    after -> uploadedFileRepository.findColdFilesAfter(after, PageRequest.of(0, pageSize)));
+            lastReport = tally.toReport(StorageReconciliationDto.Status.COMPLETED, null);
+            log.info("정합성 점검 완료 - 파일: {}개, 행: {}개, 고아 파일: {}개, 파일 없는 행: {}개, 위치 불일치: {}개",
+                    tally.scannedFiles, tally.scannedRows, tally.orphanFiles, tally.missingFiles, tally.misplacedFiles);
+        } catch (IOException | RuntimeException e) {
+            log.error("정합성 점검 실패: {}", e.getMessage(), e);
+            lastReport = tally.toReport(StorageReconciliationDto.Status.FAILED, e.getMessage());
+        }
+        return lastReport;
+    }
+
+    /**
+     * root 아래의 파일과 pageQuery 가 돌려주는 행을 병합 조인합니다.
+     */
+    private void reconcileRoot(Path root, Set<String> skipDirectories, Tally tally,
+                               Function<String, List<UploadedFile>> pageQuery) throws IOException {
+        try (StorageTreeScanner scanner = StorageTreeScanner.scan(root, skipDirectories, parallelism, runSize)) {
+            tally.scannedFiles += scanner.fileCount();
+            mergeJoin(scanner.sortedEntries(), new RowIterator(pageQuery), tally);
+            tally.flushMissing();
+        }
+    }
+
+    /**
+     * 콜드 티어 디렉터리가 업로드 디렉터리 안에 있으면 그 최상위 디렉터리도 건너뜁니다.
+     * (그 안의 파일은 업로드 디렉터리 행과 맞지 않아 고아로 보이게 됨)
+     */
+    private static Set<String> skipDirectoriesUnder(Path uploadRoot, Path coldRoot) {
+        Path upload = uploadRoot.toAbsolutePath().normalize();
+        Path cold = coldRoot.toAbsolutePath().normalize();
+        if (cold.equals(upload) || !cold.startsWith(upload)) {
+            return SKIP_DIRECTORIES;
+        }
+        Set<String> skip = new HashSet<>(SKIP_DIRECTORIES);
+        skip.add(upload.relativize(cold).getName(0).toString());
+        return skip;
+    }
+
+    private void mergeJoin(Iterator<StorageTreeScanner.DiskEntry> disk, Iterator<UploadedFile> rows, Tally tally) {
+        StorageTreeScanner.DiskEntry entry = disk.hasNext() ? disk.next() : null;
+        UploadedFile row = rows.hasNext() ? rows.next() : null;
+
+        while (entry != null || row != null) {
+            int order = entry == null ? 1
+                    : row == null ? -1
+                    : entry.key().compareTo(StorageTreeScanner.keyOf(row.getStoredFilename()));
+
+            if (order < 0) {
+                tally.orphan(entry);
+                entry = disk.hasNext() ? disk.next() : null;
+                continue;
+            }
+            if (order > 0) {
+                tally.scannedRows++;
+                tally.missing(row);
+                row = rows.hasNext() ? rows.next() : null;
+                continue;
+            }
+
+            // 같은 키의 파일이 여러 개일 수 있음 (중단된 저장 배치 이전이 남긴 사본 등)
+            String key = entry.key();
+            boolean found = false;
+            List<StorageTreeScanner.DiskEntry> extras = new ArrayList<>(1);
+            while (entry != null && entry.key().equals(key)) {
+                if (isExpectedLocation(row, entry.path())) {
+                    found = true;
+                } else {
+                    extras.add(entry);
+                }
+                entry = disk.hasNext() ? disk.next() : null;
+            }
+
+            tally.scannedRows++;
+            if (found) {
+                extras.forEach(tally::orphan);
+            } else {
+                // 파일은 있지만 행의 경로와 다름 - 어느 쪽이 맞는지 알 수 없으므로 보고만
+                tally.misplacedFiles++;
+                log.warn("정합성 점검 - 위치 불일치: ID {} ({}) / 디스크 {}", row.getId(), row.getFilePath(),
+                        extras.get(0).path());
+            }
+            row = rows.hasNext() ? rows.next() : null;
+        }
+    }
+
+    private boolean isExpectedLocation(UploadedFile row, Path path) {
+        Path actual = path.toAbsolutePath().normalize();
+        Path stored = Paths.get(row.getFilePath());
+        if (actual.equals(stored.toAbsolutePath().normalize())) {
+            return true;
+        }
+        return row.getStatus() == UploadedFile.FileStatus.QUARANTINED
+                && actual.equals(storageLayout.quarantinePathFor(row.getStoredFilename(), stored)
+                        .toAbsolutePath().normalize());
+    }
+
+    /**
+     * uploaded_files 를 storedFilename keyset 페이지로 읽는 스트림. 페이지마다 짧은 읽기 트랜잭션을 씁니다.
+     */
+    private final class RowIterator implements Iterator<UploadedFile> {
+
+        private final Function<String, List<UploadedFile>> pageQuery;
+        private List<UploadedFile> page = List.of();
+        private int index;
+        private String after = "";
+        private boolean exhausted;
+
+        private RowIterator(Function<String, List<UploadedFile>> pageQuery) {
+            this.pageQuery = pageQuery;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < page.size()) {
+                return true;
+            }
+            if (exhausted) {
+                return false;
+            }
+            String cursor = after;
+            page = transactionTemplate.execute(status -> pageQuery.apply(cursor));
+            index = 0;
+            if (page.size() < pageSize) {
+                exhausted = true;
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getStoredFilename();
+            }
+            return !page.isEmpty();
+        }
+
+        @Override
+        public UploadedFile next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return page.get(index++);
+        }
+    }
+
+    /**
+     * 점검 집계와 수정 작업
+     */
+    private final class Tally {
+
+        private final boolean fix;
+        private final LocalDateTime startedAt;
+        private final long graceCutoffMillis;
+        private final LocalDateTime graceCutoff;
+        private final List<String> orphanSamples = new ArrayList<>();
+        private final List<Long> missingSamples = new ArrayList<>();
+        private final List<UploadedFile> pendingMissing = new ArrayList<>();
+
+        private long scannedFiles;
+        private long scannedRows;
+        private long orphanFiles;
+        private long missingFiles;
+        private long misplacedFiles;
+        private long deletedOrphanFiles;
+        private long markedMissingRows;
+
+        private Tally(boolean fix, LocalDateTime startedAt) {
+            this.fix = fix;
+            this.startedAt = startedAt;
+            this.graceCutoff = startedAt.minusMinutes(graceMinutes);
+            this.graceCutoffMillis = graceCutoff.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+
+        void orphan(StorageTreeScanner.DiskEntry entry) {
+            if (entry.lastModified() > graceCutoffMillis) {
+                return;
+            }
+            orphanFiles++;
+            if (orphanSamples.size() < SAMPLE_LIMIT) {
+                orphanSamples.add(entry.path().toString());
+            }
+            if (!fix) {
+                return;
+            }
+            try {
+                if (Files.deleteIfExists(entry.path())) {
+                    deletedOrphanFiles++;
+                    log.info("정합성 점검 - 고아 파일 삭제: {}", entry.path());
+                }
+            } catch (IOException e) {
+                log.warn("정합성 점검 - 고아 파일 삭제 실패: {} - {}", entry.path(), e.getMessage());
+            }
+        }
+
+        void missing(UploadedFile row) {
+            if (row.getCreatedAt() != null && row.getCreatedAt().isAfter(graceCutoff)) {
+                return;
+            }
+            missingFiles++;
+            if (missingSamples.size() < SAMPLE_LIMIT) {
+                missingSamples.add(row.getId());
+            }
+            if (fix) {
+                pendingMissing.add(row);
+                if (pendingMissing.size() >= pageSize) {
+                    flushMissing();
+                }
+            }
+        }
+
+        /**
+         * 파일 없는 행을 한 번의 UPDATE 로 삭제 상태로 표시합니다. 그 사이 파일이 생긴 행은 건너뜁니다.
+         */
+        void flushMissing() {
+            if (pendingMissing.isEmpty()) {
+                return;
+            }
+            List<Long> ids = new ArrayList<>(pendingMissing.size());
+            for (UploadedFile row : pendingMissing) {
+                if (!Files.exists(Paths.get(row.getFilePath()))) {
+                    ids.add(row.getId());
+                }
+            }
+            pendingMissing.clear();
+            if (ids.isEmpty()) {
+                return;
+            }
+
+            Integer updated = transactionTemplate.execute(status ->
+                    uploadedFileRepository.updateStatus(ids, UploadedFile.FileStatus.DELETED));
+            hotFileCache.invalidate(ids);
+            markedMissingRows += updated == null ? 0 : updated;
+            log.info("정합성 점검 - 파일 없는 행 {}개를 삭제 상태로 표시", ids.size());
+        }
+
+        StorageReconciliationDto toReport(StorageReconciliationDto.Status status, String errorMessage) {
+            return StorageReconciliationDto.builder()
+                    .status(status)
+                    .fix(fix)
+                    .scannedFiles(scannedFiles)
+                    .scannedRows(scannedRows)
+                    .orphanFiles(orphanFiles)
+                    .missingFiles(missingFiles)
+                    .misplacedFiles(misplacedFiles)
+                    .deletedOrphanFiles(deletedOrphanFiles)
+                    .markedMissingRows(markedMissingRows)
+                    .orphanSamples(List.copyOf(orphanSamples))
+                    .missingSamples(List.copyOf(missingSamples))
+                    .errorMessage(errorMessage)
+                    .startedAt(startedAt)
+                    .finishedAt(status == StorageReconciliationDto.Status.RUNNING ? null : LocalDateTime.now())
+                    .build();
+        }
+    }
+}
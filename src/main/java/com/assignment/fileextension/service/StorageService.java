@@ -4,6 +4,8 @@ import com.assignment.fileextension.entity.UploadedFile;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
 import java.util.List;
 
 public interface StorageService {
@@ -13,11 +15,61 @@ public interface StorageService {
      */
     UploadedFile storeFile(MultipartFile file) throws IOException;
     
+    /**
+     * 스트림을 임시 파일 없이 최종 위치에 바로 저장합니다.
+     * 크기 한도를 넘는 순간 중단하고 쓰던 파일을 지운 뒤 {@link com.assignment.fileextension.exception.FileSizeLimitExceededException} 을 던집니다.
+     */
+    UploadedFile storeStream(String originalFilename, String contentType, InputStream content) throws IOException;
+    
+    /**
+     * 이미 업로드 디렉터리 안에 조립된 파일을 복사 없이 최종 위치로 옮겨 저장합니다.
+     */
+    UploadedFile storeAssembledFile(String originalFilename, String contentType, Path assembledFile) throws IOException;
+    
+    /**
+     * 다운로드를 위해 파일 내용의 물리적 위치를 찾습니다.
+     */
+    StoredContent resolveContent(UploadedFile file);
+    
     /**
      * 특정 확장자의 활성 파일들을 삭제합니다.
      */
     void deleteFilesByExtension(String extension);
     
+    /**
+     * 여러 확장자의 활성 파일들을 한 번의 조회로 삭제합니다.
+     */
+    void deleteFilesByExtensions(List<String> extensions);
+    
+    /**
+     * 확장자 정리 배치 하나를 처리합니다. afterId 다음의 활성 파일을 ID 순으로 최대 limit 개 읽어
+     * 보호되지 않은 행을 한 번의 UPDATE 로 격리하거나, 격리를 끈 경우 한 번의 DELETE 로 지우고
+     * 커밋 후 지울 물리 파일 경로를 반환합니다.
+     */
+    PurgeBatch purgeBatch(List<String> extensions, long afterId, int limit);
+    
+    /**
+     * 지연 적용 모드의 정리 배치 하나를 처리합니다. afterId 다음에서 정책 버전이 다른 활성 파일을 최대 limit 개 읽어
+     * 위반한 행은 지우고, 통과한 행에는 정책 버전을 기록합니다.
+     */
+    PurgeBatch reapBatch(ExtensionPolicySnapshot policy, long afterId, int limit);
+    
+    /**
+     * 확장자 복구 배치 하나를 처리합니다. afterId 다음의 격리된 파일을 ID 순으로 최대 limit 개 읽어
+     * 원래 위치로 되돌리고, 상태는 한 번의 UPDATE 로 활성으로 바꿉니다.
+     */
+    RestoreBatch restoreBatch(List<String> extensions, long afterId, int limit);
+    
+    /**
+     * 복구 대상 격리 파일 수를 셉니다.
+     */
+    long countQuarantinedFilesByExtensions(List<String> extensions);
+    
+    /**
+     * 정리 대상 활성 파일 수를 셉니다.
+     */
+    long countActiveFilesByExtensions(List<String> extensions);
+    
     /**
      * 물리적 파일을 삭제합니다.
      */
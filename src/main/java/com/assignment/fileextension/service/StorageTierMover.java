@@ -0,0 +1,344 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 핫 티어(업로드 디렉터리)와 콜드 티어({@code app.storage.cold.dir}) 사이에서 파일을 옮깁니다.
+ * <ul>
+ *     <li>내리기: 만든 지 demote-after-days 가 지났고 idle-days 동안 읽히지 않은 파일을 콜드 티어로 옮깁니다.
+ *     잘 압축되는 내용은 gzip 으로 저장하며, 다운로드는 기존 gzip 저장 파일처럼 풀어서 보냅니다.</li>
+ *     <li>올리기: 콜드 파일의 읽기 점수(반감기 promote-half-life-ms 로 줄어드는 읽기 횟수)가 promote-reads 에
+ *     이르면 핫 티어로 되돌립니다. 점수는 기록 주기와 따로 유지되므로 주기 경계에 걸친 읽기도 함께 셉니다.
+ *     요청 스레드에서는 표시만 하고, 실제 이동은 백그라운드에서 합니다.</li>
+ *     <li>다운로드 기록은 메모리에 모아 두었다가 주기마다 같은 횟수끼리 한 번의 UPDATE 로 반영합니다.</li>
+ * </ul>
+ * 옮길 때는 새 위치 옆의 고유한 임시 파일에 먼저 쓰고, 경로가 그대로인 행을 갱신한 트랜잭션 안에서
+ * 제자리로 이름을 바꾼 뒤 옛 파일을 지우므로, 어느 시점에도 DB 가 가리키는 경로에 파일이 있고
+ * 여러 노드가 같은 파일을 옮기더라도 진 쪽이 이긴 쪽의 파일을 지우지 않습니다.
+ * 내릴 후보 훑기는 {@link JobLeaseService} 임대를 잡은 한 노드만 하며, 올리기는 각 노드가 자기 다운로드 기록으로 합니다.
+ * 공유 blob 과 pack 항목은 옮기지 않습니다.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "tiered")
+public class StorageTierMover {
+    
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final String GZIP_SUFFIX = ".gz";
+    private static final String LEASE_NAME = "storage-tier-demotion";
+    // 이보다 작게 줄어든 읽기 점수는 다시 올리기 대상이 될 일이 없으므로 기록 주기마다 버림
+    private static final double MIN_ACCESS_HEAT = 0.05;
+    
+    private final UploadedFileRepository uploadedFileRepository;
+    private final StorageLayout storageLayout;
+    private final AtRestCompressionPolicy compressionPolicy;
+    private final HotFileCache hotFileCache;
+    private final JobLeaseService jobLeaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final Path coldDirectory;
+    
+    private final Map<Long, Long> pendingReads = new ConcurrentHashMap<>();
+    private final Map<Long, AccessHeat> accessHeat = new ConcurrentHashMap<>();
+    private final Set<Long> promotionQueue = ConcurrentHashMap.newKeySet();
+    
+    @Value("${app.storage.cold.compress:true}")
+    private boolean compressCold;
+    
+    @Value("${app.storage.tiering.demote-after-days:90}")
+    private long demoteAfterDays;
+    
+    @Value("${app.storage.tiering.idle-days:30}")
+    private long idleDays;
+    
+    @Value("${app.storage.tiering.promote-reads:3}")
+    private int promoteReads;
+    
+    @Value("${app.storage.tiering.promote-half-life-ms:3600000}")
+    private long promoteHalfLifeMillis;
+    
+    @Value("${app.storage.tiering.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.storage.tiering.lease-seconds:300}")
+    private long leaseSeconds;
+    
+    private volatile long lastScannedId;
+    
+    public StorageTierMover(UploadedFileRepository uploadedFileRepository,
+                            StorageLayout storageLayout,
+                            AtRestCompressionPolicy compressionPolicy,
+                            HotFileCache hotFileCache,
+                            JobLeaseService jobLeaseService,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${app.storage.cold.dir:uploads-cold}") String coldDirectory) {
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.storageLayout = storageLayout;
+        this.compressionPolicy = compressionPolicy;
+        this.hotFileCache = hotFileCache;
+        this.jobLeaseService = jobLeaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.coldDirectory = Paths.get(coldDirectory);
+    }
+    
+    /**
+     * 다운로드 한 번을 기록합니다. 콜드 파일이 자주 읽히면 올리기 대상으로 표시합니다. (DB 를 건드리지 않음)
+     */
+    public void recordAccess(UploadedFile file) {
+        // merge 와 flush 의 remove 는 같은 키에 대해 원자적이므로, 반영 중에 들어온 읽기도 빠지지 않고 다음 주기로 넘어감
+        pendingReads.merge(file.getId(), 1L, Long::sum);
+        if (!file.isCold()) {
+            return;
+        }
+        
+        long now = System.currentTimeMillis();
+        AccessHeat heat = accessHeat.compute(file.getId(), (id, previous) -> previous == null
+                ? new AccessHeat(1, now)
+                : previous.decayedTo(now, promoteHalfLifeMillis).plusOne());
+        // 연달아 읽혀도 점수가 조금씩 줄어 있으므로 반올림해서 비교
+        if (Math.round(heat.score()) >= promoteReads) {
+            promotionQueue.add(file.getId());
+        }
+    }
+    
+    /**
+     * 모아 둔 다운로드 기록을 반영합니다.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.tiering.access-flush-interval-ms:10000}")
+    public void flushAccessLog() {
+        evictColdHeat();
+        if (pendingReads.isEmpty()) {
+            return;
+        }
+        
+        // 같은 횟수만큼 읽힌 파일끼리 묶어 UPDATE 수를 줄임
+        Map<Long, List<Long>> idsByReads = new TreeMap<>();
+        for (Long id : new ArrayList<>(pendingReads.keySet())) {
+            Long reads = pendingReads.remove(id);
+            if (reads != null) {
+                idsByReads.computeIfAbsent(reads, count -> new ArrayList<>()).add(id);
+            }
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status ->
+                idsByReads.forEach((reads, ids) -> uploadedFileRepository.recordAccess(ids, reads, now)));
+    }
+    
+    /**
+     * 한동안 읽히지 않아 점수가 거의 0 이 된 파일을 읽기 점수에서 뺍니다.
+     */
+    private void evictColdHeat() {
+        long now = System.currentTimeMillis();
+        for (Long id : new ArrayList<>(accessHeat.keySet())) {
+            accessHeat.computeIfPresent(id, (key, heat) ->
+                    heat.decayedTo(now, promoteHalfLifeMillis).score() < MIN_ACCESS_HEAT ? null : heat);
+        }
+    }
+    
+    /**
+     * 표시된 콜드 파일을 올리고, 임대를 잡았으면 내릴 후보를 한 배치 옮깁니다.
+     */
+    @Scheduled(fixedDelayString = "${app.storage.tiering.interval-ms:60000}")
+    public void moveTiers() {
+        promoteQueued();
+        
+        // 모든 노드가 같은 후보를 같은 순서로 훑으므로 한 노드만 내림
+        if (!jobLeaseService.tryAcquire(LEASE_NAME, Duration.ofSeconds(leaseSeconds))) {
+            return;
+        }
+        TierBatch batch = demoteBatch(lastScannedId, batchSize);
+        // 끝까지 훑었으면 다음 주기에 처음부터 다시 (그 사이 오래된 파일이 생김)
+        lastScannedId = batch.scanned() < batchSize ? 0 : batch.lastId();
+    }
+    
+    /**
+     * afterId 다음의 내릴 후보를 최대 limit 개 콜드 티어로 옮깁니다.
+     */
+    public TierBatch demoteBatch(long afterId, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<UploadedFile> candidates = uploadedFileRepository.findDemotionCandidatesAfter(
+                afterId, now.minusDays(demoteAfterDays), now.minusDays(idleDays), PageRequest.of(0, limit));
+        
+        int moved = 0;
+        int failed = 0;
+        long lastId = afterId;
+        for (UploadedFile file : candidates) {
+            lastId = file.getId();
+            try {
+                if (demote(file)) {
+                    moved++;
+                }
+            } catch (IOException | RuntimeException e) {
+                failed++;
+                log.warn("콜드 티어 이동 실패: ID {} - {}", file.getId(), e.getMessage());
+            }
+        }
+        
+        if (moved > 0 || failed > 0) {
+            log.info("콜드 티어 이동 - 확인: {}개, 이동: {}개, 실패: {}개 (ID ~{})", candidates.size(), moved, failed, lastId);
+        }
+        return new TierBatch(candidates.size(), moved, failed, lastId);
+    }
+    
+    private void promoteQueued() {
+        for (Long id : new ArrayList<>(promotionQueue)) {
+            promotionQueue.remove(id);
+            accessHeat.remove(id);
+            UploadedFile file = uploadedFileRepository.findById(id).orElse(null);
+            if (file == null || !file.isCold() || file.getStatus() != UploadedFile.FileStatus.ACTIVE) {
+                continue;
+            }
+            try {
+                promote(file);
+            } catch (IOException | RuntimeException e) {
+                log.warn("핫 티어 복귀 실패: ID {} - {}", id, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * 콜드 티어에 새로 쓰고 경로를 바꾼 뒤 핫 파일을 지웁니다. 압축되지 않은 내용은 압축해서 씁니다.
+     */
+    private boolean demote(UploadedFile file) throws IOException {
+        Path current = Paths.get(file.getFilePath());
+        boolean gzip = file.isGzipStored() || (compressCold && isCompressible(file, current));
+        String fileName = file.getStoredFilename() + (gzip ? GZIP_SUFFIX : "");
+        Path target = storageLayout.shardedPathUnder(coldDirectory, file.getStoredFilename(), fileName);
+        
+        UploadedFile.StorageEncoding encoding = gzip ? UploadedFile.StorageEncoding.GZIP : UploadedFile.StorageEncoding.IDENTITY;
+        // 이미 gzip 이면 그대로 복사, 아니면 압축하며 복사
+        return switchTier(file, current, target, UploadedFile.StorageTier.COLD, encoding,
+                staged -> copy(current, staged, !file.isGzipStored() && gzip, false));
+    }
+    
+    /**
+     * 핫 티어에 원본 그대로 풀어 쓰고 경로를 바꾼 뒤 콜드 파일을 지웁니다. (구간 요청을 풀지 않고 보낼 수 있도록)
+     */
+    private void promote(UploadedFile file) throws IOException {
+        Path current = Paths.get(file.getFilePath());
+        Path target = storageLayout.newFilePath(file.getStoredFilename());
+        
+        if (switchTier(file, current, target, UploadedFile.StorageTier.HOT, UploadedFile.StorageEncoding.IDENTITY,
+                staged -> copy(current, staged, false, file.isGzipStored()))) {
+            log.info("핫 티어 복귀: ID {} -> {}", file.getId(), target);
+        }
+    }
+    
+    /**
+     * target 옆의 고유한 임시 파일에 내용을 쓰고, 경로가 그대로인 행을 갱신한 트랜잭션 안에서 제자리로 이름을 바꿉니다.
+     * 갱신하지 못했으면(그 사이 삭제/변경되었거나 다른 노드가 먼저 옮김) 임시 파일만 지우고 target 은 건드리지 않습니다.
+     */
+    private boolean switchTier(UploadedFile file, Path current, Path target, UploadedFile.StorageTier tier,
+                               UploadedFile.StorageEncoding encoding, StagedWriter writer) throws IOException {
+        storageLayout.ensureDirectory(target.getParent());
+        Path staged = storageLayout.stagingPathFor(target);
+        try {
+            writer.writeTo(staged);
+            long storedSize = Files.size(staged);
+            Boolean switched = transactionTemplate.execute(status -> {
+                if (uploadedFileRepository.moveToTier(file.getId(), file.getFilePath(), target.toString(),
+                        tier, encoding, storedSize) == 0) {
+                    return false;
+                }
+                moveIntoPlace(staged, target);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(switched)) {
+                return false;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+        
+        hotFileCache.invalidate(file.getId());
+        Files.deleteIfExists(current);
+        return true;
+    }
+    
+    /**
+     * 행 잠금을 쥔 채(커밋 전) 제자리로 옮기므로, 새 경로가 보이는 시점에는 파일이 이미 있습니다.
+     */
+    private static void moveIntoPlace(Path staged, Path target) {
+        try {
+            Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private boolean isCompressible(UploadedFile file, Path path) throws IOException {
+        byte[] sample = new byte[AtRestCompressionPolicy.SAMPLE_BYTES];
+        int length;
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            length = inputStream.readNBytes(sample, 0, sample.length);
+        }
+        return compressionPolicy.shouldCompress(file.getContentType(), file.getExtension(), sample, length);
+    }
+    
+    /**
+     * source 를 새 임시 파일 staged 에 씁니다. (쓰다 만 파일은 호출한 쪽에서 지움)
+     */
+    private static void copy(Path source, Path staged, boolean compress, boolean decompress) throws IOException {
+        try (InputStream raw = new BufferedInputStream(Files.newInputStream(source), STREAM_BUFFER_SIZE);
+             InputStream inputStream = decompress ? new GZIPInputStream(raw, STREAM_BUFFER_SIZE) : raw;
+             OutputStream rawOut = Files.newOutputStream(staged, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+             OutputStream outputStream = compress ? new GZIPOutputStream(rawOut, STREAM_BUFFER_SIZE) : rawOut) {
+            inputStream.transferTo(outputStream);
+        }
+    }
+    
+    public record TierBatch(int scanned, int moved, int failed, long lastId) {
+    }
+    
+    /**
+     * 콜드 파일의 읽기 점수. 반감기가 지날 때마다 절반으로 줄어 최근 읽기일수록 크게 셉니다.
+     */
+    private record AccessHeat(double score, long updatedAtMillis) {
+        
+        AccessHeat decayedTo(long nowMillis, long halfLifeMillis) {
+            long elapsed = Math.max(0, nowMillis - updatedAtMillis);
+            return new AccessHeat(score * Math.pow(0.5, (double) elapsed / halfLifeMillis), nowMillis);
+        }
+        
+        AccessHeat plusOne() {
+            return new AccessHeat(score + 1, updatedAtMillis);
+        }
+    }
+    
+    @FunctionalInterface
+    private interface StagedWriter {
+        void writeTo(Path staged) throws IOException;
+    }
+}
@@ -0,0 +1,288 @@
+package com.assignment.fileextension.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 저장 디렉터리 전체를 훑어 파일 목록을 키 순서의 스트림으로 만듭니다.
+ * <ul>
+ *     <li>최상위 디렉터리(샤드)마다 fork-join 작업으로 나눠 병렬로 훑습니다.</li>
+ *     <li>작업마다 최대 runSize 개씩 모아 정렬한 뒤 임시 파일(run)로 내려 씁니다.</li>
+ *     <li>{@link #sortedEntries()} 는 run 들을 k-way 병합하므로, 메모리에는 run 당 한 항목만 올라옵니다.</li>
+ * </ul>
+ * 키는 파일명의 첫 '.' 앞부분(저장 이름의 UUID)으로, gzip 저장 여부와 관계없이 storedFilename 과 같습니다.
+ * 사용 후에는 {@link #close()} 로 run 파일을 지워야 합니다.
+ */
+@Slf4j
+public final class StorageTreeScanner implements Closeable {
+
+    private static final Comparator<DiskEntry> ORDER =
+            Comparator.comparing(DiskEntry::key).thenComparing(entry -> entry.path().toString());
+
+    private final Path runDirectory;
+    private final Queue<Path> runs = new ConcurrentLinkedQueue<>();
+    private final AtomicLong fileCount = new AtomicLong();
+    private final List<Closeable> openReaders = new ArrayList<>();
+
+    private StorageTreeScanner(Path runDirectory) {
+        this.runDirectory = runDirectory;
+    }
+
+    /**
+     * 디스크의 저장 파일 하나
+     *
+     * @param key          파일명의 첫 '.' 앞부분
+     * @param path         파일 경로
+     * @param lastModified 수정 시각 (epoch ms)
+     */
+    public record DiskEntry(String key, Path path, long lastModified) {
+    }
+
+    /**
+     * root 아래를 훑어 정렬된 run 들을 만듭니다. skipDirectories 에 있는 최상위 디렉터리는 건너뜁니다.
+     */
+    public static StorageTreeScanner scan(Path root, Set<String> skipDirectories,
+                                          int parallelism, int runSize) throws IOException {
+        StorageTreeScanner scanner = new StorageTreeScanner(Files.createTempDirectory("reconcile-"));
+        if (!Files.isDirectory(root)) {
+            return scanner;
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(scanner.new RootScan(root, skipDirectories, runSize));
+        } catch (UncheckedIOException e) {
+            scanner.close();
+            throw e.getCause();
+        } finally {
+            pool.shutdown();
+        }
+        log.info("저장 디렉터리 훑기 완료: {} - 파일 {}개, run {}개", root, scanner.fileCount.get(), scanner.runs.size());
+        return scanner;
+    }
+
+    public static String keyOf(String fileName) {
+        int dot = fileName.indexOf('.');
+        return dot >= 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    public long fileCount() {
+        return fileCount.get();
+    }
+
+    /**
+     * 모든 run 을 병합한 (키, 경로) 순서의 스트림. 한 번만 순회할 수 있습니다.
+     */
+    public Iterator<DiskEntry> sortedEntries() throws IOException {
+        PriorityQueue<RunReader> heads = new PriorityQueue<>(Comparator.comparing(RunReader::current, ORDER));
+        for (Path run : runs) {
+            RunReader reader = new RunReader(run);
+            openReaders.add(reader);
+            if (reader.advance()) {
+                heads.add(reader);
+            }
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !heads.isEmpty();
+            }
+
+            @Override
+            public DiskEntry next() {
+                RunReader reader = heads.poll();
+                if (reader == null) {
+                    throw new NoSuchElementException();
+                }
+                DiskEntry entry = reader.current();
+                if (reader.advance()) {
+                    heads.add(reader);
+                }
+                return entry;
+            }
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Closeable reader : openReaders) {
+            reader.close();
+        }
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        Files.deleteIfExists(runDirectory);
+    }
+
+    private void writeRun(List<DiskEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.sort(ORDER);
+        try {
+            Path run = Files.createTempFile(runDirectory, "run-", ".bin");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+                for (DiskEntry entry : entries) {
+                    out.writeUTF(entry.key());
+                    out.writeUTF(entry.path().toString());
+                    out.writeLong(entry.lastModified());
+                }
+            }
+            runs.add(run);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        entries.clear();
+    }
+
+    /**
+     * 최상위 디렉터리마다 하위 작업을 만들고, 최상위에 바로 놓인 파일은 직접 처리합니다.
+     */
+    private final class RootScan extends RecursiveAction {
+
+        private final Path root;
+        private final Set<String> skipDirectories;
+        private final int runSize;
+
+        private RootScan(Path root, Set<String> skipDirectories, int runSize) {
+            this.root = root;
+            this.skipDirectories = skipDirectories;
+            this.runSize = runSize;
+        }
+
+        @Override
+        protected void compute() {
+            List<ShardScan> shards = new ArrayList<>();
+            List<DiskEntry> rootFiles = new ArrayList<>();
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(root)) {
+                for (Path child : children) {
+                    BasicFileAttributes attributes = Files.readAttributes(child, BasicFileAttributes.class);
+                    if (attributes.isDirectory()) {
+                        if (!skipDirectories.contains(child.getFileName().toString())) {
+                            shards.add(new ShardScan(child, runSize));
+                        }
+                    } else if (attributes.isRegularFile()) {
+                        rootFiles.add(entryOf(child, attributes));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            fileCount.addAndGet(rootFiles.size());
+            writeRun(rootFiles);
+            invokeAll(shards);
+        }
+    }
+
+    /**
+     * 샤드 하나를 훑으며 runSize 개가 모일 때마다 정렬해 run 으로 내려 씁니다.
+     */
+    private final class ShardScan extends RecursiveAction {
+
+        private final Path shard;
+        private final int runSize;
+
+        private ShardScan(Path shard, int runSize) {
+            this.shard = shard;
+            this.runSize = runSize;
+        }
+
+        @Override
+        protected void compute() {
+            List<DiskEntry> buffer = new ArrayList<>(Math.min(runSize, 4096));
+            try {
+                Files.walkFileTree(shard, new SimpleFileVisitor<>() {
+                    @Override
+                    public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                        if (attributes.isRegularFile()) {
+                            buffer.add(entryOf(file, attributes));
+                            fileCount.incrementAndGet();
+                            if (buffer.size() >= runSize) {
+                                writeRun(buffer);
+                            }
+                        }
+                        return FileVisitResult.CONTINUE;
+                    }
+
+                    @Override
+                    public FileVisitResult visitFileFailed(Path file, IOException e) {
+                        // 훑는 사이 지워진 파일 등은 건너뜀
+                        log.debug("파일 확인 실패: {} - {}", file, e.getMessage());
+                        return FileVisitResult.CONTINUE;
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            writeRun(buffer);
+        }
+    }
+
+    private static DiskEntry entryOf(Path file, BasicFileAttributes attributes) {
+        return new DiskEntry(keyOf(file.getFileName().toString()), file, attributes.lastModifiedTime().toMillis());
+    }
+
+    /**
+     * run 파일 하나를 앞에서부터 한 항목씩 읽습니다.
+     */
+    private static final class RunReader implements Closeable {
+
+        private final DataInputStream in;
+        private DiskEntry current;
+
+        private RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+        }
+
+        DiskEntry current() {
+            return current;
+        }
+
+        boolean advance() {
+            try {
+                String key = in.readUTF();
+                Path path = Path.of(in.readUTF());
+                current = new DiskEntry(key, path, in.readLong());
+                return true;
+            } catch (EOFException e) {
+                current = null;
+                return false;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
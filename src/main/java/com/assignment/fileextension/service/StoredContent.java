@@ -0,0 +1,26 @@
+package com.assignment.fileextension.service;
+
+import java.nio.file.Path;
+
+/**
+ * 저장된 파일 내용의 물리적 위치
+ * 내용은 path 파일의 [offset, offset + length) 구간에 있습니다.
+ * gzip 이 true 면 이 구간은 gzip 스트림이며, 원본은 읽으면서 풀어야 합니다.
+ */
+public record StoredContent(Path path, long offset, long length, boolean gzip) {
+    
+    public static StoredContent wholeFile(Path path, long length) {
+        return new StoredContent(path, 0, length, false);
+    }
+    
+    public static StoredContent gzipFile(Path path, long storedLength) {
+        return new StoredContent(path, 0, storedLength, true);
+    }
+    
+    /**
+     * 여러 파일이 함께 저장된 pack 세그먼트 안의 한 구간
+     */
+    public static StoredContent region(Path path, long offset, long length) {
+        return new StoredContent(path, offset, length, false);
+    }
+}
@@ -0,0 +1,132 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.enums.BlockReason;
+import com.assignment.fileextension.exception.FileSizeLimitExceededException;
+import com.assignment.fileextension.exception.FileValidationException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+
+/**
+ * multipart 요청 본문을 직접 파싱해 파일 파트를 최종 저장 위치로 바로 흘려보내는 업로드 처리
+ * <ol>
+ *     <li>파트 헤더의 파일명으로 차단 여부 판단 (본문을 읽기 전)</li>
+ *     <li>본문 앞부분만 미리 보고 내용 형식 판단</li>
+ *     <li>크기를 세면서 최종 위치에 기록, 한도를 넘으면 즉시 중단</li>
+ *     <li>zip 형식이면 저장된 내용의 중앙 디렉터리로 내부 항목 확인</li>
+ * </ol>
+ * 일반 업로드와 달리 임시 파일에 한 번 더 쓰지 않으므로 디스크 쓰기가 파일 크기만큼만 발생합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StreamingUploadService {
+    
+    private static final String FILE_PART_NAME = "file";
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    
+    private final StorageService storageService;
+    private final FileValidationService fileValidationService;
+    private final AuditService auditService;
+    
+    /**
+     * 요청 본문에서 "file" 파트를 찾아 검증하고 저장합니다. 그 앞의 다른 파트는 읽어서 버립니다.
+     */
+    public StreamingUploadResult upload(HttpServletRequest request) throws IOException {
+        String boundary = MultipartStreamParser.boundaryOf(request.getContentType());
+        if (boundary == null) {
+            throw new FileValidationException("multipart/form-data 요청이 아닙니다.");
+        }
+        
+        MultipartStreamParser parser = new MultipartStreamParser(request.getInputStream(), boundary);
+        MultipartStreamParser.Part part;
+        while ((part = parser.nextPart()) != null) {
+            if (FILE_PART_NAME.equals(part.name()) && part.fileName() != null) {
+                return ingest(part, request);
+            }
+        }
+        
+        throw new FileValidationException("파일이 선택되지 않았습니다.");
+    }
+    
+    private StreamingUploadResult ingest(MultipartStreamParser.Part part, HttpServletRequest request) throws IOException {
+        long startTime = System.nanoTime();
+        String fileName = part.fileName();
+        long declaredSize = Math.max(request.getContentLengthLong(), 0);
+        
+        auditService.logUploadAttempt(fileName, declaredSize, request);
+        
+        // 파트 헤더의 파일명만으로 먼저 판단
+        FileValidationService.FileValidationResult nameResult = fileValidationService.validateDeclaredFileName(fileName);
+        if (nameResult.isBlocked()) {
+            return reject(fileName, declaredSize, request, nameResult);
+        }
+        
+        // 앞부분만 미리 보고 되돌림 - 차단되면 나머지 본문은 받지 않음
+        BufferedInputStream body = new BufferedInputStream(part.body(), STREAM_BUFFER_SIZE);
+        body.mark(FileExtensionConstants.FileLimit.CONTENT_SNIFF_BYTES);
+        byte[] head = body.readNBytes(FileExtensionConstants.FileLimit.CONTENT_SNIFF_BYTES);
+        body.reset();
+        
+        FileValidationService.FileValidationResult contentResult =
+                fileValidationService.validateContentHead(fileName, head, head.length);
+        if (contentResult.isBlocked()) {
+            return reject(fileName, declaredSize, request, contentResult);
+        }
+        
+        UploadedFile uploadedFile;
+        try {
+            uploadedFile = storageService.storeStream(fileName, part.contentType(), body);
+        } catch (FileSizeLimitExceededException e) {
+            return reject(fileName, declaredSize, request, FileValidationService.FileValidationResult.blocked(
+                    e.getReason(), BlockReason.FILE_SIZE_EXCEEDED));
+        }
+        
+        // 압축 파일은 저장된 내용에서 내부 항목을 확인하고, 차단되면 바로 삭제
+        // (filePath 는 pack 세그먼트일 수 있으므로 이 파일이 저장된 구간을 기준으로 확인)
+        FileValidationService.FileValidationResult archiveResult =
+                fileValidationService.validateStoredArchive(fileName, storageService.resolveContent(uploadedFile));
+        if (archiveResult.isBlocked()) {
+            storageService.deletePhysicalFile(uploadedFile.getId());
+            return reject(fileName, uploadedFile.getFileSize(), request, archiveResult);
+        }
+        
+        auditService.logSuccessfulUpload(fileName, uploadedFile.getFileSize(), request);
+        
+        long elapsedMillis = (System.nanoTime() - startTime) / 1_000_000;
+        log.info("스트리밍 업로드 완료: {} ({} bytes, {} ms)", fileName, uploadedFile.getFileSize(), elapsedMillis);
+        return StreamingUploadResult.stored(fileName, uploadedFile);
+    }
+    
+    private StreamingUploadResult reject(String fileName, long fileSize, HttpServletRequest request,
+                                         FileValidationService.FileValidationResult result) {
+        auditService.logBlockedUpload(fileName, fileSize, request, result);
+        log.warn(FileExtensionConstants.LogMessages.FILE_UPLOAD_BLOCKED, fileName, result.getReason());
+        return StreamingUploadResult.blocked(fileName, result);
+    }
+    
+    /**
+     * 스트리밍 업로드 결과. 저장되었으면 uploadedFile, 차단되었으면 validationResult 를 가집니다.
+     */
+    public record StreamingUploadResult(String fileName, UploadedFile uploadedFile,
+                                        FileValidationService.FileValidationResult validationResult) {
+        
+        static StreamingUploadResult stored(String fileName, UploadedFile uploadedFile) {
+            return new StreamingUploadResult(fileName, uploadedFile, FileValidationService.FileValidationResult.allowed());
+        }
+        
+        static StreamingUploadResult blocked(String fileName, FileValidationService.FileValidationResult validationResult) {
+            return new StreamingUploadResult(fileName, null, validationResult);
+        }
+        
+        public boolean isBlocked() {
+            return validationResult.isBlocked();
+        }
+    }
+}
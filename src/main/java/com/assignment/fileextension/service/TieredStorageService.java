@@ -0,0 +1,43 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 핫/콜드 티어 저장소
+ * <p>
+ * {@code app.storage.type=tiered} 일 때 사용됩니다. 새 파일은 항상 핫 티어(업로드 디렉터리)에 저장되고,
+ * {@link StorageTierMover} 가 나이와 다운로드 빈도에 따라 콜드 티어로 내리거나 다시 올립니다.
+ * 행의 storageTier/filePath 가 현재 위치를 가리키므로 다운로드는 두 티어를 확인하지 않고 바로 읽으며,
+ * 여기서는 다운로드마다 접근 기록만 남깁니다.
+ */
+@Service
+@Transactional
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "tiered")
+public class TieredStorageService extends FileStorageService {
+    
+    private final StorageTierMover storageTierMover;
+    
+    public TieredStorageService(UploadedFileRepository uploadedFileRepository,
+                                ContentAddressedStore contentAddressedStore,
+                                AtRestCompressionPolicy compressionPolicy,
+                                HotFileCache hotFileCache,
+                                StorageLayout storageLayout,
+                                PolicyEnforcement policyEnforcement,
+                                AuditService auditService,
+                                StorageTierMover storageTierMover) {
+        super(uploadedFileRepository, contentAddressedStore, compressionPolicy, hotFileCache,
+                storageLayout, policyEnforcement, auditService);
+        this.storageTierMover = storageTierMover;
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public StoredContent resolveContent(UploadedFile file) {
+        storageTierMover.recordAccess(file);
+        return super.resolveContent(file);
+    }
+}
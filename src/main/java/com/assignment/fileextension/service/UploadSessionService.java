@@ -0,0 +1,281 @@
+package com.assignment.fileextension.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.dto.UploadSessionDto;
+import com.assignment.fileextension.entity.UploadSession;
+import com.assignment.fileextension.entity.UploadSessionChunk;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadSessionChunkRepository;
+import com.assignment.fileextension.repository.UploadSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 재개 가능한 청크 업로드
+ * <p>
+ * 세션을 만들 때 전체 크기의 조립 파일({@code {upload-dir}/.sessions/{id}.part})을 미리 잡아 두고,
+ * 각 청크는 도착 순서와 관계없이 {@link FileChannel#write(ByteBuffer, long)} 로 제 위치에 바로 기록합니다.
+ * 커밋은 청크를 다시 복사하지 않고 조립 파일을 최종 위치로 옮기기만 합니다.
+ * 파일명 검증은 세션 생성 시점에 끝나므로 차단된 파일은 한 바이트도 전송되지 않습니다.
+ * 청크 기록은 세션 행의 공유 잠금을, 커밋은 배타 잠금을 잡으므로 검증이 끝난 조립 파일에 쓰기가 끼어들지 못합니다.
+ */
+@Slf4j
+@Service
+public class UploadSessionService {
+    
+    private static final String SESSION_DIR = ".sessions";
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    
+    private final UploadSessionRepository uploadSessionRepository;
+    private final UploadSessionChunkRepository uploadSessionChunkRepository;
+    private final StorageService storageService;
+    private final FileValidationService fileValidationService;
+    // 청크 기록은 바깥 트랜잭션과 따로 커밋해, 같은 청크의 동시 재시도가 바깥 트랜잭션을 롤백시키지 않게 함
+    private final TransactionTemplate chunkTransaction;
+    
+    @Value("${app.file.upload-dir:uploads}")
+    private String uploadBaseDir;
+    
+    public UploadSessionService(UploadSessionRepository uploadSessionRepository,
+                                UploadSessionChunkRepository uploadSessionChunkRepository,
+                                StorageService storageService,
+                                FileValidationService fileValidationService,
+                                PlatformTransactionManager transactionManager) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.uploadSessionChunkRepository = uploadSessionChunkRepository;
+        this.storageService = storageService;
+        this.fileValidationService = fileValidationService;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+    
+    /**
+     * 세션을 만들고 조립 파일을 전체 크기로 미리 할당합니다. (파일명/크기 검증은 호출 전에 완료)
+     */
+    @Transactional
+    public UploadSessionDto createSession(String fileName, long fileSize, String contentType) throws IOException {
+        String sessionId = UUID.randomUUID().toString();
+        LocalDateTime expiresAt = LocalDateTime.now().plusHours(FileExtensionConstants.FileLimit.UPLOAD_SESSION_TTL_HOURS);
+        UploadSession session = UploadSession.open(sessionId, fileName, contentType, fileSize,
+                FileExtensionConstants.FileLimit.UPLOAD_CHUNK_SIZE, expiresAt);
+        
+        Path assembledFile = assembledFile(sessionId);
+        Files.createDirectories(assembledFile.getParent());
+        try (RandomAccessFile file = new RandomAccessFile(assembledFile.toFile(), "rw")) {
+            file.setLength(fileSize);
+        }
+        
+        uploadSessionRepository.save(session);
+        log.info("업로드 세션 생성: {} ({}, {} bytes, 청크 {}개)", sessionId, fileName, fileSize, session.getChunkCount());
+        return UploadSessionDto.from(session, List.of());
+    }
+    
+    /**
+     * 세션 상태와 이미 받은 청크 번호를 조회합니다.
+     */
+    @Transactional(readOnly = true)
+    public UploadSessionDto getSession(String sessionId) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException(FileExtensionConstants.Messages.UPLOAD_SESSION_NOT_FOUND));
+        return UploadSessionDto.from(session, uploadSessionChunkRepository.findChunkIndexes(sessionId));
+    }
+    
+    /**
+     * 청크 하나를 조립 파일의 제 위치에 기록합니다. 같은 청크를 다시 보내면 덮어쓰므로 재시도해도 안전합니다.
+     * 청크마다 독립적으로 처리되므로 여러 청크를 동시에 보내도 됩니다.
+     * 기록하는 동안 세션 행의 공유 잠금을 잡고 그 아래에서 OPEN 상태를 확인하므로,
+     * 커밋은 진행 중인 기록이 끝난 뒤에 검증하고, 커밋 이후에 도착한 청크는 거부됩니다.
+     *
+     * @return 지금까지 받은 청크 수
+     */
+    @Transactional
+    public long writeChunk(String sessionId, int chunkIndex, InputStream content) throws IOException {
+        UploadSession session = findOpenSession(sessionId);
+        long expectedLength = session.chunkLength(chunkIndex);
+        if (expectedLength < 0) {
+            throw new IllegalArgumentException(FileExtensionConstants.Messages.INVALID_CHUNK);
+        }
+        
+        long position = session.chunkOffset(chunkIndex);
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(assembledFile(sessionId), StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[WRITE_BUFFER_SIZE];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                if (written + read > expectedLength) {
+                    throw new IllegalArgumentException(FileExtensionConstants.Messages.INVALID_CHUNK);
+                }
+                ByteBuffer byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+                while (byteBuffer.hasRemaining()) {
+                    written += channel.write(byteBuffer, position + written);
+                }
+            }
+        }
+        if (written != expectedLength) {
+            throw new IllegalArgumentException(FileExtensionConstants.Messages.INVALID_CHUNK);
+        }
+        
+        recordChunk(sessionId, chunkIndex);
+        return uploadSessionChunkRepository.countBySessionId(sessionId);
+    }
+    
+    /**
+     * 모든 청크가 도착했으면 내용을 검증하고 조립 파일을 최종 위치로 옮겨 저장합니다.
+     * 이미 완료된 세션을 다시 커밋하면 같은 결과를 돌려줍니다.
+     */
+    @Transactional
+    public CommitResult commit(String sessionId) throws IOException {
+        UploadSession session = uploadSessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException(FileExtensionConstants.Messages.UPLOAD_SESSION_NOT_FOUND));
+        
+        if (session.getStatus() == UploadSession.SessionStatus.COMPLETED) {
+            return CommitResult.stored(session, storageService.findById(session.getUploadedFileId()));
+        }
+        if (!session.isOpenAt(LocalDateTime.now())) {
+            throw new IllegalArgumentException(FileExtensionConstants.Messages.UPLOAD_SESSION_NOT_FOUND);
+        }
+        
+        long missing = session.getChunkCount() - uploadSessionChunkRepository.countBySessionId(sessionId);
+        if (missing > 0) {
+            throw new IllegalArgumentException(
+                    String.format("%s: %d개", FileExtensionConstants.Messages.UPLOAD_SESSION_INCOMPLETE, missing));
+        }
+        
+        Path assembledFile = assembledFile(sessionId);
+        FileValidationService.FileValidationResult validationResult = validateAssembledFile(session, assembledFile);
+        if (validationResult.isBlocked()) {
+            discard(session);
+            return CommitResult.blocked(session, validationResult);
+        }
+        
+        UploadedFile uploadedFile = storageService.storeAssembledFile(
+                session.getOriginalFilename(), session.getContentType(), assembledFile);
+        session.complete(uploadedFile.getId());
+        uploadSessionChunkRepository.deleteAllBySessionId(sessionId);
+        
+        log.info("업로드 세션 완료: {} -> 파일 ID {}", sessionId, uploadedFile.getId());
+        return CommitResult.stored(session, uploadedFile);
+    }
+    
+    /**
+     * 세션을 취소하고 조립 중이던 파일을 삭제합니다.
+     */
+    @Transactional
+    public void abort(String sessionId) throws IOException {
+        UploadSession session = uploadSessionRepository.findByIdForUpdate(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException(FileExtensionConstants.Messages.UPLOAD_SESSION_NOT_FOUND));
+        if (session.getStatus() == UploadSession.SessionStatus.OPEN) {
+            discard(session);
+            log.info("업로드 세션 취소: {}", sessionId);
+        }
+    }
+    
+    /**
+     * 만료된 세션의 조립 파일과 청크 기록을 정리합니다.
+     */
+    @Scheduled(fixedDelayString = "${app.upload.session-cleanup-interval-ms:600000}")
+    @Transactional
+    public void cleanupExpiredSessions() {
+        List<UploadSession> expired = uploadSessionRepository.findByStatusAndExpiresAtBefore(
+                UploadSession.SessionStatus.OPEN, LocalDateTime.now());
+        
+        for (UploadSession session : expired) {
+            try {
+                discard(session);
+            } catch (IOException e) {
+                log.error("만료된 업로드 세션 정리 실패: {} - {}", session.getId(), e.getMessage());
+            }
+        }
+        
+        if (!expired.isEmpty()) {
+            log.info("만료된 업로드 세션 {}개 정리", expired.size());
+        }
+    }
+    
+    private FileValidationService.FileValidationResult validateAssembledFile(UploadSession session, Path assembledFile)
+            throws IOException {
+        byte[] head;
+        try (InputStream inputStream = Files.newInputStream(assembledFile)) {
+            head = inputStream.readNBytes(FileExtensionConstants.FileLimit.CONTENT_SNIFF_BYTES);
+        }
+        
+        FileValidationService.FileValidationResult contentResult =
+                fileValidationService.validateContentHead(session.getOriginalFilename(), head, head.length);
+        if (contentResult.isBlocked()) {
+            return contentResult;
+        }
+        return fileValidationService.validateStoredArchive(session.getOriginalFilename(),
+                StoredContent.wholeFile(assembledFile, Files.size(assembledFile)));
+    }
+    
+    private UploadSession findOpenSession(String sessionId) {
+        UploadSession session = uploadSessionRepository.findByIdForShare(sessionId)
+                .orElseThrow(() -> new IllegalArgumentException(FileExtensionConstants.Messages.UPLOAD_SESSION_NOT_FOUND));
+        if (!session.isOpenAt(LocalDateTime.now())) {
+            throw new IllegalArgumentException(FileExtensionConstants.Messages.UPLOAD_SESSION_NOT_FOUND);
+        }
+        return session;
+    }
+    
+    private void recordChunk(String sessionId, int chunkIndex) {
+        if (uploadSessionChunkRepository.existsBySessionIdAndChunkIndex(sessionId, chunkIndex)) {
+            return;
+        }
+        try {
+            chunkTransaction.executeWithoutResult(status ->
+                    uploadSessionChunkRepository.saveAndFlush(UploadSessionChunk.received(sessionId, chunkIndex)));
+        } catch (DataIntegrityViolationException e) {
+            // 같은 청크의 재시도가 동시에 도착한 경우 - 이미 기록됨
+            log.debug("이미 기록된 청크: {} #{}", sessionId, chunkIndex);
+        }
+    }
+    
+    private void discard(UploadSession session) throws IOException {
+        session.abort();
+        uploadSessionChunkRepository.deleteAllBySessionId(session.getId());
+        Files.deleteIfExists(assembledFile(session.getId()));
+    }
+    
+    private Path assembledFile(String sessionId) {
+        return Paths.get(uploadBaseDir, SESSION_DIR, sessionId + ".part");
+    }
+    
+    /**
+     * 커밋 결과. 저장되었으면 uploadedFile, 내용 검증에서 차단되었으면 validationResult 를 가집니다.
+     */
+    public record CommitResult(UploadSession session, UploadedFile uploadedFile,
+                               FileValidationService.FileValidationResult validationResult) {
+        
+        static CommitResult stored(UploadSession session, UploadedFile uploadedFile) {
+            return new CommitResult(session, uploadedFile, FileValidationService.FileValidationResult.allowed());
+        }
+        
+        static CommitResult blocked(UploadSession session, FileValidationService.FileValidationResult validationResult) {
+            return new CommitResult(session, null, validationResult);
+        }
+        
+        public boolean isBlocked() {
+            return validationResult.isBlocked();
+        }
+    }
+}
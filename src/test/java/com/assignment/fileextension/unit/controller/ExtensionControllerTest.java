@@ -1,9 +1,17 @@
 package com.assignment.fileextension.unit.controller;
 
+import com.assignment.fileextension.common.FileExtensionConstants;
 import com.assignment.fileextension.controller.ExtensionController;
 import com.assignment.fileextension.dto.CustomExtensionDto;
+import com.assignment.fileextension.dto.ExtensionBulkRequest;
+import com.assignment.fileextension.dto.ExtensionBulkResultDto;
+import com.assignment.fileextension.dto.ExtensionCheckBatchRequest;
+import com.assignment.fileextension.dto.ExtensionCheckResultDto;
 import com.assignment.fileextension.dto.ExtensionRequest;
 import com.assignment.fileextension.dto.FixedExtensionSettingDto;
+import com.assignment.fileextension.dto.PolicyVersionDto;
+import com.assignment.fileextension.service.ExtensionCheckService;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
 import com.assignment.fileextension.service.ExtensionService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
@@ -13,16 +21,27 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.spy;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -36,6 +55,9 @@ class ExtensionControllerTest {
     @MockBean
     private ExtensionService extensionService;
 
+    @MockBean
+    private ExtensionCheckService extensionCheckService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -121,6 +143,29 @@ class ExtensionControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("확장자 정책 일괄 변경")
+    void applyBulkChange() throws Exception {
+        ExtensionBulkResultDto result = ExtensionBulkResultDto.builder()
+            .updatedFixedExtensions(List.of(
+                new FixedExtensionSettingDto(1L, "exe", true, LocalDateTime.now(), LocalDateTime.now())))
+            .addedCustomExtensions(List.of(new CustomExtensionDto(3L, "sh")))
+            .removedCustomExtensions(List.of())
+            .purgedExtensions(List.of("exe", "sh"))
+            .build();
+        given(extensionService.applyBulkChange(any(ExtensionBulkRequest.class))).willReturn(result);
+
+        ExtensionBulkRequest request = new ExtensionBulkRequest(Map.of("exe", true), List.of("sh"), null);
+
+        mockMvc.perform(post("/api/extensions/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.updatedFixedExtensions[0].extension").value("exe"))
+                .andExpect(jsonPath("$.addedCustomExtensions[0].extension").value("sh"))
+                .andExpect(jsonPath("$.purgedExtensions.length()").value(2));
+    }
+
     @Test
     @DisplayName("파일 확장자 차단 여부 확인 - 차단된 파일")
     void checkExtension_blocked() throws Exception {
@@ -160,4 +205,143 @@ class ExtensionControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.isBlocked").value(true));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("노드별 정책 버전 조회")
+    void getPolicyVersion() throws Exception {
+        PolicyVersionDto policyVersion = new PolicyVersionDto(
+            "node-1", 7L, LocalDateTime.now().minusSeconds(1), LocalDateTime.now(), 1000L);
+
+        given(extensionService.getPolicyVersion()).willReturn(policyVersion);
+
+        mockMvc.perform(get("/api/extensions/policy/version"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Policy-Version", "7"))
+                .andExpect(jsonPath("$.nodeId").value("node-1"))
+                .andExpect(jsonPath("$.version").value(7));
+    }
+
+    @Test
+    @DisplayName("파일명 일괄 차단 확인 - JSON")
+    void checkExtensions_batch() throws Exception {
+        List<String> fileNames = List.of("report.pdf", "setup.exe");
+        given(extensionCheckService.checkFileNames(eq(fileNames), anyMap()))
+            .willReturn(List.of(
+                ExtensionCheckResultDto.allowed("report.pdf"),
+                ExtensionCheckResultDto.blocked("setup.exe", "exe")));
+
+        ExtensionCheckBatchRequest request = new ExtensionCheckBatchRequest(fileNames, Map.of("exe", true));
+
+        mockMvc.perform(post("/api/extensions/check/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fileName").value("report.pdf"))
+                .andExpect(jsonPath("$[0].blocked").value(false))
+                .andExpect(jsonPath("$[1].blocked").value(true))
+                .andExpect(jsonPath("$[1].blockedExtension").value("exe"))
+                .andExpect(jsonPath("$[1].blockReason").value("BLOCKED_EXTENSION"));
+    }
+
+    @Test
+    @DisplayName("파일명 일괄 차단 확인 - 파일명 목록 누락")
+    void checkExtensions_batchWithoutFileNames() throws Exception {
+        mockMvc.perform(post("/api/extensions/check/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.field").value("fileNames"));
+    }
+
+    @Test
+    @DisplayName("파일명 일괄 차단 확인 - NDJSON 스트림")
+    void checkExtensions_ndjsonStream() throws Exception {
+        ExtensionPolicySnapshot policy = ExtensionPolicySnapshot.of(Map.of("exe", true), List.of());
+        ExtensionCheckService realService = new ExtensionCheckService(null);
+        given(extensionCheckService.resolvePolicy(any())).willReturn(policy);
+        given(extensionCheckService.checkFileNames(any(ExtensionPolicySnapshot.class), anyList()))
+            .willAnswer(invocation -> realService.checkFileNames(policy, invocation.<List<String>>getArgument(1)));
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/extensions/check/batch")
+                .contentType("application/x-ndjson")
+                .accept("application/x-ndjson")
+                .content("report.pdf\n\"setup.exe\"\n{\"fileName\":\"a.exe.txt\"}\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"fileName\":\"report.pdf\",\"blocked\":false")))
+                .andExpect(content().string(containsString("\"fileName\":\"setup.exe\",\"blocked\":true")))
+                .andExpect(content().string(containsString("\"fileName\":\"a.exe.txt\",\"blocked\":true")));
+    }
+
+    @Test
+    @DisplayName("파일명 일괄 차단 확인 - NDJSON 한 줄이 한도를 넘으면 잘못된 파일명으로 응답하고 다음 줄을 계속 확인")
+    void checkExtensions_ndjsonStreamOversizedLine() throws Exception {
+        ExtensionPolicySnapshot policy = ExtensionPolicySnapshot.of(Map.of("exe", true), List.of());
+        ExtensionCheckService realService = new ExtensionCheckService(null);
+        given(extensionCheckService.resolvePolicy(any())).willReturn(policy);
+        given(extensionCheckService.checkFileNames(any(ExtensionPolicySnapshot.class), anyList()))
+            .willAnswer(invocation -> realService.checkFileNames(policy, invocation.<List<String>>getArgument(1)));
+        String oversized = "a".repeat(FileExtensionConstants.FileLimit.MAX_NDJSON_LINE_LENGTH * 4) + ".txt";
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/extensions/check/batch")
+                .contentType("application/x-ndjson")
+                .accept("application/x-ndjson")
+                .content(oversized + "\r\nsetup.exe\r\n"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"blockReason\":\"INVALID_FILENAME\"")))
+                .andExpect(content().string(not(containsString(oversized))))
+                .andExpect(content().string(containsString("\"fileName\":\"setup.exe\",\"blocked\":true")));
+    }
+
+    @Test
+    @DisplayName("파일명 일괄 차단 확인 - NDJSON 스트림의 가득 찬 청크는 병렬로 확인")
+    void checkExtensions_ndjsonStreamChecksFullChunksInParallel() throws Exception {
+        ExtensionPolicySnapshot policy = spy(ExtensionPolicySnapshot.of(Map.of("exe", true), List.of()));
+        ExtensionCheckService realService = new ExtensionCheckService(null);
+        List<Integer> chunkSizes = new CopyOnWriteArrayList<>();
+        CountDownLatch workerSeen = new CountDownLatch(1);
+        AtomicBoolean callerWaited = new AtomicBoolean();
+        willAnswer(invocation -> {
+            // 호출 스레드가 첫 항목에서 잠시 기다리는 동안 나뉜 작업을 풀 작업자가 가져가야 함
+            if (Thread.currentThread() instanceof ForkJoinWorkerThread) {
+                workerSeen.countDown();
+            } else if (callerWaited.compareAndSet(false, true)) {
+                workerSeen.await(5, TimeUnit.SECONDS);
+            }
+            return invocation.callRealMethod();
+        }).given(policy).findBlockedExtension(anyString());
+        given(extensionCheckService.resolvePolicy(any())).willReturn(policy);
+        given(extensionCheckService.checkFileNames(any(ExtensionPolicySnapshot.class), anyList()))
+            .willAnswer(invocation -> {
+                List<String> chunk = invocation.getArgument(1);
+                chunkSizes.add(chunk.size());
+                return realService.checkFileNames(policy, chunk);
+            });
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < FileExtensionConstants.FileLimit.BATCH_CHECK_CHUNK_SIZE + 1; i++) {
+            content.append("file").append(i).append(i % 2 == 0 ? ".exe" : ".txt").append('\n');
+        }
+
+        MvcResult asyncResult = mockMvc.perform(post("/api/extensions/check/batch")
+                .contentType("application/x-ndjson")
+                .accept("application/x-ndjson")
+                .content(content.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"fileName\":\"file0.exe\",\"blocked\":true")));
+
+        assertThat(chunkSizes.get(0)).isGreaterThanOrEqualTo(FileExtensionConstants.FileLimit.PARALLEL_CHECK_THRESHOLD);
+        assertThat(chunkSizes).containsExactly(FileExtensionConstants.FileLimit.BATCH_CHECK_CHUNK_SIZE, 1);
+        assertThat(workerSeen.getCount()).isZero();
+    }
+}
@@ -0,0 +1,125 @@
+package com.assignment.fileextension.unit.controller;
+
+import com.assignment.fileextension.controller.FileManagementController;
+import com.assignment.fileextension.dto.HotFileCacheStatsDto;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.service.FileDownloadService;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.StorageReconciler;
+import com.assignment.fileextension.service.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(FileManagementController.class)
+@DisplayName("FileManagementController 단위 테스트")
+class FileManagementControllerTest {
+
+    private static final String ETAG = "\"1-c-18cc4a1e3c0\"";
+    private static final long LAST_MODIFIED = 1_704_110_400_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StorageService storageService;
+
+    @MockBean
+    private FileDownloadService fileDownloadService;
+
+    @MockBean
+    private HotFileCache hotFileCache;
+
+    @MockBean
+    private StorageReconciler storageReconciler;
+
+    private UploadedFile file;
+
+    @BeforeEach
+    void setUp() {
+        file = UploadedFile.builder()
+            .id(1L)
+            .originalFilename("report.pdf")
+            .storedFilename("stored-report.pdf")
+            .filePath("/uploads/stored-report.pdf")
+            .fileSize(12L)
+            .updatedAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+            .build();
+        given(storageService.findById(1L)).willReturn(file);
+        given(fileDownloadService.findFile(1L)).willReturn(file);
+        given(fileDownloadService.entityTag(eq(file), any())).willReturn(ETAG);
+        given(fileDownloadService.lastModified(file)).willReturn(LAST_MODIFIED);
+    }
+
+    @Test
+    @DisplayName("다운로드 - If-None-Match 가 일치하면 파일을 열지 않고 304")
+    void download_notModified() throws Exception {
+        mockMvc.perform(get("/api/files/1/download").header("If-None-Match", ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", ETAG));
+
+        verify(fileDownloadService, never()).download(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("다운로드 HEAD - 메타데이터만으로 응답")
+    void head_answersFromMetadata() throws Exception {
+        mockMvc.perform(head("/api/files/1/download"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", ETAG))
+                .andExpect(header().exists("Last-Modified"));
+
+        verify(fileDownloadService).writeHeadResponse(any(), any(), any());
+        verify(fileDownloadService, never()).download(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("파일 정보 조회 - If-None-Match 가 일치하면 304")
+    void getFile_notModified() throws Exception {
+        given(fileDownloadService.metadataEntityTag(file)).willReturn("\"meta-1\"");
+
+        mockMvc.perform(get("/api/files/1").header("If-None-Match", "\"meta-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @DisplayName("캐시 통계 조회")
+    void getCacheStats() throws Exception {
+        given(hotFileCache.stats()).willReturn(HotFileCacheStatsDto.builder()
+                .hits(9L).misses(1L).hitRate(0.9).contentHits(5L).evictions(0L)
+                .entries(1).weightBytes(1024L).maxBytes(4096L)
+                .build());
+
+        mockMvc.perform(get("/api/files/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hitRate").value(0.9))
+                .andExpect(jsonPath("$.contentHits").value(5));
+    }
+
+    @Test
+    @DisplayName("정합성 점검 - 이미 진행 중이면 409")
+    void startReconcile_conflictWhenRunning() throws Exception {
+        given(storageReconciler.start(true)).willReturn(false);
+
+        mockMvc.perform(post("/api/files/reconcile").param("fix", "true"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.started").value(false));
+    }
+}
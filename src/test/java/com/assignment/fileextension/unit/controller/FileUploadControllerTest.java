@@ -6,6 +6,8 @@ import com.assignment.fileextension.enums.BlockReason;
 import com.assignment.fileextension.service.AuditService;
 import com.assignment.fileextension.service.FileValidationService;
 import com.assignment.fileextension.service.StorageService;
+import com.assignment.fileextension.service.StoredContent;
+import com.assignment.fileextension.service.StreamingUploadService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,13 +17,18 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FileUploadController.class)
@@ -40,6 +47,9 @@ class FileUploadControllerTest {
     @MockBean
     private AuditService auditService;
 
+    @MockBean
+    private StreamingUploadService streamingUploadService;
+
     @Test
     @DisplayName("파일 업로드 성공")
     void uploadFile_success() throws Exception {
@@ -56,9 +66,11 @@ class FileUploadControllerTest {
             .createdAt(LocalDateTime.now())
             .build();
 
-        given(fileValidationService.validateFile(any()))
+        given(fileValidationService.validateBeforeStore(any()))
             .willReturn(FileValidationService.FileValidationResult.allowed());
         given(storageService.storeFile(any())).willReturn(uploadedFile);
+        given(fileValidationService.validateStoredArchive(any(), any()))
+            .willReturn(FileValidationService.FileValidationResult.allowed());
         doNothing().when(auditService).logUploadAttempt(any(), any());
         doNothing().when(auditService).logSuccessfulUpload(any(), any());
 
@@ -84,7 +96,7 @@ class FileUploadControllerTest {
                 "exe"
             );
 
-        given(fileValidationService.validateFile(any())).willReturn(blockedResult);
+        given(fileValidationService.validateBeforeStore(any())).willReturn(blockedResult);
         doNothing().when(auditService).logUploadAttempt(any(), any());
         doNothing().when(auditService).logBlockedUpload(any(), any(), any());
 
@@ -93,6 +105,42 @@ class FileUploadControllerTest {
                 .andExpect(jsonPath("$.error").value("차단된 확장자입니다: exe"))
                 .andExpect(jsonPath("$.fileName").value("malware.exe"))
                 .andExpect(jsonPath("$.blockedExtension").value("exe"));
+        verify(storageService, never()).storeFile(any());
+    }
+
+    @Test
+    @DisplayName("파일 업로드 실패 - 저장된 압축 파일 내부의 차단 항목은 바로 삭제")
+    void uploadFile_archiveBlockedAfterStore() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "tools.zip", "application/zip", "zip content".getBytes()
+        );
+        UploadedFile uploadedFile = UploadedFile.builder()
+            .id(7L)
+            .originalFilename("tools.zip")
+            .storedFilename("stored-tools.zip")
+            .fileSize(11L)
+            .filePath("/uploads/stored-tools.zip")
+            .build();
+        StoredContent storedContent = StoredContent.wholeFile(Path.of("/uploads/stored-tools.zip"), 11L);
+        FileValidationService.FileValidationResult blockedResult =
+            FileValidationService.FileValidationResult.blocked(
+                "압축 파일에 차단된 항목이 있습니다: bin/setup.exe",
+                BlockReason.BLOCKED_ARCHIVE_ENTRY,
+                "exe"
+            );
+
+        given(fileValidationService.validateBeforeStore(any()))
+            .willReturn(FileValidationService.FileValidationResult.allowed());
+        given(storageService.storeFile(any())).willReturn(uploadedFile);
+        given(storageService.resolveContent(uploadedFile)).willReturn(storedContent);
+        given(fileValidationService.validateStoredArchive("tools.zip", storedContent)).willReturn(blockedResult);
+
+        mockMvc.perform(multipart("/api/upload/file").file(file))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.fileName").value("tools.zip"))
+                .andExpect(jsonPath("$.blockedExtension").value("exe"));
+        verify(storageService).deletePhysicalFile(7L);
+        verify(auditService, never()).logSuccessfulUpload(any(MultipartFile.class), any());
     }
 
     @Test
@@ -148,4 +196,24 @@ class FileUploadControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.error").value("파일이 선택되지 않았습니다."));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("스트리밍 업로드 - 크기 초과는 413 과 함께 연결 종료")
+    void uploadFileStream_sizeExceeded() throws Exception {
+        FileValidationService.FileValidationResult blockedResult =
+            FileValidationService.FileValidationResult.blocked(
+                "파일 크기가 최대 허용 크기(10485760 bytes)를 초과합니다.",
+                BlockReason.FILE_SIZE_EXCEEDED
+            );
+        given(streamingUploadService.upload(any()))
+            .willReturn(new StreamingUploadService.StreamingUploadResult("large.bin", null, blockedResult));
+
+        mockMvc.perform(post("/api/upload/stream")
+                        .contentType("multipart/form-data; boundary=test-boundary")
+                        .content("--test-boundary--\r\n"))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(header().string("Connection", "close"))
+                .andExpect(jsonPath("$.fileName").value("large.bin"))
+                .andExpect(jsonPath("$.blockReason").value("FILE_SIZE_EXCEEDED"));
+    }
+}
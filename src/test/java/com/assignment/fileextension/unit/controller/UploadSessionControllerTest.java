@@ -0,0 +1,53 @@
+package com.assignment.fileextension.unit.controller;
+
+import com.assignment.fileextension.controller.UploadSessionController;
+import com.assignment.fileextension.service.AuditService;
+import com.assignment.fileextension.service.FileValidationService;
+import com.assignment.fileextension.service.UploadSessionService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(UploadSessionController.class)
+@TestPropertySource(properties = "app.file.max-size=1048576")
+@DisplayName("UploadSessionController 단위 테스트")
+class UploadSessionControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UploadSessionService uploadSessionService;
+
+    @MockBean
+    private FileValidationService fileValidationService;
+
+    @MockBean
+    private AuditService auditService;
+
+    @Test
+    @DisplayName("세션 생성 실패 - 선언한 크기가 설정된 최대 파일 크기를 넘으면 청크를 받기 전에 차단")
+    void createSession_declaredSizeOverConfiguredLimit() throws Exception {
+        mockMvc.perform(post("/api/upload/sessions")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"fileName\":\"backup.tar\",\"fileSize\":2097152}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.blockReason").value("FILE_SIZE_EXCEEDED"))
+                .andExpect(jsonPath("$.error").value("파일 크기가 최대 허용 크기(1048576 bytes)를 초과합니다."));
+
+        verify(uploadSessionService, never()).createSession(anyString(), anyLong(), any());
+    }
+}
@@ -0,0 +1,117 @@
+package com.assignment.fileextension.unit.filter;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.enums.BlockReason;
+import com.assignment.fileextension.filter.UploadPreCheckFilter;
+import com.assignment.fileextension.service.AuditService;
+import com.assignment.fileextension.service.FileValidationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UploadPreCheckFilter 단위 테스트")
+class UploadPreCheckFilterTest {
+
+    @Mock
+    private FileValidationService fileValidationService;
+
+    @Mock
+    private AuditService auditService;
+
+    private static final long MAX_FILE_SIZE = 1024 * 1024;
+
+    private UploadPreCheckFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new UploadPreCheckFilter(fileValidationService, auditService, new ObjectMapper(), MAX_FILE_SIZE);
+    }
+
+    @Test
+    @DisplayName("헤더 파일명이 차단 대상이면 본문을 읽지 않고 400 응답과 감사 로그 기록")
+    void rejectBlockedDeclaredFileName() throws Exception {
+        MockHttpServletRequest request = uploadRequest(1024);
+        request.addHeader(UploadPreCheckFilter.FILE_NAME_HEADER, "%EC%95%85%EC%84%B1.exe");
+        FileValidationService.FileValidationResult blocked = FileValidationService.FileValidationResult.blocked(
+            "차단된 확장자가 포함되어 있습니다: exe", BlockReason.BLOCKED_EXTENSION, "exe");
+        given(fileValidationService.validateDeclaredFileName("악성.exe")).willReturn(blocked);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(400);
+        assertThat(response.getHeader("Connection")).isEqualTo("close");
+        assertThat(response.getContentAsString()).contains("\"blockedExtension\":\"exe\"");
+        assertThat(chain.getRequest()).isNull();
+        verify(auditService).logBlockedUpload(eq("악성.exe"), eq(1024L), any(), eq(blocked));
+    }
+
+    @Test
+    @DisplayName("Content-Length 가 설정된 최대 크기를 넘으면 413 응답")
+    void rejectOversizedRequest() throws Exception {
+        // 고정 상수(100MB)보다 한참 작아도 설정값을 넘으면 차단
+        long contentLength = MAX_FILE_SIZE + FileExtensionConstants.FileLimit.MULTIPART_OVERHEAD_BYTES + 1;
+        assertThat(contentLength).isLessThan(FileExtensionConstants.FileLimit.MAX_FILE_SIZE_BYTES);
+        MockHttpServletRequest request = uploadRequest(contentLength);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(413);
+        assertThat(response.getContentAsString()).contains(String.valueOf(MAX_FILE_SIZE));
+        assertThat(chain.getRequest()).isNull();
+        verify(auditService).logBlockedUpload(anyString(), anyLong(), any(),
+            any(FileValidationService.FileValidationResult.class));
+        verify(fileValidationService, never()).validateDeclaredFileName(any());
+    }
+
+    @Test
+    @DisplayName("허용된 파일명이거나 헤더가 없으면 다음 필터로 진행")
+    void passAllowedRequest() throws Exception {
+        MockHttpServletRequest request = uploadRequest(1024);
+        request.addHeader(UploadPreCheckFilter.FILE_NAME_HEADER, "report.pdf");
+        given(fileValidationService.validateDeclaredFileName("report.pdf"))
+            .willReturn(FileValidationService.FileValidationResult.allowed());
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+
+        MockFilterChain chainWithoutHeader = new MockFilterChain();
+        MockHttpServletRequest withoutHeader = uploadRequest(1024);
+        filter.doFilter(withoutHeader, new MockHttpServletResponse(), chainWithoutHeader);
+
+        assertThat(chainWithoutHeader.getRequest()).isSameAs(withoutHeader);
+        verify(auditService, never()).logBlockedUpload(anyString(), anyLong(), any(), any());
+    }
+
+    private MockHttpServletRequest uploadRequest(long contentLength) {
+        // 본문 없이 Content-Length 만 선언된 요청 (본문을 실제로 만들지 않음)
+        return new MockHttpServletRequest("POST", "/api/upload/file") {
+            @Override
+            public long getContentLengthLong() {
+                return contentLength;
+            }
+        };
+    }
+}
@@ -0,0 +1,133 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.enums.BlockReason;
+import com.assignment.fileextension.service.ArchiveInspector;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ArchiveInspector 단위 테스트")
+class ArchiveInspectorTest {
+
+    private final ArchiveInspector inspector = new ArchiveInspector();
+    private final ExtensionPolicySnapshot policy =
+            ExtensionPolicySnapshot.of(Map.of("exe", true, "bat", false), List.of("sh"));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("중첩된 압축 파일 내부의 차단 항목 발견")
+    void inspect_nestedArchive() throws IOException {
+        byte[] inner = zip(entries("a.txt", "text".getBytes(), "scripts/run.sh", "echo".getBytes()));
+        byte[] outer = zip(entries("readme.txt", "hi".getBytes(), "lib/inner.zip", inner));
+
+        ArchiveInspector.Finding finding = inspector.inspect(new ByteArrayInputStream(outer), policy);
+
+        assertThat(finding.blockReason()).isEqualTo(BlockReason.BLOCKED_ARCHIVE_ENTRY);
+        assertThat(finding.entryPath()).isEqualTo("lib/inner.zip!/scripts/run.sh");
+        assertThat(finding.blockedExtension()).isEqualTo("sh");
+    }
+
+    @Test
+    @DisplayName("허용된 확장자만 있으면 통과")
+    void inspect_allowedEntries() throws IOException {
+        byte[] archive = zip(entries("a.txt", "a".getBytes(), "run.bat", "b".getBytes()));
+
+        assertThat(inspector.inspect(new ByteArrayInputStream(archive), policy)).isNull();
+    }
+
+    @Test
+    @DisplayName("zip 이 아니면 검사하지 않음")
+    void inspect_notZip() throws IOException {
+        assertThat(inspector.inspect(new ByteArrayInputStream("plain text".getBytes()), policy)).isNull();
+    }
+
+    @Test
+    @DisplayName("압축률이 비정상적으로 높은 항목은 끝까지 풀지 않고 차단")
+    void inspect_compressionBomb() throws IOException {
+        byte[] archive = zip(entries("zeros.txt", new byte[32 * 1024 * 1024]));
+
+        ArchiveInspector.Finding finding = inspector.inspect(new ByteArrayInputStream(archive), policy);
+
+        assertThat(finding.blockReason()).isEqualTo(BlockReason.SUSPICIOUS_ARCHIVE);
+    }
+
+    @Test
+    @DisplayName("중첩 깊이 한도 초과 시 차단")
+    void inspect_tooDeep() throws IOException {
+        byte[] archive = zip(entries("payload.exe", new byte[1]));
+        for (int i = 0; i < 5; i++) {
+            archive = zip(entries("level" + i + ".zip", archive));
+        }
+
+        ArchiveInspector.Finding finding = inspector.inspect(new ByteArrayInputStream(archive), policy);
+
+        assertThat(finding.blockReason()).isEqualTo(BlockReason.SUSPICIOUS_ARCHIVE);
+    }
+
+    @Test
+    @DisplayName("디스크의 압축 파일은 중앙 디렉터리로 검사")
+    void inspect_pathCentralDirectory() throws IOException {
+        Path file = tempDir.resolve("tools.zip");
+        Files.write(file, zip(entries("docs/readme.txt", "hi".getBytes(), "bin/setup.EXE", "MZ".getBytes())));
+
+        ArchiveInspector.Finding finding = inspector.inspect(file, policy);
+
+        assertThat(finding.blockReason()).isEqualTo(BlockReason.BLOCKED_ARCHIVE_ENTRY);
+        assertThat(finding.entryPath()).isEqualTo("bin/setup.EXE");
+        assertThat(finding.blockedExtension()).isEqualTo("exe");
+    }
+
+    @Test
+    @DisplayName("업로드 파일도 중앙 디렉터리로 검사 - 항목 내용은 풀지 않음")
+    void inspect_multipartUsesCentralDirectory() throws IOException {
+        byte[] archive = zip(entries("data.txt", "log line\n".repeat(100).getBytes(), "bin/setup.exe", "MZ".getBytes()));
+        // 첫 항목의 압축 데이터를 망가뜨림 - 풀어 읽었다면 읽을 수 없는 항목으로 판단됨
+        int dataOffset = 30 + "data.txt".length();
+        for (int i = 0; i < 4; i++) {
+            archive[dataOffset + i] = (byte) 0xFF;
+        }
+        MockMultipartFile file = new MockMultipartFile("file", "bundle.zip", "application/zip", archive);
+
+        ArchiveInspector.Finding finding = inspector.inspect(file, policy);
+
+        assertThat(finding.blockReason()).isEqualTo(BlockReason.BLOCKED_ARCHIVE_ENTRY);
+        assertThat(finding.entryPath()).isEqualTo("bin/setup.exe");
+    }
+
+    private Map<String, byte[]> entries(Object... nameAndContent) {
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        for (int i = 0; i < nameAndContent.length; i += 2) {
+            entries.put((String) nameAndContent[i], (byte[]) nameAndContent[i + 1]);
+        }
+        return entries;
+    }
+
+    private byte[] zip(Map<String, byte[]> entries) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+                zip.putNextEntry(new ZipEntry(entry.getKey()));
+                zip.write(entry.getValue());
+                zip.closeEntry();
+            }
+        }
+        return output.toByteArray();
+    }
+}
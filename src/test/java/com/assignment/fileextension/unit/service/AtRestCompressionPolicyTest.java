@@ -0,0 +1,47 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.service.AtRestCompressionPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("AtRestCompressionPolicy 단위 테스트")
+class AtRestCompressionPolicyTest {
+
+    private final AtRestCompressionPolicy policy = new AtRestCompressionPolicy();
+
+    @Test
+    @DisplayName("반복이 많은 텍스트는 압축")
+    void compressibleText() {
+        byte[] sample = "timestamp=2024-01-01 level=INFO message=ok\n".repeat(200).getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(policy.shouldCompress("text/plain", "log", sample, sample.length)).isTrue();
+    }
+
+    @Test
+    @DisplayName("이미 압축된 형식은 내용과 관계없이 제외")
+    void alreadyCompressedFormats() {
+        byte[] sample = "a".repeat(4096).getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(policy.shouldCompress("application/octet-stream", "zip", sample, sample.length)).isFalse();
+        assertThat(policy.shouldCompress("image/jpeg", "bin", sample, sample.length)).isFalse();
+        assertThat(policy.shouldCompress("video/mp4", null, sample, sample.length)).isFalse();
+    }
+
+    @Test
+    @DisplayName("zip 매직 바이트나 압축되지 않는 표본, 너무 작은 파일은 제외")
+    void incompressibleSamples() {
+        byte[] zip = ("PK\u0003\u0004" + "a".repeat(4096)).getBytes(StandardCharsets.US_ASCII);
+        byte[] random = new byte[8192];
+        new Random(42).nextBytes(random);
+        byte[] tiny = "aaaa".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(policy.shouldCompress("text/plain", "txt", zip, zip.length)).isFalse();
+        assertThat(policy.shouldCompress("application/octet-stream", "dat", random, random.length)).isFalse();
+        assertThat(policy.shouldCompress("text/plain", "txt", tiny, tiny.length)).isFalse();
+    }
+}
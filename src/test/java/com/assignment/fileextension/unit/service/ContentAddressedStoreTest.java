@@ -0,0 +1,177 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.StoredBlob;
+import com.assignment.fileextension.exception.FileSizeLimitExceededException;
+import com.assignment.fileextension.repository.StoredBlobRepository;
+import com.assignment.fileextension.service.ContentAddressedStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ContentAddressedStore 단위 테스트")
+class ContentAddressedStoreTest {
+
+    // "hello" 의 SHA-256
+    private static final String HELLO_HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock
+    private StoredBlobRepository storedBlobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private ContentAddressedStore contentAddressedStore;
+
+    @TempDir
+    Path uploadDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(contentAddressedStore, "uploadBaseDir", uploadDir.toString());
+    }
+
+    @Test
+    @DisplayName("새 내용은 해시 경로에 한 번 저장하고, 같은 내용은 참조 수만 증가")
+    void storeAndDeduplicate() throws IOException {
+        AtomicReference<StoredBlob> claimed = new AtomicReference<>();
+        given(storedBlobRepository.findByHashForUpdate(HELLO_HASH))
+            .willAnswer(invocation -> Optional.ofNullable(claimed.get()));
+        given(storedBlobRepository.saveAndFlush(any(StoredBlob.class))).willAnswer(invocation -> {
+            claimed.set(invocation.getArgument(0));
+            return invocation.getArgument(0);
+        });
+
+        StoredBlob created = contentAddressedStore.store(stream("hello"), 1024);
+
+        Path blobPath = uploadDir.resolve("blobs/2c/f2/" + HELLO_HASH);
+        assertThat(created.getHash()).isEqualTo(HELLO_HASH);
+        assertThat(created.getRefCount()).isEqualTo(1L);
+        assertThat(Paths.get(created.getFilePath())).isEqualTo(blobPath);
+        assertThat(Files.readString(blobPath)).isEqualTo("hello");
+        assertThat(uploadDir.resolve(".staging")).isEmptyDirectory();
+
+        MockMultipartFile duplicate = new MockMultipartFile("file", "copy.txt", "text/plain",
+            "hello".getBytes(StandardCharsets.UTF_8));
+
+        StoredBlob reused = contentAddressedStore.store(duplicate);
+
+        assertThat(reused).isSameAs(created);
+        assertThat(reused.getRefCount()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("마지막 참조가 해제될 때만 blob 파일 삭제 (행은 남겨 둠)")
+    void releaseDeletesOnLastReference() throws IOException {
+        Path blobPath = uploadDir.resolve("blob");
+        Files.writeString(blobPath, "hello");
+        StoredBlob blob = StoredBlob.create(HELLO_HASH, blobPath.toString(), 5);
+        blob.retain();
+        given(storedBlobRepository.findByHashForUpdate(HELLO_HASH)).willReturn(Optional.of(blob));
+
+        contentAddressedStore.release(HELLO_HASH);
+
+        assertThat(blobPath).exists();
+        verify(storedBlobRepository, never()).delete(any());
+
+        contentAddressedStore.release(HELLO_HASH);
+
+        assertThat(blobPath).doesNotExist();
+        assertThat(uploadDir).isEmptyDirectory();
+        assertThat(blob.getRefCount()).isZero();
+        verify(storedBlobRepository, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("마지막 참조 해제가 커밋되기 전에 같은 내용이 다시 올라와도 다시 쓴 파일은 지우지 않음")
+    void releaseAndReacquireSameContent() throws IOException {
+        Path blobPath = uploadDir.resolve("blobs/2c/f2/" + HELLO_HASH);
+        Files.createDirectories(blobPath.getParent());
+        Files.writeString(blobPath, "hello");
+        StoredBlob blob = StoredBlob.create(HELLO_HASH, blobPath.toString(), 5);
+        given(storedBlobRepository.findByHashForUpdate(HELLO_HASH)).willReturn(Optional.of(blob));
+
+        // 해제하는 트랜잭션: 잠근 채로 파일을 치워 두고, 실제 삭제는 커밋 뒤로 미룸
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> pending;
+        try {
+            contentAddressedStore.release(HELLO_HASH);
+            pending = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(blobPath).doesNotExist();
+
+        // 잠금이 풀린 직후 같은 내용의 업로드가 파일을 다시 씀
+        StoredBlob reacquired = contentAddressedStore.store(stream("hello"), 1024);
+        pending.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(reacquired.getRefCount()).isEqualTo(1L);
+        assertThat(Files.readString(blobPath)).isEqualTo("hello");
+        try (Stream<Path> files = Files.list(blobPath.getParent())) {
+            assertThat(files).containsExactly(blobPath);
+        }
+    }
+
+    @Test
+    @DisplayName("같은 새 내용이 동시에 처음 올라오면 먼저 만들어진 행에 참조를 더함")
+    void concurrentFirstUpload() throws IOException {
+        Path blobPath = uploadDir.resolve("blobs/2c/f2/" + HELLO_HASH);
+        StoredBlob createdByOther = StoredBlob.create(HELLO_HASH, blobPath.toString(), 5);
+        given(storedBlobRepository.findByHashForUpdate(HELLO_HASH))
+            .willReturn(Optional.empty(), Optional.of(createdByOther));
+        given(storedBlobRepository.saveAndFlush(any(StoredBlob.class)))
+            .willThrow(new DataIntegrityViolationException("duplicate key"));
+
+        StoredBlob blob = contentAddressedStore.store(stream("hello"), 1024);
+
+        assertThat(blob).isSameAs(createdByOther);
+        assertThat(blob.getRefCount()).isEqualTo(2L);
+        assertThat(Files.readString(blobPath)).isEqualTo("hello");
+    }
+
+    @Test
+    @DisplayName("크기 한도를 넘으면 중단하고 스테이징 파일 정리")
+    void sizeLimitExceeded() {
+        assertThatThrownBy(() -> contentAddressedStore.store(stream("0123456789"), 4))
+            .isInstanceOf(FileSizeLimitExceededException.class);
+
+        assertThat(uploadDir.resolve(".staging")).isEmptyDirectory();
+        verify(storedBlobRepository, never()).findByHashForUpdate(anyString());
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
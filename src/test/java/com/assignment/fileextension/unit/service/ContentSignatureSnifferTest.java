@@ -0,0 +1,131 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.service.ContentSignatureSniffer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ContentSignatureSniffer 단위 테스트")
+class ContentSignatureSnifferTest {
+
+    private final ContentSignatureSniffer sniffer = new ContentSignatureSniffer();
+
+    @Test
+    @DisplayName("ELF 시그니처 판별")
+    void sniff_elf() {
+        byte[] header = {0x7F, 'E', 'L', 'F', 2, 1, 1, 0};
+
+        ContentSignatureSniffer.DetectedContent detected = sniffer.sniff(header, header.length);
+
+        assertThat(detected).isNotNull();
+        assertThat(detected.extensions()).contains("elf", "so");
+    }
+
+    @Test
+    @DisplayName("대소문자 무시 배치 스크립트 판별")
+    void sniff_batchScript() {
+        byte[] header = "@ECHO OFF\r\ndel *.*".getBytes(StandardCharsets.US_ASCII);
+
+        ContentSignatureSniffer.DetectedContent detected = sniffer.sniff(header, header.length);
+
+        assertThat(detected).isNotNull();
+        assertThat(detected.extensions()).contains("bat", "cmd");
+    }
+
+    @Test
+    @DisplayName("짧은 텍스트는 MZ로 시작해도 실행 파일로 보지 않음")
+    void sniff_shortMzText() {
+        byte[] header = "MZ is a plain note".getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(sniffer.sniff(header, header.length)).isNull();
+    }
+
+    @Test
+    @DisplayName("MZ로 시작하는 긴 텍스트는 PE 서명이 없으면 실행 파일로 보지 않음")
+    void sniff_mzTextWithoutPeSignature() {
+        byte[] header = "MZ Partners,2024,Q1,1520000,Seoul\nMZ Partners,2024,Q2,1610000,Busan\n"
+            .getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(sniffer.sniff(header, header.length)).isNull();
+    }
+
+    @Test
+    @DisplayName("e_lfanew 가 가리키는 PE 서명으로 실행 파일 판별")
+    void sniff_peSignature() {
+        byte[] header = new byte[256];
+        header[0] = 'M';
+        header[1] = 'Z';
+        header[0x3C] = (byte) 0x80;
+        header[0x80] = 'P';
+        header[0x81] = 'E';
+
+        ContentSignatureSniffer.DetectedContent detected = sniffer.sniff(header, header.length);
+
+        assertThat(detected).isNotNull();
+        assertThat(detected.extensions()).contains("exe", "dll");
+    }
+
+    @Test
+    @DisplayName("PE 헤더가 읽은 앞부분 밖에 있으면 DOS 헤더 필드로 판별")
+    void sniff_peHeaderBeyondSniffedBytes() {
+        byte[] header = new byte[64];
+        header[0] = 'M';
+        header[1] = 'Z';
+        header[2] = (byte) 0x90; // 마지막 페이지 바이트 수 144
+        header[4] = 3;           // 페이지 수
+        header[8] = 4;           // 헤더 크기 4 단락 (64 바이트)
+        header[0x3D] = 0x10;     // e_lfanew = 0x1000
+
+        assertThat(sniffer.sniff(header, header.length)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("대용량 스트림에서도 앞부분만 읽음")
+    void sniff_readsHeaderOnly() throws IOException {
+        CountingInputStream stream = new CountingInputStream(100L * 1024 * 1024);
+
+        ContentSignatureSniffer.DetectedContent detected = sniffer.sniff(stream);
+
+        assertThat(detected).isNotNull();
+        assertThat(stream.bytesRead).isLessThanOrEqualTo(FileExtensionConstants.FileLimit.CONTENT_SNIFF_BYTES);
+    }
+
+    /**
+     * MZ 헤더와 0x80 위치의 PE 서명으로 시작하는 가상의 대용량 스트림
+     */
+    private static class CountingInputStream extends InputStream {
+        private final long size;
+        private long bytesRead;
+
+        CountingInputStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            if (bytesRead >= size) {
+                return -1;
+            }
+            long position = bytesRead++;
+            if (position == 0) {
+                return 'M';
+            }
+            if (position == 1) {
+                return 'Z';
+            }
+            if (position == 0x3C) {
+                return 0x80;
+            }
+            if (position == 0x80) {
+                return 'P';
+            }
+            return position == 0x81 ? 'E' : 0;
+        }
+    }
+}
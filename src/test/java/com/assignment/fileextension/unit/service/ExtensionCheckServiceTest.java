@@ -0,0 +1,82 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.dto.ExtensionCheckResultDto;
+import com.assignment.fileextension.enums.BlockReason;
+import com.assignment.fileextension.service.ExtensionCheckService;
+import com.assignment.fileextension.service.ExtensionPolicyCache;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ExtensionCheckService 단위 테스트")
+class ExtensionCheckServiceTest {
+
+    @Mock
+    private ExtensionPolicyCache extensionPolicyCache;
+
+    @InjectMocks
+    private ExtensionCheckService extensionCheckService;
+
+    @Test
+    @DisplayName("일괄 확인 - 파일별 차단 확장자와 사유 반환")
+    void checkFileNames() {
+        given(extensionPolicyCache.current())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of("exe", true, "bat", false), List.of("sh")));
+
+        List<ExtensionCheckResultDto> results = extensionCheckService.checkFileNames(
+            Arrays.asList("report.pdf", "setup.EXE", "archive.sh.txt", "run.bat", " "), null);
+
+        assertThat(results).extracting(ExtensionCheckResultDto::isBlocked)
+            .containsExactly(false, true, true, false, true);
+        assertThat(results.get(1).getBlockedExtension()).isEqualTo("exe");
+        assertThat(results.get(1).getBlockReason()).isEqualTo(BlockReason.BLOCKED_EXTENSION);
+        assertThat(results.get(2).getBlockedExtension()).isEqualTo("sh");
+        assertThat(results.get(4).getBlockReason()).isEqualTo(BlockReason.INVALID_FILENAME);
+    }
+
+    @Test
+    @DisplayName("일괄 확인 - 요청의 고정 확장자 상태를 우선 적용")
+    void checkFileNames_withFixedOverrides() {
+        given(extensionPolicyCache.current())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of("exe", true, "bat", false), List.of()));
+
+        List<ExtensionCheckResultDto> results = extensionCheckService.checkFileNames(
+            List.of("setup.exe", "run.bat"), Map.of("exe", false, "bat", true));
+
+        assertThat(results).extracting(ExtensionCheckResultDto::isBlocked).containsExactly(false, true);
+        verify(extensionPolicyCache, times(1)).current();
+    }
+
+    @Test
+    @DisplayName("일괄 확인 - 대량 요청도 입력 순서대로 결과 반환")
+    void checkFileNames_largeBatchKeepsOrder() {
+        ExtensionPolicySnapshot policy = ExtensionPolicySnapshot.of(Map.of("exe", true), List.of());
+        List<String> fileNames = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            fileNames.add(i % 3 == 0 ? "file" + i + ".exe" : "file" + i + ".txt");
+        }
+
+        List<ExtensionCheckResultDto> results = extensionCheckService.checkFileNames(policy, fileNames);
+
+        assertThat(results).hasSize(fileNames.size());
+        for (int i = 0; i < fileNames.size(); i++) {
+            assertThat(results.get(i).getFileName()).isEqualTo(fileNames.get(i));
+            assertThat(results.get(i).isBlocked()).isEqualTo(i % 3 == 0);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.service.ExtensionMatcher;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExtensionMatcher 단위 테스트")
+class ExtensionMatcherTest {
+
+    @Test
+    @DisplayName("마지막 확장자부터 확인하여 차단 확장자 반환")
+    void findBlockedToken_lastExtensionFirst() {
+        ExtensionMatcher matcher = ExtensionMatcher.compile(List.of("exe", "bat"));
+
+        assertThat(matcher.findBlockedToken("a.bat.exe")).isEqualTo("exe");
+        assertThat(matcher.findBlockedToken("document.backup.exe.txt")).isEqualTo("exe");
+        assertThat(matcher.findBlockedToken("document.txt")).isNull();
+    }
+
+    @Test
+    @DisplayName("첫 번째 부분, 숫자 토큰, 내부 공백 토큰은 차단하지 않음")
+    void findBlockedToken_tokenRules() {
+        ExtensionMatcher matcher = ExtensionMatcher.compile(List.of("exe", "2024"));
+
+        assertThat(matcher.findBlockedToken("exe")).isNull();
+        assertThat(matcher.findBlockedToken("backup.2024")).isNull();
+        assertThat(matcher.findBlockedToken("file.e xe")).isNull();
+        assertThat(matcher.findBlockedToken("file.  EXE\t")).isEqualTo("exe");
+        assertThat(matcher.findBlockedToken(".exe")).isEqualTo("exe");
+    }
+
+    @Test
+    @DisplayName("접미사가 같은 확장자 구분")
+    void findBlockedToken_sharedSuffix() {
+        ExtensionMatcher matcher = ExtensionMatcher.compile(List.of("js", "cjs"));
+
+        assertThat(matcher.findBlockedToken("app.mjs")).isNull();
+        assertThat(matcher.findBlockedToken("app.cjs")).isEqualTo("cjs");
+        assertThat(matcher.findBlockedToken("app.js")).isEqualTo("js");
+        assertThat(matcher.findBlockedToken("app.s")).isNull();
+    }
+
+    @Test
+    @DisplayName("수만 개 확장자에서도 기존 분리 방식과 동일한 판정")
+    void findBlockedToken_matchesReferenceImplementation() {
+        Random random = new Random(42);
+        Set<String> blocked = new HashSet<>();
+        while (blocked.size() < 20_000) {
+            blocked.add(randomToken(random, 1 + random.nextInt(6)));
+        }
+        ExtensionMatcher matcher = ExtensionMatcher.compile(blocked);
+
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder name = new StringBuilder(randomToken(random, 5));
+            int dots = random.nextInt(5);
+            for (int d = 0; d < dots; d++) {
+                name.append(random.nextInt(10) == 0 ? ". " : ".");
+                name.append(random.nextBoolean()
+                        ? randomToken(random, 1 + random.nextInt(6)).toUpperCase()
+                        : randomToken(random, 1 + random.nextInt(6)));
+            }
+
+            String fileName = name.toString();
+            assertThat(matcher.findBlockedToken(fileName) != null)
+                    .as(fileName)
+                    .isEqualTo(referenceIsBlocked(fileName, blocked));
+        }
+    }
+
+    private static String randomToken(Random random, int length) {
+        String alphabet = "abcdefghijklmnopqrstuvwxyz0123456789";
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            token.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return token.toString();
+    }
+
+    /**
+     * 기존 FileValidationService의 split 기반 규칙
+     */
+    private static boolean referenceIsBlocked(String fileName, Set<String> blocked) {
+        String[] parts = fileName.split("\\.");
+        List<String> extensions = new ArrayList<>();
+        for (int i = 1; i < parts.length; i++) {
+            String extension = parts[i].toLowerCase().trim();
+            if (!extension.isEmpty() && !extension.matches("\\d+")) {
+                extensions.add(extension);
+            }
+        }
+        return extensions.stream().anyMatch(blocked::contains);
+    }
+}
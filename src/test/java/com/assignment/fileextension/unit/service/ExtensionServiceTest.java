@@ -2,15 +2,22 @@ package com.assignment.fileextension.unit.service;
 
 import com.assignment.fileextension.common.FileExtensionConstants;
 import com.assignment.fileextension.dto.CustomExtensionDto;
+import com.assignment.fileextension.dto.ExtensionBulkRequest;
+import com.assignment.fileextension.dto.ExtensionBulkResultDto;
 import com.assignment.fileextension.dto.ExtensionRequest;
 import com.assignment.fileextension.dto.FixedExtensionSettingDto;
 import com.assignment.fileextension.entity.CustomExtension;
 import com.assignment.fileextension.entity.FixedExtensionSetting;
+import com.assignment.fileextension.entity.PolicyVersion;
 import com.assignment.fileextension.exception.ExtensionNotFoundException;
 import com.assignment.fileextension.repository.CustomExtensionRepository;
 import com.assignment.fileextension.repository.FixedExtensionSettingRepository;
+import com.assignment.fileextension.repository.PolicyVersionRepository;
+import com.assignment.fileextension.service.ExtensionPolicyCache;
+import com.assignment.fileextension.service.ExtensionPolicyChangedEvent;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
 import com.assignment.fileextension.service.ExtensionService;
-import com.assignment.fileextension.service.StorageService;
+import com.assignment.fileextension.service.PurgeJobService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +25,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -38,7 +46,16 @@ class ExtensionServiceTest {
     private FixedExtensionSettingRepository fixedExtensionSettingRepository;
 
     @Mock
-    private StorageService storageService;
+    private PolicyVersionRepository policyVersionRepository;
+
+    @Mock
+    private PurgeJobService purgeJobService;
+
+    @Mock
+    private ExtensionPolicyCache extensionPolicyCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks
     private ExtensionService extensionService;
@@ -82,12 +99,15 @@ class ExtensionServiceTest {
         given(fixedExtensionSettingRepository.findByExtension("exe"))
             .willReturn(Optional.of(fixedExtensionSetting));
         given(fixedExtensionSettingRepository.save(any())).willReturn(fixedExtensionSetting);
-        doNothing().when(storageService).deleteFilesByExtension("exe");
+        given(policyVersionRepository.increment(PolicyVersion.SINGLETON_ID)).willReturn(1);
+        given(purgeJobService.schedulePurge(List.of("exe"))).willReturn(10L);
 
         FixedExtensionSettingDto result = extensionService.updateFixedExtensionSetting("exe", true);
 
         assertThat(result.getExtension()).isEqualTo("exe");
-        verify(storageService).deleteFilesByExtension("exe");
+        assertThat(result.getPurgeJobId()).isEqualTo(10L);
+        verify(policyVersionRepository).increment(PolicyVersion.SINGLETON_ID);
+        verify(eventPublisher).publishEvent(new ExtensionPolicyChangedEvent("exe"));
     }
 
     @Test
@@ -119,12 +139,15 @@ class ExtensionServiceTest {
         given(customExtensionRepository.existsByExtension("newext")).willReturn(false);
         given(customExtensionRepository.countCustomExtensions()).willReturn(0L);
         given(customExtensionRepository.save(any())).willReturn(customExtension);
-        doNothing().when(storageService).deleteFilesByExtension("newext");
+        given(policyVersionRepository.increment(PolicyVersion.SINGLETON_ID)).willReturn(1);
+        given(purgeJobService.schedulePurge(List.of("newext"))).willReturn(11L);
 
         CustomExtensionDto result = extensionService.addCustomExtension(request);
 
         assertThat(result).isNotNull();
-        verify(storageService).deleteFilesByExtension("newext");
+        assertThat(result.getPurgeJobId()).isEqualTo(11L);
+        verify(policyVersionRepository).increment(PolicyVersion.SINGLETON_ID);
+        verify(eventPublisher).publishEvent(new ExtensionPolicyChangedEvent("newext"));
     }
 
     @Test
@@ -156,10 +179,14 @@ class ExtensionServiceTest {
     void deleteCustomExtension() {
         given(customExtensionRepository.findById(1L)).willReturn(Optional.of(customExtension));
         doNothing().when(customExtensionRepository).deleteById(1L);
+        given(policyVersionRepository.increment(PolicyVersion.SINGLETON_ID)).willReturn(1);
 
         extensionService.deleteCustomExtension(1L);
 
         verify(customExtensionRepository).deleteById(1L);
+        verify(policyVersionRepository).increment(PolicyVersion.SINGLETON_ID);
+        verify(eventPublisher).publishEvent(new ExtensionPolicyChangedEvent("custom"));
+        verify(purgeJobService).scheduleRestore(List.of("custom"));
     }
 
     @Test
@@ -170,30 +197,92 @@ class ExtensionServiceTest {
         assertThatThrownBy(() -> extensionService.deleteCustomExtension(1L))
             .isInstanceOf(IllegalArgumentException.class)
             .hasMessage("해당 확장자를 찾을 수 없습니다.");
+        verifyNoInteractions(eventPublisher, policyVersionRepository);
+    }
+
+    @Test
+    @DisplayName("정책 버전 행이 없으면 만든 뒤 DB 시계로 버전 1로 올림")
+    void policyVersion_createdWhenMissing() {
+        given(customExtensionRepository.findById(1L)).willReturn(Optional.of(customExtension));
+        given(policyVersionRepository.increment(PolicyVersion.SINGLETON_ID)).willReturn(0, 1);
+
+        extensionService.deleteCustomExtension(1L);
+
+        verify(policyVersionRepository).saveAndFlush(argThat(version -> version.getVersion() == 0L));
+        verify(policyVersionRepository, times(2)).increment(PolicyVersion.SINGLETON_ID);
+    }
+
+    @Test
+    @DisplayName("정책 일괄 변경 - 버전은 한 번만 올리고 새로 차단된 확장자를 한 번에 정리")
+    void applyBulkChange() {
+        FixedExtensionSetting bat = FixedExtensionSetting.builder()
+            .id(2L).extension("bat").isBlocked(true).build();
+        given(fixedExtensionSettingRepository.findAll()).willReturn(List.of(fixedExtensionSetting, bat));
+        given(customExtensionRepository.findAllExtensions()).willReturn(List.of("custom"));
+        given(customExtensionRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        given(policyVersionRepository.increment(PolicyVersion.SINGLETON_ID)).willReturn(1);
+        given(purgeJobService.schedulePurge(List.of("exe", "sh", "ps1"))).willReturn(12L);
+        given(purgeJobService.scheduleRestore(List.of("custom"))).willReturn(13L);
+
+        ExtensionBulkRequest request = new ExtensionBulkRequest(
+            Map.of("exe", true, "bat", true), List.of("sh", ".PS1"), List.of("custom"));
+
+        ExtensionBulkResultDto result = extensionService.applyBulkChange(request);
+
+        assertThat(result.getUpdatedFixedExtensions()).extracting(FixedExtensionSettingDto::getExtension)
+            .containsExactly("exe");
+        assertThat(result.getAddedCustomExtensions()).extracting(CustomExtensionDto::getExtension)
+            .containsExactly("sh", "ps1");
+        assertThat(result.getRemovedCustomExtensions()).containsExactly("custom");
+        assertThat(result.getPurgedExtensions()).containsExactly("exe", "sh", "ps1");
+        verify(customExtensionRepository).deleteAllByExtensionIn(Set.of("custom"));
+        verify(policyVersionRepository, times(1)).increment(PolicyVersion.SINGLETON_ID);
+        verify(eventPublisher, times(1)).publishEvent(any(ExtensionPolicyChangedEvent.class));
+        assertThat(result.getPurgeJobId()).isEqualTo(12L);
+        assertThat(result.getRestoredExtensions()).containsExactly("custom");
+        assertThat(result.getRestoreJobId()).isEqualTo(13L);
+        verify(purgeJobService, times(1)).schedulePurge(anyCollection());
+    }
+
+    @Test
+    @DisplayName("정책 일괄 변경 실패 - 이미 등록된 커스텀 확장자")
+    void applyBulkChange_duplicateCustom() {
+        given(customExtensionRepository.findAllExtensions()).willReturn(List.of("custom"));
+
+        ExtensionBulkRequest request = new ExtensionBulkRequest(null, List.of("sh", "custom"), null);
+
+        assertThatThrownBy(() -> extensionService.applyBulkChange(request))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(FileExtensionConstants.Messages.EXTENSION_ALREADY_EXISTS);
+        verify(customExtensionRepository, never()).saveAll(anyList());
+        verifyNoInteractions(eventPublisher, policyVersionRepository, purgeJobService);
+    }
+
+    @Test
+    @DisplayName("정책 일괄 변경 실패 - 변경 내용 없음")
+    void applyBulkChange_empty() {
+        assertThatThrownBy(() -> extensionService.applyBulkChange(new ExtensionBulkRequest()))
+            .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(eventPublisher, policyVersionRepository, purgeJobService);
     }
 
     @Test
     @DisplayName("확장자 차단 여부 확인 - 고정 확장자 차단")
     void isExtensionBlocked_fixedExtension_blocked() {
-        given(fixedExtensionSettingRepository.findByExtension("exe"))
-            .willReturn(Optional.of(FixedExtensionSetting.builder()
-                .extension("exe")
-                .isBlocked(true)
-                .build()));
+        given(extensionPolicyCache.current())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of("exe", true), List.of()));
 
         boolean result = extensionService.isExtensionBlocked("test.exe", "exe");
 
         assertThat(result).isTrue();
+        verifyNoInteractions(fixedExtensionSettingRepository);
     }
 
     @Test
     @DisplayName("확장자 차단 여부 확인 - 고정 확장자 허용")
     void isExtensionBlocked_fixedExtension_allowed() {
-        given(fixedExtensionSettingRepository.findByExtension("exe"))
-            .willReturn(Optional.of(FixedExtensionSetting.builder()
-                .extension("exe")
-                .isBlocked(false)
-                .build()));
+        given(extensionPolicyCache.current())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of("exe", false), List.of()));
 
         boolean result = extensionService.isExtensionBlocked("test.exe", "exe");
 
@@ -203,12 +292,13 @@ class ExtensionServiceTest {
     @Test
     @DisplayName("확장자 차단 여부 확인 - 커스텀 확장자")
     void isExtensionBlocked_customExtension() {
-        given(customExtensionRepository.findAllExtensions())
-            .willReturn(Arrays.asList("custom", "blocked"));
+        given(extensionPolicyCache.current())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of(), Arrays.asList("custom", "blocked")));
 
         boolean result = extensionService.isExtensionBlocked("test.custom", "custom");
 
         assertThat(result).isTrue();
+        verifyNoInteractions(customExtensionRepository);
     }
 
     @Test
@@ -216,6 +306,8 @@ class ExtensionServiceTest {
     void isExtensionBlocked_withFixedStates() {
         Map<String, Boolean> fixedStates = new HashMap<>();
         fixedStates.put("exe", true);
+        given(extensionPolicyCache.current())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of("exe", false), List.of()));
 
         boolean result = extensionService.isExtensionBlocked("test.exe", "exe", fixedStates);
 
@@ -226,6 +318,8 @@ class ExtensionServiceTest {
     @Test
     @DisplayName("파일명에서 확장자 추출하여 차단 확인")
     void isExtensionBlocked_fromFileName() {
+        given(extensionPolicyCache.current()).willReturn(ExtensionPolicySnapshot.empty());
+
         boolean result = extensionService.isExtensionBlocked("document.txt");
 
         assertThat(result).isFalse();
@@ -0,0 +1,227 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.service.FileDownloadService;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.StorageService;
+import com.assignment.fileextension.service.StoredContent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileDownloadService 단위 테스트")
+class FileDownloadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @InjectMocks
+    private FileDownloadService fileDownloadService;
+
+    @TempDir
+    Path tempDir;
+
+    private UploadedFile file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path path = tempDir.resolve("stored.txt");
+        Files.writeString(path, CONTENT);
+        file = UploadedFile.builder()
+            .id(1L)
+            .originalFilename("보고서.txt")
+            .filePath(path.toString())
+            .fileSize((long) CONTENT.length())
+            .contentType("text/plain")
+            .updatedAt(LocalDateTime.of(2024, 1, 1, 12, 0))
+            .build();
+        // gzip 저장 테스트는 다른 파일을 쓰므로 lenient
+        lenient().when(storageService.resolveContent(file)).thenReturn(StoredContent.wholeFile(path, CONTENT.length()));
+    }
+
+    @Test
+    @DisplayName("Range 가 없으면 200 과 전체 내용")
+    void fullContent() throws IOException {
+        MockHttpServletResponse response = download(new MockHttpServletRequest());
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("단일 구간은 206 과 Content-Range")
+    void singleRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=5-9");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+        assertThat(response.getContentLengthLong()).isEqualTo(5);
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+    }
+
+    @Test
+    @DisplayName("여러 구간은 multipart/byteranges 로 전송하고 Content-Length 가 본문과 일치")
+    void multipleRanges() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=0-1, -3");
+
+        MockHttpServletResponse response = download(request);
+
+        String body = response.getContentAsString(StandardCharsets.US_ASCII);
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        assertThat(body).contains("Content-Range: bytes 0-1/20\r\n\r\n01\r\n");
+        assertThat(body).contains("Content-Range: bytes 17-19/20\r\n\r\nhij\r\n");
+        assertThat(response.getContentLengthLong()).isEqualTo(response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("파일 범위를 벗어난 구간은 416")
+    void unsatisfiableRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=100-200");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+    }
+
+    @Test
+    @DisplayName("If-Range 가 일치하지 않으면 Range 를 무시하고 전체 전송")
+    void ifRangeMismatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=5-9");
+        request.addHeader("If-Range", "Mon, 01 Jan 2001 00:00:00 GMT");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo(CONTENT);
+    }
+
+    @Test
+    @DisplayName("If-Range 가 현재 ETag 와 일치하면 구간 전송")
+    void ifRangeEntityTagMatch() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=0-4");
+        request.addHeader("If-Range", fileDownloadService.entityTag(file));
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("01234");
+    }
+
+    @Test
+    @DisplayName("gzip 저장 파일 - 클라이언트가 gzip 을 받으면 저장된 바이트를 그대로 전송")
+    void gzipStored_passThrough() throws IOException {
+        byte[] compressed = gzip(CONTENT);
+        UploadedFile gzipFile = gzipStoredFile(compressed);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", "br, gzip;q=0.8");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileDownloadService.download(gzipFile, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader("Content-Encoding")).isEqualTo("gzip");
+        assertThat(response.getHeader("Vary")).isEqualTo("Accept-Encoding");
+        assertThat(response.getContentAsByteArray()).isEqualTo(compressed);
+        assertThat(fileDownloadService.entityTag(gzipFile, request)).endsWith("-gzip\"");
+    }
+
+    @Test
+    @DisplayName("gzip 저장 파일 - gzip 을 받지 않거나 구간 요청이면 풀어서 원본 기준으로 전송")
+    void gzipStored_inflatesRange() throws IOException {
+        UploadedFile gzipFile = gzipStoredFile(gzip(CONTENT));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("Range", "bytes=5-9");
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileDownloadService.download(gzipFile, request, response);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Encoding")).isNull();
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+        assertThat(response.getContentAsString()).isEqualTo("56789");
+    }
+
+    @Test
+    @DisplayName("캐시된 내용이 있으면 파일 대신 메모리에서 구간 전송")
+    void cachedContent() throws IOException {
+        Files.delete(Path.of(file.getFilePath()));
+        ByteBuffer cached = ByteBuffer.wrap(CONTENT.getBytes(StandardCharsets.US_ASCII)).asReadOnlyBuffer();
+        given(hotFileCache.getContent(eq(file), any())).willReturn(cached);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Range", "bytes=10-");
+
+        MockHttpServletResponse response = download(request);
+
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getContentAsString()).isEqualTo("abcdefghij");
+    }
+
+    private UploadedFile gzipStoredFile(byte[] compressed) throws IOException {
+        Path path = tempDir.resolve("stored.txt.gz");
+        Files.write(path, compressed);
+        UploadedFile gzipFile = UploadedFile.builder()
+            .id(2L)
+            .originalFilename("보고서.txt")
+            .filePath(path.toString())
+            .fileSize((long) CONTENT.length())
+            .storedSize((long) compressed.length)
+            .storageEncoding(UploadedFile.StorageEncoding.GZIP)
+            .contentType("text/plain")
+            .build();
+        given(storageService.resolveContent(gzipFile)).willReturn(StoredContent.gzipFile(path, compressed.length));
+        return gzipFile;
+    }
+
+    private static byte[] gzip(String content) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream outputStream = new GZIPOutputStream(bytes)) {
+            outputStream.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+
+    private MockHttpServletResponse download(MockHttpServletRequest request) throws IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        fileDownloadService.download(file, request, response);
+        return response;
+    }
+}
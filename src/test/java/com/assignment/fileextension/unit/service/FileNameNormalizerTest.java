@@ -0,0 +1,45 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.service.FileNameNormalizer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FileNameNormalizer 단위 테스트")
+class FileNameNormalizerTest {
+
+    @Test
+    @DisplayName("일반 ASCII 파일명은 같은 인스턴스를 그대로 반환")
+    void normalize_asciiFastPath() {
+        String fileName = "quarterly-report_v2.final.pdf";
+
+        assertThat(FileNameNormalizer.normalize(fileName)).isSameAs(fileName);
+    }
+
+    @ParameterizedTest(name = "{0} -> {1}")
+    @CsvSource(delimiter = '|', value = {
+        "evil.exe.            | evil.exe",
+        "'evil.exe. . '       | evil.exe",
+        "evil.exe::$DATA      | evil.exe",
+        "a.txt:evil.exe       | a.txt.evil.exe",
+        "a.txt:evil.exe:$DATA | a.txt.evil.exe",
+        "evil．exe            | evil.exe",
+        "evil.ｅｘｅ           | evil.exe",
+        "evil。exe            | evil.exe",
+        "보고서.docx           | 보고서.docx"
+    })
+    @DisplayName("전각 문자, 끝의 마침표, NTFS 스트림 표기 정규화")
+    void normalize_tricks(String fileName, String expected) {
+        assertThat(FileNameNormalizer.normalize(fileName)).isEqualTo(expected);
+    }
+
+    @Test
+    @DisplayName("RTLO 와 제로폭 문자 제거")
+    void normalize_invisibleCharacters() {
+        assertThat(FileNameNormalizer.normalize("invoice\u202Efdp.exe")).isEqualTo("invoicefdp.exe");
+        assertThat(FileNameNormalizer.normalize("evil.e\u200Bx\uFEFFe")).isEqualTo("evil.exe");
+    }
+}
@@ -0,0 +1,162 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.StoredBlob;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.StoredBlobRepository;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import com.assignment.fileextension.service.AtRestCompressionPolicy;
+import com.assignment.fileextension.service.AuditService;
+import com.assignment.fileextension.service.ContentAddressedStore;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import com.assignment.fileextension.service.FileStorageService;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.PolicyEnforcement;
+import com.assignment.fileextension.service.PurgeBatch;
+import com.assignment.fileextension.service.RestoreBatch;
+import com.assignment.fileextension.service.StorageLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("FileStorageService 단위 테스트")
+class FileStorageServiceTest {
+
+    // "hello" 의 SHA-256
+    private static final String HELLO_HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @Mock
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Mock
+    private StoredBlobRepository storedBlobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @Mock
+    private PolicyEnforcement policyEnforcement;
+
+    @Mock
+    private AuditService auditService;
+
+    @TempDir
+    Path uploadDir;
+
+    private FileStorageService fileStorageService;
+
+    @BeforeEach
+    void setUp() {
+        ContentAddressedStore contentAddressedStore = new ContentAddressedStore(storedBlobRepository, transactionManager);
+        ReflectionTestUtils.setField(contentAddressedStore, "uploadBaseDir", uploadDir.toString());
+        fileStorageService = new FileStorageService(uploadedFileRepository, contentAddressedStore,
+            new AtRestCompressionPolicy(), hotFileCache, new StorageLayout(uploadDir.toString(), "sharded"),
+            policyEnforcement, auditService);
+    }
+
+    @Test
+    @DisplayName("같은 행을 두 번 삭제해도 공유 blob 참조는 한 번만 해제")
+    void deleteTwiceKeepsSharedBlob() throws IOException {
+        Path blobPath = uploadDir.resolve("blobs/2c/f2/" + HELLO_HASH);
+        Files.createDirectories(blobPath.getParent());
+        Files.writeString(blobPath, "hello");
+        // 행 A, B 가 같은 blob 을 공유
+        StoredBlob blob = StoredBlob.create(HELLO_HASH, blobPath.toString(), 5);
+        blob.retain();
+        given(storedBlobRepository.findByHashForUpdate(HELLO_HASH)).willReturn(Optional.of(blob));
+        UploadedFile fileA = UploadedFile.builder()
+            .id(1L)
+            .originalFilename("a.txt")
+            .storedFilename(HELLO_HASH + ".txt")
+            .filePath(blobPath.toString())
+            .contentHash(HELLO_HASH)
+            .fileSize(5L)
+            .build();
+        given(uploadedFileRepository.findByIdForUpdate(1L)).willReturn(Optional.of(fileA));
+
+        fileStorageService.deletePhysicalFile(1L);
+        fileStorageService.deletePhysicalFile(1L);
+
+        assertThat(fileA.getStatus()).isEqualTo(UploadedFile.FileStatus.DELETED);
+        assertThat(blob.getRefCount()).isEqualTo(1L);
+        assertThat(Files.readString(blobPath)).isEqualTo("hello");
+        verify(uploadedFileRepository, times(1)).save(fileA);
+    }
+
+    @Test
+    @DisplayName("정리 작업 중 차단이 풀리면 다음 배치부터는 해당 확장자 파일을 지우지 않음")
+    void purgeBatchRechecksCurrentPolicy() {
+        ExtensionPolicySnapshot blocked = ExtensionPolicySnapshot.of(3L, null, Map.of(), List.of("pdf"));
+        ExtensionPolicySnapshot unblocked = ExtensionPolicySnapshot.of(4L, null, Map.of(), List.of());
+        given(policyEnforcement.currentPolicy()).willReturn(blocked, unblocked);
+        UploadedFile first = pdf(1L);
+        UploadedFile second = pdf(2L);
+        given(uploadedFileRepository.findActiveFilesByExtensionsAfter(eq(List.of("pdf")), eq(0L), any()))
+            .willReturn(List.of(first));
+        given(uploadedFileRepository.findActiveFilesByExtensionsAfter(eq(List.of("pdf")), eq(1L), any()))
+            .willReturn(List.of(second));
+
+        PurgeBatch firstBatch = fileStorageService.purgeBatch(List.of("pdf"), 0L, 1);
+        // 다른 노드에서 pdf 차단 해제
+        PurgeBatch secondBatch = fileStorageService.purgeBatch(List.of("pdf"), firstBatch.lastId(), 1);
+
+        assertThat(firstBatch.deleted()).isEqualTo(1);
+        assertThat(secondBatch.scanned()).isEqualTo(1);
+        assertThat(secondBatch.deleted()).isZero();
+        assertThat(secondBatch.unlinkTargets()).isEmpty();
+        verify(uploadedFileRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(uploadedFileRepository, never()).deleteAllByIdInBatch(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("복구 작업 중 다시 차단되면 해당 확장자 파일은 격리된 채로 둠")
+    void restoreBatchSkipsReblockedExtension() {
+        ExtensionPolicySnapshot reblocked = ExtensionPolicySnapshot.of(5L, null, Map.of(), List.of("pdf"));
+        given(policyEnforcement.currentPolicy()).willReturn(reblocked);
+        UploadedFile quarantined = pdf(1L);
+        given(uploadedFileRepository.findQuarantinedFilesByExtensionsAfter(eq(List.of("pdf")), eq(0L), any()))
+            .willReturn(List.of(quarantined));
+
+        RestoreBatch batch = fileStorageService.restoreBatch(List.of("pdf"), 0L, 10);
+
+        assertThat(batch.scanned()).isEqualTo(1);
+        assertThat(batch.restored()).isZero();
+        assertThat(batch.failed()).isZero();
+        verify(uploadedFileRepository, never()).updateStatus(any(), any());
+    }
+
+    private UploadedFile pdf(Long id) {
+        return UploadedFile.builder()
+            .id(id)
+            .originalFilename("file-" + id + ".pdf")
+            .storedFilename("stored-" + id + ".pdf")
+            .filePath(uploadDir.resolve("stored-" + id + ".pdf").toString())
+            .extension("pdf")
+            .fileSize(1L)
+            .build();
+    }
+}
@@ -3,19 +3,36 @@ package com.assignment.fileextension.unit.service;
 import com.assignment.fileextension.common.FileExtensionConstants;
 import com.assignment.fileextension.enums.BlockReason;
 import com.assignment.fileextension.exception.FileValidationException;
+import com.assignment.fileextension.service.ArchiveInspector;
+import com.assignment.fileextension.service.ContentSignatureSniffer;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
 import com.assignment.fileextension.service.ExtensionService;
 import com.assignment.fileextension.service.FileValidationService;
+import com.assignment.fileextension.service.StoredContent;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
 import static org.assertj.core.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("FileValidationService 단위 테스트")
@@ -24,9 +41,18 @@ class FileValidationServiceTest {
     @Mock
     private ExtensionService extensionService;
 
+    @Spy
+    private ContentSignatureSniffer contentSignatureSniffer = new ContentSignatureSniffer();
+
+    @Spy
+    private ArchiveInspector archiveInspector = new ArchiveInspector();
+
     @InjectMocks
     private FileValidationService fileValidationService;
 
+    @TempDir
+    Path tempDir;
+
     @Test
     @DisplayName("유효한 파일 검증 성공")
     void validateFile_success() {
@@ -34,8 +60,7 @@ class FileValidationServiceTest {
             "file", "document.pdf", "application/pdf", "content".getBytes()
         );
 
-        given(extensionService.isExtensionBlocked(eq("document.pdf"), eq("pdf")))
-            .willReturn(false);
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
 
         FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
 
@@ -99,8 +124,7 @@ class FileValidationServiceTest {
             "file", "malware.exe", "application/octet-stream", "malware".getBytes()
         );
 
-        given(extensionService.isExtensionBlocked(eq("malware.exe"), eq("exe")))
-            .willReturn(true);
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
 
         FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
 
@@ -118,12 +142,7 @@ class FileValidationServiceTest {
         );
 
         // exe가 차단된 상태
-        given(extensionService.isExtensionBlocked(eq("document.backup.exe.txt"), eq("txt")))
-            .willReturn(false);
-        given(extensionService.isExtensionBlocked(eq("document.backup.exe.txt"), eq("exe")))
-            .willReturn(true);
-        given(extensionService.isExtensionBlocked(eq("document.backup.exe.txt"), eq("backup")))
-            .willReturn(false);
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
 
         FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
 
@@ -139,6 +158,7 @@ class FileValidationServiceTest {
         MockMultipartFile file = new MockMultipartFile(
             "file", "README", "text/plain", "content".getBytes()
         );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
 
         FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
 
@@ -152,8 +172,8 @@ class FileValidationServiceTest {
             "file", "backup.2024.txt", "text/plain", "content".getBytes()
         );
 
-        given(extensionService.isExtensionBlocked(eq("backup.2024.txt"), eq("txt")))
-            .willReturn(false);
+        given(extensionService.getPolicySnapshot())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of(), List.of("2024")));
 
         FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
 
@@ -166,10 +186,166 @@ class FileValidationServiceTest {
         MockMultipartFile file = new MockMultipartFile(
             "file", "my.project.v1.final.doc.backup.pdf", "application/pdf", "content".getBytes()
         );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
+
+        assertThat(result.isAllowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("대소문자와 공백이 섞인 확장자 차단")
+    void validateFile_mixedCaseAndWhitespaceExtension() {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "report. ExE .pdf", "application/pdf", "content".getBytes()
+        );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
+
+        assertThat(result.isBlocked()).isTrue();
+        assertThat(result.getBlockedExtension()).isEqualTo("exe");
+    }
+
+    @Test
+    @DisplayName("커스텀 확장자 차단 및 첫 번째 토큰(파일명) 무시")
+    void validateFile_customExtensionIgnoresBaseName() {
+        given(extensionService.getPolicySnapshot())
+            .willReturn(ExtensionPolicySnapshot.of(Map.of("exe", false), List.of("sh", "exe")));
+
+        MockMultipartFile baseNameOnly = new MockMultipartFile(
+            "file", "sh", "text/plain", "content".getBytes()
+        );
+        MockMultipartFile fixedAllowed = new MockMultipartFile(
+            "file", "setup.exe", "application/octet-stream", "content".getBytes()
+        );
+        MockMultipartFile custom = new MockMultipartFile(
+            "file", "install..SH", "text/plain", "content".getBytes()
+        );
+
+        assertThat(fileValidationService.validateFile(baseNameOnly).isAllowed()).isTrue();
+        assertThat(fileValidationService.validateFile(fixedAllowed).isAllowed()).isTrue();
+        assertThat(fileValidationService.validateFile(custom).getBlockedExtension()).isEqualTo("sh");
+    }
+
+    @Test
+    @DisplayName("이름을 바꾼 실행 파일은 내용으로 차단")
+    void validateFile_renamedExecutable() {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "evil.txt", "text/plain", peHeader()
+        );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
+
+        assertThat(result.isBlocked()).isTrue();
+        assertThat(result.getBlockReason()).isEqualTo(BlockReason.BYPASS_ATTEMPT);
+        assertThat(result.getBlockedExtension()).isEqualTo("exe");
+    }
+
+    @Test
+    @DisplayName("실행 파일 내용이라도 해당 확장자가 허용이면 통과")
+    void validateFile_executableContentAllowedWhenNotBlocked() {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "tool.txt", "text/plain", peHeader()
+        );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("bat"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
+
+        assertThat(result.isAllowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("셸뱅 인터프리터로 스크립트 형식 판별")
+    void validateFile_shebangScript() {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "notes.txt", "text/plain", "#!/usr/bin/env node\nconsole.log(1)".getBytes()
+        );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("js"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
+
+        assertThat(result.getBlockReason()).isEqualTo(BlockReason.BYPASS_ATTEMPT);
+        assertThat(result.getBlockedExtension()).isEqualTo("js");
+    }
+
+    @Test
+    @DisplayName("NTFS 스트림 표기와 끝의 마침표로 숨긴 확장자 검증 실패")
+    void validateFile_windowsFileNameTricks() {
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
+
+        for (String fileName : List.of("evil.exe::$DATA", "evil.exe. .", "evil\uFF0Eexe")) {
+            MockMultipartFile file = new MockMultipartFile("file", fileName, "text/plain", "content".getBytes());
+
+            FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
+
+            assertThat(result.isBlocked()).as(fileName).isTrue();
+            assertThat(result.getBlockedExtension()).isEqualTo("exe");
+        }
+    }
+
+    @Test
+    @DisplayName("압축 파일 내부의 차단된 실행 파일 검증 실패")
+    void validateFile_archiveWithBlockedEntry() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "tools.zip", "application/zip", zip("readme.txt", "bin/setup.exe")
+        );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
 
         FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
 
+        assertThat(result.isBlocked()).isTrue();
+        assertThat(result.getBlockReason()).isEqualTo(BlockReason.BLOCKED_ARCHIVE_ENTRY);
+        assertThat(result.getBlockedExtension()).isEqualTo("exe");
+        assertThat(result.getReason()).contains("bin/setup.exe");
+    }
+
+    @Test
+    @DisplayName("차단 항목이 없는 압축 파일은 허용")
+    void validateFile_archiveWithoutBlockedEntry() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "photos.zip", "application/zip", zip("a.png", "b.jpg")
+        );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateFile(file);
+
+        assertThat(result.isAllowed()).isTrue();
+    }
+
+    @Test
+    @DisplayName("저장 전 검증은 압축 파일 내부를 읽지 않음 - 저장된 내용으로 따로 확인")
+    void validateBeforeStore_skipsArchiveEntries() throws IOException {
+        MockMultipartFile file = new MockMultipartFile(
+            "file", "tools.zip", "application/zip", zip("readme.txt", "bin/setup.exe")
+        );
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateBeforeStore(file);
+
         assertThat(result.isAllowed()).isTrue();
+        verifyNoInteractions(archiveInspector);
+    }
+
+    @Test
+    @DisplayName("pack 세그먼트에 저장된 작은 압축 파일도 그 구간의 차단 항목으로 검증 실패")
+    void validateStoredArchive_packedRegion() throws IOException {
+        byte[] archive = zip("readme.txt", "bin/setup.exe");
+        Path segment = tempDir.resolve("segment-1.pack");
+        try (OutputStream outputStream = Files.newOutputStream(segment)) {
+            outputStream.write("previous entry".getBytes());
+            outputStream.write(archive);
+            outputStream.write("next entry".getBytes());
+        }
+        given(extensionService.getPolicySnapshot()).willReturn(blockedPolicy("exe"));
+
+        FileValidationService.FileValidationResult result = fileValidationService.validateStoredArchive(
+            "tools.zip", StoredContent.region(segment, "previous entry".length(), archive.length));
+
+        assertThat(result.isBlocked()).isTrue();
+        assertThat(result.getBlockReason()).isEqualTo(BlockReason.BLOCKED_ARCHIVE_ENTRY);
+        assertThat(result.getBlockedExtension()).isEqualTo("exe");
     }
 
     @Test
@@ -199,4 +375,35 @@ class FileValidationServiceTest {
         assertThat(result.getBlockReason()).isEqualTo(BlockReason.BLOCKED_EXTENSION);
         assertThat(result.getBlockedExtension()).isEqualTo("exe");
     }
-}
\ No newline at end of file
+
+    private byte[] zip(String... entryNames) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(output)) {
+            for (String entryName : entryNames) {
+                zip.putNextEntry(new ZipEntry(entryName));
+                zip.write("content".getBytes());
+                zip.closeEntry();
+            }
+        }
+        return output.toByteArray();
+    }
+
+    private byte[] peHeader() {
+        // DOS 헤더의 e_lfanew(0x3C)가 0x40 의 "PE\0\0" 를 가리킴
+        byte[] content = new byte[128];
+        content[0] = 'M';
+        content[1] = 'Z';
+        content[0x3C] = 0x40;
+        content[0x40] = 'P';
+        content[0x41] = 'E';
+        return content;
+    }
+
+    private ExtensionPolicySnapshot blockedPolicy(String... fixedExtensions) {
+        Map<String, Boolean> states = new HashMap<>();
+        for (String extension : fixedExtensions) {
+            states.put(extension, true);
+        }
+        return ExtensionPolicySnapshot.of(states, List.of());
+    }
+}
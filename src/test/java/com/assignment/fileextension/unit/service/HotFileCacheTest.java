@@ -0,0 +1,129 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.StoredContent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HotFileCache 단위 테스트")
+class HotFileCacheTest {
+
+    private static final long TTL_MILLIS = 60_000;
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    @DisplayName("메타데이터는 한 번만 읽고, 무효화하면 다시 읽음")
+    void metadataHitAndInvalidate() {
+        HotFileCache cache = new HotFileCache(64 * 1024, 4 * 1024, TTL_MILLIS);
+        Function<Long, UploadedFile> loader = loader();
+
+        cache.getFile(1L, loader);
+        cache.getFile(1L, loader);
+        cache.invalidate(1L);
+        cache.getFile(1L, loader);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("내용은 두 번째 요청부터 적재하고 이후 메모리에서 반환")
+    void contentLoadedOnSecondRequest() throws IOException {
+        HotFileCache cache = new HotFileCache(64 * 1024, 4 * 1024, TTL_MILLIS);
+        Function<Long, UploadedFile> loader = loader();
+        StoredContent content = storedContent("logo", "hello");
+
+        UploadedFile first = cache.getFile(1L, loader);
+        assertThat(cache.getContent(first, content)).isNull();
+
+        UploadedFile second = cache.getFile(1L, loader);
+        ByteBuffer loaded = cache.getContent(second, content);
+        ByteBuffer cached = cache.getContent(second, content);
+
+        assertThat(StandardCharsets.US_ASCII.decode(loaded).toString()).isEqualTo("hello");
+        assertThat(StandardCharsets.US_ASCII.decode(cached).toString()).isEqualTo("hello");
+        assertThat(cached.isDirect()).isTrue();
+        assertThat(cache.stats().getContentHits()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("바이트 한도를 넘으면 가장 오래 쓰지 않은 항목부터 제거")
+    void evictsLeastRecentlyUsed() {
+        // 메타데이터 한 건이 512 바이트이므로 두 건까지만 유지
+        HotFileCache cache = new HotFileCache(1024, 0, TTL_MILLIS);
+        Function<Long, UploadedFile> loader = loader();
+
+        cache.getFile(1L, loader);
+        cache.getFile(2L, loader);
+        cache.getFile(1L, loader);
+        cache.getFile(3L, loader);
+        cache.getFile(1L, loader);
+        cache.getFile(2L, loader);
+
+        assertThat(cache.stats().getEvictions()).isEqualTo(2);
+        assertThat(cache.stats().getEntries()).isEqualTo(2);
+        assertThat(loads.get()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("다른 노드에서 삭제된 파일은 만료 후 캐시 대신 DB 에서 다시 읽음")
+    void expiredEntryReloadedAfterRemoteChange() throws Exception {
+        HotFileCache cache = new HotFileCache(64 * 1024, 4 * 1024, 50);
+        AtomicReference<UploadedFile.FileStatus> status = new AtomicReference<>(UploadedFile.FileStatus.ACTIVE);
+        Function<Long, UploadedFile> loader = id -> {
+            loads.incrementAndGet();
+            return UploadedFile.builder().id(id).originalFilename("file-" + id + ".txt").fileSize(5L)
+                .status(status.get()).build();
+        };
+        StoredContent content = storedContent("remote", "hello");
+        cache.getFile(1L, loader);
+        UploadedFile cached = cache.getFile(1L, loader);
+        assertThat(cache.getContent(cached, content)).isNotNull();
+
+        // 다른 노드가 삭제를 커밋해도 이 노드의 invalidate 는 호출되지 않음
+        status.set(UploadedFile.FileStatus.DELETED);
+        Thread.sleep(100);
+        UploadedFile reloaded = cache.getFile(1L, loader);
+
+        assertThat(reloaded.getStatus()).isEqualTo(UploadedFile.FileStatus.DELETED);
+        assertThat(cache.getContent(cached, content)).isNull();
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.stats().getEntries()).isZero();
+        assertThat(cache.stats().getWeightBytes()).isZero();
+    }
+
+    private Function<Long, UploadedFile> loader() {
+        return id -> {
+            loads.incrementAndGet();
+            return UploadedFile.builder()
+                .id(id)
+                .originalFilename("file-" + id + ".txt")
+                .fileSize(5L)
+                .build();
+        };
+    }
+
+    private StoredContent storedContent(String name, String content) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.writeString(path, content);
+        return StoredContent.wholeFile(path, content.length());
+    }
+}
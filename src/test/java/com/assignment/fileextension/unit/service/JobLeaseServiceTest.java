@@ -0,0 +1,67 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.JobLease;
+import com.assignment.fileextension.repository.JobLeaseRepository;
+import com.assignment.fileextension.service.JobLeaseService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("JobLeaseService 단위 테스트")
+class JobLeaseServiceTest {
+
+    @Mock
+    private JobLeaseRepository jobLeaseRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private JobLeaseService jobLeaseService;
+
+    @BeforeEach
+    void setUp() {
+        jobLeaseService = new JobLeaseService(jobLeaseRepository, transactionManager);
+        ReflectionTestUtils.setField(jobLeaseService, "nodeId", "node-1");
+    }
+
+    @Test
+    @DisplayName("처음 실행되면 만료된 행을 만든 뒤 DB 시각으로 임대를 잡음")
+    void firstRunCreatesExpiredRowThenAcquires() {
+        given(jobLeaseRepository.acquire("tier", "node-1", 300L)).willReturn(0, 1);
+        given(jobLeaseRepository.existsById("tier")).willReturn(false);
+
+        boolean acquired = jobLeaseService.tryAcquire("tier", Duration.ofMinutes(5));
+
+        assertThat(acquired).isTrue();
+        ArgumentCaptor<JobLease> created = ArgumentCaptor.forClass(JobLease.class);
+        verify(jobLeaseRepository).saveAndFlush(created.capture());
+        // 만료 시각은 이 노드의 시계가 아닌 acquire 의 DB 시각으로 정해짐
+        assertThat(created.getValue().getExpiresAt()).isBefore(LocalDateTime.now().minusYears(1));
+    }
+
+    @Test
+    @DisplayName("다른 노드가 임대 중이면 행을 만들지 않고 건너뜀")
+    void skipsWhileLeasedByAnotherNode() {
+        given(jobLeaseRepository.acquire("tier", "node-1", 300L)).willReturn(0);
+        given(jobLeaseRepository.existsById("tier")).willReturn(true);
+
+        assertThat(jobLeaseService.tryAcquire("tier", Duration.ofMinutes(5))).isFalse();
+        verify(jobLeaseRepository, never()).saveAndFlush(any());
+    }
+}
@@ -0,0 +1,110 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.service.MultipartStreamParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("MultipartStreamParser 단위 테스트")
+class MultipartStreamParserTest {
+
+    private static final String BOUNDARY = "----WebKitFormBoundary7MA4YWxkTrZu0gW";
+
+    @Test
+    @DisplayName("파트 헤더와 본문을 순서대로 파싱 - 입력이 잘게 나뉘어 와도 동일")
+    void parseParts() throws IOException {
+        byte[] content = new byte[200_000];
+        new Random(7).nextBytes(content);
+        // 버퍼 경계 근처에 경계 문자열의 앞부분을 심어 둠
+        byte[] partialBoundary = ("\r\n--" + BOUNDARY.substring(0, 12)).getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(partialBoundary, 0, content, 65_530, partialBoundary.length);
+        byte[] body = multipartBody(content);
+
+        for (int chunkSize : new int[]{1, 13, 8192, body.length}) {
+            MultipartStreamParser parser = new MultipartStreamParser(chunked(body, chunkSize), BOUNDARY);
+
+            MultipartStreamParser.Part note = parser.nextPart();
+            assertThat(note.name()).isEqualTo("note");
+            assertThat(note.fileName()).isNull();
+            assertThat(new String(note.body().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("메모");
+
+            MultipartStreamParser.Part file = parser.nextPart();
+            assertThat(file.name()).isEqualTo("file");
+            assertThat(file.fileName()).isEqualTo("보고서.exe.txt");
+            assertThat(file.contentType()).isEqualTo("text/plain");
+            assertThat(file.body().readAllBytes()).isEqualTo(content);
+
+            assertThat(parser.nextPart()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("읽지 않은 파트 본문은 다음 파트로 넘어갈 때 건너뜀")
+    void skipUnreadBody() throws IOException {
+        MultipartStreamParser parser = new MultipartStreamParser(
+            new ByteArrayInputStream(multipartBody(new byte[100_000])), BOUNDARY);
+
+        assertThat(parser.nextPart().name()).isEqualTo("note");
+        assertThat(parser.nextPart().name()).isEqualTo("file");
+        assertThat(parser.nextPart()).isNull();
+    }
+
+    @Test
+    @DisplayName("파일명 경로 제거, RFC 5987 파일명, boundary 추출")
+    void fileNameAndBoundary() throws IOException {
+        String body = "--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"C:\\\\Users\\\\a;b.pdf\"\r\n\r\n"
+            + "x\r\n--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"fallback.txt\"; filename*=UTF-8''%ED%95%9C%EA%B8%80.exe\r\n\r\n"
+            + "y\r\n--" + BOUNDARY + "--\r\n";
+        MultipartStreamParser parser = new MultipartStreamParser(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+
+        assertThat(parser.nextPart().fileName()).isEqualTo("a;b.pdf");
+        assertThat(parser.nextPart().fileName()).isEqualTo("한글.exe");
+        assertThat(MultipartStreamParser.boundaryOf("multipart/form-data; boundary=\"abc\"")).isEqualTo("abc");
+        assertThat(MultipartStreamParser.boundaryOf("application/json")).isNull();
+    }
+
+    @Test
+    @DisplayName("마지막 경계 없이 끝난 본문은 예외")
+    void truncatedBody() throws IOException {
+        String body = "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"file\"; filename=\"a.txt\"\r\n\r\nabc";
+        MultipartStreamParser parser = new MultipartStreamParser(
+            new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), BOUNDARY);
+        MultipartStreamParser.Part part = parser.nextPart();
+
+        assertThatThrownBy(() -> part.body().readAllBytes()).isInstanceOf(IOException.class);
+    }
+
+    private byte[] multipartBody(byte[] content) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        body.write(("preamble\r\n--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"note\"\r\n\r\n"
+            + "메모\r\n--" + BOUNDARY + "\r\n"
+            + "Content-Disposition: form-data; name=\"file\"; filename=\"보고서.exe.txt\"\r\n"
+            + "Content-Type: text/plain\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(content);
+        body.write(("\r\n--" + BOUNDARY + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+        return body.toByteArray();
+    }
+
+    private InputStream chunked(byte[] body, int chunkSize) {
+        return new FilterInputStream(new ByteArrayInputStream(body)) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, chunkSize));
+            }
+        };
+    }
+}
@@ -0,0 +1,128 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.PackSegment;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.PackSegmentRepository;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.PackSegmentStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PackSegmentStore 단위 테스트")
+class PackSegmentStoreTest {
+
+    @Mock
+    private PackSegmentRepository packSegmentRepository;
+
+    @Mock
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private PackSegmentStore store;
+    private final AtomicLong segmentIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        store = new PackSegmentStore(packSegmentRepository, uploadedFileRepository, hotFileCache,
+            transactionManager, tempDir.toString(), "node-1", 10);
+        ReflectionTestUtils.setField(store, "compactionBatchSize", 500);
+        given(packSegmentRepository.save(any(PackSegment.class))).willAnswer(invocation -> {
+            PackSegment segment = invocation.getArgument(0);
+            return PackSegment.builder()
+                .id(segmentIds.incrementAndGet())
+                .filePath(segment.getFilePath())
+                .nodeId(segment.getNodeId())
+                .createdAt(segment.getCreatedAt())
+                .build();
+        });
+    }
+
+    @Test
+    @DisplayName("현재 세그먼트 끝에 이어 붙이고, 가득 차면 봉인한 뒤 새 세그먼트를 엶")
+    void appendsAndRollsOver() throws IOException {
+        PackSegmentStore.PackLocation first = store.append(bytes("hello"));
+        PackSegmentStore.PackLocation second = store.append(bytes("world"));
+
+        PackSegment sealed = PackSegment.open(first.path().toString(), "node-1");
+        given(packSegmentRepository.findById(1L)).willReturn(Optional.of(sealed));
+        PackSegmentStore.PackLocation third = store.append(bytes("!!"));
+
+        assertThat(second.segmentId()).isEqualTo(first.segmentId());
+        assertThat(second.offset()).isEqualTo(5);
+        assertThat(Files.readString(first.path())).isEqualTo("helloworld");
+        assertThat(sealed.getStatus()).isEqualTo(PackSegment.SegmentStatus.SEALED);
+        assertThat(sealed.getSize()).isEqualTo(10);
+        assertThat(third.segmentId()).isEqualTo(2L);
+        assertThat(third.offset()).isZero();
+        assertThat(first.path().getParent()).isEqualTo(tempDir.resolve("packs"));
+    }
+
+    @Test
+    @DisplayName("압축 - 살아 있는 항목만 새 세그먼트로 옮기고 옛 세그먼트를 퇴역")
+    void compactsLiveEntries() throws IOException {
+        Path oldPath = Files.createDirectories(tempDir.resolve("packs")).resolve("segment-old.pack");
+        Files.writeString(oldPath, "deadLIVE");
+        PackSegment old = PackSegment.builder()
+            .id(100L).filePath(oldPath.toString()).nodeId("node-2").size(8L)
+            .status(PackSegment.SegmentStatus.SEALED).createdAt(LocalDateTime.now())
+            .build();
+        UploadedFile live = UploadedFile.builder()
+            .id(7L).storedFilename("a.txt").filePath(oldPath.toString())
+            .packSegmentId(100L).packOffset(4L).storedSize(4L).fileSize(4L)
+            .build();
+        given(uploadedFileRepository.findPackedFilesAfter(eq(100L), eq(0L), any())).willReturn(List.of(live));
+        given(uploadedFileRepository.relocatePacked(eq(7L), eq(100L), eq(4L), eq(1L), anyString(), anyLong()))
+            .willReturn(1);
+        given(uploadedFileRepository.countByPackSegmentIdAndStatusNot(100L, UploadedFile.FileStatus.DELETED))
+            .willReturn(0L);
+        given(packSegmentRepository.findById(100L)).willReturn(Optional.of(old));
+
+        int moved = store.compact(old);
+
+        assertThat(moved).isEqualTo(1);
+        assertThat(old.getStatus()).isEqualTo(PackSegment.SegmentStatus.RETIRED);
+        try (var segments = Files.list(tempDir.resolve("packs"))) {
+            Path current = segments.filter(path -> !path.equals(oldPath)).findFirst().orElseThrow();
+            assertThat(Files.readString(current)).isEqualTo("LIVE");
+        }
+        verify(hotFileCache).invalidate(7L);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}
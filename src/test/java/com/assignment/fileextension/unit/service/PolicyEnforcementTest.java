@@ -0,0 +1,91 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.service.ExtensionPolicyCache;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import com.assignment.fileextension.service.PolicyEnforcement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PolicyEnforcement 단위 테스트")
+class PolicyEnforcementTest {
+
+    @Mock
+    private ExtensionPolicyCache extensionPolicyCache;
+
+    private PolicyEnforcement policyEnforcement;
+
+    @BeforeEach
+    void setUp() {
+        policyEnforcement = new PolicyEnforcement(extensionPolicyCache, "lazy", true);
+    }
+
+    @Test
+    @DisplayName("차단된 확장자의 파일은 목록에서 빠지고, 삭제 예외 파일은 남음")
+    void filtersViolations() {
+        given(extensionPolicyCache.current()).willReturn(
+            ExtensionPolicySnapshot.of(3L, null, Map.of("exe", true), List.of("pdf")));
+        UploadedFile report = file(1L, "txt", false);
+        UploadedFile blocked = file(2L, "pdf", false);
+        UploadedFile kept = file(3L, "exe", true);
+
+        List<UploadedFile> visible = policyEnforcement.visibleOnly(List.of(report, blocked, kept));
+
+        assertThat(visible).containsExactly(report, kept);
+    }
+
+    @Test
+    @DisplayName("차단을 해제하면 정리되지 않은 파일은 다시 보임")
+    void visibleAgainAfterUnblock() {
+        UploadedFile script = file(1L, "exe", false);
+        given(extensionPolicyCache.current()).willReturn(
+            ExtensionPolicySnapshot.of(3L, null, Map.of("exe", true), List.of()),
+            ExtensionPolicySnapshot.of(4L, null, Map.of("exe", false), List.of()));
+
+        assertThat(policyEnforcement.isVisible(script)).isFalse();
+        assertThat(policyEnforcement.isVisible(script)).isTrue();
+    }
+
+    @Test
+    @DisplayName("격리된 파일은 정책과 관계없이 보이지 않음")
+    void quarantinedFileHidden() {
+        UploadedFile quarantined = UploadedFile.builder()
+            .id(1L)
+            .originalFilename("report.txt")
+            .extension("txt")
+            .status(UploadedFile.FileStatus.QUARANTINED)
+            .build();
+
+        assertThat(policyEnforcement.isVisible(quarantined)).isFalse();
+    }
+
+    @Test
+    @DisplayName("알 수 없는 적용 방식은 기동 시 거부")
+    void rejectsUnknownMode() {
+        assertThat(policyEnforcement.isLazy()).isTrue();
+        assertThat(new PolicyEnforcement(extensionPolicyCache, "EAGER", true).isLazy()).isFalse();
+        assertThatThrownBy(() -> new PolicyEnforcement(extensionPolicyCache, "never", true))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static UploadedFile file(Long id, String extension, boolean protectedFromDeletion) {
+        return UploadedFile.builder()
+            .id(id)
+            .originalFilename("file." + extension)
+            .extension(extension)
+            .deletionException(protectedFromDeletion)
+            .build();
+    }
+}
@@ -0,0 +1,178 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.BackgroundJob;
+import com.assignment.fileextension.repository.BackgroundJobRepository;
+import com.assignment.fileextension.service.ExtensionPolicySnapshot;
+import com.assignment.fileextension.service.PolicyEnforcement;
+import com.assignment.fileextension.service.PurgeBatch;
+import com.assignment.fileextension.service.PurgeJobService;
+import com.assignment.fileextension.service.RestoreBatch;
+import com.assignment.fileextension.service.StorageService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PurgeJobService 단위 테스트")
+class PurgeJobServiceTest {
+
+    private static final List<String> EXTENSIONS = List.of("pdf");
+
+    @Mock
+    private BackgroundJobRepository backgroundJobRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private PolicyEnforcement policyEnforcement;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private PurgeJobService purgeJobService;
+    private BackgroundJob job;
+
+    @BeforeEach
+    void setUp() {
+        purgeJobService = new PurgeJobService(backgroundJobRepository, storageService, policyEnforcement,
+            new SyncTaskExecutor(), new SyncTaskExecutor(), transactionManager);
+        ReflectionTestUtils.setField(purgeJobService, "nodeId", "node-1");
+        ReflectionTestUtils.setField(purgeJobService, "batchSize", 2);
+        ReflectionTestUtils.setField(purgeJobService, "reaperBatchSize", 2);
+
+        job = BackgroundJob.builder()
+            .id(5L)
+            .type(BackgroundJob.JobType.EXTENSION_PURGE)
+            .target("pdf")
+            .nodeId("node-1")
+            .build();
+        // 지연 적용 테스트는 작업을 읽지 않으므로 lenient
+        lenient().when(backgroundJobRepository.findById(5L)).thenReturn(Optional.of(job));
+    }
+
+    @Test
+    @DisplayName("keyset 배치를 끝까지 처리하며 물리 파일을 지우고 진행 상황을 기록")
+    void runsBatchesToCompletion() throws IOException {
+        Path first = Files.writeString(tempDir.resolve("a.pdf"), "a");
+        Path second = Files.writeString(tempDir.resolve("b.pdf"), "b");
+        given(storageService.countActiveFilesByExtensions(EXTENSIONS)).willReturn(3L);
+        given(storageService.purgeBatch(EXTENSIONS, 0L, 2)).willReturn(new PurgeBatch(2, 1, 0, 1, List.of(first), 20L));
+        given(storageService.purgeBatch(EXTENSIONS, 20L, 2)).willReturn(new PurgeBatch(1, 1, 0, 0, List.of(second), 31L));
+
+        purgeJobService.run(5L);
+
+        assertThat(job.getStatus()).isEqualTo(BackgroundJob.JobStatus.COMPLETED);
+        assertThat(job.getTotalCount()).isEqualTo(3L);
+        assertThat(job.getScannedCount()).isEqualTo(3L);
+        assertThat(job.getDeletedCount()).isEqualTo(2L);
+        assertThat(job.getProtectedCount()).isEqualTo(1L);
+        assertThat(job.getLastProcessedId()).isEqualTo(31L);
+        assertThat(first).doesNotExist();
+        assertThat(second).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("재개된 작업은 기록된 커서 다음부터 이어서 처리")
+    void resumesFromCursor() {
+        job.start(10L);
+        job.recordBatch(40L, 4, 4, 0, 0, 0);
+        given(storageService.purgeBatch(EXTENSIONS, 40L, 2)).willReturn(PurgeBatch.empty(40L));
+
+        purgeJobService.run(5L);
+
+        assertThat(job.getStatus()).isEqualTo(BackgroundJob.JobStatus.COMPLETED);
+        assertThat(job.getScannedCount()).isEqualTo(4L);
+        verify(storageService, never()).countActiveFilesByExtensions(any());
+    }
+
+    @Test
+    @DisplayName("지연 적용 모드에서는 정리 작업을 만들지 않음")
+    void lazyModeSkipsPurgeJob() {
+        given(policyEnforcement.isLazy()).willReturn(true);
+
+        Long jobId = purgeJobService.schedulePurge(EXTENSIONS);
+
+        assertThat(jobId).isNull();
+        verifyNoInteractions(backgroundJobRepository, storageService);
+    }
+
+    @Test
+    @DisplayName("지연 적용 정리는 현재 정책 버전으로 배치를 처리하고, 버전이 바뀌면 처음부터 다시 훑음")
+    void reaperFollowsPolicyVersion() throws IOException {
+        Path violation = Files.writeString(tempDir.resolve("c.pdf"), "c");
+        ExtensionPolicySnapshot v3 = ExtensionPolicySnapshot.of(3L, null, Map.of(), List.of("pdf"));
+        ExtensionPolicySnapshot v4 = ExtensionPolicySnapshot.of(4L, null, Map.of(), List.of());
+        given(policyEnforcement.isLazy()).willReturn(true);
+        given(policyEnforcement.currentPolicy()).willReturn(v3, v3, v4);
+        given(storageService.reapBatch(v3, 0L, 2)).willReturn(new PurgeBatch(2, 1, 0, 0, List.of(violation), 8L));
+        given(storageService.reapBatch(v3, 8L, 2)).willReturn(new PurgeBatch(2, 0, 0, 0, List.of(), 12L));
+        given(storageService.reapBatch(v4, 0L, 2)).willReturn(PurgeBatch.empty(0L));
+
+        purgeJobService.reapNextBatch();
+        purgeJobService.reapNextBatch();
+        purgeJobService.reapNextBatch();
+
+        assertThat(violation).doesNotExist();
+        verify(storageService).reapBatch(v4, 0L, 2);
+    }
+
+    @Test
+    @DisplayName("복구 작업은 격리 파일을 배치씩 되돌리고 복구 수를 기록")
+    void restoreJobRestoresQuarantinedFiles() {
+        BackgroundJob restoreJob = BackgroundJob.builder()
+            .id(6L)
+            .type(BackgroundJob.JobType.EXTENSION_RESTORE)
+            .target("pdf")
+            .nodeId("node-1")
+            .build();
+        given(backgroundJobRepository.findById(6L)).willReturn(Optional.of(restoreJob));
+        given(storageService.countQuarantinedFilesByExtensions(EXTENSIONS)).willReturn(3L);
+        given(storageService.restoreBatch(EXTENSIONS, 0L, 2)).willReturn(new RestoreBatch(2, 2, 0, 9L));
+        given(storageService.restoreBatch(EXTENSIONS, 9L, 2)).willReturn(new RestoreBatch(1, 0, 1, 15L));
+
+        purgeJobService.run(6L);
+
+        assertThat(restoreJob.getStatus()).isEqualTo(BackgroundJob.JobStatus.COMPLETED);
+        assertThat(restoreJob.getRestoredCount()).isEqualTo(2L);
+        assertThat(restoreJob.getRestoreFailedCount()).isEqualTo(1L);
+        assertThat(restoreJob.getLastProcessedId()).isEqualTo(15L);
+        verify(storageService, never()).purgeBatch(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("격리를 쓰지 않으면 복구 작업을 만들지 않음")
+    void restoreSkippedWithoutQuarantine() {
+        given(policyEnforcement.isQuarantine()).willReturn(false);
+
+        assertThat(purgeJobService.scheduleRestore(EXTENSIONS)).isNull();
+        verifyNoInteractions(backgroundJobRepository);
+    }
+}
@@ -0,0 +1,113 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.StorageLayout;
+import com.assignment.fileextension.service.StorageLayoutMigrator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorageLayoutMigrator 단위 테스트")
+class StorageLayoutMigratorTest {
+
+    private static final String STORED_FILENAME = "3f2b8c1e-0000-4000-8000-00000000c0de.txt";
+
+    @Mock
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private StorageLayoutMigrator migrator;
+    private Path oldPath;
+    private Path newPath;
+    private UploadedFile file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        migrator = new StorageLayoutMigrator(uploadedFileRepository,
+            new StorageLayout(tempDir.toString(), "sharded"), hotFileCache, transactionManager);
+
+        oldPath = tempDir.resolve("2024/01/01").resolve(STORED_FILENAME);
+        Files.createDirectories(oldPath.getParent());
+        Files.writeString(oldPath, "content");
+        newPath = tempDir.resolve("c0").resolve("de").resolve(STORED_FILENAME);
+
+        file = UploadedFile.builder()
+            .id(7L)
+            .storedFilename(STORED_FILENAME)
+            .filePath(oldPath.toString())
+            .build();
+        given(uploadedFileRepository.findLayoutMigrationCandidates(eq(0L), any())).willReturn(List.of(file));
+    }
+
+    @Test
+    @DisplayName("새 위치에 만든 뒤 경로를 갱신하고 옛 파일을 지움")
+    void relocatesFile() throws IOException {
+        given(uploadedFileRepository.relocate(7L, oldPath.toString(), newPath.toString())).willReturn(1);
+
+        StorageLayoutMigrator.MigrationBatch batch = migrator.migrateBatch(0L, 100);
+
+        assertThat(batch.moved()).isEqualTo(1);
+        assertThat(batch.lastId()).isEqualTo(7L);
+        assertThat(Files.readString(newPath)).isEqualTo("content");
+        assertThat(oldPath).doesNotExist();
+        verify(hotFileCache).invalidate(7L);
+    }
+
+    @Test
+    @DisplayName("그 사이 행이 바뀌었으면 새 파일을 지우고 옛 파일은 그대로 둠")
+    void skipsConcurrentlyChangedRow() {
+        given(uploadedFileRepository.relocate(7L, oldPath.toString(), newPath.toString())).willReturn(0);
+
+        StorageLayoutMigrator.MigrationBatch batch = migrator.migrateBatch(0L, 100);
+
+        assertThat(batch.moved()).isZero();
+        assertThat(oldPath).exists();
+        assertThat(newPath).doesNotExist();
+        verify(hotFileCache, never()).invalidate(any(Long.class));
+    }
+
+    @Test
+    @DisplayName("다른 노드가 먼저 옮겼으면 그 노드가 만든 새 파일은 건드리지 않음")
+    void keepsFileRelocatedByAnotherNode() throws IOException {
+        Files.createDirectories(newPath.getParent());
+        Files.writeString(newPath, "moved by node-2");
+        given(uploadedFileRepository.relocate(7L, oldPath.toString(), newPath.toString())).willReturn(0);
+
+        StorageLayoutMigrator.MigrationBatch batch = migrator.migrateBatch(0L, 100);
+
+        assertThat(batch.moved()).isZero();
+        assertThat(Files.readString(newPath)).isEqualTo("moved by node-2");
+        try (Stream<Path> files = Files.list(newPath.getParent())) {
+            assertThat(files).containsExactly(newPath);
+        }
+    }
+}
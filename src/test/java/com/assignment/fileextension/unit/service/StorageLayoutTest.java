@@ -0,0 +1,74 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.service.StorageLayout;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StorageLayout 단위 테스트")
+class StorageLayoutTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("저장 파일명은 시간순 UUID(v7) 이고 확장자를 유지")
+    void timeOrderedStoredFilename() throws InterruptedException {
+        StorageLayout layout = new StorageLayout(tempDir.toString(), "sharded");
+
+        String first = layout.newStoredFilename("pdf");
+        Thread.sleep(2);
+        String second = layout.newStoredFilename("");
+
+        UUID uuid = UUID.fromString(first.substring(0, first.indexOf('.')));
+        assertThat(first).endsWith(".pdf");
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+        assertThat(second.compareTo(first)).isPositive();
+    }
+
+    @Test
+    @DisplayName("sharded 배치는 UUID 끝 4자리로 두 단계 디렉터리를 만들고 디렉터리를 생성")
+    void shardedLayout() throws IOException {
+        StorageLayout layout = new StorageLayout(tempDir.toString(), "sharded");
+
+        Path path = layout.newFilePath("0190a5c2-7d3e-7abc-9def-0123456789ab.txt");
+
+        assertThat(path).isEqualTo(tempDir.resolve("89").resolve("ab").resolve("0190a5c2-7d3e-7abc-9def-0123456789ab.txt"));
+        assertThat(Files.isDirectory(path.getParent())).isTrue();
+    }
+
+    @Test
+    @DisplayName("dated 배치는 기존처럼 날짜별 디렉터리, 알 수 없는 배치는 거부")
+    void datedLayout() {
+        StorageLayout layout = new StorageLayout(tempDir.toString(), "DATED");
+
+        Path directory = layout.directoryFor("a.txt");
+
+        assertThat(tempDir.relativize(directory).toString().replace('\\', '/'))
+            .isEqualTo(LocalDate.now().toString().replace('-', '/'));
+        assertThatThrownBy(() -> new StorageLayout(tempDir.toString(), "flat"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("격리 경로는 업로드 디렉터리 안의 .quarantine 아래에서 원래 파일명을 유지")
+    void quarantinePath() {
+        StorageLayout layout = new StorageLayout(tempDir.toString(), "DATED");
+        Path stored = tempDir.resolve("2024/01/01/0190a5c2-7d3e-7abc-9def-0123456789ab.txt.gz");
+
+        Path quarantined = layout.quarantinePathFor("0190a5c2-7d3e-7abc-9def-0123456789ab.txt", stored);
+
+        assertThat(quarantined).isEqualTo(tempDir.resolve(".quarantine").resolve("89").resolve("ab")
+            .resolve("0190a5c2-7d3e-7abc-9def-0123456789ab.txt.gz"));
+    }
+}
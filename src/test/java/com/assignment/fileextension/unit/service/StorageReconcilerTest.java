@@ -0,0 +1,151 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.dto.StorageReconciliationDto;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.StorageLayout;
+import com.assignment.fileextension.service.StorageReconciler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorageReconciler 단위 테스트")
+class StorageReconcilerTest {
+
+    private static final String PRESENT = "0190a5c2-7d3e-7abc-9def-000000000a01.txt";
+    private static final String MISSING = "0190a5c2-7d3e-7abc-9def-000000000b02.pdf";
+    private static final String ORPHAN = "0190a5c2-7d3e-7abc-9def-000000000c03.txt";
+
+    @Mock
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @Mock
+    private TaskExecutor taskExecutor;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private StorageReconciler reconciler;
+    private Path orphanPath;
+    private Path freshPath;
+    private Path blobPath;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        StorageLayout layout = new StorageLayout(tempDir.toString(), "sharded");
+        reconciler = new StorageReconciler(uploadedFileRepository, layout, hotFileCache, taskExecutor, transactionManager);
+        ReflectionTestUtils.setField(reconciler, "uploadBaseDir", tempDir.toString());
+        ReflectionTestUtils.setField(reconciler, "coldDirectory", tempDir.resolve("cold").toString());
+        ReflectionTestUtils.setField(reconciler, "graceMinutes", 60L);
+        ReflectionTestUtils.setField(reconciler, "pageSize", 100);
+        ReflectionTestUtils.setField(reconciler, "runSize", 2);
+        ReflectionTestUtils.setField(reconciler, "parallelism", 2);
+
+        FileTime old = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+        Path presentPath = write(layout.newFilePath(PRESENT), old);
+        orphanPath = write(layout.newFilePath(ORPHAN), old);
+        // 유예 시간 안의 파일은 진행 중인 업로드일 수 있으므로 고아로 보지 않음
+        freshPath = write(layout.newFilePath("0190a5c2-7d3e-7abc-9def-000000000d04.txt"),
+            FileTime.from(Instant.now()));
+        // 공유 blob 은 점검 대상이 아님
+        blobPath = write(tempDir.resolve("blobs").resolve("ab").resolve("abcdef"), old);
+
+        LocalDateTime created = LocalDateTime.now().minusHours(2);
+        UploadedFile present = UploadedFile.builder()
+            .id(1L).storedFilename(PRESENT).filePath(presentPath.toString()).createdAt(created).build();
+        UploadedFile missing = UploadedFile.builder()
+            .id(2L).storedFilename(MISSING).filePath(tempDir.resolve(MISSING).toString()).createdAt(created).build();
+        given(uploadedFileRepository.findStoredFilesAfter(eq(""), any())).willReturn(List.of(present, missing));
+    }
+
+    @Test
+    @DisplayName("보고만 - 유예 시간이 지난 고아 파일과 파일 없는 행을 세고 아무것도 바꾸지 않음")
+    void reportOnly() {
+        StorageReconciliationDto report = reconciler.reconcile(false);
+
+        assertThat(report.getStatus()).isEqualTo(StorageReconciliationDto.Status.COMPLETED);
+        assertThat(report.getScannedFiles()).isEqualTo(3);
+        assertThat(report.getScannedRows()).isEqualTo(2);
+        assertThat(report.getOrphanFiles()).isEqualTo(1);
+        assertThat(report.getMissingFiles()).isEqualTo(1);
+        assertThat(report.getMissingSamples()).containsExactly(2L);
+        assertThat(orphanPath).exists();
+        verify(uploadedFileRepository, never()).updateStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("정리 - 고아 파일은 지우고 파일 없는 행은 삭제 상태로 표시")
+    void fix() {
+        given(uploadedFileRepository.updateStatus(List.of(2L), UploadedFile.FileStatus.DELETED)).willReturn(1);
+
+        StorageReconciliationDto report = reconciler.reconcile(true);
+
+        assertThat(report.getDeletedOrphanFiles()).isEqualTo(1);
+        assertThat(report.getMarkedMissingRows()).isEqualTo(1);
+        assertThat(orphanPath).doesNotExist();
+        assertThat(freshPath).exists();
+        assertThat(blobPath).exists();
+        verify(hotFileCache).invalidate(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("콜드 티어 - 콜드 디렉터리는 콜드 행과 따로 대조하고 업로드 디렉터리 점검에서는 건너뜀")
+    void reconcilesColdRoot() throws IOException {
+        FileTime old = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+        String coldName = "0190a5c2-7d3e-7abc-9def-000000000e05.txt";
+        Path coldPath = write(tempDir.resolve("cold").resolve("0e").resolve("05").resolve(coldName + ".gz"), old);
+        Path coldOrphan = write(tempDir.resolve("cold").resolve("0f").resolve("06")
+            .resolve("0190a5c2-7d3e-7abc-9def-000000000f06.txt"), old);
+        UploadedFile cold = UploadedFile.builder()
+            .id(5L).storedFilename(coldName).filePath(coldPath.toString())
+            .storageTier(UploadedFile.StorageTier.COLD).createdAt(LocalDateTime.now().minusHours(2)).build();
+        given(uploadedFileRepository.findColdFilesAfter(eq(""), any())).willReturn(List.of(cold));
+
+        StorageReconciliationDto report = reconciler.reconcile(false);
+
+        assertThat(report.getScannedFiles()).isEqualTo(5);
+        assertThat(report.getScannedRows()).isEqualTo(3);
+        assertThat(report.getOrphanFiles()).isEqualTo(2);
+        assertThat(report.getOrphanSamples()).contains(coldOrphan.toString());
+        assertThat(report.getMissingFiles()).isEqualTo(1);
+        assertThat(report.getMisplacedFiles()).isZero();
+    }
+
+    private static Path write(Path path, FileTime modified) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, "content");
+        Files.setLastModifiedTime(path, modified);
+        return path;
+    }
+}
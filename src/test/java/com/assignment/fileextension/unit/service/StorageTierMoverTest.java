@@ -0,0 +1,184 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadedFileRepository;
+import com.assignment.fileextension.service.AtRestCompressionPolicy;
+import com.assignment.fileextension.service.HotFileCache;
+import com.assignment.fileextension.service.JobLeaseService;
+import com.assignment.fileextension.service.StorageLayout;
+import com.assignment.fileextension.service.StorageTierMover;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("StorageTierMover 단위 테스트")
+class StorageTierMoverTest {
+
+    private static final String STORED_FILENAME = "0190a5c2-7d3e-7abc-9def-00000000c0de.txt";
+    private static final String CONTENT = "tiered storage keeps cold files compressed. ".repeat(200);
+
+    @Mock
+    private UploadedFileRepository uploadedFileRepository;
+
+    @Mock
+    private HotFileCache hotFileCache;
+
+    @Mock
+    private JobLeaseService jobLeaseService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    private StorageLayout layout;
+    private StorageTierMover mover;
+
+    @BeforeEach
+    void setUp() {
+        layout = new StorageLayout(tempDir.resolve("hot").toString(), "sharded");
+        mover = new StorageTierMover(uploadedFileRepository, layout, new AtRestCompressionPolicy(),
+            hotFileCache, jobLeaseService, transactionManager, tempDir.resolve("cold").toString());
+        ReflectionTestUtils.setField(mover, "compressCold", true);
+        ReflectionTestUtils.setField(mover, "promoteReads", 2);
+        ReflectionTestUtils.setField(mover, "promoteHalfLifeMillis", 3_600_000L);
+        ReflectionTestUtils.setField(mover, "batchSize", 100);
+    }
+
+    @Test
+    @DisplayName("내리기 - 콜드 티어에 gzip 으로 쓰고 경로를 바꾼 뒤 핫 파일을 지움")
+    void demotesToColdTier() throws IOException {
+        Path hotPath = layout.newFilePath(STORED_FILENAME);
+        Files.writeString(hotPath, CONTENT);
+        UploadedFile file = file(hotPath, UploadedFile.StorageTier.HOT);
+        given(uploadedFileRepository.findDemotionCandidatesAfter(eq(0L), any(), any(), any())).willReturn(List.of(file));
+        Path coldPath = tempDir.resolve("cold").resolve("c0").resolve("de").resolve(STORED_FILENAME + ".gz");
+        given(uploadedFileRepository.moveToTier(eq(7L), eq(hotPath.toString()), eq(coldPath.toString()),
+            eq(UploadedFile.StorageTier.COLD), eq(UploadedFile.StorageEncoding.GZIP), anyLong())).willReturn(1);
+
+        StorageTierMover.TierBatch batch = mover.demoteBatch(0L, 100);
+
+        assertThat(batch.moved()).isEqualTo(1);
+        assertThat(hotPath).doesNotExist();
+        assertThat(Files.size(coldPath)).isLessThan(CONTENT.length());
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(coldPath))) {
+            assertThat(new String(inputStream.readAllBytes())).isEqualTo(CONTENT);
+        }
+        verify(hotFileCache).invalidate(7L);
+    }
+
+    @Test
+    @DisplayName("올리기 - 자주 읽힌 콜드 파일을 핫 티어에 풀어서 되돌림")
+    void promotesFrequentlyReadFile() throws IOException {
+        Path coldPath = Files.createDirectories(tempDir.resolve("cold")).resolve(STORED_FILENAME + ".gz");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(coldPath))) {
+            outputStream.write(CONTENT.getBytes());
+        }
+        UploadedFile file = file(coldPath, UploadedFile.StorageTier.COLD);
+        given(uploadedFileRepository.findById(7L)).willReturn(Optional.of(file));
+        Path hotPath = tempDir.resolve("hot").resolve("c0").resolve("de").resolve(STORED_FILENAME);
+        given(uploadedFileRepository.moveToTier(eq(7L), eq(coldPath.toString()), eq(hotPath.toString()),
+            eq(UploadedFile.StorageTier.HOT), eq(UploadedFile.StorageEncoding.IDENTITY), eq((long) CONTENT.length())))
+            .willReturn(1);
+        given(jobLeaseService.tryAcquire(anyString(), any())).willReturn(false);
+
+        mover.recordAccess(file);
+        mover.recordAccess(file);
+        mover.moveTiers();
+
+        assertThat(Files.readString(hotPath)).isEqualTo(CONTENT);
+        assertThat(coldPath).doesNotExist();
+        // 내릴 후보는 임대한 노드만 훑음
+        verify(uploadedFileRepository, never()).findDemotionCandidatesAfter(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("올리기 - 기록 주기 경계에 걸친 읽기도 함께 셈")
+    void promotesReadsSpanningAccessFlush() throws IOException {
+        Path coldPath = Files.createDirectories(tempDir.resolve("cold")).resolve(STORED_FILENAME + ".gz");
+        try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(coldPath))) {
+            outputStream.write(CONTENT.getBytes());
+        }
+        UploadedFile file = file(coldPath, UploadedFile.StorageTier.COLD);
+        given(uploadedFileRepository.findById(7L)).willReturn(Optional.of(file));
+        given(uploadedFileRepository.moveToTier(eq(7L), eq(coldPath.toString()), anyString(),
+            eq(UploadedFile.StorageTier.HOT), eq(UploadedFile.StorageEncoding.IDENTITY), anyLong())).willReturn(1);
+        given(jobLeaseService.tryAcquire(anyString(), any())).willReturn(false);
+
+        mover.recordAccess(file);
+        mover.flushAccessLog();
+        mover.recordAccess(file);
+        mover.flushAccessLog();
+        mover.moveTiers();
+
+        assertThat(coldPath).doesNotExist();
+        // 주기마다 그 사이의 읽기만 반영
+        verify(uploadedFileRepository, times(2)).recordAccess(eq(List.of(7L)), eq(1L), any());
+    }
+
+    @Test
+    @DisplayName("다른 노드가 먼저 옮겼으면 그 노드가 쓴 콜드 파일을 지우지 않음")
+    void keepsFileMovedByAnotherNode() throws IOException {
+        Path hotPath = layout.newFilePath(STORED_FILENAME);
+        Files.writeString(hotPath, CONTENT);
+        UploadedFile file = file(hotPath, UploadedFile.StorageTier.HOT);
+        given(uploadedFileRepository.findDemotionCandidatesAfter(eq(0L), any(), any(), any())).willReturn(List.of(file));
+        Path coldPath = Files.createDirectories(tempDir.resolve("cold").resolve("c0").resolve("de"))
+            .resolve(STORED_FILENAME + ".gz");
+        Files.writeString(coldPath, "committed by node-2");
+        given(uploadedFileRepository.moveToTier(eq(7L), eq(hotPath.toString()), eq(coldPath.toString()),
+            any(), any(), anyLong())).willReturn(0);
+
+        StorageTierMover.TierBatch batch = mover.demoteBatch(0L, 100);
+
+        assertThat(batch.moved()).isZero();
+        assertThat(Files.readString(coldPath)).isEqualTo("committed by node-2");
+        assertThat(hotPath).exists();
+        try (Stream<Path> files = Files.list(coldPath.getParent())) {
+            assertThat(files).containsExactly(coldPath);
+        }
+    }
+
+    private UploadedFile file(Path path, UploadedFile.StorageTier tier) {
+        return UploadedFile.builder()
+            .id(7L)
+            .storedFilename(STORED_FILENAME)
+            .filePath(path.toString())
+            .extension("txt")
+            .contentType("text/plain")
+            .fileSize((long) CONTENT.length())
+            .storageTier(tier)
+            .storageEncoding(tier == UploadedFile.StorageTier.COLD
+                ? UploadedFile.StorageEncoding.GZIP : UploadedFile.StorageEncoding.IDENTITY)
+            .build();
+    }
+}
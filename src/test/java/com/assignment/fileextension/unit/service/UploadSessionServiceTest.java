@@ -0,0 +1,182 @@
+package com.assignment.fileextension.unit.service;
+
+import com.assignment.fileextension.common.FileExtensionConstants;
+import com.assignment.fileextension.dto.UploadSessionDto;
+import com.assignment.fileextension.entity.UploadSession;
+import com.assignment.fileextension.entity.UploadSessionChunk;
+import com.assignment.fileextension.entity.UploadedFile;
+import com.assignment.fileextension.repository.UploadSessionChunkRepository;
+import com.assignment.fileextension.repository.UploadSessionRepository;
+import com.assignment.fileextension.service.FileValidationService;
+import com.assignment.fileextension.service.StorageService;
+import com.assignment.fileextension.service.UploadSessionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UploadSessionService 단위 테스트")
+class UploadSessionServiceTest {
+
+    private static final int CHUNK_SIZE = FileExtensionConstants.FileLimit.UPLOAD_CHUNK_SIZE;
+
+    @Mock
+    private UploadSessionRepository uploadSessionRepository;
+
+    @Mock
+    private UploadSessionChunkRepository uploadSessionChunkRepository;
+
+    @Mock
+    private StorageService storageService;
+
+    @Mock
+    private FileValidationService fileValidationService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private UploadSessionService uploadSessionService;
+
+    @TempDir
+    Path uploadDir;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(uploadSessionService, "uploadBaseDir", uploadDir.toString());
+    }
+
+    @Test
+    @DisplayName("순서와 관계없이 도착한 청크를 조립 파일의 제 위치에 기록")
+    void writeChunksOutOfOrder() throws IOException {
+        long fileSize = CHUNK_SIZE + 10L;
+        UploadSession session = createSession(fileSize);
+        byte[] first = new byte[CHUNK_SIZE];
+        Arrays.fill(first, (byte) 'a');
+        byte[] last = "0123456789".getBytes();
+
+        uploadSessionService.writeChunk(session.getId(), 1, new ByteArrayInputStream(last));
+        uploadSessionService.writeChunk(session.getId(), 0, new ByteArrayInputStream(first));
+
+        byte[] assembled = Files.readAllBytes(assembledFile(session));
+        assertThat(assembled).hasSize((int) fileSize);
+        assertThat(Arrays.copyOfRange(assembled, 0, CHUNK_SIZE)).isEqualTo(first);
+        assertThat(Arrays.copyOfRange(assembled, CHUNK_SIZE, (int) fileSize)).isEqualTo(last);
+        verify(uploadSessionChunkRepository, times(2)).saveAndFlush(any(UploadSessionChunk.class));
+    }
+
+    @Test
+    @DisplayName("청크 번호가 범위를 벗어나거나 크기가 다르면 거부")
+    void rejectInvalidChunk() throws IOException {
+        UploadSession session = createSession(10);
+
+        assertThatThrownBy(() -> uploadSessionService.writeChunk(session.getId(), 1, new ByteArrayInputStream(new byte[10])))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> uploadSessionService.writeChunk(session.getId(), 0, new ByteArrayInputStream(new byte[11])))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> uploadSessionService.writeChunk(session.getId(), 0, new ByteArrayInputStream(new byte[9])))
+            .isInstanceOf(IllegalArgumentException.class);
+        verify(uploadSessionChunkRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("모든 청크가 도착하면 검증 후 조립 파일을 그대로 저장소로 이동")
+    void commit() throws IOException {
+        UploadSession session = createSession(10);
+        given(uploadSessionRepository.findByIdForUpdate(session.getId())).willReturn(Optional.of(session));
+        given(uploadSessionChunkRepository.countBySessionId(session.getId())).willReturn(1L);
+        given(fileValidationService.validateContentHead(anyString(), any(), anyInt()))
+            .willReturn(FileValidationService.FileValidationResult.allowed());
+        given(fileValidationService.validateStoredArchive(anyString(), any()))
+            .willReturn(FileValidationService.FileValidationResult.allowed());
+        UploadedFile uploadedFile = UploadedFile.builder().id(7L).originalFilename("report.pdf").fileSize(10L).build();
+        given(storageService.storeAssembledFile(eq("report.pdf"), eq("application/pdf"), any())).willReturn(uploadedFile);
+
+        UploadSessionService.CommitResult result = uploadSessionService.commit(session.getId());
+
+        assertThat(result.isBlocked()).isFalse();
+        assertThat(result.uploadedFile().getId()).isEqualTo(7L);
+        assertThat(session.getStatus()).isEqualTo(UploadSession.SessionStatus.COMPLETED);
+        verify(storageService).storeAssembledFile(eq("report.pdf"), eq("application/pdf"), eq(assembledFile(session)));
+    }
+
+    @Test
+    @DisplayName("빠진 청크가 있으면 커밋 거부")
+    void commitIncomplete() throws IOException {
+        UploadSession session = createSession(CHUNK_SIZE * 2L);
+        given(uploadSessionRepository.findByIdForUpdate(session.getId())).willReturn(Optional.of(session));
+        given(uploadSessionChunkRepository.countBySessionId(session.getId())).willReturn(1L);
+
+        assertThatThrownBy(() -> uploadSessionService.commit(session.getId()))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(FileExtensionConstants.Messages.UPLOAD_SESSION_INCOMPLETE);
+        verify(storageService, never()).storeAssembledFile(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("커밋이 잠금을 잡고 끝낸 뒤 도착한 청크는 검증된 조립 파일을 건드리지 않고 거부")
+    void rejectChunkAfterCommit() throws IOException {
+        UploadSession session = createSession(10);
+        byte[] benign = "%PDF-1.7\n.".getBytes();
+        uploadSessionService.writeChunk(session.getId(), 0, new ByteArrayInputStream(benign));
+        given(uploadSessionRepository.findByIdForUpdate(session.getId())).willReturn(Optional.of(session));
+        given(uploadSessionChunkRepository.countBySessionId(session.getId())).willReturn(1L);
+        given(fileValidationService.validateContentHead(anyString(), any(), anyInt()))
+            .willReturn(FileValidationService.FileValidationResult.allowed());
+        given(fileValidationService.validateStoredArchive(anyString(), any()))
+            .willReturn(FileValidationService.FileValidationResult.allowed());
+        UploadedFile uploadedFile = UploadedFile.builder().id(7L).originalFilename("report.pdf").fileSize(10L).build();
+        given(storageService.storeAssembledFile(any(), any(), any())).willReturn(uploadedFile);
+        uploadSessionService.commit(session.getId());
+
+        // 커밋 전에 시작된 느린 재시도는 공유 잠금을 기다렸다가, 잠금 아래에서 완료된 세션을 보게 됨
+        assertThatThrownBy(() -> uploadSessionService.writeChunk(session.getId(), 0,
+                new ByteArrayInputStream("MZ\u0090\u0000......".getBytes())))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage(FileExtensionConstants.Messages.UPLOAD_SESSION_NOT_FOUND);
+        assertThat(Files.readAllBytes(assembledFile(session))).isEqualTo(benign);
+        verify(uploadSessionRepository, times(2)).findByIdForShare(session.getId());
+    }
+
+    private UploadSession createSession(long fileSize) throws IOException {
+        UploadSessionDto dto = uploadSessionService.createSession("report.pdf", fileSize, "application/pdf");
+        ArgumentCaptor<UploadSession> captor = ArgumentCaptor.forClass(UploadSession.class);
+        verify(uploadSessionRepository).save(captor.capture());
+        UploadSession session = captor.getValue();
+        assertThat(dto.getChunkCount()).isEqualTo(session.getChunkCount());
+        lenient().when(uploadSessionRepository.findById(session.getId())).thenReturn(Optional.of(session));
+        lenient().when(uploadSessionRepository.findByIdForShare(session.getId())).thenReturn(Optional.of(session));
+        return session;
+    }
+
+    private Path assembledFile(UploadSession session) {
+        return uploadDir.resolve(".sessions").resolve(session.getId() + ".part");
+    }
+}